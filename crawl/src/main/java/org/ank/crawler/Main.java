@@ -1,5 +1,7 @@
 package org.ank.crawler;
 
+import org.ank.crawler.config.MetricsConfig;
+import org.ank.crawler.config.WebCrawlerConfig;
 import org.ank.crawler.controller.CrawlController;
 import org.ank.crawler.factory.WebCrawlerFactory;
 import org.ank.crawler.frontier.SimpleFrontier;
@@ -7,10 +9,15 @@ import org.ank.crawler.processor.LinkExtractorProcessor;
 import org.ank.crawler.processor.Processor;
 import org.ank.crawler.scope.DomainScope;
 import org.ank.crawler.scope.Scope;
+import org.ank.crawler.sink.CrawlResult;
+import org.ank.crawler.sink.NdjsonResultSink;
+import org.ank.crawler.sink.ResultSink;
 import org.ank.crawler.util.Constants;
 
 import java.net.MalformedURLException;
+import java.nio.file.Path;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -29,10 +36,12 @@ public class Main {
 
         final String seedUrl = preprocessSeedUrl(args[0]);
         final int threadCount = parseThreadCount(args);
+        final MetricsConfig metrics = parseMetricsPort(args);
+        final Path output = args.length > 3 ? Path.of(args[3]) : null;
 
         try {
             // Start the crawl
-            executeCrawl(seedUrl, threadCount);
+            executeCrawl(seedUrl, threadCount, metrics, output);
         } catch (Exception e) {
             LOGGER.log(Level.SEVERE, "An error occurred during execution", e);
         }
@@ -68,32 +77,67 @@ public class Main {
         }
     }
 
+    /**
+     * Parses the optional metrics port: when given, live metrics are served on it and registered with JMX.
+     * {@code -} skips it, e.g. to give an output file without metrics.
+     *
+     * @param args The program arguments.
+     * @return The metrics settings.
+     */
+    private static MetricsConfig parseMetricsPort(String[] args) {
+        if (args.length < 3 || args[2].equals("-")) {
+            return MetricsConfig.DISABLED;
+        }
+        try {
+            return MetricsConfig.overJmx().withHttp(Integer.parseInt(args[2]));
+        } catch (IllegalArgumentException e) {
+            LOGGER.warning("Invalid metrics port argument. Metrics are disabled.");
+            return MetricsConfig.DISABLED;
+        }
+    }
+
     /**
      * Executes the crawl with the given seed URL and thread count.
      *
      * @param seedUrl     The seed URL to start crawling.
      * @param threadCount The number of threads to use.
+     * @param metrics     Whether and where live metrics are exported.
+     * @param output      NDJSON file the results are streamed to (gzipped if it ends in .gz), or null for STD OUT.
      * @throws Exception If an error occurs during execution.
      */
-    private static void executeCrawl(String seedUrl, int threadCount) throws Exception {
+    private static void executeCrawl(String seedUrl, int threadCount, MetricsConfig metrics, Path output)
+            throws Exception {
         // Extract and validate the base domain
         final String baseDomain = extractBaseDomain(seedUrl);
 
         // Initialize components
         final Scope scope = new DomainScope(baseDomain);
         final List<Processor> processors = List.of(new LinkExtractorProcessor());
-        final SimpleFrontier frontier = new SimpleFrontier(threadCount);
+        final AtomicLong crawled = new AtomicLong();
+        final ResultSink results = output == null
+                ? printingSink(crawled) : countingSink(NdjsonResultSink.open(output), crawled);
+        final SimpleFrontier frontier = new SimpleFrontier(WebCrawlerConfig.builder(seedUrl)
+                .threadCount(threadCount)
+                .metrics(metrics)
+                .results(results)
+                .build());
+        if (metrics.httpEnabled()) {
+            LOGGER.info("Serving crawl metrics at http://127.0.0.1:" + metrics.httpPort() + "/metrics");
+        }
 
         // Create factory and controller
         final WebCrawlerFactory factory = new WebCrawlerFactory(scope, processors, frontier);
         final CrawlController controller = factory.createController();
 
-        // Begin crawling
+        // Begin crawling; results are written as each page completes
         LOGGER.info("Starting crawl for seed URL: " + seedUrl);
+        if (output != null) {
+            LOGGER.info("Writing crawl results to " + output);
+        }
         controller.beginCrawl(seedUrl);
 
-        // Output results
-        printResults(controller);
+        LOGGER.info("\n----- CRAWL COMPLETE -----");
+        System.out.println("Visited " + crawled.get() + " URIs in total.");
     }
 
     /**
@@ -115,17 +159,34 @@ public class Main {
     }
 
     /**
-     * Outputs the results of the crawl on STD OUT! (for the DEMO!)
+     * Prints each crawled URL on STD OUT as soon as its page is done! (for the DEMO!)
      *
-     * @param controller The CrawlController.
+     * @param crawled Counts the pages printed.
      */
-    private static void printResults(CrawlController controller) {
-        LOGGER.info("\n----- CRAWL COMPLETE -----");
-        final var visited = controller.getVisitedUris();
-
+    private static ResultSink printingSink(AtomicLong crawled) {
         // ---------------------------------------------------------------- //
         // ----- Printing directly on CONSOLE / STD OUT for the DEMO! ----- //
-        visited.forEach(uri -> System.out.println(" - " + uri));
-        System.out.println("Visited " + visited.size() + " URIs in total.");
+        return result -> {
+            crawled.incrementAndGet();
+            System.out.println(" - " + result.url());
+        };
+    }
+
+    /**
+     * Wraps a sink so the pages it receives are counted.
+     */
+    private static ResultSink countingSink(ResultSink sink, AtomicLong crawled) {
+        return new ResultSink() {
+            @Override
+            public void accept(CrawlResult result) {
+                crawled.incrementAndGet();
+                sink.accept(result);
+            }
+
+            @Override
+            public void close() {
+                sink.close();
+            }
+        };
     }
 }
@@ -0,0 +1,42 @@
+package org.ank.crawler.cache;
+
+import org.ank.crawler.dedupe.UrlFingerprint;
+import org.ank.crawler.fetcher.Validators;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * What a recrawl needs to know about a page fetched before: the validators to send with a conditional request,
+ * and the outlinks to reuse when the server answers 304 Not Modified.
+ *
+ * @param validators  The page's {@code ETag} / {@code Last-Modified}.
+ * @param outlinks    The canonical links the processors discovered on the page, before scope filtering.
+ * @param outlinkHash Order-independent hash of the outlinks, to tell cheaply whether they changed.
+ */
+public record CachedPage(Validators validators, List<String> outlinks, long outlinkHash) {
+
+    public CachedPage {
+        outlinks = List.copyOf(outlinks);
+    }
+
+    public static CachedPage of(Validators validators, Collection<String> outlinks) {
+        return new CachedPage(validators, List.copyOf(outlinks), hash(outlinks));
+    }
+
+    /**
+     * @return true if storing this page over {@code other} would change nothing.
+     */
+    public boolean sameAs(CachedPage other) {
+        return other != null && validators.equals(other.validators) && outlinkHash == other.outlinkHash
+                && outlinks.size() == other.outlinks.size();
+    }
+
+    static long hash(Collection<String> outlinks) {
+        long hash = 0;
+        for (String outlink : outlinks) {
+            hash += UrlFingerprint.of(outlink); // a sum does not depend on iteration order
+        }
+        return hash;
+    }
+}
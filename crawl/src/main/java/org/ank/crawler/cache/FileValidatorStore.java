@@ -0,0 +1,163 @@
+package org.ank.crawler.cache;
+
+import org.ank.crawler.fetcher.Validators;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A {@link ValidatorStore} kept on the heap and persisted to a single file.
+ * <p>
+ * The file is read once when the store is opened and, if anything changed, rewritten when it is closed
+ * (to a temporary file first, then atomically moved over the old one, so a crash never leaves it half-written).
+ * Pages stored again with the same validators and outlinks do not count as a change.
+ * <p>
+ * File layout: a magic number, then one record per URL (flag byte 1, URL, ETag, Last-Modified, outlink count,
+ * outlinks) and a final flag byte 0. Strings are an int byte length (-1 for null) followed by UTF-8 bytes.
+ */
+public class FileValidatorStore implements ValidatorStore {
+
+    private static final Logger LOGGER = Logger.getLogger(FileValidatorStore.class.getName());
+    private static final int MAGIC = 0x56414C31; // "VAL1"
+    private static final int BUFFER_BYTES = 64 * 1024;
+
+    private final Path file;
+    private final Map<String, CachedPage> pages = new ConcurrentHashMap<>();
+    private volatile boolean dirty;
+
+    /**
+     * @param file The store file; it is created on close if it does not exist yet.
+     */
+    public FileValidatorStore(Path file) {
+        this.file = file;
+        try {
+            load();
+        } catch (NoSuchFileException e) {
+            LOGGER.log(Level.FINE, "No validator store at {0} yet", file);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read validator store " + file, e);
+        }
+    }
+
+    @Override
+    public CachedPage get(String uri) {
+        return pages.get(uri);
+    }
+
+    @Override
+    public void put(String uri, CachedPage page) {
+        final CachedPage previous = pages.put(uri, page);
+        if (!page.sameAs(previous)) {
+            dirty = true;
+        }
+    }
+
+    public int size() {
+        return pages.size();
+    }
+
+    /**
+     * Rewrites the store file if anything changed since it was loaded or last saved.
+     */
+    public void save() throws IOException {
+        if (!dirty) {
+            return;
+        }
+        dirty = false;
+        final Path parent = file.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        final Path temp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(temp), BUFFER_BYTES))) {
+                out.writeInt(MAGIC);
+                for (Map.Entry<String, CachedPage> entry : pages.entrySet()) {
+                    final CachedPage page = entry.getValue();
+                    out.writeByte(1);
+                    writeString(out, entry.getKey());
+                    writeString(out, page.validators().etag());
+                    writeString(out, page.validators().lastModified());
+                    out.writeInt(page.outlinks().size());
+                    for (String outlink : page.outlinks()) {
+                        writeString(out, outlink);
+                    }
+                }
+                out.writeByte(0);
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            dirty = true;
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            save();
+            LOGGER.log(Level.INFO, "Validator store {0} holds {1} pages", new Object[]{file, pages.size()});
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Failed to save validator store " + file, e);
+        }
+    }
+
+    private void load() throws IOException {
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(file), BUFFER_BYTES))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Not a validator store: " + file);
+            }
+            while (in.readByte() != 0) {
+                final String uri = readString(in);
+                final Validators validators = new Validators(readString(in), readString(in));
+                final int count = in.readInt();
+                final List<String> outlinks = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) {
+                    outlinks.add(readString(in));
+                }
+                pages.put(uri, CachedPage.of(validators, outlinks));
+            }
+        } catch (EOFException e) {
+            // only possible if the file was damaged outside the crawler; keep what could be read
+            LOGGER.log(Level.WARNING, "Validator store {0} is truncated, loaded {1} pages",
+                    new Object[]{file, pages.size()});
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        final int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        final byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
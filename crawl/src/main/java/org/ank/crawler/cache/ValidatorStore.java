@@ -0,0 +1,49 @@
+package org.ank.crawler.cache;
+
+import org.ank.crawler.config.ValidatorStoreConfig;
+
+/**
+ * Remembers, per URL, the HTTP validators and outlinks of the last successful fetch, so a recrawl can ask
+ * the server whether a page changed and skip downloading and parsing it if not.
+ * Implementations are thread-safe.
+ */
+public interface ValidatorStore extends AutoCloseable {
+
+    /**
+     * A store that remembers nothing, used when conditional recrawling is disabled.
+     */
+    ValidatorStore NONE = new ValidatorStore() {
+        @Override
+        public CachedPage get(String uri) {
+            return null;
+        }
+
+        @Override
+        public void put(String uri, CachedPage page) {
+        }
+    };
+
+    /**
+     * @return What was stored for the URL, or null if it was never fetched with validators.
+     */
+    CachedPage get(String uri);
+
+    /**
+     * Stores (or replaces) what is known about the URL.
+     */
+    void put(String uri, CachedPage page);
+
+    /**
+     * Persists the store.
+     */
+    @Override
+    default void close() {
+    }
+
+    /**
+     * Creates the store described by the config, loading what an earlier crawl saved.
+     */
+    static ValidatorStore create(ValidatorStoreConfig config) {
+        return config.enabled() ? new FileValidatorStore(config.file()) : NONE;
+    }
+}
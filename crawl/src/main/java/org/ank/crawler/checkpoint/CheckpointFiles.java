@@ -0,0 +1,54 @@
+package org.ank.crawler.checkpoint;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+/**
+ * Layout of a checkpoint directory: a sequence of immutable delta files, each holding the records
+ * buffered during one checkpoint interval. A delta is written to a temporary file and renamed into
+ * place, so a crash never leaves a partially written one behind.
+ * <p>
+ * Each record is a one-byte type, then the URI as a 4-byte length and its UTF-8 bytes.
+ */
+final class CheckpointFiles {
+
+    static final byte ENQUEUED = 1;
+    static final byte VISITED = 2;
+
+    private static final String PREFIX = "checkpoint-";
+    private static final String SUFFIX = ".delta";
+    static final String TEMP_SUFFIX = ".tmp";
+
+    private CheckpointFiles() {
+    }
+
+    static Path deltaPath(Path directory, long sequence) {
+        return directory.resolve(String.format(Locale.ROOT, "%s%012d%s", PREFIX, sequence, SUFFIX));
+    }
+
+    /**
+     * @return The delta files in the directory, oldest first (empty if the directory does not exist).
+     */
+    static List<Path> deltas(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(CheckpointFiles::isDelta).sorted().toList();
+        }
+    }
+
+    static long sequenceOf(Path delta) {
+        final String name = delta.getFileName().toString();
+        return Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+    }
+
+    private static boolean isDelta(Path path) {
+        final String name = path.getFileName().toString();
+        return name.startsWith(PREFIX) && name.endsWith(SUFFIX);
+    }
+}
@@ -0,0 +1,50 @@
+package org.ank.crawler.checkpoint;
+
+import org.ank.crawler.config.CheckpointConfig;
+
+/**
+ * Records frontier state changes so a crawl can be resumed after the process dies.
+ * <p>
+ * A frontier reports every URI it queues and every URI it finishes processing; replaying the
+ * two streams ({@link CheckpointReader}) gives back the visited set and the URIs still pending.
+ * Implementations are thread-safe.
+ */
+public interface CheckpointJournal extends AutoCloseable {
+
+    /**
+     * A journal that records nothing, used when checkpointing is disabled.
+     */
+    CheckpointJournal NONE = new CheckpointJournal() {
+        @Override
+        public void enqueued(String uri) {
+        }
+
+        @Override
+        public void visited(String uri) {
+        }
+    };
+
+    /**
+     * Records that a URI was added to the queue.
+     */
+    void enqueued(String uri);
+
+    /**
+     * Records that a URI has been fetched and processed, and its discoveries queued.
+     */
+    void visited(String uri);
+
+    /**
+     * Writes out everything recorded so far and stops any background checkpointing.
+     */
+    @Override
+    default void close() {
+    }
+
+    /**
+     * Creates the journal described by the config.
+     */
+    static CheckpointJournal create(CheckpointConfig config) {
+        return config.enabled() ? new FileCheckpointJournal(config.directory(), config.interval()) : NONE;
+    }
+}
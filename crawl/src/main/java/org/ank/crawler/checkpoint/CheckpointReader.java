@@ -0,0 +1,91 @@
+package org.ank.crawler.checkpoint;
+
+import org.ank.crawler.dedupe.FingerprintVisitedSet;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Replays the delta files of a checkpoint directory to recover frontier state.
+ */
+public final class CheckpointReader {
+
+    private static final Logger LOGGER = Logger.getLogger(CheckpointReader.class.getName());
+
+    private CheckpointReader() {
+    }
+
+    /**
+     * What a checkpoint directory held.
+     *
+     * @param visitedCount Number of distinct URIs that had been fully processed.
+     * @param pending      URIs queued but not yet processed, in the order they were first queued.
+     *                     URIs that were being fetched when the process died are in here, so they are fetched again.
+     * @param deltaCount   Number of delta files replayed.
+     */
+    public record Recovery(long visitedCount, List<String> pending, int deltaCount) {
+
+        public boolean isEmpty() {
+            return deltaCount == 0;
+        }
+    }
+
+    /**
+     * Replays every delta in order, handing each fully processed URI to {@code visitedSink} once.
+     *
+     * @param directory   The checkpoint directory; a missing directory yields an empty recovery.
+     * @param visitedSink Receives each visited URI, e.g. {@code frontier::markVisited}.
+     */
+    public static Recovery replay(Path directory, Consumer<String> visitedSink) {
+        try {
+            final List<Path> deltas = CheckpointFiles.deltas(directory);
+            // Only the visited fingerprints and the URIs still outstanding are held while replaying
+            final FingerprintVisitedSet visited = new FingerprintVisitedSet(1 << 16, null);
+            final Set<String> pending = new LinkedHashSet<>();
+            for (Path delta : deltas) {
+                replayDelta(delta, visited, pending, visitedSink);
+            }
+            return new Recovery(visited.size(), List.copyOf(pending), deltas.size());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read checkpoint directory " + directory, e);
+        }
+    }
+
+    private static void replayDelta(Path delta, FingerprintVisitedSet visited, Set<String> pending,
+                                    Consumer<String> visitedSink) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(delta), 1 << 16))) {
+            while (true) {
+                final int type = in.read();
+                if (type < 0) {
+                    return;
+                }
+                final byte[] bytes = new byte[in.readInt()];
+                in.readFully(bytes);
+                final String uri = new String(bytes, StandardCharsets.UTF_8);
+                if (type == CheckpointFiles.VISITED) {
+                    pending.remove(uri);
+                    if (visited.add(uri)) {
+                        visitedSink.accept(uri);
+                    }
+                } else if (type == CheckpointFiles.ENQUEUED && !visited.contains(uri)) {
+                    pending.add(uri);
+                }
+            }
+        } catch (EOFException e) {
+            // deltas are renamed into place only once complete, so this means the file was damaged afterwards
+            LOGGER.log(Level.WARNING, "Checkpoint delta {0} is truncated; using the records before the damage", delta);
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package org.ank.crawler.checkpoint;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Writes incremental checkpoints: records are appended to in-memory chunks, and every interval a background
+ * thread swaps the chunks out and writes them as a new delta file (see {@link CheckpointFiles}).
+ * <p>
+ * Workers only ever hold the lock long enough to append one record or swap the chunk list, so a checkpoint
+ * never pauses the crawl, and its cost is proportional to what changed since the last one rather than
+ * to the size of the visited set. Sequence numbers continue after any deltas already in the directory,
+ * so a resumed crawl keeps extending the same checkpoint.
+ */
+public final class FileCheckpointJournal implements CheckpointJournal {
+
+    private static final Logger LOGGER = Logger.getLogger(FileCheckpointJournal.class.getName());
+    private static final int CHUNK_BYTES = 64 * 1024;
+    private static final int SHUTDOWN_TIMEOUT_SECONDS = 30;
+
+    private final Path directory;
+    private final ScheduledExecutorService scheduler;
+
+    // chunks guarded by bufferLock; sequence and carry-over only touched while holding writeLock
+    private final ReentrantLock bufferLock = new ReentrantLock();
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private List<ByteBuffer> chunks = new ArrayList<>();
+    private ByteBuffer current;
+    private List<ByteBuffer> unwritten = List.of();
+    private long nextSequence;
+    private volatile boolean closed;
+
+    /**
+     * @param directory Checkpoint directory, created if missing.
+     * @param interval  Time between checkpoints.
+     */
+    public FileCheckpointJournal(Path directory, Duration interval) {
+        this.directory = directory;
+        try {
+            Files.createDirectories(directory);
+            final List<Path> existing = CheckpointFiles.deltas(directory);
+            this.nextSequence = existing.isEmpty() ? 0 : CheckpointFiles.sequenceOf(existing.getLast()) + 1;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open checkpoint directory " + directory, e);
+        }
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().daemon().name("checkpoint-writer").factory());
+        final long millis = interval.toMillis();
+        scheduler.scheduleWithFixedDelay(this::checkpointQuietly, millis, millis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void enqueued(String uri) {
+        append(CheckpointFiles.ENQUEUED, uri);
+    }
+
+    @Override
+    public void visited(String uri) {
+        append(CheckpointFiles.VISITED, uri);
+    }
+
+    /**
+     * Writes everything recorded since the last checkpoint to a new delta file. Does nothing if nothing changed.
+     */
+    public void checkpoint() throws IOException {
+        writeLock.lock();
+        try {
+            final List<ByteBuffer> delta = new ArrayList<>(unwritten);
+            delta.addAll(swapChunks());
+            if (delta.isEmpty()) {
+                return;
+            }
+            // keep the chunks until they are safely on disk, so a failed write is retried next time
+            unwritten = delta;
+            writeDelta(CheckpointFiles.deltaPath(directory, nextSequence), delta);
+            nextSequence++;
+            unwritten = List.of();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Stops the background thread, letting a checkpoint in progress finish, and writes a final checkpoint.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        scheduler.shutdown();
+        try {
+            scheduler.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            checkpoint();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write final checkpoint to " + directory, e);
+        }
+    }
+
+    private void append(byte type, String uri) {
+        final byte[] bytes = uri.getBytes(StandardCharsets.UTF_8);
+        final int recordBytes = 1 + Integer.BYTES + bytes.length;
+        bufferLock.lock();
+        try {
+            if (current == null || current.remaining() < recordBytes) {
+                current = ByteBuffer.allocate(Math.max(CHUNK_BYTES, recordBytes));
+                chunks.add(current);
+            }
+            current.put(type).putInt(bytes.length).put(bytes);
+        } finally {
+            bufferLock.unlock();
+        }
+    }
+
+    private List<ByteBuffer> swapChunks() {
+        final List<ByteBuffer> full;
+        bufferLock.lock();
+        try {
+            full = chunks;
+            chunks = new ArrayList<>();
+            current = null;
+        } finally {
+            bufferLock.unlock();
+        }
+        full.forEach(ByteBuffer::flip);
+        return full;
+    }
+
+    private void checkpointQuietly() {
+        try {
+            checkpoint();
+        } catch (IOException | RuntimeException e) {
+            LOGGER.log(Level.WARNING, "Checkpoint to " + directory + " failed; will retry", e);
+        }
+    }
+
+    private static void writeDelta(Path target, List<ByteBuffer> delta) throws IOException {
+        final Path temp = target.resolveSibling(target.getFileName() + CheckpointFiles.TEMP_SUFFIX);
+        final ByteBuffer[] buffers = delta.toArray(ByteBuffer[]::new);
+        for (ByteBuffer buffer : buffers) {
+            buffer.rewind();
+        }
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            long remaining = 0;
+            for (ByteBuffer buffer : buffers) {
+                remaining += buffer.remaining();
+            }
+            while (remaining > 0) {
+                remaining -= channel.write(buffers);
+            }
+            channel.force(true);
+        }
+        Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
@@ -0,0 +1,35 @@
+package org.ank.crawler.config;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Settings for checkpointing frontier state so an interrupted crawl can be resumed.
+ *
+ * @param directory Directory the checkpoint files are written to; null disables checkpointing.
+ * @param interval  How often buffered changes are written out as a new checkpoint file.
+ */
+public record CheckpointConfig(Path directory, Duration interval) {
+
+    public static final Duration DEFAULT_INTERVAL = Duration.ofSeconds(10);
+
+    public static final CheckpointConfig DISABLED = new CheckpointConfig(null, DEFAULT_INTERVAL);
+
+    public CheckpointConfig {
+        if (interval == null || interval.isNegative() || interval.isZero()) {
+            throw new IllegalArgumentException("Checkpoint interval must be positive");
+        }
+    }
+
+    public static CheckpointConfig every(Duration interval, Path directory) {
+        return new CheckpointConfig(directory, interval);
+    }
+
+    public static CheckpointConfig in(Path directory) {
+        return new CheckpointConfig(directory, DEFAULT_INTERVAL);
+    }
+
+    public boolean enabled() {
+        return directory != null;
+    }
+}
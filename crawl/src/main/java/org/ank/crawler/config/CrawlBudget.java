@@ -0,0 +1,41 @@
+package org.ank.crawler.config;
+
+import java.time.Duration;
+
+/**
+ * Limits on how far a crawl by {@code PriorityFrontier} may go. When a limit is reached the crawl stops taking
+ * new pages, lets the fetches in flight finish and ends normally, so every sink and journal is closed as usual.
+ *
+ * @param maxDepth    Deepest link depth fetched; seeds are depth 0 and their links depth 1.
+ * @param maxPages    Most pages fetched; retries of a page do not count again.
+ * @param maxDuration Wall-clock time after which no new fetch starts, counted from the start of the crawl;
+ *                    null for no limit.
+ */
+public record CrawlBudget(int maxDepth, long maxPages, Duration maxDuration) {
+
+    public static final CrawlBudget UNLIMITED = new CrawlBudget(Integer.MAX_VALUE, Long.MAX_VALUE, null);
+
+    public CrawlBudget {
+        if (maxDepth < 0) {
+            throw new IllegalArgumentException("Max depth cannot be negative");
+        }
+        if (maxPages < 1) {
+            throw new IllegalArgumentException("Max pages must be at least 1");
+        }
+        if (maxDuration != null && (maxDuration.isNegative() || maxDuration.isZero())) {
+            throw new IllegalArgumentException("Max duration must be positive");
+        }
+    }
+
+    public CrawlBudget withMaxDepth(int maxDepth) {
+        return new CrawlBudget(maxDepth, maxPages, maxDuration);
+    }
+
+    public CrawlBudget withMaxPages(long maxPages) {
+        return new CrawlBudget(maxDepth, maxPages, maxDuration);
+    }
+
+    public CrawlBudget withMaxDuration(Duration maxDuration) {
+        return new CrawlBudget(maxDepth, maxPages, maxDuration);
+    }
+}
@@ -0,0 +1,42 @@
+package org.ank.crawler.config;
+
+import java.nio.file.Path;
+
+/**
+ * Settings for the frontier's visited set.
+ *
+ * @param mode              How visited URLs are remembered.
+ * @param expectedUrls      Expected number of distinct URLs, used to size the set up front.
+ * @param falsePositiveRate Target chance that a new URL is mistaken for a visited one ({@link VisitedSetMode#BLOOM} only).
+ * @param visitedUrlsPath   File the visited URLs are written to in non-{@link VisitedSetMode#EXACT} modes;
+ *                          null keeps only the fingerprints, so the URLs themselves are not recoverable.
+ */
+public record DedupeConfig(VisitedSetMode mode, long expectedUrls, double falsePositiveRate, Path visitedUrlsPath) {
+
+    public static final DedupeConfig EXACT = new DedupeConfig(VisitedSetMode.EXACT, 0, 0, null);
+
+    public DedupeConfig {
+        if (mode == null) {
+            throw new IllegalArgumentException("Visited set mode cannot be null");
+        }
+        if (expectedUrls < 0) {
+            throw new IllegalArgumentException("Expected URL count cannot be negative");
+        }
+        if (mode == VisitedSetMode.BLOOM) {
+            if (expectedUrls < 1) {
+                throw new IllegalArgumentException("Bloom mode needs an expected URL count of at least 1");
+            }
+            if (!(falsePositiveRate > 0 && falsePositiveRate < 1)) {
+                throw new IllegalArgumentException("False-positive rate must be between 0 and 1 (exclusive)");
+            }
+        }
+    }
+
+    public static DedupeConfig fingerprint(long expectedUrls, Path visitedUrlsPath) {
+        return new DedupeConfig(VisitedSetMode.FINGERPRINT, expectedUrls, 0, visitedUrlsPath);
+    }
+
+    public static DedupeConfig bloom(long expectedUrls, double falsePositiveRate, Path visitedUrlsPath) {
+        return new DedupeConfig(VisitedSetMode.BLOOM, expectedUrls, falsePositiveRate, visitedUrlsPath);
+    }
+}
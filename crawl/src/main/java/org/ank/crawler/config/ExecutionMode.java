@@ -0,0 +1,23 @@
+package org.ank.crawler.config;
+
+/**
+ * How the frontier runs its fetch work.
+ */
+public enum ExecutionMode {
+    /**
+     * A fixed pool of {@code threadCount} platform threads, each looping over the queue.
+     */
+    PLATFORM_THREADS,
+
+    /**
+     * One virtual thread per fetch, capped by {@code maxInFlightFetches}.
+     * Suited to I/O bound crawls where workers spend most of their time blocked on the network.
+     */
+    VIRTUAL_THREADS,
+
+    /**
+     * Two stages joined by a bounded queue: {@code threadCount} platform threads fetch, and a separate pool
+     * (see {@link PipelineConfig}) runs the processors. Lets network-bound and CPU-bound work be sized apart.
+     */
+    STAGED
+}
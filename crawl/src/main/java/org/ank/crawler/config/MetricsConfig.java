@@ -0,0 +1,48 @@
+package org.ank.crawler.config;
+
+/**
+ * Settings for live crawl metrics: whether they are recorded, and where they are exported while the crawl runs.
+ *
+ * @param enabled  Whether fetches and parses are measured at all; implied by either export.
+ * @param jmx      Whether the metrics are registered as an MXBean on the platform MBean server.
+ * @param httpPort Loopback port of the {@code /metrics} endpoint (Prometheus text format), 0 for any free port,
+ *                 or {@link #NO_HTTP}.
+ */
+public record MetricsConfig(boolean enabled, boolean jmx, int httpPort) {
+
+    public static final int NO_HTTP = -1;
+
+    public static final MetricsConfig DISABLED = new MetricsConfig(false, false, NO_HTTP);
+
+    /**
+     * Records metrics without exporting them; read them through the frontier's {@code metrics()}.
+     */
+    public static final MetricsConfig RECORDING = new MetricsConfig(true, false, NO_HTTP);
+
+    public MetricsConfig {
+        if (httpPort < NO_HTTP || httpPort > 65535) {
+            throw new IllegalArgumentException("Metrics HTTP port must be between 0 and 65535");
+        }
+        enabled = enabled || jmx || httpPort != NO_HTTP;
+    }
+
+    public static MetricsConfig overJmx() {
+        return new MetricsConfig(true, true, NO_HTTP);
+    }
+
+    public static MetricsConfig onPort(int port) {
+        return new MetricsConfig(true, false, port);
+    }
+
+    public MetricsConfig withJmx() {
+        return new MetricsConfig(true, true, httpPort);
+    }
+
+    public MetricsConfig withHttp(int port) {
+        return new MetricsConfig(true, jmx, port);
+    }
+
+    public boolean httpEnabled() {
+        return httpPort != NO_HTTP;
+    }
+}
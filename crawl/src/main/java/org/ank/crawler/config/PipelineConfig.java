@@ -0,0 +1,24 @@
+package org.ank.crawler.config;
+
+/**
+ * Settings for the parse stage of {@link ExecutionMode#STAGED} crawls. The fetch stage keeps using
+ * {@code threadCount} threads, sized for network latency; the parse stage is sized for the CPU.
+ *
+ * @param parseThreads     Threads running the processor chain on fetched pages.
+ * @param handoffCapacity  Fetched pages that may wait for a parse thread. When it is full, fetch threads block,
+ *                         so parsing that falls behind slows fetching down instead of filling the heap.
+ */
+public record PipelineConfig(int parseThreads, int handoffCapacity) {
+
+    public static final PipelineConfig DEFAULT =
+            new PipelineConfig(Runtime.getRuntime().availableProcessors(), 256);
+
+    public PipelineConfig {
+        if (parseThreads < 1) {
+            throw new IllegalArgumentException("Parse threads must be at least 1");
+        }
+        if (handoffCapacity < 1) {
+            throw new IllegalArgumentException("Handoff capacity must be at least 1");
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package org.ank.crawler.config;
+
+/**
+ * Per-host politeness limits used by {@code PoliteFrontier}.
+ *
+ * @param requestsPerSecond Sustained fetch rate allowed against a single host.
+ * @param burst             How many fetches a host may receive back to back before the rate applies.
+ * @param maxConcurrency    Maximum number of simultaneous fetches against a single host.
+ */
+public record PolitenessConfig(double requestsPerSecond, int burst, int maxConcurrency) {
+
+    public static final PolitenessConfig DEFAULT = new PolitenessConfig(1.0, 1, 1);
+
+    public PolitenessConfig {
+        if (!(requestsPerSecond > 0)) {
+            throw new IllegalArgumentException("Requests per second must be positive");
+        }
+        if (burst < 1) {
+            throw new IllegalArgumentException("Burst must be at least 1");
+        }
+        if (maxConcurrency < 1) {
+            throw new IllegalArgumentException("Max concurrency must be at least 1");
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package org.ank.crawler.config;
+
+import java.nio.file.Path;
+
+/**
+ * Settings for the frontier's queue of URIs waiting to be fetched.
+ *
+ * @param hotCapacity    Number of URIs kept on the heap before new ones spill to disk.
+ * @param spillDirectory Directory for the spill segment files; null keeps the whole queue on the heap.
+ * @param segmentBytes   Size of each memory-mapped segment file.
+ */
+public record QueueConfig(int hotCapacity, Path spillDirectory, int segmentBytes) {
+
+    public static final int DEFAULT_HOT_CAPACITY = 10_000;
+    public static final int DEFAULT_SEGMENT_BYTES = 64 * 1024 * 1024;
+    public static final int MIN_SEGMENT_BYTES = 4 * 1024;
+
+    public static final QueueConfig IN_MEMORY = new QueueConfig(Integer.MAX_VALUE, null, DEFAULT_SEGMENT_BYTES);
+
+    public QueueConfig {
+        if (hotCapacity < 1) {
+            throw new IllegalArgumentException("Hot capacity must be at least 1");
+        }
+        if (segmentBytes < MIN_SEGMENT_BYTES) {
+            throw new IllegalArgumentException("Segment size must be at least " + MIN_SEGMENT_BYTES + " bytes");
+        }
+    }
+
+    public static QueueConfig spilling(Path spillDirectory) {
+        return new QueueConfig(DEFAULT_HOT_CAPACITY, spillDirectory, DEFAULT_SEGMENT_BYTES);
+    }
+
+    public static QueueConfig spilling(Path spillDirectory, int hotCapacity, int segmentBytes) {
+        return new QueueConfig(hotCapacity, spillDirectory, segmentBytes);
+    }
+
+    public boolean spills() {
+        return spillDirectory != null;
+    }
+}
@@ -0,0 +1,27 @@
+package org.ank.crawler.config;
+
+import java.time.Duration;
+
+/**
+ * Settings for retrying fetches that failed for a transient reason (timeouts, 5xx, 429, ...).
+ * The n-th retry waits a random time between half and all of {@code min(maxDelay, baseDelay * 2^(n-1))}.
+ *
+ * @param maxAttempts Total attempts per URI, including the first; 1 disables retries.
+ * @param baseDelay   Backoff before the first retry.
+ * @param maxDelay    Upper bound on any backoff. A server asking for a longer {@code Retry-After} is not retried.
+ */
+public record RetryConfig(int maxAttempts, Duration baseDelay, Duration maxDelay) {
+
+    public static final RetryConfig DEFAULT = new RetryConfig(3, Duration.ofSeconds(1), Duration.ofSeconds(30));
+
+    public static final RetryConfig NONE = new RetryConfig(1, Duration.ofSeconds(1), Duration.ofSeconds(1));
+
+    public RetryConfig {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("Max attempts must be at least 1");
+        }
+        if (baseDelay == null || baseDelay.isNegative() || maxDelay == null || maxDelay.compareTo(baseDelay) < 0) {
+            throw new IllegalArgumentException("Retry delays must satisfy 0 <= baseDelay <= maxDelay");
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package org.ank.crawler.config;
+
+import org.ank.crawler.util.Constants;
+
+import java.time.Duration;
+
+/**
+ * Settings for honoring robots.txt.
+ *
+ * @param userAgent     The user agent the crawler identifies as; its product token (up to the first {@code /})
+ *                      selects the robots.txt group to obey.
+ * @param cacheCapacity Number of hosts whose compiled rules are kept; the least recently used host is evicted first.
+ * @param ttl           How long a host's robots.txt is trusted before it is fetched again.
+ */
+public record RobotsConfig(String userAgent, int cacheCapacity, Duration ttl) {
+
+    public static final RobotsConfig DEFAULT = new RobotsConfig(Constants.USER_AGENT, 10_000, Duration.ofHours(24));
+
+    public RobotsConfig {
+        if (userAgent == null || userAgent.isBlank()) {
+            throw new IllegalArgumentException("User agent cannot be null or empty");
+        }
+        if (cacheCapacity < 1) {
+            throw new IllegalArgumentException("Cache capacity must be at least 1");
+        }
+        if (ttl == null || ttl.isNegative() || ttl.isZero()) {
+            throw new IllegalArgumentException("TTL must be positive");
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package org.ank.crawler.config;
+
+import java.nio.file.Path;
+
+/**
+ * Settings for conditional recrawling: where the validators ({@code ETag} / {@code Last-Modified}) and outlinks
+ * of fetched pages are kept between crawls.
+ *
+ * @param file The store file, loaded at start and rewritten at the end of the crawl; null disables the store.
+ */
+public record ValidatorStoreConfig(Path file) {
+
+    public static final ValidatorStoreConfig DISABLED = new ValidatorStoreConfig(null);
+
+    public static ValidatorStoreConfig at(Path file) {
+        return new ValidatorStoreConfig(file);
+    }
+
+    public boolean enabled() {
+        return file != null;
+    }
+}
@@ -0,0 +1,24 @@
+package org.ank.crawler.config;
+
+/**
+ * How the frontier remembers which URLs it has already visited.
+ */
+public enum VisitedSetMode {
+    /**
+     * Every URL string is kept on the heap. Exact, but costs well over 100 bytes per URL.
+     */
+    EXACT,
+
+    /**
+     * Only a 64-bit fingerprint of each URL is kept on the heap (about 12-16 bytes per URL);
+     * the URLs themselves are appended to a file if an output path is configured.
+     */
+    FINGERPRINT,
+
+    /**
+     * URLs are kept in a scalable Bloom filter: a few bits per URL for a configured false-positive rate,
+     * growing in stages once the expected URL count is passed. A false positive means a new URL is
+     * taken for visited and skipped.
+     */
+    BLOOM
+}
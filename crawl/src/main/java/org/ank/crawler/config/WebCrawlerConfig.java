@@ -1,7 +1,166 @@
 package org.ank.crawler.config;
 
+import org.ank.crawler.sink.ResultSink;
+import org.ank.crawler.url.UrlCanonicalizer;
+import org.ank.crawler.util.Constants;
+
 /**
  * Configuration class for Web Crawler settings.
+ *
+ * @param seedUrl            The URL the crawl starts from.
+ * @param threadCount        Number of worker threads in {@link ExecutionMode#PLATFORM_THREADS} mode, or of fetch
+ *                           threads in {@link ExecutionMode#STAGED} mode.
+ * @param executionMode      How fetch work is run (platform thread pool or virtual thread per fetch).
+ * @param maxInFlightFetches Upper bound on concurrent fetches in {@link ExecutionMode#VIRTUAL_THREADS} mode.
+ * @param urlCanonicalizer   Applied to every URL before it is scheduled or checked against the visited set.
+ * @param dedupe             How the frontier remembers visited URLs.
+ * @param queue              Where URIs waiting to be fetched are kept (heap only, or spilling to disk).
+ * @param checkpoint         Where and how often frontier state is checkpointed for resuming.
+ * @param retry              How often and how patiently transient fetch failures are retried.
+ * @param validatorStore     Where page validators and outlinks are kept for conditional recrawls.
+ * @param pipeline           Parse stage settings in {@link ExecutionMode#STAGED} mode.
+ * @param metrics            Whether fetch and parse metrics are recorded, and where they are exported.
+ * @param results            Receives every page as soon as it is crawled; closed by the frontier when the crawl ends.
  */
-public record WebCrawlerConfig(String seedUrl, int threadCount) {
+public record WebCrawlerConfig(String seedUrl, int threadCount, ExecutionMode executionMode, int maxInFlightFetches,
+                               UrlCanonicalizer urlCanonicalizer, DedupeConfig dedupe, QueueConfig queue,
+                               CheckpointConfig checkpoint, RetryConfig retry,
+                               ValidatorStoreConfig validatorStore, PipelineConfig pipeline,
+                               MetricsConfig metrics, ResultSink results) {
+
+    public WebCrawlerConfig {
+        if (threadCount < 1) {
+            throw new IllegalArgumentException("Thread count must be at least 1");
+        }
+        if (maxInFlightFetches < 1) {
+            throw new IllegalArgumentException("Max in-flight fetches must be at least 1");
+        }
+        if (executionMode == null) {
+            executionMode = ExecutionMode.PLATFORM_THREADS;
+        }
+        if (urlCanonicalizer == null) {
+            urlCanonicalizer = UrlCanonicalizer.IDENTITY;
+        }
+        if (dedupe == null) {
+            dedupe = DedupeConfig.EXACT;
+        }
+        if (queue == null) {
+            queue = QueueConfig.IN_MEMORY;
+        }
+        if (checkpoint == null) {
+            checkpoint = CheckpointConfig.DISABLED;
+        }
+        if (retry == null) {
+            retry = RetryConfig.DEFAULT;
+        }
+        if (validatorStore == null) {
+            validatorStore = ValidatorStoreConfig.DISABLED;
+        }
+        if (pipeline == null) {
+            pipeline = PipelineConfig.DEFAULT;
+        }
+        if (metrics == null) {
+            metrics = MetricsConfig.DISABLED;
+        }
+        if (results == null) {
+            results = ResultSink.NONE;
+        }
+    }
+
+    public WebCrawlerConfig(String seedUrl, int threadCount) {
+        this(seedUrl, threadCount, ExecutionMode.PLATFORM_THREADS, Constants.DEFAULT_MAX_IN_FLIGHT_FETCHES, null, null, null,
+                null, null, null, null, null, null);
+    }
+
+    public static Builder builder(String seedUrl) {
+        return new Builder(seedUrl);
+    }
+
+    /**
+     * Builder for {@link WebCrawlerConfig}; every setting not given keeps its default.
+     */
+    public static final class Builder {
+        private final String seedUrl;
+        private int threadCount = Constants.DEFAULT_THREAD_COUNT;
+        private ExecutionMode executionMode = ExecutionMode.PLATFORM_THREADS;
+        private int maxInFlightFetches = Constants.DEFAULT_MAX_IN_FLIGHT_FETCHES;
+        private UrlCanonicalizer urlCanonicalizer = UrlCanonicalizer.IDENTITY;
+        private DedupeConfig dedupe = DedupeConfig.EXACT;
+        private QueueConfig queue = QueueConfig.IN_MEMORY;
+        private CheckpointConfig checkpoint = CheckpointConfig.DISABLED;
+        private RetryConfig retry = RetryConfig.DEFAULT;
+        private ValidatorStoreConfig validatorStore = ValidatorStoreConfig.DISABLED;
+        private PipelineConfig pipeline = PipelineConfig.DEFAULT;
+        private MetricsConfig metrics = MetricsConfig.DISABLED;
+        private ResultSink results = ResultSink.NONE;
+
+        private Builder(String seedUrl) {
+            this.seedUrl = seedUrl;
+        }
+
+        public Builder threadCount(int threadCount) {
+            this.threadCount = threadCount;
+            return this;
+        }
+
+        public Builder executionMode(ExecutionMode executionMode) {
+            this.executionMode = executionMode;
+            return this;
+        }
+
+        public Builder maxInFlightFetches(int maxInFlightFetches) {
+            this.maxInFlightFetches = maxInFlightFetches;
+            return this;
+        }
+
+        public Builder urlCanonicalizer(UrlCanonicalizer urlCanonicalizer) {
+            this.urlCanonicalizer = urlCanonicalizer;
+            return this;
+        }
+
+        public Builder dedupe(DedupeConfig dedupe) {
+            this.dedupe = dedupe;
+            return this;
+        }
+
+        public Builder queue(QueueConfig queue) {
+            this.queue = queue;
+            return this;
+        }
+
+        public Builder checkpoint(CheckpointConfig checkpoint) {
+            this.checkpoint = checkpoint;
+            return this;
+        }
+
+        public Builder retry(RetryConfig retry) {
+            this.retry = retry;
+            return this;
+        }
+
+        public Builder validatorStore(ValidatorStoreConfig validatorStore) {
+            this.validatorStore = validatorStore;
+            return this;
+        }
+
+        public Builder pipeline(PipelineConfig pipeline) {
+            this.pipeline = pipeline;
+            return this;
+        }
+
+        public Builder metrics(MetricsConfig metrics) {
+            this.metrics = metrics;
+            return this;
+        }
+
+        public Builder results(ResultSink results) {
+            this.results = results;
+            return this;
+        }
+
+        public WebCrawlerConfig build() {
+            return new WebCrawlerConfig(seedUrl, threadCount, executionMode, maxInFlightFetches, urlCanonicalizer,
+                    dedupe, queue, checkpoint, retry, validatorStore, pipeline, metrics, results);
+        }
+    }
 }
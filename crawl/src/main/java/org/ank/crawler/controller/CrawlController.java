@@ -1,12 +1,16 @@
 package org.ank.crawler.controller;
 
+import org.ank.crawler.checkpoint.CheckpointReader;
 import org.ank.crawler.frontier.Frontier;
 import org.ank.crawler.frontier.SimpleFrontier;
 import org.ank.crawler.processor.Processor;
 import org.ank.crawler.scope.Scope;
+import org.ank.crawler.sitemap.SitemapIngester;
 
+import java.nio.file.Path;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -23,6 +27,7 @@ public class CrawlController {
     private final Frontier frontier;
     private final List<Processor> processors;
     private final Scope scope;
+    private final SitemapIngester sitemaps;
 
     /**
      * @param scope      The Scope used to decide if a URI is in or out of scope
@@ -30,9 +35,20 @@ public class CrawlController {
      * @param frontier   The frontier that schedules URIs for processing
      */
     public CrawlController(Scope scope, List<Processor> processors, Frontier frontier) {
+        this(scope, processors, frontier, null);
+    }
+
+    /**
+     * @param scope      The Scope used to decide if a URI is in or out of scope
+     * @param processors A pipeline of Processors to handle each URI
+     * @param frontier   The frontier that schedules URIs for processing
+     * @param sitemaps   Seeds the frontier from the seed site's sitemaps before the crawl starts; null to skip
+     */
+    public CrawlController(Scope scope, List<Processor> processors, Frontier frontier, SitemapIngester sitemaps) {
         this.scope = scope;
         this.processors = processors;
         this.frontier = frontier;
+        this.sitemaps = sitemaps;
     }
 
     /**
@@ -46,11 +62,37 @@ public class CrawlController {
         }
         // Enqueue seed
         frontier.schedule(seedUrl);
+        if (sitemaps != null) {
+            sitemaps.ingest(seedUrl, scope, frontier);
+        }
 
         // Start the frontier to process scheduled URLs
         frontier.start(processors, scope);
     }
 
+    /**
+     * Resume a crawl from the checkpoints in the given directory, or start it from the seed if there are none.
+     * Pages that were fully processed before the crawl stopped are marked visited and not fetched again;
+     * URIs that were queued or in flight are scheduled again.
+     * <p>
+     * The frontier should be configured to keep checkpointing to the same directory.
+     */
+    public void resumeCrawl(String seedUrl, Path checkpointDirectory) {
+        final long startNanos = System.nanoTime();
+        final CheckpointReader.Recovery recovery = CheckpointReader.replay(checkpointDirectory, frontier::markVisited);
+        if (recovery.isEmpty()) {
+            LOGGER.log(Level.INFO, "No checkpoint in {0}; starting a new crawl", checkpointDirectory);
+            beginCrawl(seedUrl);
+            return;
+        }
+        LOGGER.info(() -> String.format("Recovered %d visited and %d pending URIs from %d checkpoint(s) in %d ms",
+                recovery.visitedCount(), recovery.pending().size(), recovery.deltaCount(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos)));
+
+        recovery.pending().forEach(frontier::schedule);
+        frontier.start(processors, scope);
+    }
+
     /**
      * Retrieve visited URIs after the crawl finishes.
      */
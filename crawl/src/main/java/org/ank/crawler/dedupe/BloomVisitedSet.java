@@ -0,0 +1,93 @@
+package org.ank.crawler.dedupe;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.Set;
+
+/**
+ * A visited set backed by a {@link ScalableBloomFilter} of URL fingerprints: a fixed number of bits per URL
+ * for the configured false-positive rate, whatever the URL length.
+ * <p>
+ * A false positive makes the frontier skip a URL it has not actually visited; URLs are never visited twice.
+ * If a log path is given, every newly visited URL is appended to it.
+ */
+public class BloomVisitedSet implements VisitedSet {
+
+    private final ScalableBloomFilter filter;
+    private final VisitedUrlLog urlLog;
+
+    /**
+     * @param expectedUrls      Expected number of distinct URLs; the filter grows in stages past it.
+     * @param falsePositiveRate Target chance that a new URL is mistaken for a visited one.
+     * @param urlLogPath        File to append visited URLs to, or null to keep only the filter.
+     */
+    public BloomVisitedSet(long expectedUrls, double falsePositiveRate, Path urlLogPath) {
+        this.filter = new ScalableBloomFilter(expectedUrls, falsePositiveRate);
+        this.urlLog = urlLogPath == null ? null : new VisitedUrlLog(urlLogPath);
+    }
+
+    @Override
+    public boolean add(String uri) {
+        if (!filter.add(UrlFingerprint.of(uri))) {
+            return false;
+        }
+        if (urlLog != null) {
+            urlLog.append(uri);
+        }
+        return true;
+    }
+
+    @Override
+    public boolean contains(String uri) {
+        return filter.mightContain(UrlFingerprint.of(uri));
+    }
+
+    @Override
+    public long size() {
+        return filter.insertions();
+    }
+
+    /**
+     * Streams the visited URLs back from the log file as the returned set is iterated.
+     *
+     * @return The logged URLs, or an empty set if no log path was configured.
+     */
+    @Override
+    public Set<String> urls() {
+        return urlLog == null ? Set.of() : urlLog.urls(this);
+    }
+
+    @Override
+    public void flush() {
+        if (urlLog != null) {
+            urlLog.flush();
+        }
+    }
+
+    @Override
+    public void close() {
+        if (urlLog != null) {
+            try {
+                urlLog.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot close visited URL log " + urlLog.path(), e);
+            }
+        }
+    }
+
+    public ScalableBloomFilter.Stats stats() {
+        return filter.stats();
+    }
+
+    @Override
+    public Health health() {
+        final ScalableBloomFilter.Stats stats = filter.stats();
+        return new Health(stats.insertions(), stats.fillRatio(), stats.estimatedFalsePositiveRate());
+    }
+
+    @Override
+    public String describe() {
+        return "Bloom filter: " + filter.stats();
+    }
+}
@@ -0,0 +1,36 @@
+package org.ank.crawler.dedupe;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps every visited URL string in a concurrent hash set.
+ */
+public class ExactVisitedSet implements VisitedSet {
+
+    private final Set<String> visited = ConcurrentHashMap.newKeySet();
+
+    @Override
+    public boolean add(String uri) {
+        return visited.add(uri);
+    }
+
+    @Override
+    public boolean contains(String uri) {
+        return visited.contains(uri);
+    }
+
+    @Override
+    public long size() {
+        return visited.size();
+    }
+
+    /**
+     * @return A live, unmodifiable view of the visited URLs.
+     */
+    @Override
+    public Set<String> urls() {
+        return Collections.unmodifiableSet(visited);
+    }
+}
@@ -0,0 +1,230 @@
+package org.ank.crawler.dedupe;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * A visited set that keeps only 64-bit URL fingerprints, in lock-striped open-addressing {@code long[]} tables:
+ * no boxing and no per-entry objects, roughly 12-16 bytes per URL instead of well over 100 for a set of strings.
+ * <p>
+ * The fingerprint's top bits pick one of {@value #STRIPES} stripes, its low bits the slot within the stripe
+ * (linear probing, 0 marks an empty slot). Writers lock one stripe; readers probe optimistically and only
+ * take the stripe's read lock if a writer got in the way.
+ * <p>
+ * Two URLs with the same fingerprint are treated as one (see {@link UrlFingerprint} for the odds).
+ * If a log path is given, every newly visited URL is appended to it, so the full list is kept on disk
+ * rather than on the heap.
+ */
+public class FingerprintVisitedSet implements VisitedSet {
+
+    private static final int STRIPE_BITS = 6;
+    private static final int STRIPES = 1 << STRIPE_BITS;
+    private static final double MAX_LOAD = 0.7;
+    private static final int MIN_STRIPE_CAPACITY = 64;
+    private static final long EMPTY = 0L;
+
+    private final Stripe[] stripes = new Stripe[STRIPES];
+    private final LongAdder size = new LongAdder();
+    private final VisitedUrlLog urlLog;
+
+    /**
+     * @param expectedUrls Expected number of distinct URLs, to size the tables so they rarely need to grow.
+     * @param urlLogPath   File to append visited URLs to, or null to keep only fingerprints.
+     */
+    public FingerprintVisitedSet(long expectedUrls, Path urlLogPath) {
+        final long perStripe = (long) Math.ceil(expectedUrls / (double) STRIPES / MAX_LOAD);
+        final int capacity = (int) Math.min(1 << 30, Math.max(MIN_STRIPE_CAPACITY, Long.highestOneBit(perStripe - 1) << 1));
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe(capacity);
+        }
+        this.urlLog = urlLogPath == null ? null : new VisitedUrlLog(urlLogPath);
+    }
+
+    @Override
+    public boolean add(String uri) {
+        if (!addFingerprint(UrlFingerprint.of(uri))) {
+            return false;
+        }
+        if (urlLog != null) {
+            urlLog.append(uri);
+        }
+        return true;
+    }
+
+    @Override
+    public boolean contains(String uri) {
+        return containsFingerprint(UrlFingerprint.of(uri));
+    }
+
+    /**
+     * Adds a precomputed fingerprint (e.g. when restoring state), without touching the URL log.
+     *
+     * @return true if the fingerprint was not present before.
+     */
+    public boolean addFingerprint(long fingerprint) {
+        final long key = fingerprint == EMPTY ? 1L : fingerprint;
+        if (stripeFor(key).add(key)) {
+            size.increment();
+            return true;
+        }
+        return false;
+    }
+
+    public boolean containsFingerprint(long fingerprint) {
+        final long key = fingerprint == EMPTY ? 1L : fingerprint;
+        return stripeFor(key).contains(key);
+    }
+
+    @Override
+    public long size() {
+        return size.sum();
+    }
+
+    /**
+     * Streams the visited URLs back from the log file as the returned set is iterated.
+     *
+     * @return The logged URLs, or an empty set if no log path was configured.
+     */
+    @Override
+    public Set<String> urls() {
+        return urlLog == null ? Set.of() : urlLog.urls(this);
+    }
+
+    @Override
+    public void flush() {
+        if (urlLog != null) {
+            urlLog.flush();
+        }
+    }
+
+    @Override
+    public void close() {
+        if (urlLog != null) {
+            try {
+                urlLog.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot close visited URL log " + urlLog.path(), e);
+            }
+        }
+    }
+
+    @Override
+    public String describe() {
+        return String.format(Locale.ROOT, "Fingerprint set: %d URLs, %.1f MB of tables",
+                size(), capacity() * (double) Long.BYTES / (1024 * 1024));
+    }
+
+    /**
+     * @return Total number of slots allocated across all stripes, for memory accounting.
+     */
+    public long capacity() {
+        long capacity = 0;
+        for (Stripe stripe : stripes) {
+            capacity += stripe.capacity();
+        }
+        return capacity;
+    }
+
+    private Stripe stripeFor(long key) {
+        return stripes[(int) (key >>> (Long.SIZE - STRIPE_BITS))];
+    }
+
+    /**
+     * One open-addressing table guarded by its own lock.
+     */
+    private static final class Stripe {
+        private final StampedLock lock = new StampedLock();
+        private long[] table;
+        private int count;
+        private int resizeThreshold;
+
+        private Stripe(int capacity) {
+            allocate(capacity);
+        }
+
+        private boolean add(long key) {
+            final long stamp = lock.writeLock();
+            try {
+                final long[] slots = table;
+                final int mask = slots.length - 1;
+                int index = (int) key & mask;
+                while (slots[index] != EMPTY) {
+                    if (slots[index] == key) {
+                        return false;
+                    }
+                    index = (index + 1) & mask;
+                }
+                slots[index] = key;
+                if (++count >= resizeThreshold) {
+                    grow();
+                }
+                return true;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        private boolean contains(long key) {
+            final long stamp = lock.tryOptimisticRead();
+            final boolean found = probe(table, key);
+            if (lock.validate(stamp)) {
+                return found;
+            }
+            final long readStamp = lock.readLock();
+            try {
+                return probe(table, key);
+            } finally {
+                lock.unlockRead(readStamp);
+            }
+        }
+
+        private int capacity() {
+            final long stamp = lock.readLock();
+            try {
+                return table.length;
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        // Tables are never full, so probing always reaches an empty slot
+        private static boolean probe(long[] slots, long key) {
+            final int mask = slots.length - 1;
+            int index = (int) key & mask;
+            long slot;
+            while ((slot = slots[index]) != EMPTY) {
+                if (slot == key) {
+                    return true;
+                }
+                index = (index + 1) & mask;
+            }
+            return false;
+        }
+
+        // Must hold the write lock
+        private void grow() {
+            final long[] old = table;
+            allocate(old.length << 1);
+            final int mask = table.length - 1;
+            for (long key : old) {
+                if (key != EMPTY) {
+                    int index = (int) key & mask;
+                    while (table[index] != EMPTY) {
+                        index = (index + 1) & mask;
+                    }
+                    table[index] = key;
+                }
+            }
+        }
+
+        private void allocate(int capacity) {
+            table = new long[capacity];
+            resizeThreshold = (int) (capacity * MAX_LOAD);
+        }
+    }
+}
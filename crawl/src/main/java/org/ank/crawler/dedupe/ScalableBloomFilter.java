@@ -0,0 +1,198 @@
+package org.ank.crawler.dedupe;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A scalable Bloom filter over 64-bit fingerprints (Almeida et al., "Scalable Bloom Filters").
+ * <p>
+ * The first stage is sized for the expected number of keys. Once a stage holds as many keys as it was sized for,
+ * a new stage with twice the capacity and half the false-positive rate is added, so the compound rate stays below
+ * the configured one however far the expected count is exceeded, while memory grows only in proportion to the keys.
+ * <p>
+ * Lookups are lock-free. Inserts take a lock so that check-then-insert is atomic: two threads adding the same
+ * key concurrently cannot both be told it was new.
+ */
+public class ScalableBloomFilter {
+
+    private static final int GROWTH_FACTOR = 2;
+    private static final double TIGHTENING_RATIO = 0.5;
+    private static final double LN2 = Math.log(2);
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private volatile Stage[] stages;
+    private volatile long insertions;
+
+    /**
+     * @param expectedKeys      Number of keys the first stage is sized for.
+     * @param falsePositiveRate Upper bound on the compound false-positive rate across all stages.
+     */
+    public ScalableBloomFilter(long expectedKeys, double falsePositiveRate) {
+        if (expectedKeys < 1) {
+            throw new IllegalArgumentException("Expected key count must be at least 1");
+        }
+        if (!(falsePositiveRate > 0 && falsePositiveRate < 1)) {
+            throw new IllegalArgumentException("False-positive rate must be between 0 and 1 (exclusive)");
+        }
+        // stage i gets p * (1 - r) * r^i, which sums to p
+        this.stages = new Stage[]{new Stage(expectedKeys, falsePositiveRate * (1 - TIGHTENING_RATIO))};
+    }
+
+    /**
+     * @return true if the key may have been added; false if it certainly was not.
+     */
+    public boolean mightContain(long key) {
+        final long h2 = secondHash(key);
+        for (Stage stage : stages) {
+            if (stage.mightContain(key, h2)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Adds the key unless the filter already (possibly falsely) reports it.
+     *
+     * @return true if the key was added, false if it was reported as already present.
+     */
+    public boolean add(long key) {
+        final long h2 = secondHash(key);
+        lock.lock();
+        try {
+            final Stage[] current = stages;
+            for (Stage stage : current) {
+                if (stage.mightContain(key, h2)) {
+                    return false;
+                }
+            }
+            Stage last = current[current.length - 1];
+            if (last.insertions >= last.capacity) {
+                last = new Stage(last.capacity * GROWTH_FACTOR, last.falsePositiveRate * TIGHTENING_RATIO);
+                final Stage[] grown = Arrays.copyOf(current, current.length + 1);
+                grown[current.length] = last;
+                stages = grown;
+            }
+            last.add(key, h2);
+            insertions++;
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return A snapshot of the filter's size, fill and estimated false-positive rate.
+     */
+    public Stats stats() {
+        lock.lock();
+        try {
+            long bits = 0;
+            long bitsSet = 0;
+            double noFalsePositive = 1;
+            for (Stage stage : stages) {
+                bits += stage.bitCount;
+                bitsSet += stage.bitsSet;
+                noFalsePositive *= 1 - Math.pow(stage.bitsSet / (double) stage.bitCount, stage.hashCount);
+            }
+            final Stage last = stages[stages.length - 1];
+            return new Stats(insertions, stages.length, bits, bitsSet / (double) bits,
+                    last.insertions / (double) last.capacity, 1 - noFalsePositive);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long insertions() {
+        return insertions;
+    }
+
+    // Kirsch-Mitzenmacher double hashing: index_i = h1 + i * h2, with h1 the key itself
+    private static long secondHash(long key) {
+        return UrlFingerprint.mix(key ^ 0x9e3779b97f4a7c15L) | 1;
+    }
+
+    /**
+     * Size and health of the filter.
+     *
+     * @param insertions                 Keys added.
+     * @param stages                     Number of stages allocated so far.
+     * @param bits                       Total bits across all stages (memory is {@code bits / 8} bytes).
+     * @param fillRatio                  Fraction of all bits that are set.
+     * @param currentStageLoad           Keys in the newest stage relative to the count it was sized for.
+     * @param estimatedFalsePositiveRate Chance a new key is reported as present, from the bits actually set.
+     */
+    public record Stats(long insertions, int stages, long bits, double fillRatio, double currentStageLoad,
+                        double estimatedFalsePositiveRate) {
+
+        public long memoryBytes() {
+            return bits / Byte.SIZE;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT,
+                    "%d keys in %d stage(s), %.1f MB, %.1f%% of bits set, estimated false-positive rate %.2e",
+                    insertions, stages, memoryBytes() / (1024.0 * 1024.0), fillRatio * 100,
+                    estimatedFalsePositiveRate);
+        }
+    }
+
+    /**
+     * One classic Bloom filter sized for {@code capacity} keys at {@code falsePositiveRate}.
+     */
+    private static final class Stage {
+        private final long capacity;
+        private final double falsePositiveRate;
+        private final long bitCount;
+        private final int hashCount;
+        private final AtomicLongArray words;
+        // guarded by the filter's lock
+        private long insertions;
+        private long bitsSet;
+
+        private Stage(long capacity, double falsePositiveRate) {
+            this.capacity = capacity;
+            this.falsePositiveRate = falsePositiveRate;
+            final long bits = (long) Math.ceil(-capacity * Math.log(falsePositiveRate) / (LN2 * LN2));
+            final long wordCount = Math.max(1, (bits + Long.SIZE - 1) / Long.SIZE);
+            if (wordCount > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Bloom filter stage too large: " + bits + " bits");
+            }
+            this.words = new AtomicLongArray((int) wordCount);
+            this.bitCount = wordCount * Long.SIZE;
+            this.hashCount = Math.max(1, (int) Math.round(bitCount / (double) capacity * LN2));
+        }
+
+        private boolean mightContain(long h1, long h2) {
+            long combined = h1;
+            for (int i = 0; i < hashCount; i++) {
+                final long bit = Long.remainderUnsigned(combined, bitCount);
+                if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+                combined += h2;
+            }
+            return true;
+        }
+
+        private void add(long h1, long h2) {
+            long combined = h1;
+            for (int i = 0; i < hashCount; i++) {
+                final long bit = Long.remainderUnsigned(combined, bitCount);
+                final int word = (int) (bit >>> 6);
+                final long value = words.get(word);
+                final long mask = 1L << bit;
+                // writers are serialized by the filter's lock; the array gives readers visibility
+                if ((value & mask) == 0) {
+                    words.set(word, value | mask);
+                    bitsSet++;
+                }
+                combined += h2;
+            }
+            insertions++;
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package org.ank.crawler.dedupe;
+
+/**
+ * 64-bit SimHash of a page's text (Charikar): every feature hash votes +1 or -1 on each bit, and the
+ * fingerprint keeps the bits with a positive total. Pages sharing most of their features end up with
+ * fingerprints that differ in only a few bits, so near-duplicates can be found by Hamming distance.
+ * <p>
+ * Features are overlapping pairs of lower-cased words of the visible text: markup, comments and the content
+ * of {@code script} and {@code style} elements are skipped. Words are hashed as they are scanned, without
+ * building strings.
+ */
+public final class SimHash {
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+    private static final String[] RAW_TEXT_ELEMENTS = {"script", "style"};
+    private static final String[] RAW_TEXT_END_TAGS = {"</script", "</style"};
+
+    private final int[] votes = new int[Long.SIZE];
+    private int featureCount;
+
+    private SimHash() {
+    }
+
+    /**
+     * Fingerprints the visible text of an HTML page.
+     */
+    public static SimHash ofHtml(String html) {
+        final SimHash simHash = new SimHash();
+        final int length = html.length();
+        long previousWord = 0;
+        boolean hasPreviousWord = false;
+        long word = FNV_OFFSET_BASIS;
+        boolean inWord = false;
+        int i = 0;
+        while (i < length) {
+            final char c = html.charAt(i);
+            if (c == '<') {
+                i = skipMarkup(html, i);
+            } else if (Character.isLetterOrDigit(c)) {
+                word = (word ^ Character.toLowerCase(c)) * FNV_PRIME;
+                inWord = true;
+                i++;
+                continue;
+            } else {
+                i++;
+            }
+            if (inWord) {
+                if (hasPreviousWord) {
+                    simHash.addFeature(UrlFingerprint.mix(previousWord * 31 + word));
+                }
+                previousWord = word;
+                hasPreviousWord = true;
+                word = FNV_OFFSET_BASIS;
+                inWord = false;
+            }
+        }
+        if (inWord) {
+            if (hasPreviousWord) {
+                simHash.addFeature(UrlFingerprint.mix(previousWord * 31 + word));
+            }
+            previousWord = word;
+            hasPreviousWord = true;
+        }
+        if (simHash.featureCount == 0 && hasPreviousWord) {
+            simHash.addFeature(UrlFingerprint.mix(previousWord)); // a single word
+        }
+        return simHash;
+    }
+
+    /**
+     * @return Number of features that went into the fingerprint; 0 means the page had no text.
+     */
+    public int featureCount() {
+        return featureCount;
+    }
+
+    public long value() {
+        long value = 0;
+        for (int bit = 0; bit < Long.SIZE; bit++) {
+            if (votes[bit] > 0) {
+                value |= 1L << bit;
+            }
+        }
+        return value;
+    }
+
+    public static int distance(long a, long b) {
+        return Long.bitCount(a ^ b);
+    }
+
+    private void addFeature(long hash) {
+        featureCount++;
+        for (int bit = 0; bit < Long.SIZE; bit++) {
+            votes[bit] += ((hash >>> bit) & 1) == 1 ? 1 : -1;
+        }
+    }
+
+    /**
+     * @return The index just past the tag, comment or raw-text element starting at {@code start}.
+     */
+    private static int skipMarkup(String html, int start) {
+        if (html.startsWith("<!--", start)) {
+            final int end = html.indexOf("-->", start + 4);
+            return end < 0 ? html.length() : end + 3;
+        }
+        final int tagEnd = html.indexOf('>', start);
+        if (tagEnd < 0) {
+            return html.length();
+        }
+        for (int e = 0; e < RAW_TEXT_ELEMENTS.length; e++) {
+            if (isStartTag(html, start, RAW_TEXT_ELEMENTS[e])) {
+                final int close = indexOfIgnoreCase(html, RAW_TEXT_END_TAGS[e], tagEnd);
+                if (close < 0) {
+                    return html.length();
+                }
+                final int closeEnd = html.indexOf('>', close);
+                return closeEnd < 0 ? html.length() : closeEnd + 1;
+            }
+        }
+        return tagEnd + 1;
+    }
+
+    private static boolean isStartTag(String html, int start, String name) {
+        final int after = start + 1 + name.length();
+        if (after >= html.length() || !html.regionMatches(true, start + 1, name, 0, name.length())) {
+            return false;
+        }
+        final char c = html.charAt(after);
+        return c == '>' || c == '/' || Character.isWhitespace(c);
+    }
+
+    private static int indexOfIgnoreCase(String html, String target, int from) {
+        for (int i = from; i <= html.length() - target.length(); i++) {
+            if (html.regionMatches(true, i, target, 0, target.length())) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
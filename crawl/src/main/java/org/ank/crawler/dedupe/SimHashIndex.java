@@ -0,0 +1,109 @@
+package org.ank.crawler.dedupe;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Remembers SimHash fingerprints and finds any within a Hamming distance of a new one without comparing
+ * against all of them.
+ * <p>
+ * The 64 bits are cut into {@code maxDistance + 1} bands. Two fingerprints differing in at most
+ * {@code maxDistance} bits cannot differ in every band, so they share at least one band exactly: each band
+ * is indexed in a hash table, and only fingerprints found in one of the new fingerprint's band buckets are
+ * compared bit by bit.
+ * <p>
+ * Thread-safe: lookups and inserts run under one lock, so of two near-identical pages processed at the same
+ * time exactly one is seen first.
+ */
+public class SimHashIndex {
+
+    private final int maxDistance;
+    private final int[] bandStarts;
+    private final List<Map<Long, Bucket>> bands = new ArrayList<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private long size;
+
+    /**
+     * @param maxDistance Largest Hamming distance (number of differing bits) still counted as a near-duplicate.
+     */
+    public SimHashIndex(int maxDistance) {
+        if (maxDistance < 0 || maxDistance > 15) {
+            throw new IllegalArgumentException("Max distance must be between 0 and 15");
+        }
+        this.maxDistance = maxDistance;
+        final int bandCount = maxDistance + 1;
+        this.bandStarts = new int[bandCount + 1];
+        for (int band = 0; band <= bandCount; band++) {
+            bandStarts[band] = band * Long.SIZE / bandCount;
+        }
+        for (int band = 0; band < bandCount; band++) {
+            bands.add(new HashMap<>());
+        }
+    }
+
+    /**
+     * Adds the fingerprint unless a near-duplicate is already indexed.
+     *
+     * @return true if it was added; false if a fingerprint within {@code maxDistance} bits was found.
+     */
+    public boolean addIfDistinct(long fingerprint) {
+        lock.lock();
+        try {
+            for (int band = 0; band < bands.size(); band++) {
+                final Bucket bucket = bands.get(band).get(bandKey(fingerprint, band));
+                if (bucket != null && bucket.containsWithin(fingerprint, maxDistance)) {
+                    return false;
+                }
+            }
+            for (int band = 0; band < bands.size(); band++) {
+                bands.get(band).computeIfAbsent(bandKey(fingerprint, band), key -> new Bucket()).add(fingerprint);
+            }
+            size++;
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long size() {
+        lock.lock();
+        try {
+            return size;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private long bandKey(long fingerprint, int band) {
+        final int width = bandStarts[band + 1] - bandStarts[band];
+        return (fingerprint >>> bandStarts[band]) & (width == Long.SIZE ? -1L : (1L << width) - 1);
+    }
+
+    /**
+     * Fingerprints sharing one band value, in a growable primitive array.
+     */
+    private static final class Bucket {
+        private long[] fingerprints = new long[2];
+        private int count;
+
+        void add(long fingerprint) {
+            if (count == fingerprints.length) {
+                fingerprints = Arrays.copyOf(fingerprints, count * 2);
+            }
+            fingerprints[count++] = fingerprint;
+        }
+
+        boolean containsWithin(long fingerprint, int maxDistance) {
+            for (int i = 0; i < count; i++) {
+                if (SimHash.distance(fingerprints[i], fingerprint) <= maxDistance) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
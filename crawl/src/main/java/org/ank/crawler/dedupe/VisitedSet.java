@@ -0,0 +1,88 @@
+package org.ank.crawler.dedupe;
+
+import org.ank.crawler.config.DedupeConfig;
+
+import java.util.Set;
+
+/**
+ * The set of URLs a frontier has already visited (or started visiting).
+ * Implementations are thread-safe. The frontier closes the set when its crawl ends; {@link #urls()} still works
+ * afterwards.
+ */
+public interface VisitedSet extends AutoCloseable {
+
+    /**
+     * Marks the URI as visited.
+     *
+     * @return true if the URI was not visited before.
+     */
+    boolean add(String uri);
+
+    /**
+     * @return true if the URI has been visited.
+     */
+    boolean contains(String uri);
+
+    /**
+     * @return Number of distinct URIs visited.
+     */
+    long size();
+
+    /**
+     * Returns the visited URIs as a read-only set. Implementations that do not keep URLs on the heap
+     * may stream them back from disk on each iteration, so this is meant for after the crawl rather than
+     * the hot path.
+     */
+    Set<String> urls();
+
+    /**
+     * Pushes any buffered output (e.g. a URL log) to its destination.
+     */
+    default void flush() {
+    }
+
+    /**
+     * Flushes and releases anything the set holds open, such as the URL log's file. No URI can be added after.
+     */
+    @Override
+    default void close() {
+    }
+
+    /**
+     * @return A one-line summary of the set's size and health, logged at the end of a crawl.
+     */
+    default String describe() {
+        return size() + " URLs visited";
+    }
+
+    /**
+     * @return The set's size and, for a filter, how full it is; cheap enough to read while the crawl runs.
+     */
+    default Health health() {
+        return new Health(size(), 0, 0);
+    }
+
+    /**
+     * Creates the visited set described by the config.
+     */
+    static VisitedSet create(DedupeConfig config) {
+        return switch (config.mode()) {
+            case EXACT -> new ExactVisitedSet();
+            case FINGERPRINT -> new FingerprintVisitedSet(config.expectedUrls(), config.visitedUrlsPath());
+            case BLOOM -> new BloomVisitedSet(config.expectedUrls(), config.falsePositiveRate(),
+                    config.visitedUrlsPath());
+        };
+    }
+
+    /**
+     * Size and health of a visited set.
+     *
+     * @param urls                       Distinct URIs visited.
+     * @param fillRatio                  Fraction of the filter's bits that are set; 0 for sets that are not filters.
+     * @param estimatedFalsePositiveRate Chance an unvisited URI is taken for a visited one; 0 for exact sets.
+     */
+    record Health(long urls, double fillRatio, double estimatedFalsePositiveRate) {
+
+        public static final Health EMPTY = new Health(0, 0, 0);
+    }
+}
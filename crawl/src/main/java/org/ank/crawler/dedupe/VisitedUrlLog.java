@@ -0,0 +1,165 @@
+package org.ank.crawler.dedupe;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractSet;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Queue;
+import java.util.Set;
+
+/**
+ * Append-only file of visited URLs, one per line, so the URL strings do not have to stay on the heap.
+ * Writes are buffered; {@link #flush()} makes them visible to readers, and {@link #close()} flushes
+ * and releases the file.
+ */
+public class VisitedUrlLog implements Closeable {
+
+    private static final int READ_CHUNK_BYTES = 64 * 1024;
+
+    private final Path path;
+    private final BufferedWriter writer;
+    private boolean closed;
+
+    /**
+     * Creates (or truncates) the log file.
+     */
+    public VisitedUrlLog(Path path) {
+        this.path = path;
+        try {
+            final Path parent = path.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            this.writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open visited URL log " + path, e);
+        }
+    }
+
+    public synchronized void append(String uri) {
+        if (closed) {
+            throw new IllegalStateException("Visited URL log " + path + " is closed");
+        }
+        try {
+            writer.write(uri);
+            writer.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write to visited URL log " + path, e);
+        }
+    }
+
+    public synchronized void flush() {
+        if (closed) {
+            return;
+        }
+        try {
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot flush visited URL log " + path, e);
+        }
+    }
+
+    /**
+     * Returns a read-only view of the logged URLs that reads the file as it is iterated, a chunk at a time,
+     * so only the chunk being read is on the heap and no file handle is held between chunks.
+     * Pending writes are flushed when iteration starts.
+     *
+     * @param visited The set that owns this log, which answers {@code size} and {@code contains}
+     *                (with its own false-positive odds) without reading the file.
+     */
+    public Set<String> urls(VisitedSet visited) {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<String> iterator() {
+                flush();
+                return new LineIterator();
+            }
+
+            @Override
+            public int size() {
+                return (int) Math.min(Integer.MAX_VALUE, visited.size());
+            }
+
+            @Override
+            public boolean contains(Object o) {
+                return o instanceof String uri && visited.contains(uri);
+            }
+        };
+    }
+
+    public Path path() {
+        return path;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (!closed) {
+            closed = true;
+            writer.close();
+        }
+    }
+
+    /**
+     * Reads the lines written up to the last flush, reopening the file at the saved offset for each chunk.
+     */
+    private class LineIterator implements Iterator<String> {
+        private final Queue<String> lines = new ArrayDeque<>();
+        private ByteBuffer buffer = ByteBuffer.allocate(READ_CHUNK_BYTES);
+        private long offset;
+        private boolean eof;
+
+        @Override
+        public boolean hasNext() {
+            while (lines.isEmpty() && !eof) {
+                readChunk();
+            }
+            return !lines.isEmpty();
+        }
+
+        @Override
+        public String next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return lines.remove();
+        }
+
+        private void readChunk() {
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                buffer.clear();
+                if (channel.read(buffer, offset) <= 0) {
+                    eof = true;
+                    return;
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot read visited URL log " + path, e);
+            }
+            final byte[] bytes = buffer.array();
+            int start = 0;
+            for (int i = 0; i < buffer.position(); i++) {
+                if (bytes[i] == '\n') {
+                    lines.add(new String(bytes, start, i - start, StandardCharsets.UTF_8));
+                    start = i + 1;
+                }
+            }
+            offset += start;
+            if (start == 0) {
+                if (buffer.hasRemaining()) {
+                    eof = true; // a partial last line, not flushed yet
+                } else {
+                    buffer = ByteBuffer.allocate(buffer.capacity() * 2); // a line longer than the buffer
+                }
+            }
+        }
+    }
+}
@@ -4,6 +4,7 @@ import org.ank.crawler.controller.CrawlController;
 import org.ank.crawler.frontier.Frontier;
 import org.ank.crawler.processor.Processor;
 import org.ank.crawler.scope.Scope;
+import org.ank.crawler.sitemap.SitemapIngester;
 
 import java.util.List;
 
@@ -15,14 +16,20 @@ public class WebCrawlerFactory {
     private final Scope scope;
     private final List<Processor> processors;
     private final Frontier frontier;
+    private final SitemapIngester sitemaps;
 
     public WebCrawlerFactory(Scope scope, List<Processor> processors, Frontier frontier) {
+        this(scope, processors, frontier, null);
+    }
+
+    public WebCrawlerFactory(Scope scope, List<Processor> processors, Frontier frontier, SitemapIngester sitemaps) {
         this.scope = scope;
         this.processors = processors;
         this.frontier = frontier;
+        this.sitemaps = sitemaps;
     }
 
     public CrawlController createController() {
-        return new CrawlController(scope, processors, frontier);
+        return new CrawlController(scope, processors, frontier, sitemaps);
     }
 }
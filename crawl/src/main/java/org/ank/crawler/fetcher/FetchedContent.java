@@ -1,7 +1,80 @@
 package org.ank.crawler.fetcher;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
 /**
  * Immutable data container for fetched content from a URL.
+ *
+ * @param statusCode   HTTP status of the response.
+ * @param content      Response body.
+ * @param headers      Response headers, keyed by lower-case name (one value per name).
+ * @param headerValues Every value of every response header, keyed by lower-case name, e.g. each {@code Set-Cookie};
+ *                     derived from {@code headers} if empty. Only needed to archive the response.
  */
-public record FetchedContent(int statusCode, String content) {
+public record FetchedContent(int statusCode, String content, Map<String, String> headers,
+                             Map<String, List<String>> headerValues) {
+
+    public static final int NOT_MODIFIED = 304;
+
+    public FetchedContent {
+        if (headers == null || headers.isEmpty()) {
+            headers = Map.of();
+        } else {
+            final Map<String, String> normalized = new HashMap<>();
+            headers.forEach((name, value) -> normalized.putIfAbsent(name.toLowerCase(Locale.ROOT), value));
+            headers = Map.copyOf(normalized);
+        }
+        if (headerValues == null || headerValues.isEmpty()) {
+            final Map<String, List<String>> single = new LinkedHashMap<>();
+            headers.forEach((name, value) -> single.put(name, List.of(value)));
+            headerValues = Collections.unmodifiableMap(single);
+        } else {
+            final Map<String, List<String>> normalized = new LinkedHashMap<>();
+            headerValues.forEach((name, values) ->
+                    normalized.computeIfAbsent(name.toLowerCase(Locale.ROOT), n -> new ArrayList<>()).addAll(values));
+            normalized.replaceAll((name, values) -> List.copyOf(values));
+            headerValues = Collections.unmodifiableMap(normalized);
+        }
+    }
+
+    public FetchedContent(int statusCode, String content, Map<String, String> headers) {
+        this(statusCode, content, headers, Map.of());
+    }
+
+    public FetchedContent(int statusCode, String content) {
+        this(statusCode, content, Map.of());
+    }
+
+    /**
+     * Builds the content from a response's full header lists, as HTTP clients hand them out.
+     */
+    public static FetchedContent of(int statusCode, String content, Map<String, List<String>> headerValues) {
+        final Map<String, String> headers = new HashMap<>();
+        headerValues.forEach((name, values) -> {
+            if (!values.isEmpty()) {
+                headers.put(name, values.getFirst());
+            }
+        });
+        return new FetchedContent(statusCode, content, headers, headerValues);
+    }
+
+    /**
+     * @return true if the server confirmed a conditional request's copy is still current (HTTP 304, no body).
+     */
+    public boolean notModified() {
+        return statusCode == NOT_MODIFIED;
+    }
+
+    /**
+     * @return The value of the named header (case-insensitive), or null if the response did not have it.
+     */
+    public String header(String name) {
+        return headers.get(name.toLowerCase(Locale.ROOT));
+    }
 }
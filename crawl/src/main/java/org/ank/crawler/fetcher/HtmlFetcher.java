@@ -12,4 +12,14 @@ public interface HtmlFetcher {
      * Fetch content from a URI and return it in a structured format.
      */
     FetchedContent fetch(String uri) throws IOException;
+
+    /**
+     * Fetch content only if it changed since the validators were issued, by sending {@code If-None-Match} and
+     * {@code If-Modified-Since}. An unchanged page comes back as {@link FetchedContent#notModified()}.
+     * <p>
+     * The default implementation ignores the validators and always fetches the full page.
+     */
+    default FetchedContent fetchConditional(String uri, Validators validators) throws IOException {
+        return fetch(uri);
+    }
 }
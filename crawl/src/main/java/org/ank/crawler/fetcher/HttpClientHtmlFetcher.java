@@ -0,0 +1,107 @@
+package org.ank.crawler.fetcher;
+
+import org.ank.crawler.util.Constants;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Concrete implementation on top of {@link java.net.http.HttpClient}.
+ * <p>
+ * A single client is shared by every fetch made through this instance, so connections are kept alive
+ * and reused across requests to the same host, and HTTP/2 is negotiated when the server offers it
+ * (one multiplexed connection per host instead of a TCP/TLS handshake per page).
+ * <p>
+ * Non-2xx responses are returned as {@link FetchedContent} rather than thrown. Each call makes a single attempt;
+ * retrying is left to the frontier, which backs off without holding a worker.
+ */
+public class HttpClientHtmlFetcher implements HtmlFetcher {
+
+    private static final Duration TIMEOUT = Duration.ofMillis(5000);
+
+    private final HttpClient client;
+
+    public HttpClientHtmlFetcher() {
+        this(HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .connectTimeout(TIMEOUT)
+                .build());
+    }
+
+    /**
+     * @param client The client to share across fetches, e.g. one with a custom executor or proxy.
+     */
+    public HttpClientHtmlFetcher(HttpClient client) {
+        this.client = client;
+    }
+
+    @Override
+    public FetchedContent fetch(String uri) throws IOException {
+        return fetchConditional(uri, Validators.NONE);
+    }
+
+    @Override
+    public FetchedContent fetchConditional(String uri, Validators validators) throws IOException {
+        try {
+            return fetchAsync(uri, validators).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while fetching " + uri);
+        } catch (ExecutionException e) {
+            throw asIOException(e.getCause());
+        }
+    }
+
+    /**
+     * Fetches the URI without blocking the calling thread.
+     *
+     * @param uri The URI to fetch.
+     * @return A future completing with the fetched content, or exceptionally with the {@link IOException}.
+     * @throws IllegalArgumentException If the URI is not a valid http(s) URI.
+     */
+    public CompletableFuture<FetchedContent> fetchAsync(String uri) {
+        return fetchAsync(uri, Validators.NONE);
+    }
+
+    /**
+     * Fetches the URI without blocking the calling thread, conditionally on the validators.
+     *
+     * @param uri        The URI to fetch.
+     * @param validators Sent as {@code If-None-Match} / {@code If-Modified-Since}; {@link Validators#NONE} for none.
+     * @return A future completing with the fetched content, or exceptionally with the {@link IOException}.
+     * @throws IllegalArgumentException If the URI is not a valid http(s) URI.
+     */
+    public CompletableFuture<FetchedContent> fetchAsync(String uri, Validators validators) {
+        final HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(uri))
+                .timeout(TIMEOUT)
+                .header("User-Agent", Constants.USER_AGENT);
+        if (validators.etag() != null) {
+            builder.header("If-None-Match", validators.etag());
+        }
+        if (validators.lastModified() != null) {
+            builder.header("If-Modified-Since", validators.lastModified());
+        }
+        final HttpRequest request = builder.GET().build();
+        return client.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                .thenApply(response -> FetchedContent.of(response.statusCode(), response.body(),
+                        response.headers().map()))
+                .exceptionallyCompose(failure -> CompletableFuture.failedFuture(
+                        failure instanceof CompletionException ? failure.getCause() : failure));
+    }
+
+    private static IOException asIOException(Throwable cause) {
+        if (cause instanceof IOException ioException) {
+            return ioException;
+        }
+        return new IOException(cause);
+    }
+}
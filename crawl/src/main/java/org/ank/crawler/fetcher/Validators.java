@@ -0,0 +1,25 @@
+package org.ank.crawler.fetcher;
+
+/**
+ * HTTP cache validators of a previously fetched page, sent back to make a conditional request.
+ *
+ * @param etag         The {@code ETag} response header, or null.
+ * @param lastModified The {@code Last-Modified} response header, or null.
+ */
+public record Validators(String etag, String lastModified) {
+
+    public static final Validators NONE = new Validators(null, null);
+
+    /**
+     * @return The validators the response carries ({@link #NONE} if it has neither header).
+     */
+    public static Validators of(FetchedContent content) {
+        final String etag = content.header("ETag");
+        final String lastModified = content.header("Last-Modified");
+        return etag == null && lastModified == null ? NONE : new Validators(etag, lastModified);
+    }
+
+    public boolean isEmpty() {
+        return etag == null && lastModified == null;
+    }
+}
@@ -0,0 +1,98 @@
+package org.ank.crawler.frontier;
+
+import org.ank.crawler.fetcher.FetchedContent;
+import org.jsoup.HttpStatusException;
+import org.jsoup.UnsupportedMimeTypeException;
+
+import javax.net.ssl.SSLException;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.ConnectException;
+import java.net.MalformedURLException;
+import java.net.ProtocolException;
+import java.net.SocketTimeoutException;
+import java.net.UnknownHostException;
+import java.net.UnknownServiceException;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Why a fetch failed, and whether trying again later could help.
+ *
+ * @param transientFailure True for failures that may go away (timeouts, dropped connections, 5xx, 408, 429).
+ * @param retryAfter       How long the server asked us to wait ({@code Retry-After}), or null.
+ * @param reason           Short description for logging.
+ */
+record FetchFailure(boolean transientFailure, Duration retryAfter, String reason) {
+
+    /**
+     * Classifies a response.
+     *
+     * @return The failure, or null if the status is not worth retrying (success, redirects, other 4xx).
+     */
+    static FetchFailure of(FetchedContent content) {
+        final int status = content.statusCode();
+        if (!isTransientStatus(status)) {
+            return null;
+        }
+        return new FetchFailure(true, parseRetryAfter(content.header("Retry-After"), Instant.now()), "HTTP " + status);
+    }
+
+    /**
+     * Classifies an exception thrown by a fetcher.
+     */
+    static FetchFailure of(Exception e) {
+        final String reason = e.getClass().getSimpleName() + ": " + e.getMessage();
+        if (e instanceof HttpStatusException statusException) {
+            return new FetchFailure(isTransientStatus(statusException.getStatusCode()), null, reason);
+        }
+        if (e instanceof UnknownHostException || e instanceof MalformedURLException || e instanceof SSLException) {
+            return new FetchFailure(false, null, reason);
+        }
+        if (e instanceof UnsupportedMimeTypeException || e instanceof ProtocolException
+                || e instanceof UnknownServiceException) {
+            // not a page we can parse (PDF, image, ...), too many redirects, or a broken protocol exchange:
+            // the same request gets the same answer next time
+            return new FetchFailure(false, null, reason);
+        }
+        if (e instanceof SocketTimeoutException || e instanceof HttpTimeoutException || e instanceof ConnectException) {
+            return new FetchFailure(true, null, reason);
+        }
+        if (e instanceof InterruptedIOException) {
+            return new FetchFailure(false, null, reason); // interrupted: the crawl is shutting down
+        }
+        // other I/O errors are mostly dropped or reset connections; anything else (bad URL, parser bug) is ours
+        return new FetchFailure(e instanceof IOException, null, reason);
+    }
+
+    static boolean isTransientStatus(int status) {
+        return status == 408 || status == 429 || (status >= 500 && status != 501 && status != 505);
+    }
+
+    /**
+     * Parses a {@code Retry-After} value: either delay-seconds or an HTTP date.
+     *
+     * @return The delay (never negative), or null if the value is missing or malformed.
+     */
+    static Duration parseRetryAfter(String value, Instant now) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        final String trimmed = value.trim();
+        try {
+            return Duration.ofSeconds(Math.max(0, Long.parseLong(trimmed)));
+        } catch (NumberFormatException e) {
+            // not delay-seconds, try an HTTP date
+        }
+        try {
+            final Instant at = ZonedDateTime.parse(trimmed, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant();
+            return at.isAfter(now) ? Duration.between(now, at) : Duration.ZERO;
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+}
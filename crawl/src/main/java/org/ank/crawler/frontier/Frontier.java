@@ -3,6 +3,7 @@ package org.ank.crawler.frontier;
 import org.ank.crawler.processor.Processor;
 import org.ank.crawler.scope.Scope;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Set;
 
@@ -17,6 +18,24 @@ public interface Frontier {
      */
     void schedule(String uri);
 
+    /**
+     * Schedule a batch of URIs, e.g. from a sitemap, as if each were passed to {@link #schedule}.
+     * Implementations may take their locks once per batch. The collection is not retained, so callers can reuse it.
+     */
+    default void scheduleAll(Collection<String> uris) {
+        for (String uri : uris) {
+            schedule(uri);
+        }
+    }
+
+    /**
+     * Marks a URI as already visited without fetching it, e.g. when resuming from a checkpoint.
+     * Must be called before {@link #start}.
+     */
+    default void markVisited(String uri) {
+        throw new UnsupportedOperationException(getClass().getSimpleName() + " cannot resume a crawl");
+    }
+
     /**
      * Start the frontier's processing loop, fetching URIs,
      * applying Processors, and scheduling new ones as discovered.
@@ -0,0 +1,501 @@
+package org.ank.crawler.frontier;
+
+import org.ank.crawler.cache.ValidatorStore;
+import org.ank.crawler.checkpoint.CheckpointJournal;
+import org.ank.crawler.config.PolitenessConfig;
+import org.ank.crawler.config.RetryConfig;
+import org.ank.crawler.config.WebCrawlerConfig;
+import org.ank.crawler.dedupe.ExactVisitedSet;
+import org.ank.crawler.dedupe.VisitedSet;
+import org.ank.crawler.fetcher.HtmlFetcher;
+import org.ank.crawler.fetcher.JsoupHtmlFetcher;
+import org.ank.crawler.metrics.CrawlMetrics;
+import org.ank.crawler.metrics.MetricsSnapshot;
+import org.ank.crawler.processor.Processor;
+import org.ank.crawler.queue.QueuedUri;
+import org.ank.crawler.scope.Scope;
+import org.ank.crawler.sink.ResultSink;
+import org.ank.crawler.url.UrlCanonicalizer;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A "Frontier" that spreads load across hosts instead of draining one FIFO queue:
+ * - Keeps one queue of pending URIs per host, each with the link depth it was found at
+ * - Keeps a ready-heap of hosts ordered by the next time each host may be fetched
+ * - Limits every host by a token bucket (rate + burst) and a maximum number of concurrent fetches;
+ *   a host whose {@link Scope#crawlDelay crawl delay} is longer than the configured interval gets that delay instead.
+ *   The delay is looked up again before every fetch, so it applies as soon as the host's robots.txt is loaded
+ *   (usually while its first page is processed) and follows the file when it is refreshed
+ * - Worker threads always take the host whose turn comes first, so slow or rate-limited hosts
+ *   never block the others
+ * - URIs that failed transiently go back on their host's queue once their backoff has elapsed
+ * - Every page is reported to the {@link ResultSink} with its depth as soon as it is done
+ * <p>
+ * The crawl ends as soon as no URI is pending, being fetched or waiting for a retry.
+ */
+public class PoliteFrontier implements Frontier {
+
+    private static final Logger LOGGER = Logger.getLogger(PoliteFrontier.class.getName());
+    private static final int SHUTDOWN_TIMEOUT_MINUTES = 10;
+
+    private final VisitedSet visited;
+    private final CheckpointJournal journal;
+    private final RetryScheduler retries;
+    private final ValidatorStore validatorStore;
+    private final CrawlMetrics metrics;
+    private final ResultSink results;
+
+    // scheduling state, all guarded by lock
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition stateChanged = lock.newCondition();
+    private final Map<String, HostQueue> hostQueues = new HashMap<>();
+    private final PriorityQueue<HostQueue> readyHosts =
+            new PriorityQueue<>(Comparator.comparingLong(host -> host.nextFetchNanos));
+    private long pendingCount;
+    private int inFlightCount;
+    private int awaitingRetryCount;
+    private boolean finished;
+    private Scope scope; // set by start; asked for each host's crawl delay
+
+    // concurrency
+    private final int threadCount;
+    private final PolitenessConfig politeness;
+    private ExecutorService executor;
+
+    // shared by all workers
+    private final HtmlFetcher fetcher;
+    private final UrlCanonicalizer canonicalizer;
+
+    // to signal we've started
+    private final AtomicBoolean started = new AtomicBoolean(false);
+
+    public PoliteFrontier(int threadCount, PolitenessConfig politeness) {
+        this(threadCount, politeness, new JsoupHtmlFetcher(), UrlCanonicalizer.IDENTITY, new ExactVisitedSet(),
+                CheckpointJournal.NONE, RetryConfig.DEFAULT, ValidatorStore.NONE, CrawlMetrics.NONE,
+                ResultSink.NONE);
+    }
+
+    public PoliteFrontier(WebCrawlerConfig config, PolitenessConfig politeness) {
+        this(config, politeness, new JsoupHtmlFetcher());
+    }
+
+    /**
+     * @param config     Crawl settings (thread count, URL canonicalization, dedupe, checkpointing, retries,
+     *                   conditional recrawl store, metrics, result sink).
+     * @param politeness Per-host rate and concurrency limits.
+     * @param fetcher    The fetcher shared by every worker, e.g. a pooled {@code HttpClientHtmlFetcher}.
+     */
+    public PoliteFrontier(WebCrawlerConfig config, PolitenessConfig politeness, HtmlFetcher fetcher) {
+        this(config.threadCount(), politeness, fetcher, config.urlCanonicalizer(),
+                VisitedSet.create(config.dedupe()), CheckpointJournal.create(config.checkpoint()),
+                config.retry(), ValidatorStore.create(config.validatorStore()), CrawlMetrics.create(config.metrics()),
+                config.results());
+    }
+
+    private PoliteFrontier(int threadCount, PolitenessConfig politeness, HtmlFetcher fetcher,
+                           UrlCanonicalizer canonicalizer, VisitedSet visited, CheckpointJournal journal,
+                           RetryConfig retry, ValidatorStore validatorStore, CrawlMetrics metrics,
+                           ResultSink results) {
+        this.threadCount = threadCount;
+        this.politeness = politeness;
+        this.fetcher = fetcher;
+        this.canonicalizer = canonicalizer;
+        this.visited = visited;
+        this.journal = journal;
+        this.retries = new RetryScheduler(retry, this::retryDue);
+        this.validatorStore = validatorStore;
+        this.metrics = metrics;
+        this.results = results;
+        metrics.queueDepth(this::pendingCount);
+        metrics.visitedSet(visited::health);
+    }
+
+    /**
+     * Schedule (enqueue) a new seed URL at depth 0 on its host's queue, if its canonical form hasn't already been
+     * visited.
+     * URLs without a host are dropped.
+     *
+     * @param uri The URL to add to the crawl queue.
+     */
+    @Override
+    public void schedule(String uri) {
+        enqueue(canonicalizer.canonicalize(uri), 0);
+    }
+
+    /**
+     * Schedules a batch of URLs, taking the frontier lock once for the whole batch.
+     *
+     * @param uris The URLs to schedule; not retained.
+     */
+    @Override
+    public void scheduleAll(Collection<String> uris) {
+        final List<String> fresh = new ArrayList<>(uris.size());
+        final List<String> hosts = new ArrayList<>(uris.size());
+        for (String uri : uris) {
+            final String canonicalUri = canonicalizer.canonicalize(uri);
+            if (visited.contains(canonicalUri)) {
+                continue;
+            }
+            final String host = hostOf(canonicalUri);
+            if (host == null) {
+                LOGGER.log(Level.FINE, "Dropping URI without a host: {0}", canonicalUri);
+                continue;
+            }
+            fresh.add(canonicalUri);
+            hosts.add(host);
+            journal.enqueued(canonicalUri);
+        }
+        if (fresh.isEmpty()) {
+            return;
+        }
+        lock.lock();
+        try {
+            for (int i = 0; i < fresh.size(); i++) {
+                addPending(hosts.get(i), fresh.get(i), 0);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Marks a URL as visited so it is never fetched, e.g. when resuming from a checkpoint.
+     *
+     * @param uri The URL that was already visited.
+     */
+    @Override
+    public void markVisited(String uri) {
+        visited.add(canonicalizer.canonicalize(uri));
+    }
+
+    private void enqueue(String uri, int depth) {
+        if (visited.contains(uri)) {
+            return;
+        }
+        final String host = hostOf(uri);
+        if (host == null) {
+            LOGGER.log(Level.FINE, "Dropping URI without a host: {0}", uri);
+            return;
+        }
+
+        journal.enqueued(uri);
+        lock.lock();
+        try {
+            addPending(host, uri, depth);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Puts a URI whose retry backoff has elapsed back on its host's queue at its earlier depth,
+     * bypassing the visited check.
+     */
+    private void retryDue(String uri, int depth) {
+        lock.lock();
+        try {
+            awaitingRetryCount--;
+            addPending(hostOf(uri), uri, depth);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Must hold lock
+    private void addPending(String host, String uri, int depth) {
+        final long now = System.nanoTime();
+        final HostQueue hostQueue = hostQueues.computeIfAbsent(host,
+                h -> new HostQueue(h, newBucket(Duration.ZERO, now)));
+        hostQueue.pending.add(new QueuedUri(uri, depth));
+        pendingCount++;
+        if (!hostQueue.ready && hostQueue.active < politeness.maxConcurrency()) {
+            markReady(hostQueue, now);
+        }
+    }
+
+    /**
+     * Starts the crawl by launching worker threads that take URIs host by host.
+     * Blocks until the frontier is drained or the shutdown timeout elapses.
+     * This method is safe to call only once; subsequent calls do nothing.
+     *
+     * @param processors The list of processors that parse/extract links or data from fetched pages.
+     * @param scope      The scope to determine if discovered links are in scope.
+     */
+    @Override
+    public void start(List<Processor> processors, Scope scope) {
+        if (!started.compareAndSet(false, true)) {
+            return; // already started
+        }
+        final UriProcessor uriProcessor = new UriProcessor(fetcher, processors, scope, canonicalizer, validatorStore,
+                metrics);
+
+        lock.lock();
+        try {
+            this.scope = scope;
+            finishIfDrained(); // nothing was scheduled
+        } finally {
+            lock.unlock();
+        }
+
+        executor = Executors.newFixedThreadPool(threadCount);
+        for (int i = 0; i < threadCount; i++) {
+            executor.submit(() -> workerLoop(uriProcessor));
+        }
+
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(SHUTDOWN_TIMEOUT_MINUTES, TimeUnit.MINUTES)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        } finally {
+            retries.close();
+            journal.close();
+            validatorStore.close();
+            visited.close();
+            metrics.close();
+            results.close();
+            LOGGER.info(visited::describe);
+        }
+    }
+
+    /**
+     * A worker loop that leases URIs from the ready hosts and processes them.
+     * Terminates once the frontier is drained or the thread is interrupted.
+     *
+     * @param uriProcessor Fetches each URI and runs the processor chain and scope checks.
+     */
+    private void workerLoop(UriProcessor uriProcessor) {
+        try {
+            Lease lease;
+            while ((lease = nextLease()) != null) {
+                boolean retrying = false;
+                try {
+                    final String uri = lease.uri();
+                    if (retries.claim(uri) || visited.add(uri)) {
+                        final UriProcessor.Result result = uriProcessor.process(uri);
+                        retrying = result.retryable() && retries.retryLater(uri, lease.depth(), result.failure());
+                        if (!retrying) {
+                            retries.succeeded(uri);
+                            results.accept(result.page().withDepth(lease.depth()));
+                            // Discoveries are scheduled before the lease is released,
+                            // so the frontier can never look drained while they are pending.
+                            for (String discoveredUri : result.discovered()) {
+                                enqueue(discoveredUri, lease.depth() + 1);
+                            }
+                            journal.visited(uri);
+                        }
+                    }
+                } finally {
+                    release(lease, retrying);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Waits for the host at the top of the ready-heap to become fetchable and takes one URI from it.
+     *
+     * @return The next URI to fetch, or null once the frontier is drained.
+     */
+    private Lease nextLease() throws InterruptedException {
+        lock.lock();
+        try {
+            while (!finished) {
+                final HostQueue hostQueue = readyHosts.peek();
+                if (hostQueue == null) {
+                    stateChanged.await();
+                    continue;
+                }
+                final long now = System.nanoTime();
+                final long waitNanos = hostQueue.nextFetchNanos - now;
+                if (waitNanos > 0) {
+                    stateChanged.awaitNanos(waitNanos);
+                    continue;
+                }
+
+                readyHosts.poll();
+                hostQueue.ready = false;
+                dropVisited(hostQueue);
+                if (hostQueue.pending.isEmpty()) {
+                    finishIfDrained();
+                    continue;
+                }
+                refreshCrawlDelay(hostQueue, now);
+                if (!hostQueue.bucket.tryAcquire(now)) {
+                    markReady(hostQueue, now);
+                    continue;
+                }
+
+                final QueuedUri queued = hostQueue.pending.poll();
+                pendingCount--;
+                hostQueue.lastLeaseNanos = now;
+                hostQueue.leased = true;
+                hostQueue.active++;
+                inFlightCount++;
+                if (!hostQueue.pending.isEmpty() && hostQueue.active < politeness.maxConcurrency()) {
+                    markReady(hostQueue, now);
+                }
+                return new Lease(hostQueue, queued.uri(), queued.depth());
+            }
+            return null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns a finished fetch's slot to its host and wakes up waiting workers.
+     *
+     * @param retrying true if the URI is now waiting for a retry, which keeps the crawl going.
+     */
+    private void release(Lease lease, boolean retrying) {
+        lock.lock();
+        try {
+            final HostQueue hostQueue = lease.host();
+            hostQueue.active--;
+            inFlightCount--;
+            if (retrying) {
+                awaitingRetryCount++;
+            }
+            if (!hostQueue.ready && !hostQueue.pending.isEmpty()) {
+                markReady(hostQueue, System.nanoTime());
+            }
+            finishIfDrained();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Rebuilds the host's bucket if its crawl delay changed, e.g. because robots.txt was loaded or refreshed.
+     * The new bucket counts the host's last fetch, so the next one still waits out the delay. Must hold lock.
+     */
+    private void refreshCrawlDelay(HostQueue hostQueue, long now) {
+        final Duration crawlDelay = scope == null ? Duration.ZERO : scope.crawlDelay(hostQueue.pending.peek().uri());
+        if (crawlDelay.equals(hostQueue.crawlDelay)) {
+            return;
+        }
+        hostQueue.crawlDelay = crawlDelay;
+        if (hostQueue.leased) {
+            hostQueue.bucket = newBucket(crawlDelay, hostQueue.lastLeaseNanos);
+            hostQueue.bucket.tryAcquire(hostQueue.lastLeaseNanos);
+        } else {
+            hostQueue.bucket = newBucket(crawlDelay, now);
+        }
+    }
+
+    // Must hold lock. A crawl delay slower than the configured rate replaces it, with no burst.
+    private TokenBucket newBucket(Duration crawlDelay, long now) {
+        final double delayRate = crawlDelay.isZero() ? Double.MAX_VALUE : 1e9 / crawlDelay.toNanos();
+        if (delayRate < politeness.requestsPerSecond()) {
+            return new TokenBucket(delayRate, 1, now);
+        }
+        return new TokenBucket(politeness.requestsPerSecond(), politeness.burst(), now);
+    }
+
+    // Must hold lock
+    private void markReady(HostQueue hostQueue, long now) {
+        hostQueue.nextFetchNanos = now + hostQueue.bucket.nanosUntilAvailable(now);
+        hostQueue.ready = true;
+        readyHosts.add(hostQueue);
+        stateChanged.signalAll();
+    }
+
+    // Must hold lock. Visited URIs are dropped here so they don't spend a token; URIs due for a retry are kept.
+    private void dropVisited(HostQueue hostQueue) {
+        while (!hostQueue.pending.isEmpty() && visited.contains(hostQueue.pending.peek().uri())
+                && !retries.isDue(hostQueue.pending.peek().uri())) {
+            hostQueue.pending.poll();
+            pendingCount--;
+        }
+    }
+
+    // Must hold lock. The retry count may briefly be -1 when a retry comes due before its lease is released.
+    private void finishIfDrained() {
+        if (pendingCount == 0 && inFlightCount == 0 && awaitingRetryCount == 0) {
+            finished = true;
+            stateChanged.signalAll();
+        }
+    }
+
+    private long pendingCount() {
+        lock.lock();
+        try {
+            return pendingCount;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static String hostOf(String uri) {
+        try {
+            final String host = URI.create(uri).getHost();
+            return host == null ? null : host.toLowerCase(Locale.ROOT);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Returns an unmodifiable set of all URLs that have been visited or are being visited.
+     * In fingerprint mode the URLs are read back from the visited-URL log (empty if none is configured).
+     *
+     * @return A read-only Set of visited URLs.
+     */
+    @Override
+    public Set<String> getVisited() {
+        return visited.urls();
+    }
+
+    /**
+     * Returns the fetch and parse metrics of the crawl, live while it runs and frozen once it is over.
+     * Empty unless metrics are enabled in the {@link WebCrawlerConfig}.
+     */
+    public MetricsSnapshot metrics() {
+        return metrics.snapshot();
+    }
+
+    /**
+     * Pending URIs and politeness state of a single host. Guarded by the frontier lock.
+     */
+    private static final class HostQueue {
+        private final String host;
+        private TokenBucket bucket;
+        private Duration crawlDelay = Duration.ZERO; // the one the bucket was built for
+        private final Deque<QueuedUri> pending = new ArrayDeque<>();
+        private long nextFetchNanos;
+        private long lastLeaseNanos;
+        private boolean leased; // lastLeaseNanos is set
+        private int active;
+        private boolean ready; // currently in the ready-heap
+
+        private HostQueue(String host, TokenBucket bucket) {
+            this.host = host;
+            this.bucket = bucket;
+        }
+
+        @Override
+        public String toString() {
+            return host;
+        }
+    }
+
+    private record Lease(HostQueue host, String uri, int depth) {
+    }
+}
@@ -0,0 +1,542 @@
+package org.ank.crawler.frontier;
+
+import org.ank.crawler.cache.ValidatorStore;
+import org.ank.crawler.checkpoint.CheckpointJournal;
+import org.ank.crawler.config.CrawlBudget;
+import org.ank.crawler.config.RetryConfig;
+import org.ank.crawler.config.WebCrawlerConfig;
+import org.ank.crawler.dedupe.ExactVisitedSet;
+import org.ank.crawler.dedupe.VisitedSet;
+import org.ank.crawler.fetcher.HtmlFetcher;
+import org.ank.crawler.fetcher.JsoupHtmlFetcher;
+import org.ank.crawler.metrics.CrawlMetrics;
+import org.ank.crawler.metrics.MetricsSnapshot;
+import org.ank.crawler.processor.Processor;
+import org.ank.crawler.scope.Scope;
+import org.ank.crawler.sink.ResultSink;
+import org.ank.crawler.url.UrlCanonicalizer;
+
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Logger;
+
+/**
+ * A "Frontier" that fetches the most valuable pages first and stops within a {@link CrawlBudget}:
+ * - Records the link depth of every URI (seeds are 0) and how many fetched pages link to it
+ * - Keeps pending URIs in a heap ordered by a pluggable {@link UriScorer} (breadth-first by default);
+ *   a pending URI is rescored when it is found closer to a seed or another page links to it
+ * - Never queues links deeper than the maximum depth
+ * - Stops starting fetches once the page budget is spent or the wall-clock budget has elapsed,
+ *   lets the fetches in flight finish and then ends the crawl normally
+ * - URIs that failed transiently are rescored and queued again once their backoff has elapsed
+ * - Every page is reported to the {@link ResultSink} with its depth as soon as it is done
+ * <p>
+ * The crawl ends as soon as no URI is pending, being fetched or waiting for a retry, or a budget runs out;
+ * {@link #stopReason()} tells which. URIs left pending stay in the checkpoint journal, so a crawl cut short can be
+ * resumed with a larger budget.
+ */
+public class PriorityFrontier implements Frontier {
+
+    private static final Logger LOGGER = Logger.getLogger(PriorityFrontier.class.getName());
+    // Time given to the fetches in flight when the wall-clock budget runs out
+    private static final int DRAIN_TIMEOUT_SECONDS = 60;
+    // Rescoring leaves outdated nodes in the heap; it is rebuilt once they outnumber the live ones by this much
+    private static final int STALE_NODE_ALLOWANCE = 1024;
+
+    /**
+     * Why a crawl ended.
+     */
+    public enum StopReason {
+        /** Every reachable page in scope was fetched. */
+        DRAINED,
+        /** Every page within the maximum depth was fetched; deeper links were left out. */
+        MAX_DEPTH,
+        /** The page budget was spent; the rest of the frontier was left out. */
+        MAX_PAGES,
+        /** The wall-clock budget elapsed; the rest of the frontier was left out. */
+        MAX_DURATION
+    }
+
+    private final VisitedSet visited;
+    private final CheckpointJournal journal;
+    private final RetryScheduler retries;
+    private final ValidatorStore validatorStore;
+    private final CrawlMetrics metrics;
+    private final ResultSink results;
+    private final CrawlBudget budget;
+    private final UriScorer scorer;
+
+    // scheduling state, all guarded by lock
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition stateChanged = lock.newCondition();
+    private final Map<String, Entry> pending = new HashMap<>();
+    private final PriorityQueue<Node> heap = new PriorityQueue<>(PriorityFrontier::compareNodes);
+    private long nextSequence;
+    private int inFlightCount;
+    private int awaitingRetryCount;
+    private long pagesStarted;
+    private long linksBeyondDepth;
+    private long urisOverBudget;
+    private long deadlineNanos;
+    private boolean hasDeadline;
+    private StopReason stopReason; // null while the crawl runs
+
+    // concurrency
+    private final int threadCount;
+    private ExecutorService executor;
+
+    // shared by all workers
+    private final HtmlFetcher fetcher;
+    private final UrlCanonicalizer canonicalizer;
+
+    // to signal we've started
+    private final AtomicBoolean started = new AtomicBoolean(false);
+
+    public PriorityFrontier(int threadCount, CrawlBudget budget, UriScorer scorer) {
+        this(threadCount, budget, scorer, new JsoupHtmlFetcher(), UrlCanonicalizer.IDENTITY, new ExactVisitedSet(),
+                CheckpointJournal.NONE, RetryConfig.DEFAULT, ValidatorStore.NONE, CrawlMetrics.NONE,
+                ResultSink.NONE);
+    }
+
+    public PriorityFrontier(WebCrawlerConfig config, CrawlBudget budget, UriScorer scorer) {
+        this(config, budget, scorer, new JsoupHtmlFetcher());
+    }
+
+    /**
+     * @param config  Crawl settings (thread count, URL canonicalization, dedupe, checkpointing, retries,
+     *                conditional recrawl store, metrics, result sink).
+     * @param budget  Depth, page and wall-clock limits of the crawl.
+     * @param scorer  Orders the pending URIs; the highest score is fetched first.
+     * @param fetcher The fetcher shared by every worker, e.g. a pooled {@code HttpClientHtmlFetcher}.
+     */
+    public PriorityFrontier(WebCrawlerConfig config, CrawlBudget budget, UriScorer scorer, HtmlFetcher fetcher) {
+        this(config.threadCount(), budget, scorer, fetcher, config.urlCanonicalizer(),
+                VisitedSet.create(config.dedupe()), CheckpointJournal.create(config.checkpoint()),
+                config.retry(), ValidatorStore.create(config.validatorStore()), CrawlMetrics.create(config.metrics()),
+                config.results());
+    }
+
+    private PriorityFrontier(int threadCount, CrawlBudget budget, UriScorer scorer, HtmlFetcher fetcher,
+                             UrlCanonicalizer canonicalizer, VisitedSet visited, CheckpointJournal journal,
+                             RetryConfig retry, ValidatorStore validatorStore, CrawlMetrics metrics,
+                             ResultSink results) {
+        if (budget == null || scorer == null) {
+            throw new IllegalArgumentException("Budget and scorer cannot be null");
+        }
+        this.threadCount = threadCount;
+        this.budget = budget;
+        this.scorer = scorer;
+        this.fetcher = fetcher;
+        this.canonicalizer = canonicalizer;
+        this.visited = visited;
+        this.journal = journal;
+        this.retries = new RetryScheduler(retry, this::retryDue);
+        this.validatorStore = validatorStore;
+        this.metrics = metrics;
+        this.results = results;
+        metrics.queueDepth(this::pendingCount);
+        metrics.visitedSet(visited::health);
+    }
+
+    /**
+     * Schedule (enqueue) a seed URL at depth 0, if its canonical form hasn't already been visited.
+     *
+     * @param uri The URL to add to the crawl queue.
+     */
+    @Override
+    public void schedule(String uri) {
+        enqueue(List.of(canonicalizer.canonicalize(uri)), 0, false);
+    }
+
+    /**
+     * Schedules a batch of seed URLs at depth 0, e.g. from a sitemap, taking the frontier lock once for the batch.
+     *
+     * @param uris The URLs to schedule; not retained.
+     */
+    @Override
+    public void scheduleAll(Collection<String> uris) {
+        final List<String> canonicalUris = new ArrayList<>(uris.size());
+        for (String uri : uris) {
+            canonicalUris.add(canonicalizer.canonicalize(uri));
+        }
+        enqueue(canonicalUris, 0, false);
+    }
+
+    /**
+     * Marks a URL as visited so it is never fetched, e.g. when resuming from a checkpoint.
+     *
+     * @param uri The URL that was already visited.
+     */
+    @Override
+    public void markVisited(String uri) {
+        visited.add(canonicalizer.canonicalize(uri));
+    }
+
+    /**
+     * Queues URIs that are neither visited nor pending, and rescores those already pending.
+     *
+     * @param uris   Canonical URIs.
+     * @param depth  Their depth: 0 for seeds, one more than the linking page's for discoveries.
+     * @param inLink true if a fetched page links to them, which counts towards their in-links.
+     */
+    private void enqueue(Collection<String> uris, int depth, boolean inLink) {
+        if (uris.isEmpty()) {
+            return;
+        }
+        lock.lock();
+        try {
+            boolean added = false;
+            for (String uri : uris) {
+                final Entry entry = pending.get(uri);
+                if (entry != null) {
+                    rescore(entry, depth, inLink);
+                } else if (visited.contains(uri)) {
+                    continue;
+                } else if (depth > budget.maxDepth()) {
+                    linksBeyondDepth++;
+                } else if (pagesStarted >= budget.maxPages()) {
+                    urisOverBudget++;
+                } else {
+                    // Journaled under the lock, so it is always recorded before the URI can be fetched
+                    journal.enqueued(uri);
+                    add(new Entry(uri, nextSequence++, false, depth, inLink ? 1 : 0));
+                    added = true;
+                }
+            }
+            if (added) {
+                stateChanged.signalAll();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Queues a URI whose retry backoff has elapsed again, bypassing the visited check, at its earlier depth.
+     */
+    private void retryDue(String uri, int depth) {
+        lock.lock();
+        try {
+            awaitingRetryCount--;
+            add(new Entry(uri, nextSequence++, true, depth, 0));
+            stateChanged.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Must hold lock
+    private void add(Entry entry) {
+        entry.score = scorer.score(entry.uri, entry.depth, entry.inLinks);
+        pending.put(entry.uri, entry);
+        push(entry);
+    }
+
+    // Must hold lock. The old heap node stays behind and is skipped when it comes up.
+    private void rescore(Entry entry, int depth, boolean inLink) {
+        entry.depth = Math.min(entry.depth, depth);
+        if (inLink) {
+            entry.inLinks++;
+        }
+        final double score = scorer.score(entry.uri, entry.depth, entry.inLinks);
+        if (score != entry.score) {
+            entry.score = score;
+            entry.version++;
+            push(entry);
+        }
+    }
+
+    // Must hold lock
+    private void push(Entry entry) {
+        heap.add(new Node(entry, entry.score, entry.version));
+        if (heap.size() > 2 * pending.size() + STALE_NODE_ALLOWANCE) {
+            rebuildHeap();
+        }
+    }
+
+    // Must hold lock
+    private void rebuildHeap() {
+        heap.clear();
+        for (Entry entry : pending.values()) {
+            heap.add(new Node(entry, entry.score, entry.version));
+        }
+    }
+
+    /**
+     * Starts the crawl by launching worker threads that take the best-scored URI each time.
+     * Blocks until the frontier is drained or a budget runs out and the fetches in flight have finished.
+     * This method is safe to call only once; subsequent calls do nothing.
+     *
+     * @param processors The list of processors that parse/extract links or data from fetched pages.
+     * @param scope      The scope to determine if discovered links are in scope.
+     */
+    @Override
+    public void start(List<Processor> processors, Scope scope) {
+        if (!started.compareAndSet(false, true)) {
+            return; // already started
+        }
+        final UriProcessor uriProcessor = new UriProcessor(fetcher, processors, scope, canonicalizer, validatorStore,
+                metrics);
+
+        lock.lock();
+        try {
+            if (budget.maxDuration() != null) {
+                hasDeadline = true;
+                deadlineNanos = System.nanoTime() + budget.maxDuration().toNanos();
+            }
+            stopIfDrained(); // nothing was scheduled
+        } finally {
+            lock.unlock();
+        }
+
+        executor = Executors.newFixedThreadPool(threadCount);
+        for (int i = 0; i < threadCount; i++) {
+            executor.submit(() -> workerLoop(uriProcessor));
+        }
+
+        executor.shutdown();
+        try {
+            if (!hasDeadline) {
+                executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+            } else if (!executor.awaitTermination(budget.maxDuration().toSeconds() + DRAIN_TIMEOUT_SECONDS,
+                    TimeUnit.SECONDS)) {
+                LOGGER.warning("Fetches still running " + DRAIN_TIMEOUT_SECONDS
+                        + "s after the crawl budget ran out; interrupting them");
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        } finally {
+            retries.close();
+            journal.close();
+            validatorStore.close();
+            visited.close();
+            metrics.close();
+            results.close();
+            LOGGER.info(this::describe);
+            LOGGER.info(visited::describe);
+        }
+    }
+
+    /**
+     * A worker loop that leases the best-scored URI and processes it.
+     * Terminates once the crawl has stopped or the thread is interrupted.
+     *
+     * @param uriProcessor Fetches each URI and runs the processor chain and scope checks.
+     */
+    private void workerLoop(UriProcessor uriProcessor) {
+        try {
+            Lease lease;
+            while ((lease = nextLease()) != null) {
+                boolean retrying = false;
+                try {
+                    final String uri = lease.uri();
+                    if (lease.retry()) {
+                        retries.claim(uri);
+                    }
+                    final UriProcessor.Result result = uriProcessor.process(uri);
+                    retrying = result.retryable() && retries.retryLater(uri, lease.depth(), result.failure());
+                    if (!retrying) {
+                        retries.succeeded(uri);
+                        results.accept(result.page().withDepth(lease.depth()));
+                        // Discoveries are queued before the lease is released,
+                        // so the frontier can never look drained while they are pending.
+                        enqueue(result.discovered(), lease.depth() + 1, true);
+                        journal.visited(uri);
+                    }
+                } finally {
+                    release(retrying);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Takes the best-scored pending URI, marking it visited and charging it to the page budget
+     * unless it is a retry. Waits while nothing is pending but fetches are still in flight or awaiting a retry.
+     *
+     * @return The next URI to fetch, or null once the crawl has stopped.
+     */
+    private Lease nextLease() throws InterruptedException {
+        lock.lock();
+        try {
+            while (stopReason == null) {
+                final long now = System.nanoTime();
+                if (hasDeadline && now - deadlineNanos >= 0) {
+                    stop(StopReason.MAX_DURATION);
+                    break;
+                }
+                final Node node = heap.poll();
+                if (node == null) {
+                    if (hasDeadline) {
+                        stateChanged.awaitNanos(deadlineNanos - now);
+                    } else {
+                        stateChanged.await();
+                    }
+                    continue;
+                }
+                final Entry entry = node.entry();
+                if (node.version() != entry.version) {
+                    continue; // rescored since this node was pushed
+                }
+                pending.remove(entry.uri);
+                if (!entry.retry) {
+                    if (!visited.add(entry.uri)) {
+                        stopIfDrained();
+                        continue;
+                    }
+                    if (++pagesStarted >= budget.maxPages()) {
+                        dropFresh();
+                    }
+                }
+                inFlightCount++;
+                return new Lease(entry.uri, entry.depth, entry.retry);
+            }
+            return null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns a finished fetch's slot and ends the crawl if nothing is left to do.
+     *
+     * @param retrying true if the URI is now waiting for a retry, which keeps the crawl going.
+     */
+    private void release(boolean retrying) {
+        lock.lock();
+        try {
+            inFlightCount--;
+            if (retrying) {
+                awaitingRetryCount++;
+            }
+            stopIfDrained();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Must hold lock. Once the page budget is spent only the retries of pages already charged are kept.
+    private void dropFresh() {
+        final int before = pending.size();
+        pending.values().removeIf(entry -> !entry.retry);
+        urisOverBudget += before - pending.size();
+        rebuildHeap();
+    }
+
+    // Must hold lock. The retry count may briefly be -1 when a retry comes due before its lease is released.
+    private void stopIfDrained() {
+        if (stopReason == null && pending.isEmpty() && inFlightCount == 0 && awaitingRetryCount == 0) {
+            if (urisOverBudget > 0) {
+                stop(StopReason.MAX_PAGES);
+            } else if (linksBeyondDepth > 0) {
+                stop(StopReason.MAX_DEPTH);
+            } else {
+                stop(StopReason.DRAINED);
+            }
+        }
+    }
+
+    // Must hold lock
+    private void stop(StopReason reason) {
+        stopReason = reason;
+        stateChanged.signalAll();
+    }
+
+    private String describe() {
+        lock.lock();
+        try {
+            return String.format("Crawl stopped (%s): %d page(s) fetched, %d URI(s) left pending, "
+                            + "%d URI(s) over the page budget, %d link(s) beyond depth %d",
+                    stopReason, pagesStarted, pending.size(), urisOverBudget, linksBeyondDepth, budget.maxDepth());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private long pendingCount() {
+        lock.lock();
+        try {
+            return pending.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return Why the crawl ended, or null while it is running or before it has started.
+     */
+    public StopReason stopReason() {
+        lock.lock();
+        try {
+            return stopReason;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns an unmodifiable set of all URLs that have been visited or are being visited.
+     * In fingerprint mode the URLs are read back from the visited-URL log (empty if none is configured).
+     *
+     * @return A read-only Set of visited URLs.
+     */
+    @Override
+    public Set<String> getVisited() {
+        return visited.urls();
+    }
+
+    /**
+     * Returns the fetch and parse metrics of the crawl, live while it runs and frozen once it is over.
+     * Empty unless metrics are enabled in the {@link WebCrawlerConfig}.
+     */
+    public MetricsSnapshot metrics() {
+        return metrics.snapshot();
+    }
+
+    private static int compareNodes(Node a, Node b) {
+        final int byScore = Double.compare(b.score(), a.score());
+        return byScore != 0 ? byScore : Long.compare(a.entry().sequence, b.entry().sequence);
+    }
+
+    /**
+     * A pending URI. Guarded by the frontier lock.
+     */
+    private static final class Entry {
+        private final String uri;
+        private final long sequence; // discovery order, breaks ties between equal scores
+        private final boolean retry;
+        private int depth;
+        private int inLinks;
+        private double score;
+        private int version; // bumped on every rescore, so outdated heap nodes can be told apart
+
+        private Entry(String uri, long sequence, boolean retry, int depth, int inLinks) {
+            this.uri = uri;
+            this.sequence = sequence;
+            this.retry = retry;
+            this.depth = depth;
+            this.inLinks = inLinks;
+        }
+    }
+
+    /**
+     * An entry as it was scored when pushed onto the heap.
+     */
+    private record Node(Entry entry, double score, int version) {
+    }
+
+    /**
+     * A URI handed to a worker, with the depth its page is reported at and its links are queued from.
+     */
+    private record Lease(String uri, int depth, boolean retry) {
+    }
+}
@@ -0,0 +1,149 @@
+package org.ank.crawler.frontier;
+
+import org.ank.crawler.config.RetryConfig;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.ObjIntConsumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Holds URIs whose fetch failed transiently until their backoff has elapsed, then hands them back to the frontier.
+ * <p>
+ * Waiting happens in a {@link DelayQueue} drained by one daemon thread (started with the first retry),
+ * so no worker ever sleeps on a retry.
+ * A URI is handed back with the link depth it was queued at.
+ * A URI handed back is "due": the frontier must process it again even though it is already in the visited set
+ * ({@link #claim}).
+ */
+final class RetryScheduler implements AutoCloseable {
+
+    private static final Logger LOGGER = Logger.getLogger(RetryScheduler.class.getName());
+
+    private final RetryConfig config;
+    private final ObjIntConsumer<String> onDue;
+    private final DelayQueue<Retry> waiting = new DelayQueue<>();
+    private final Map<String, Integer> failedAttempts = new ConcurrentHashMap<>();
+    private final Set<String> due = ConcurrentHashMap.newKeySet();
+    private final Thread dispatcher;
+    private final AtomicBoolean dispatcherStarted = new AtomicBoolean();
+
+    /**
+     * @param config Attempt limit and backoff.
+     * @param onDue  Called from the dispatcher thread with each URI whose backoff has elapsed, and its depth.
+     */
+    RetryScheduler(RetryConfig config, ObjIntConsumer<String> onDue) {
+        this.config = config;
+        this.onDue = onDue;
+        this.dispatcher = Thread.ofPlatform().daemon().name("retry-scheduler").unstarted(this::dispatchLoop);
+    }
+
+    /**
+     * Schedules another attempt if the failure is transient and attempts remain.
+     *
+     * @param depth The URI's link depth, handed back with it when it is due.
+     * @return true if a retry was scheduled; false if the URI has failed for good.
+     */
+    boolean retryLater(String uri, int depth, FetchFailure failure) {
+        final int attempts = failedAttempts.merge(uri, 1, Integer::sum);
+        final long delayNanos = failure.transientFailure() && attempts < config.maxAttempts()
+                ? delayNanos(attempts, failure) : -1;
+        if (delayNanos < 0) {
+            failedAttempts.remove(uri);
+            LOGGER.log(Level.WARNING, "Giving up on {0} after {1} attempt(s): {2}",
+                    new Object[]{uri, attempts, failure.reason()});
+            return false;
+        }
+        LOGGER.log(Level.INFO, "Retrying {0} in {1} ms (attempt {2} failed: {3})",
+                new Object[]{uri, TimeUnit.NANOSECONDS.toMillis(delayNanos), attempts, failure.reason()});
+        waiting.add(new Retry(uri, depth, System.nanoTime() + delayNanos));
+        if (dispatcherStarted.compareAndSet(false, true)) {
+            dispatcher.start();
+        }
+        return true;
+    }
+
+    /**
+     * Forgets earlier failures of a URI that has now been fetched.
+     */
+    void succeeded(String uri) {
+        failedAttempts.remove(uri);
+    }
+
+    /**
+     * @return true if the URI was handed back for a retry; the caller then owns that retry.
+     */
+    boolean claim(String uri) {
+        return due.remove(uri);
+    }
+
+    boolean isDue(String uri) {
+        return due.contains(uri);
+    }
+
+    @Override
+    public void close() {
+        dispatcher.interrupt();
+    }
+
+    /**
+     * The n-th retry waits between half and all of {@code min(maxDelay, baseDelay * 2^(n-1))}, but at least as long as
+     * the server's {@code Retry-After}.
+     *
+     * @return The delay, or -1 if the server asks for longer than {@code maxDelay}.
+     */
+    private long delayNanos(int failedAttempts, FetchFailure failure) {
+        final long maxNanos = config.maxDelay().toNanos();
+        final long baseNanos = config.baseDelay().toNanos();
+        final int doublings = Math.min(failedAttempts - 1, Long.SIZE - 2);
+        // Compared before shifting, since a long base delay shifted far enough would overflow
+        final long backoff = baseNanos > maxNanos >> doublings ? maxNanos : baseNanos << doublings;
+        final long jittered = backoff / 2 + ThreadLocalRandom.current().nextLong(backoff / 2 + 1);
+        if (failure.retryAfter() == null) {
+            return jittered;
+        }
+        final long retryAfter = failure.retryAfter().toNanos();
+        return retryAfter > maxNanos ? -1 : Math.max(jittered, retryAfter);
+    }
+
+    private void dispatchLoop() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                final Retry retry = waiting.take();
+                due.add(retry.uri);
+                onDue.accept(retry.uri, retry.depth);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static final class Retry implements Delayed {
+        private final String uri;
+        private final int depth;
+        private final long dueNanos;
+
+        private Retry(String uri, int depth, long dueNanos) {
+            this.uri = uri;
+            this.depth = depth;
+            this.dueNanos = dueNanos;
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(dueNanos - System.nanoTime(), TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(dueNanos, ((Retry) other).dueNanos);
+        }
+    }
+}
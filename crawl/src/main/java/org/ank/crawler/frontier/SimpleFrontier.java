@@ -1,62 +1,235 @@
 package org.ank.crawler.frontier;
 
+import org.ank.crawler.cache.ValidatorStore;
+import org.ank.crawler.checkpoint.CheckpointJournal;
+import org.ank.crawler.config.ExecutionMode;
+import org.ank.crawler.config.PipelineConfig;
+import org.ank.crawler.config.RetryConfig;
+import org.ank.crawler.config.WebCrawlerConfig;
+import org.ank.crawler.dedupe.ExactVisitedSet;
+import org.ank.crawler.dedupe.VisitedSet;
 import org.ank.crawler.fetcher.HtmlFetcher;
 import org.ank.crawler.fetcher.JsoupHtmlFetcher;
+import org.ank.crawler.metrics.CrawlMetrics;
+import org.ank.crawler.metrics.MetricsSnapshot;
 import org.ank.crawler.processor.Processor;
+import org.ank.crawler.queue.InMemoryUriQueue;
+import org.ank.crawler.queue.QueuedUri;
+import org.ank.crawler.queue.UriQueue;
 import org.ank.crawler.scope.Scope;
+import org.ank.crawler.sink.ResultSink;
+import org.ank.crawler.url.UrlCanonicalizer;
+import org.ank.crawler.util.Constants;
 
-import java.io.IOException;
-import java.util.Collections;
-import java.util.HashSet;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Set;
-import java.util.concurrent.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
  * A minimal "Frontier" that:
- * - Uses a BlockingQueue for URIs to process
- * - Spawns a fixed number of worker threads
- * - Each worker fetches + processes each URI
- * - Discovered URIs are added if they pass scope
+ * - Uses a FIFO {@link UriQueue} for URIs to process (on the heap, or spilling to disk)
+ * - Spawns a fixed number of worker threads, or one virtual thread per fetch
+ * - Each worker fetches + processes each URI, or in {@link ExecutionMode#STAGED} mode fetch threads hand pages
+ *   to a separate pool of parse threads through a bounded queue
+ * - Discovered URIs are added if they pass scope, one level deeper than the page they were found on
+ * - URIs that failed transiently go back on the queue once their backoff has elapsed
+ * - Every page is reported to the {@link ResultSink} with its depth as soon as it is done
+ * <p>
+ * The crawl ends as soon as no URI is queued, being processed or waiting for a retry.
  */
 public class SimpleFrontier implements Frontier {
 
     private static final Logger LOGGER = Logger.getLogger(SimpleFrontier.class.getName());
     private static final int SHUTDOWN_TIMEOUT_MINUTES = 10;
     public static final int QUEUE_POLL_TIMEOUT_SECONDS = 1;
-    private final Set<String> visited = ConcurrentHashMap.newKeySet();
-    private final BlockingQueue<String> uriQueue = new LinkedBlockingQueue<>();
+    // Wakes up a parse thread waiting for fetched pages once the crawl is over
+    private static final Handoff END_OF_CRAWL = new Handoff(new UriProcessor.Fetched("", null, null, null, 0, 0), 0);
+    private final VisitedSet visited;
+    private final UriQueue uriQueue;
+    private final CheckpointJournal journal;
+    private final RetryScheduler retries;
+    private final ValidatorStore validatorStore;
+    private final CrawlMetrics metrics;
+    private final ResultSink results;
 
     // concurrency
     private final int threadCount;
+    private final ExecutionMode executionMode;
+    private final int maxInFlightFetches;
+    private final PipelineConfig pipeline;
     private ExecutorService executor;
 
+    // staged mode only: fetched pages waiting for a parse thread, and the per-stage counters
+    private volatile BlockingQueue<Handoff> handoff;
+    private volatile List<StageMonitor> stages = List.of();
+
+    // shared by all workers
+    private final HtmlFetcher fetcher;
+    private final UrlCanonicalizer canonicalizer;
+
+    // URIs queued, being processed or waiting for a retry; the crawl is over when this reaches zero
+    private final AtomicLong outstanding = new AtomicLong();
+    private volatile boolean finished;
+
     // to signal we've started
     private final AtomicBoolean started = new AtomicBoolean(false);
 
     public SimpleFrontier(int threadCount) {
+        this(threadCount, ExecutionMode.PLATFORM_THREADS, Constants.DEFAULT_MAX_IN_FLIGHT_FETCHES,
+                new JsoupHtmlFetcher(), UrlCanonicalizer.IDENTITY, new ExactVisitedSet(),
+                new InMemoryUriQueue(), CheckpointJournal.NONE, RetryConfig.DEFAULT, ValidatorStore.NONE,
+                PipelineConfig.DEFAULT, CrawlMetrics.NONE, ResultSink.NONE);
+    }
+
+    public SimpleFrontier(WebCrawlerConfig config) {
+        this(config, new JsoupHtmlFetcher());
+    }
+
+    /**
+     * @param config  Crawl settings (thread count, execution mode, in-flight cap, URL canonicalization, dedupe, queue,
+     *                checkpointing, retries, conditional recrawl store, parse stage, metrics, result sink).
+     * @param fetcher The fetcher shared by every worker, e.g. a pooled {@code HttpClientHtmlFetcher}.
+     */
+    public SimpleFrontier(WebCrawlerConfig config, HtmlFetcher fetcher) {
+        this(config.threadCount(), config.executionMode(), config.maxInFlightFetches(), fetcher,
+                config.urlCanonicalizer(), VisitedSet.create(config.dedupe()), UriQueue.create(config.queue()),
+                CheckpointJournal.create(config.checkpoint()), config.retry(),
+                ValidatorStore.create(config.validatorStore()), config.pipeline(),
+                CrawlMetrics.create(config.metrics()), config.results());
+    }
+
+    private SimpleFrontier(int threadCount, ExecutionMode executionMode, int maxInFlightFetches, HtmlFetcher fetcher,
+                           UrlCanonicalizer canonicalizer, VisitedSet visited, UriQueue uriQueue,
+                           CheckpointJournal journal, RetryConfig retry, ValidatorStore validatorStore,
+                           PipelineConfig pipeline, CrawlMetrics metrics, ResultSink results) {
         this.threadCount = threadCount;
+        this.executionMode = executionMode;
+        this.maxInFlightFetches = maxInFlightFetches;
+        this.fetcher = fetcher;
+        this.canonicalizer = canonicalizer;
+        this.visited = visited;
+        this.uriQueue = uriQueue;
+        this.journal = journal;
+        this.retries = new RetryScheduler(retry, this::retryDue);
+        this.validatorStore = validatorStore;
+        this.pipeline = pipeline;
+        this.metrics = metrics;
+        this.results = results;
+        metrics.queueDepth(uriQueue::size);
+        metrics.visitedSet(visited::health);
     }
 
     /**
-     * Schedule (enqueue) a new URL to be crawled, if it hasn't already been visited.
+     * Schedule (enqueue) a new seed URL at depth 0, if its canonical form hasn't already been visited.
      *
      * @param uri The URL to add to the crawl queue.
      */
     @Override
     public void schedule(String uri) {
+        final String canonicalUri = canonicalizer.canonicalize(uri);
         // Only schedule if not visited
-        if (!visited.contains(uri)) {
-            uriQueue.offer(uri);
+        if (!visited.contains(canonicalUri)) {
+            enqueue(canonicalUri, 0);
+        }
+    }
+
+    /**
+     * Schedules a batch of seed URLs at depth 0, counting them as outstanding in one step.
+     *
+     * @param uris The URLs to schedule; not retained.
+     */
+    @Override
+    public void scheduleAll(Collection<String> uris) {
+        final List<String> fresh = new ArrayList<>(uris.size());
+        for (String uri : uris) {
+            final String canonicalUri = canonicalizer.canonicalize(uri);
+            if (!visited.contains(canonicalUri)) {
+                fresh.add(canonicalUri);
+            }
+        }
+        if (fresh.isEmpty()) {
+            return;
+        }
+        outstanding.addAndGet(fresh.size());
+        for (String uri : fresh) {
+            journal.enqueued(uri);
+            if (!uriQueue.offer(uri, 0)) {
+                complete();
+            }
+        }
+    }
+
+    /**
+     * Marks a URL as visited so it is never fetched, e.g. when resuming from a checkpoint.
+     *
+     * @param uri The URL that was already visited.
+     */
+    @Override
+    public void markVisited(String uri) {
+        visited.add(canonicalizer.canonicalize(uri));
+    }
+
+    private void enqueue(String uri, int depth) {
+        // Counted before it is visible to workers, so the count can never drop to zero early
+        outstanding.incrementAndGet();
+        journal.enqueued(uri);
+        if (!uriQueue.offer(uri, depth)) {
+            complete();
+        }
+    }
+
+    /**
+     * Puts a URI whose retry backoff has elapsed back on the queue at its earlier depth.
+     * It is still counted as outstanding.
+     */
+    private void retryDue(String uri, int depth) {
+        if (!uriQueue.offer(uri, depth)) {
+            complete();
+        }
+    }
+
+    /**
+     * Marks one queued URI as fully processed; the crawl is over when none is left queued or in progress.
+     */
+    private void complete() {
+        if (outstanding.decrementAndGet() == 0) {
+            finish();
+        }
+    }
+
+    /**
+     * Ends the crawl: closing the queue wakes up every worker blocked waiting for work.
+     */
+    private void finish() {
+        finished = true;
+        uriQueue.close();
+        final BlockingQueue<Handoff> parseQueue = handoff;
+        if (parseQueue != null) {
+            for (int i = 0; i < pipeline.parseThreads(); i++) {
+                parseQueue.offer(END_OF_CRAWL); // if it is full, the parse threads see the flag soon anyway
+            }
         }
     }
 
     /**
      * Starts the crawl by launching worker threads to process URLs from the queue.
      * This method is safe to call only once; subsequent calls do nothing.
+     * <p>
+     * In {@link ExecutionMode#VIRTUAL_THREADS} mode the calling thread dispatches
+     * each URI to its own virtual thread instead of running a fixed worker pool.
+     * In {@link ExecutionMode#STAGED} mode fetching and parsing run in separate pools.
      *
      * @param processors The list of processors that parse/extract links or data from fetched pages.
      * @param scope      The scope to determine if discovered links are in scope.
@@ -66,14 +239,51 @@ public class SimpleFrontier implements Frontier {
         if (!started.compareAndSet(false, true)) {
             return; // already started
         }
+        final UriProcessor uriProcessor = new UriProcessor(fetcher, processors, scope, canonicalizer, validatorStore,
+                metrics);
+        if (outstanding.get() == 0) {
+            finish(); // nothing was scheduled
+        }
+
+        try {
+            switch (executionMode) {
+                case VIRTUAL_THREADS -> dispatchOnVirtualThreads(uriProcessor);
+                case STAGED -> runStages(uriProcessor);
+                default -> runWorkerPool(uriProcessor);
+            }
+        } finally {
+            uriQueue.close();
+            retries.close();
+            journal.close();
+            validatorStore.close();
+            visited.close();
+            metrics.close();
+            results.close();
+            LOGGER.info(visited::describe);
+        }
+    }
 
+    /**
+     * Runs {@code threadCount} platform worker threads until the frontier is drained
+     * or the shutdown timeout elapses.
+     *
+     * @param uriProcessor Fetches each URI and runs the processor chain and scope checks.
+     */
+    private void runWorkerPool(UriProcessor uriProcessor) {
         executor = Executors.newFixedThreadPool(threadCount);
 
         // Launch workers
         for (int i = 0; i < threadCount; i++) {
-            executor.submit(() -> workerLoop(processors, scope));
+            executor.submit(() -> workerLoop(uriProcessor));
         }
 
+        awaitWorkers();
+    }
+
+    /**
+     * Waits for the submitted workers to end, interrupting them if the shutdown timeout elapses.
+     */
+    private void awaitWorkers() {
         // Wait until done or user decides to stop
         executor.shutdown();
         try {
@@ -88,22 +298,62 @@ public class SimpleFrontier implements Frontier {
     }
 
     /**
-     * A worker loop that pulls URIs from the queue and processes them.
-     * Terminates if the queue is empty for a brief period or the thread is interrupted.
+     * Runs {@code threadCount} fetch threads and {@code parseThreads} parse threads, joined by a queue of at most
+     * {@code handoffCapacity} fetched pages. A fetch thread blocks while that queue is full, so the fetch stage
+     * never gets further ahead of the parse stage than the queue allows.
      *
-     * @param processors The pipeline to handle fetched content.
-     * @param scope      Scope validation for discovered links.
+     * @param uriProcessor Fetches each URI and runs the processor chain and scope checks.
      */
-    private void workerLoop(List<Processor> processors, Scope scope) {
-        // While the queue has URIs or we haven't been interrupted
+    private void runStages(UriProcessor uriProcessor) {
+        final BlockingQueue<Handoff> parseQueue = new ArrayBlockingQueue<>(pipeline.handoffCapacity());
+        final StageMonitor fetchStage = new StageMonitor("fetch", threadCount, -1, uriQueue::size);
+        final StageMonitor parseStage = new StageMonitor("parse", pipeline.parseThreads(),
+                pipeline.handoffCapacity(), parseQueue::size);
+        stages = List.of(fetchStage, parseStage);
+        handoff = parseQueue;
+        if (finished) {
+            finish(); // nothing was scheduled; wake the parse threads right away
+        }
+
+        executor = Executors.newFixedThreadPool(threadCount + pipeline.parseThreads());
+        for (int i = 0; i < threadCount; i++) {
+            executor.submit(() -> fetchLoop(uriProcessor, parseQueue, fetchStage));
+        }
+        for (int i = 0; i < pipeline.parseThreads(); i++) {
+            executor.submit(() -> parseLoop(uriProcessor, parseQueue, parseStage));
+        }
+        awaitWorkers();
+
+        parseQueue.removeIf(fetched -> fetched == END_OF_CRAWL);
+        fetchStage.stop();
+        parseStage.stop();
+        LOGGER.info(() -> "Stages: " + stageStats());
+    }
+
+    /**
+     * A fetch stage loop: takes URIs from the queue, fetches them and hands the responses to the parse stage.
+     */
+    private void fetchLoop(UriProcessor uriProcessor, BlockingQueue<Handoff> parseQueue, StageMonitor monitor) {
         try {
-            while (!Thread.currentThread().isInterrupted()) {
-                final String uri = uriQueue.poll(QUEUE_POLL_TIMEOUT_SECONDS, TimeUnit.SECONDS);
-                if (uri == null) {
-                    // No new URIs for a while => might be done
-                    return;
+            while (!finished && !Thread.currentThread().isInterrupted()) {
+                final QueuedUri queued = uriQueue.poll(QUEUE_POLL_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+                if (queued == null) {
+                    continue;
+                }
+                final long startNanos = System.nanoTime();
+                final UriProcessor.Fetched fetched = fetchQueued(queued.uri(), uriProcessor);
+                final long fetchedNanos = System.nanoTime();
+                monitor.busy(fetchedNanos - startNanos);
+                if (fetched == null) {
+                    continue;
                 }
-                processUri(uri, processors, scope);
+                final Handoff page = new Handoff(fetched, queued.depth());
+                while (!parseQueue.offer(page, QUEUE_POLL_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                    if (finished) {
+                        return;
+                    }
+                }
+                monitor.blocked(System.nanoTime() - fetchedNanos);
             }
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
@@ -111,57 +361,214 @@ public class SimpleFrontier implements Frontier {
     }
 
     /**
-     * Processes a single URI: fetches content, applies the processor chain,
-     * and enqueues discovered links if in scope and not visited yet.
-     *
-     * @param uri        The URL being processed.
-     * @param processors The pipeline to handle fetched content.
-     * @param scope      Scope validation for discovered links.
+     * A parse stage loop: runs the processor chain on fetched pages and schedules what they link to.
      */
-    private void processUri(String uri, List<Processor> processors, Scope scope) {
-        if (!visited.add(uri)) {
-            // Already visited
-            return;
+    private void parseLoop(UriProcessor uriProcessor, BlockingQueue<Handoff> parseQueue, StageMonitor monitor) {
+        try {
+            while (!finished && !Thread.currentThread().isInterrupted()) {
+                final Handoff page = parseQueue.poll(QUEUE_POLL_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+                if (page == null || page == END_OF_CRAWL) {
+                    continue;
+                }
+                final String uri = page.fetched().uri();
+                final long startNanos = System.nanoTime();
+                settleQueued(uri, () -> settle(uri, page.depth(), uriProcessor.parse(page.fetched())));
+                monitor.busy(System.nanoTime() - startNanos);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
         }
-        // We fetch once, then run it through the processors
+    }
+
+    /**
+     * Fetches a URI taken from the queue, unless it was visited already.
+     *
+     * @return The response for the parse stage, or null if the URI was already visited (and is done).
+     */
+    private UriProcessor.Fetched fetchQueued(String uri, UriProcessor uriProcessor) {
         try {
-            // For demonstration, let's do a single fetch here
-            final HtmlFetcher fetcher = new JsoupHtmlFetcher();
-            final var fetchedContent = fetcher.fetch(uri);
+            if (admit(uri)) {
+                return uriProcessor.fetch(uri);
+            }
+        } catch (RuntimeException | Error e) {
+            stop(uri, e);
+            throw e;
+        }
+        complete();
+        return null;
+    }
 
-            // Then apply each processor in sequence
-            final Set<String> newlyDiscovered = new HashSet<>();
+    /**
+     * Returns the queue depth, utilization and backpressure of each stage of an {@link ExecutionMode#STAGED} crawl,
+     * live while it runs and frozen once it is over. Empty in the other modes.
+     *
+     * @return The fetch stage followed by the parse stage.
+     */
+    public List<StageStats> stageStats() {
+        return stages.stream().map(StageMonitor::snapshot).toList();
+    }
 
-            for (Processor proc : processors) {
-                final Set<String> discovered = proc.process(fetchedContent, uri);
-                if (discovered != null) {
-                    newlyDiscovered.addAll(discovered);
+    /**
+     * Returns the fetch and parse metrics of the crawl, live while it runs and frozen once it is over.
+     * Empty unless metrics are enabled in the {@link WebCrawlerConfig}.
+     */
+    public MetricsSnapshot metrics() {
+        return metrics.snapshot();
+    }
+
+    /**
+     * Pulls URIs from the queue on the calling thread and hands each one to a fresh virtual thread.
+     * At most {@code maxInFlightFetches} URIs are processed at once.
+     * Terminates as soon as no URI is queued or in flight, or when the shutdown timeout elapses.
+     *
+     * @param uriProcessor Fetches each URI and runs the processor chain and scope checks.
+     */
+    private void dispatchOnVirtualThreads(UriProcessor uriProcessor) {
+        final Semaphore inFlight = new Semaphore(maxInFlightFetches);
+        final long deadline = System.nanoTime() + TimeUnit.MINUTES.toNanos(SHUTDOWN_TIMEOUT_MINUTES);
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+        try {
+            while (!finished && !Thread.currentThread().isInterrupted() && System.nanoTime() < deadline) {
+                final QueuedUri queued = uriQueue.poll(QUEUE_POLL_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+                if (queued == null) {
+                    continue;
                 }
-                // In more advanced systems, you might transform content for next processor
+                inFlight.acquire();
+                executor.submit(() -> {
+                    try {
+                        processQueued(queued, uriProcessor);
+                    } finally {
+                        inFlight.release();
+                    }
+                });
             }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            if (System.nanoTime() >= deadline || Thread.currentThread().isInterrupted()) {
+                executor.shutdownNow();
+            }
+            executor.close();
+        }
+    }
 
-            // If we discovered new URIs, check scope and schedule them
-            for (String discoveredUri : newlyDiscovered) {
-                if (scope.isInScope(discoveredUri) && !visited.contains(discoveredUri)) {
-                    uriQueue.offer(discoveredUri);
+    /**
+     * A worker loop that pulls URIs from the queue and processes them.
+     * An empty queue does not end it while another worker may still discover links;
+     * it terminates once the frontier is drained or the thread is interrupted.
+     *
+     * @param uriProcessor Fetches each URI and runs the processor chain and scope checks.
+     */
+    private void workerLoop(UriProcessor uriProcessor) {
+        try {
+            while (!finished && !Thread.currentThread().isInterrupted()) {
+                final QueuedUri queued = uriQueue.poll(QUEUE_POLL_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+                if (queued != null) {
+                    processQueued(queued, uriProcessor);
                 }
             }
-        } catch (IOException e) {
-            // Log the error message and exception (Any failures in processing URIs will be logged at WARN level)
-            LOGGER.log(Level.WARNING, "Failed to fetch {0}: {1}", new Object[]{uri, e.getMessage()});
-        } catch (Exception e) {
-            // Log the exception stack trace (Any failures in processing URIs will be logged at WARN level)
-            LOGGER.log(Level.WARNING, "Unexpected error occurred while processing URI: " + uri, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Processes a URI taken from the queue and counts it as done unless it is waiting for a retry.
+     * An unexpected failure stops the whole crawl, since the work it leaves unfinished would otherwise keep
+     * the frontier from ever draining.
+     *
+     * @param queued       The URL taken from the queue, with its depth.
+     * @param uriProcessor Fetches the URI and runs the processor chain and scope checks.
+     */
+    private void processQueued(QueuedUri queued, UriProcessor uriProcessor) {
+        settleQueued(queued.uri(), () -> processUri(queued.uri(), queued.depth(), uriProcessor));
+    }
+
+    /**
+     * Runs the last step of a queued URI's processing and counts the URI as done unless it is waiting for a retry.
+     *
+     * @param uri  The URL taken from the queue.
+     * @param work Returns false if the URI will come back for a retry.
+     */
+    private void settleQueued(String uri, BooleanSupplier work) {
+        boolean done = true;
+        try {
+            done = work.getAsBoolean();
+        } catch (RuntimeException | Error e) {
+            stop(uri, e);
+            throw e;
+        } finally {
+            if (done) {
+                complete();
+            }
         }
     }
 
+    private void stop(String uri, Throwable e) {
+        LOGGER.log(Level.SEVERE, "Stopping the crawl after a failure processing " + uri, e);
+        finish();
+    }
+
+    /**
+     * Processes a single URI: fetches content, applies the processor chain,
+     * and enqueues discovered links if in scope and not visited yet.
+     *
+     * @param uri          The URL being processed.
+     * @param depth        Its link depth.
+     * @param uriProcessor Fetches the URI and runs the processor chain and scope checks.
+     * @return false if the fetch failed transiently and the URI will come back for a retry.
+     */
+    private boolean processUri(String uri, int depth, UriProcessor uriProcessor) {
+        if (!admit(uri)) {
+            // Already visited
+            return true;
+        }
+        return settle(uri, depth, uriProcessor.process(uri));
+    }
+
+    /**
+     * @return true if the URI should be fetched: it is due for a retry, or was not visited before (and now is).
+     */
+    private boolean admit(String uri) {
+        return retries.claim(uri) || visited.add(uri);
+    }
+
+    /**
+     * Acts on the outcome of processing a URI: schedules a retry, or reports the page to the result sink and
+     * enqueues the discovered links that are not visited yet, one level deeper.
+     *
+     * @return false if the URI will come back for a retry.
+     */
+    private boolean settle(String uri, int depth, UriProcessor.Result result) {
+        if (result.retryable() && retries.retryLater(uri, depth, result.failure())) {
+            return false;
+        }
+        retries.succeeded(uri);
+        results.accept(result.page().withDepth(depth));
+        for (String discoveredUri : result.discovered()) {
+            if (!visited.contains(discoveredUri)) {
+                enqueue(discoveredUri, depth + 1);
+            }
+        }
+        // Recorded only after the discoveries, so a crash mid-page means the page is fetched again on resume
+        journal.visited(uri);
+        return true;
+    }
+
     /**
      * Returns an unmodifiable set of all URLs that have been visited or are being visited.
+     * In fingerprint mode the URLs are read back from the visited-URL log (empty if none is configured).
      *
      * @return A read-only Set of visited URLs.
      */
     @Override
     public Set<String> getVisited() {
-        return Collections.unmodifiableSet(visited);
+        return visited.urls();
+    }
+
+    /**
+     * A fetched page on its way to the parse stage, with the depth it was queued at.
+     */
+    private record Handoff(UriProcessor.Fetched fetched, int depth) {
     }
 }
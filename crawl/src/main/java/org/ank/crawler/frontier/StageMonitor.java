@@ -0,0 +1,51 @@
+package org.ank.crawler.frontier;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Accumulates how the threads of one pipeline stage spend their time, for {@link StageStats}.
+ * Time not recorded as busy or blocked is idle, waiting for input.
+ */
+final class StageMonitor {
+
+    private final String name;
+    private final int threads;
+    private final int queueCapacity;
+    private final LongSupplier queueDepth;
+    private final LongAdder busyNanos = new LongAdder();
+    private final LongAdder blockedNanos = new LongAdder();
+    private final LongAdder processed = new LongAdder();
+    private final long startNanos = System.nanoTime();
+    private volatile long stopNanos;
+
+    StageMonitor(String name, int threads, int queueCapacity, LongSupplier queueDepth) {
+        this.name = name;
+        this.threads = threads;
+        this.queueCapacity = queueCapacity;
+        this.queueDepth = queueDepth;
+    }
+
+    void busy(long nanos) {
+        busyNanos.add(nanos);
+        processed.increment();
+    }
+
+    void blocked(long nanos) {
+        blockedNanos.add(nanos);
+    }
+
+    /**
+     * Freezes the elapsed time once the stage's threads are gone, so later snapshots are not diluted.
+     */
+    void stop() {
+        stopNanos = System.nanoTime();
+    }
+
+    StageStats snapshot() {
+        final long endNanos = stopNanos != 0 ? stopNanos : System.nanoTime();
+        final double threadNanos = Math.max(1.0, (double) (endNanos - startNanos) * threads);
+        return new StageStats(name, threads, queueDepth.getAsLong(), queueCapacity, processed.sum(),
+                Math.min(1.0, busyNanos.sum() / threadNanos), Math.min(1.0, blockedNanos.sum() / threadNanos));
+    }
+}
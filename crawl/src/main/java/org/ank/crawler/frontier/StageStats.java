@@ -0,0 +1,24 @@
+package org.ank.crawler.frontier;
+
+/**
+ * A snapshot of one stage of a staged crawl, to tell which stage is the bottleneck: a stage whose input queue is
+ * full and whose threads are nearly always busy is holding the one before it back.
+ *
+ * @param name          The stage, e.g. {@code fetch} or {@code parse}.
+ * @param threads       Threads working in the stage.
+ * @param queueDepth    Items waiting for the stage right now.
+ * @param queueCapacity Most items that can wait for the stage, or -1 if its queue is unbounded.
+ * @param processed     Items the stage has finished so far.
+ * @param utilization   Fraction of the stage's thread time spent working, between 0 and 1.
+ * @param blocked       Fraction of the stage's thread time spent waiting for room in the next stage's queue.
+ */
+public record StageStats(String name, int threads, long queueDepth, int queueCapacity, long processed,
+                         double utilization, double blocked) {
+
+    @Override
+    public String toString() {
+        return String.format("%s: %d threads, queue %d/%s, %d processed, %.0f%% busy, %.0f%% blocked",
+                name, threads, queueDepth, queueCapacity < 0 ? "unbounded" : String.valueOf(queueCapacity),
+                processed, utilization * 100, blocked * 100);
+    }
+}
@@ -0,0 +1,56 @@
+package org.ank.crawler.frontier;
+
+/**
+ * A token bucket rate limiter working on {@link System#nanoTime()} readings supplied by the caller.
+ * <p>
+ * Not thread-safe: callers guard it with the lock protecting the owning host queue.
+ */
+final class TokenBucket {
+
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    private final double capacity;
+    private final double tokensPerNano;
+    private double tokens;
+    private long lastRefillNanos;
+
+    TokenBucket(double tokensPerSecond, int capacity, long nowNanos) {
+        this.capacity = capacity;
+        this.tokensPerNano = tokensPerSecond / NANOS_PER_SECOND;
+        this.tokens = capacity;
+        this.lastRefillNanos = nowNanos;
+    }
+
+    /**
+     * Takes one token if available.
+     *
+     * @return true if a token was taken, false if the caller has to wait.
+     */
+    boolean tryAcquire(long nowNanos) {
+        refill(nowNanos);
+        if (tokens >= 1.0) {
+            tokens -= 1.0;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * @return How long until a token is available, 0 if one is available now.
+     */
+    long nanosUntilAvailable(long nowNanos) {
+        refill(nowNanos);
+        if (tokens >= 1.0) {
+            return 0;
+        }
+        return (long) Math.ceil((1.0 - tokens) / tokensPerNano);
+    }
+
+    private void refill(long nowNanos) {
+        final long elapsed = nowNanos - lastRefillNanos;
+        if (elapsed > 0) {
+            tokens = Math.min(capacity, tokens + elapsed * tokensPerNano);
+            lastRefillNanos = nowNanos;
+        }
+    }
+}
@@ -0,0 +1,229 @@
+package org.ank.crawler.frontier;
+
+import org.ank.crawler.cache.CachedPage;
+import org.ank.crawler.cache.ValidatorStore;
+import org.ank.crawler.fetcher.FetchedContent;
+import org.ank.crawler.fetcher.HtmlFetcher;
+import org.ank.crawler.fetcher.Validators;
+import org.ank.crawler.metrics.CrawlMetrics;
+import org.ank.crawler.processor.PageContext;
+import org.ank.crawler.processor.Processor;
+import org.ank.crawler.scope.Scope;
+import org.ank.crawler.sink.CrawlResult;
+import org.ank.crawler.url.UrlCanonicalizer;
+
+import java.io.IOException;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * The per-URI unit of work shared by the frontier implementations:
+ * fetch the page, run it through the processor chain, canonicalize the discovered links
+ * and keep those that are in scope.
+ * <p>
+ * Pages fetched before with validators are requested conditionally; when the server answers 304 Not Modified
+ * the outlinks stored last time are reused and the processors are skipped.
+ * <p>
+ * Every fetch and every run of the processor chain is reported to the {@link CrawlMetrics}, whichever fetcher and
+ * processors are plugged in, and every outcome carries the page's {@link CrawlResult} for the result sink.
+ * <p>
+ * Deciding whether a URI should be processed at all (dedupe, politeness, retries, ...) stays with the frontier.
+ */
+final class UriProcessor {
+
+    private static final Logger LOGGER = Logger.getLogger(UriProcessor.class.getName());
+
+    private final HtmlFetcher fetcher;
+    private final List<Processor> processors;
+    private final Scope scope;
+    private final UrlCanonicalizer canonicalizer;
+    private final ValidatorStore validatorStore;
+    private final CrawlMetrics metrics;
+
+    UriProcessor(HtmlFetcher fetcher, List<Processor> processors, Scope scope, UrlCanonicalizer canonicalizer,
+                 ValidatorStore validatorStore) {
+        this(fetcher, processors, scope, canonicalizer, validatorStore, CrawlMetrics.NONE);
+    }
+
+    UriProcessor(HtmlFetcher fetcher, List<Processor> processors, Scope scope, UrlCanonicalizer canonicalizer,
+                 ValidatorStore validatorStore, CrawlMetrics metrics) {
+        this.fetcher = fetcher;
+        this.processors = processors;
+        this.scope = scope;
+        this.canonicalizer = canonicalizer;
+        this.validatorStore = validatorStore;
+        this.metrics = metrics;
+    }
+
+    /**
+     * Fetches the URI, applies the processor chain and filters discoveries by scope.
+     * A failure that a later attempt might fix is returned without running the processors; any other failure
+     * is logged and yields no discoveries.
+     *
+     * @param uri The URL being processed.
+     * @return The canonical in-scope URIs discovered on the page (possibly already visited), or the transient failure.
+     */
+    Result process(String uri) {
+        return parse(fetch(uri));
+    }
+
+    /**
+     * The network half of {@link #process}: fetches the page, conditionally if validators are stored for it.
+     * Failures are logged or recorded in the returned page; nothing is parsed.
+     *
+     * @param uri The URL being processed.
+     * @return The response, to be handed to {@link #parse}.
+     */
+    Fetched fetch(String uri) {
+        final long startNanos = metrics.fetchStarted();
+        final long sendNanos = System.nanoTime();
+        try {
+            final CachedPage cached = validatorStore.get(uri);
+            final FetchedContent fetchedContent = cached == null
+                    ? fetcher.fetch(uri) : fetcher.fetchConditional(uri, cached.validators());
+            final long bytes = bodySize(fetchedContent);
+            metrics.fetched(uri, fetchedContent.statusCode(), bytes, startNanos);
+            return new Fetched(uri, fetchedContent, cached, FetchFailure.of(fetchedContent), bytes,
+                    System.nanoTime() - sendNanos);
+        } catch (IOException e) {
+            metrics.fetchFailed(uri, e, startNanos);
+            final FetchFailure failure = FetchFailure.of(e);
+            if (failure.transientFailure()) {
+                return new Fetched(uri, null, null, failure, 0, System.nanoTime() - sendNanos);
+            }
+            // Log the error message and exception (Any failures in processing URIs will be logged at WARN level)
+            LOGGER.log(Level.WARNING, "Failed to fetch {0}: {1}", new Object[]{uri, e.getMessage()});
+        } catch (Exception e) {
+            metrics.fetchFailed(uri, e, startNanos);
+            // Log the exception stack trace (Any failures in processing URIs will be logged at WARN level)
+            LOGGER.log(Level.WARNING, "Unexpected error occurred while processing URI: " + uri, e);
+        }
+        return new Fetched(uri, null, null, null, 0, System.nanoTime() - sendNanos);
+    }
+
+    /**
+     * @return The body size the server announced, or the length of the body if it did not say.
+     */
+    private static long bodySize(FetchedContent content) {
+        final String contentLength = content.header("Content-Length");
+        if (contentLength != null) {
+            try {
+                return Long.parseLong(contentLength.trim());
+            } catch (NumberFormatException e) {
+                // fall back to the body we got
+            }
+        }
+        return content.content() == null ? 0 : content.content().length();
+    }
+
+    /**
+     * The CPU half of {@link #process}: runs a fetched page through the processors and filters the discoveries
+     * by scope.
+     *
+     * @param fetched The outcome of {@link #fetch}.
+     * @return The canonical in-scope URIs discovered on the page (possibly already visited), or the transient failure.
+     */
+    Result parse(Fetched fetched) {
+        if (fetched.failure() != null) {
+            return Result.failed(fetched.failure(), fetched.page(0));
+        }
+        final FetchedContent fetchedContent = fetched.content();
+        if (fetchedContent == null) {
+            return Result.nothing(fetched.page(0));
+        }
+        try {
+            // Kept in discovery order, which frontiers use to break ties between equally ranked links
+            final Set<String> newlyDiscovered = new LinkedHashSet<>();
+            final CachedPage cached = fetched.cached();
+            if (cached != null && fetchedContent.notModified()) {
+                // Unchanged since last time: nothing was downloaded and there is nothing to parse
+                newlyDiscovered.addAll(cached.outlinks());
+            } else {
+                final long startNanos = System.nanoTime();
+                applyProcessors(fetched.uri(), fetchedContent, newlyDiscovered);
+                metrics.parsed(newlyDiscovered.size(), System.nanoTime() - startNanos);
+                final Validators validators = Validators.of(fetchedContent);
+                if (fetchedContent.statusCode() == 200 && !validators.isEmpty()) {
+                    validatorStore.put(fetched.uri(), CachedPage.of(validators, newlyDiscovered));
+                }
+            }
+
+            final int outlinks = newlyDiscovered.size();
+            // If we discovered new URIs, keep only those in scope
+            newlyDiscovered.removeIf(discoveredUri -> !scope.isInScope(discoveredUri));
+            return new Result(newlyDiscovered, null, fetched.page(outlinks));
+        } catch (Exception e) {
+            // Log the exception stack trace (Any failures in processing URIs will be logged at WARN level)
+            LOGGER.log(Level.WARNING, "Unexpected error occurred while processing URI: " + fetched.uri(), e);
+        }
+        return Result.nothing(fetched.page(0));
+    }
+
+    /**
+     * Runs the page through each processor in sequence, collecting the canonical form of every link they report.
+     * The processors share one {@link PageContext}, so the page is parsed at most once; it is released afterwards.
+     */
+    private void applyProcessors(String uri, FetchedContent fetchedContent, Set<String> newlyDiscovered) {
+        final PageContext page = new PageContext(fetchedContent, uri);
+        try {
+            for (Processor proc : processors) {
+                final Set<String> discovered = proc.process(page);
+                if (discovered != null) {
+                    for (String discoveredUri : discovered) {
+                        newlyDiscovered.add(canonicalizer.canonicalize(discoveredUri));
+                    }
+                }
+                // In more advanced systems, you might transform content for next processor
+            }
+        } finally {
+            page.release();
+        }
+    }
+
+    /**
+     * Outcome of fetching one URI, before any processing.
+     *
+     * @param uri          The URL that was fetched.
+     * @param content      The response, or null if the fetch failed.
+     * @param cached       What was stored about the page by an earlier crawl, or null.
+     * @param failure      A transient failure worth retrying, or null.
+     * @param bytes        Size of the response body, 0 without a response.
+     * @param latencyNanos Time the fetch took, failed or not.
+     */
+    record Fetched(String uri, FetchedContent content, CachedPage cached, FetchFailure failure, long bytes,
+                   long latencyNanos) {
+
+        /**
+         * @return The page's result with the given number of outlinks; its depth is left for the frontier to set.
+         */
+        CrawlResult page(int outlinks) {
+            final int status = content == null ? CrawlResult.NO_RESPONSE : content.statusCode();
+            return new CrawlResult(uri, status, CrawlResult.UNKNOWN_DEPTH, bytes, latencyNanos, outlinks);
+        }
+    }
+
+    /**
+     * Outcome of processing one URI.
+     *
+     * @param discovered The canonical in-scope URIs found on the page.
+     * @param failure    A transient fetch failure worth retrying, or null.
+     * @param page       What is reported to the result sink if the page is not retried.
+     */
+    record Result(Set<String> discovered, FetchFailure failure, CrawlResult page) {
+
+        static Result nothing(CrawlResult page) {
+            return new Result(Set.of(), null, page);
+        }
+
+        static Result failed(FetchFailure failure, CrawlResult page) {
+            return new Result(Set.of(), failure, page);
+        }
+
+        boolean retryable() {
+            return failure != null;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package org.ank.crawler.frontier;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Decides which pending URI {@link PriorityFrontier} fetches next: the highest score goes first, and URIs with equal
+ * scores are fetched in the order they were discovered.
+ * <p>
+ * A URI is scored when it is queued and again whenever its depth or in-link count changes while it is pending,
+ * always under the frontier lock, so scorers must be fast and must not call back into the frontier.
+ * Scorers are combined with {@link #plus}, e.g.
+ * {@code UriScorer.depth(1).plus(UriScorer.inLinks(0.5)).plus(UriScorer.patterns(Map.of("/docs/", 5.0)))}.
+ */
+@FunctionalInterface
+public interface UriScorer {
+
+    /**
+     * Fetches shallow pages first, in discovery order within a depth: a breadth-first crawl.
+     */
+    UriScorer BREADTH_FIRST = depth(1);
+
+    /**
+     * @param uri     The canonical URI.
+     * @param depth   Fewest links between a seed and the URI; seeds are 0.
+     * @param inLinks Number of fetched pages found linking to the URI so far; 0 for seeds.
+     * @return The URI's priority; higher is fetched sooner.
+     */
+    double score(String uri, int depth, int inLinks);
+
+    /**
+     * @return A scorer that adds this score and the other's.
+     */
+    default UriScorer plus(UriScorer other) {
+        return (uri, depth, inLinks) -> score(uri, depth, inLinks) + other.score(uri, depth, inLinks);
+    }
+
+    /**
+     * @param weight Score lost per level of depth.
+     */
+    static UriScorer depth(double weight) {
+        return (uri, depth, inLinks) -> -weight * depth;
+    }
+
+    /**
+     * @param weight Score gained per page linking to the URI, so pages many others point to come first.
+     */
+    static UriScorer inLinks(double weight) {
+        return (uri, depth, inLinks) -> weight * inLinks;
+    }
+
+    /**
+     * @param weights Regular expressions, each {@linkplain java.util.regex.Matcher#find found anywhere} in the URI,
+     *                and the score they add; a URI matching several gets the sum. Negative weights push URIs back.
+     */
+    static UriScorer patterns(Map<String, Double> weights) {
+        final List<Pattern> patterns = new ArrayList<>(weights.size());
+        final double[] scores = new double[weights.size()];
+        for (Map.Entry<String, Double> weight : weights.entrySet()) {
+            scores[patterns.size()] = weight.getValue();
+            patterns.add(Pattern.compile(weight.getKey()));
+        }
+        return (uri, depth, inLinks) -> {
+            double score = 0;
+            for (int i = 0; i < scores.length; i++) {
+                if (patterns.get(i).matcher(uri).find()) {
+                    score += scores[i];
+                }
+            }
+            return score;
+        };
+    }
+}
@@ -0,0 +1,101 @@
+package org.ank.crawler.metrics;
+
+import org.ank.crawler.config.MetricsConfig;
+import org.ank.crawler.dedupe.VisitedSet;
+
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Measures a running crawl: fetch latency, throughput, status codes, errors and per-host counts.
+ * <p>
+ * The frontier reports every fetch and every parse; readers take a {@link #snapshot()} at any time, live or after
+ * the crawl. Implementations are thread-safe and cheap enough to call on every fetch.
+ */
+public interface CrawlMetrics extends AutoCloseable {
+
+    /**
+     * Metrics that record nothing, used when metrics are disabled.
+     */
+    CrawlMetrics NONE = new CrawlMetrics() {
+        @Override
+        public long fetchStarted() {
+            return 0;
+        }
+
+        @Override
+        public void fetched(String uri, int statusCode, long bytes, long startNanos) {
+        }
+
+        @Override
+        public void fetchFailed(String uri, Throwable error, long startNanos) {
+        }
+
+        @Override
+        public void parsed(int links, long nanos) {
+        }
+
+        @Override
+        public MetricsSnapshot snapshot() {
+            return MetricsSnapshot.EMPTY;
+        }
+    };
+
+    /**
+     * Records the start of a fetch; pass the result to {@link #fetched} or {@link #fetchFailed}.
+     *
+     * @return The start time, in {@link System#nanoTime()} units.
+     */
+    long fetchStarted();
+
+    /**
+     * Records a fetch that got a response.
+     *
+     * @param uri        The URL fetched.
+     * @param statusCode The response status.
+     * @param bytes      The size of the response body.
+     * @param startNanos What {@link #fetchStarted()} returned.
+     */
+    void fetched(String uri, int statusCode, long bytes, long startNanos);
+
+    /**
+     * Records a fetch that ended in an exception.
+     */
+    void fetchFailed(String uri, Throwable error, long startNanos);
+
+    /**
+     * Records one run of the processor chain.
+     *
+     * @param links Links the chain reported.
+     * @param nanos Time the chain took.
+     */
+    void parsed(int links, long nanos);
+
+    /**
+     * Sets where the number of URIs waiting to be fetched is read from.
+     */
+    default void queueDepth(LongSupplier depth) {
+    }
+
+    /**
+     * Sets where the size and health of the visited set are read from, e.g. {@link VisitedSet#health}.
+     */
+    default void visitedSet(Supplier<VisitedSet.Health> health) {
+    }
+
+    MetricsSnapshot snapshot();
+
+    /**
+     * Stops exporting the metrics; they can still be read through {@link #snapshot()}.
+     */
+    @Override
+    default void close() {
+    }
+
+    /**
+     * Creates the metrics described by the config, with its exports started.
+     */
+    static CrawlMetrics create(MetricsConfig config) {
+        return config.enabled() ? new InMemoryCrawlMetrics(config) : NONE;
+    }
+}
@@ -0,0 +1,146 @@
+package org.ank.crawler.metrics;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.ToLongFunction;
+
+/**
+ * Adapts {@link CrawlMetrics} to {@link CrawlMetricsMXBean}.
+ */
+final class CrawlMetricsJmx implements CrawlMetricsMXBean {
+
+    private static final double NANOS_PER_MILLI = 1e6;
+
+    private final CrawlMetrics metrics;
+
+    CrawlMetricsJmx(CrawlMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    public long getPagesFetched() {
+        return metrics.snapshot().pagesFetched();
+    }
+
+    @Override
+    public long getBytesFetched() {
+        return metrics.snapshot().bytesFetched();
+    }
+
+    @Override
+    public long getFetchErrors() {
+        return metrics.snapshot().fetchErrors();
+    }
+
+    @Override
+    public long getLinksExtracted() {
+        return metrics.snapshot().linksExtracted();
+    }
+
+    @Override
+    public double getPagesPerSecond() {
+        return metrics.snapshot().pagesPerSecond();
+    }
+
+    @Override
+    public double getBytesPerSecond() {
+        return metrics.snapshot().bytesPerSecond();
+    }
+
+    @Override
+    public long getQueueDepth() {
+        return metrics.snapshot().queueDepth();
+    }
+
+    @Override
+    public long getInFlight() {
+        return metrics.snapshot().inFlight();
+    }
+
+    @Override
+    public long getUrlsVisited() {
+        return metrics.snapshot().visited().urls();
+    }
+
+    @Override
+    public double getVisitedFillRatio() {
+        return metrics.snapshot().visited().fillRatio();
+    }
+
+    @Override
+    public double getVisitedFalsePositiveRate() {
+        return metrics.snapshot().visited().estimatedFalsePositiveRate();
+    }
+
+    @Override
+    public double getFetchLatencyMeanMillis() {
+        return millis(metrics.snapshot().fetchLatency().meanNanos());
+    }
+
+    @Override
+    public double getFetchLatencyP50Millis() {
+        return millis(metrics.snapshot().fetchLatency().p50Nanos());
+    }
+
+    @Override
+    public double getFetchLatencyP90Millis() {
+        return millis(metrics.snapshot().fetchLatency().p90Nanos());
+    }
+
+    @Override
+    public double getFetchLatencyP99Millis() {
+        return millis(metrics.snapshot().fetchLatency().p99Nanos());
+    }
+
+    @Override
+    public double getFetchLatencyMaxMillis() {
+        return millis(metrics.snapshot().fetchLatency().maxNanos());
+    }
+
+    @Override
+    public double getParseLatencyP50Millis() {
+        return millis(metrics.snapshot().parseLatency().p50Nanos());
+    }
+
+    @Override
+    public double getParseLatencyP99Millis() {
+        return millis(metrics.snapshot().parseLatency().p99Nanos());
+    }
+
+    @Override
+    public Map<String, Long> getStatusCounts() {
+        final Map<String, Long> counts = new TreeMap<>();
+        metrics.snapshot().statusCounts().forEach((status, count) -> counts.put(String.valueOf(status), count));
+        return counts;
+    }
+
+    @Override
+    public Map<String, Long> getErrorCounts() {
+        return metrics.snapshot().errorCounts();
+    }
+
+    @Override
+    public Map<String, Long> getPagesByHost() {
+        return byHost(MetricsSnapshot.HostStats::pages);
+    }
+
+    @Override
+    public Map<String, Long> getErrorsByHost() {
+        return byHost(MetricsSnapshot.HostStats::errors);
+    }
+
+    private Map<String, Long> byHost(ToLongFunction<MetricsSnapshot.HostStats> value) {
+        final Map<String, Long> counts = new TreeMap<>();
+        metrics.snapshot().hosts().forEach((host, stats) -> {
+            final long count = value.applyAsLong(stats);
+            if (count != 0) {
+                counts.put(host, count);
+            }
+        });
+        return counts;
+    }
+
+    private static double millis(long nanos) {
+        return nanos / NANOS_PER_MILLI;
+    }
+}
@@ -0,0 +1,72 @@
+package org.ank.crawler.metrics;
+
+import java.util.Map;
+
+/**
+ * The crawl metrics as seen through JMX (e.g. in JConsole or VisualVM). Durations are in milliseconds and rates are
+ * averages since the crawl started; every attribute is read from a fresh {@link MetricsSnapshot}.
+ */
+public interface CrawlMetricsMXBean {
+
+    long getPagesFetched();
+
+    long getBytesFetched();
+
+    long getFetchErrors();
+
+    long getLinksExtracted();
+
+    double getPagesPerSecond();
+
+    double getBytesPerSecond();
+
+    long getQueueDepth();
+
+    long getInFlight();
+
+    long getUrlsVisited();
+
+    /**
+     * @return Fraction of the visited filter's bits that are set; 0 unless dedupe uses a Bloom filter.
+     */
+    double getVisitedFillRatio();
+
+    /**
+     * @return Estimated chance an unvisited URL is skipped as visited; 0 unless dedupe uses a Bloom filter.
+     */
+    double getVisitedFalsePositiveRate();
+
+    double getFetchLatencyMeanMillis();
+
+    double getFetchLatencyP50Millis();
+
+    double getFetchLatencyP90Millis();
+
+    double getFetchLatencyP99Millis();
+
+    double getFetchLatencyMaxMillis();
+
+    double getParseLatencyP50Millis();
+
+    double getParseLatencyP99Millis();
+
+    /**
+     * @return Responses per HTTP status code.
+     */
+    Map<String, Long> getStatusCounts();
+
+    /**
+     * @return Failed fetches per exception type.
+     */
+    Map<String, Long> getErrorCounts();
+
+    /**
+     * @return Responses per host.
+     */
+    Map<String, Long> getPagesByHost();
+
+    /**
+     * @return Failed fetches per host, for the hosts with at least one.
+     */
+    Map<String, Long> getErrorsByHost();
+}
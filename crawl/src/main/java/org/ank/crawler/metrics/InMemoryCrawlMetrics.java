@@ -0,0 +1,246 @@
+package org.ank.crawler.metrics;
+
+import org.ank.crawler.config.MetricsConfig;
+import org.ank.crawler.dedupe.VisitedSet;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.StandardMBean;
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Keeps the crawl metrics in memory and exports them as configured: as an MXBean named
+ * {@code org.ank.crawler:type=CrawlMetrics,id=N}, and on a loopback {@link MetricsHttpServer}.
+ * <p>
+ * Counters are {@link LongAdder}s and status codes index a fixed array, so threads recording at once do not
+ * contend on a shared value. Each fetch looks its host up in a concurrent map, the only allocation being the host
+ * name; at most {@value #MAX_HOSTS} hosts are tracked one by one, and the rest are added up together.
+ */
+public final class InMemoryCrawlMetrics implements CrawlMetrics {
+
+    private static final Logger LOGGER = Logger.getLogger(InMemoryCrawlMetrics.class.getName());
+    static final int MAX_HOSTS = 10_000;
+    private static final int MAX_STATUS = 999;
+    private static final AtomicInteger INSTANCES = new AtomicInteger();
+
+    private final long startNanos = System.nanoTime();
+    private final LongAdder pages = new LongAdder();
+    private final LongAdder bytes = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder links = new LongAdder();
+    private final LongAdder inFlight = new LongAdder();
+    private final LatencyHistogram fetchLatency = new LatencyHistogram();
+    private final LatencyHistogram parseLatency = new LatencyHistogram();
+    private final AtomicLongArray statusCounts = new AtomicLongArray(MAX_STATUS + 1);
+    private final Map<Class<?>, LongAdder> errorCounts = new ConcurrentHashMap<>();
+    private final Map<String, HostCounters> hosts = new ConcurrentHashMap<>();
+    private final HostCounters otherHosts = new HostCounters();
+    private volatile LongSupplier queueDepth = () -> 0;
+    private volatile Supplier<VisitedSet.Health> visited = () -> VisitedSet.Health.EMPTY;
+    private volatile long stopNanos;
+
+    // exports, null when not configured
+    private final ObjectName mbeanName;
+    private final MetricsHttpServer httpServer;
+
+    /**
+     * Records metrics without exporting them.
+     */
+    public InMemoryCrawlMetrics() {
+        this(MetricsConfig.RECORDING);
+    }
+
+    /**
+     * @param config Which exports to start; they stay up until {@link #close()}.
+     * @throws java.io.UncheckedIOException If the HTTP endpoint cannot be bound.
+     */
+    public InMemoryCrawlMetrics(MetricsConfig config) {
+        this.mbeanName = config.jmx() ? register(this) : null;
+        try {
+            this.httpServer = config.httpEnabled() ? MetricsHttpServer.start(this, config.httpPort()) : null;
+        } catch (RuntimeException e) {
+            close();
+            throw e;
+        }
+    }
+
+    @Override
+    public long fetchStarted() {
+        inFlight.increment();
+        return System.nanoTime();
+    }
+
+    @Override
+    public void fetched(String uri, int statusCode, long bytes, long startNanos) {
+        final long nanos = System.nanoTime() - startNanos;
+        inFlight.decrement();
+        pages.increment();
+        this.bytes.add(bytes);
+        statusCounts.getAndIncrement(statusCode < 0 || statusCode > MAX_STATUS ? 0 : statusCode);
+        fetchLatency.record(nanos);
+        final HostCounters host = host(uri);
+        host.pages.increment();
+        host.bytes.add(bytes);
+        host.nanos.add(nanos);
+    }
+
+    @Override
+    public void fetchFailed(String uri, Throwable error, long startNanos) {
+        final long nanos = System.nanoTime() - startNanos;
+        inFlight.decrement();
+        errors.increment();
+        errorCounts.computeIfAbsent(error.getClass(), type -> new LongAdder()).increment();
+        fetchLatency.record(nanos);
+        final HostCounters host = host(uri);
+        host.errors.increment();
+        host.nanos.add(nanos);
+    }
+
+    @Override
+    public void parsed(int links, long nanos) {
+        this.links.add(links);
+        parseLatency.record(nanos);
+    }
+
+    @Override
+    public void queueDepth(LongSupplier depth) {
+        this.queueDepth = depth;
+    }
+
+    @Override
+    public void visitedSet(Supplier<VisitedSet.Health> health) {
+        this.visited = health;
+    }
+
+    @Override
+    public MetricsSnapshot snapshot() {
+        final long endNanos = stopNanos != 0 ? stopNanos : System.nanoTime();
+        final Map<Integer, Long> statuses = new TreeMap<>();
+        for (int status = 0; status <= MAX_STATUS; status++) {
+            final long count = statusCounts.get(status);
+            if (count != 0) {
+                statuses.put(status, count);
+            }
+        }
+        final Map<String, Long> errorsByType = new TreeMap<>();
+        errorCounts.forEach((type, count) -> errorsByType.merge(type.getSimpleName(), count.sum(), Long::sum));
+        final Map<String, MetricsSnapshot.HostStats> hostStats = new HashMap<>(hosts.size() + 1);
+        hosts.forEach((name, counters) -> hostStats.put(name, counters.snapshot()));
+        if (otherHosts.used()) {
+            hostStats.put(MetricsSnapshot.OTHER_HOSTS, otherHosts.snapshot());
+        }
+        return new MetricsSnapshot(Duration.ofNanos(endNanos - startNanos), pages.sum(), bytes.sum(), errors.sum(),
+                links.sum(), queueDepth.getAsLong(), inFlight.sum(), visited.get(), fetchLatency.summary(),
+                parseLatency.summary(), statuses, errorsByType, hostStats);
+    }
+
+    /**
+     * Stops the exports and freezes the elapsed time, so rates read after the crawl are not diluted.
+     */
+    @Override
+    public void close() {
+        if (stopNanos == 0) {
+            stopNanos = System.nanoTime();
+        }
+        if (httpServer != null) {
+            httpServer.close();
+        }
+        if (mbeanName != null) {
+            try {
+                ManagementFactory.getPlatformMBeanServer().unregisterMBean(mbeanName);
+            } catch (JMException e) {
+                LOGGER.log(Level.FINE, "Metrics MBean already unregistered: {0}", mbeanName);
+            }
+        }
+    }
+
+    /**
+     * @return The port of the HTTP endpoint, or -1 if it is not enabled.
+     */
+    public int httpPort() {
+        return httpServer == null ? -1 : httpServer.port();
+    }
+
+    /**
+     * @return The name the MXBean is registered under, or null if JMX export is not enabled.
+     */
+    public ObjectName mbeanName() {
+        return mbeanName;
+    }
+
+    private HostCounters host(String uri) {
+        final String name = hostOf(uri);
+        final HostCounters counters = hosts.get(name);
+        if (counters != null) {
+            return counters;
+        }
+        if (hosts.size() >= MAX_HOSTS) {
+            return otherHosts;
+        }
+        return hosts.computeIfAbsent(name, key -> new HostCounters());
+    }
+
+    /**
+     * @return The host (and port) of an absolute URL, or the whole string if it has no {@code ://}.
+     */
+    static String hostOf(String uri) {
+        final int schemeEnd = uri.indexOf("://");
+        if (schemeEnd < 0) {
+            return uri;
+        }
+        int start = schemeEnd + 3;
+        int end = start;
+        while (end < uri.length()) {
+            final char c = uri.charAt(end);
+            if (c == '/' || c == '?' || c == '#') {
+                break;
+            }
+            if (c == '@') {
+                start = end + 1;
+            }
+            end++;
+        }
+        return uri.substring(start, end);
+    }
+
+    private static ObjectName register(InMemoryCrawlMetrics metrics) {
+        try {
+            final ObjectName name = new ObjectName("org.ank.crawler:type=CrawlMetrics,id="
+                    + INSTANCES.incrementAndGet());
+            final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            server.registerMBean(new StandardMBean(new CrawlMetricsJmx(metrics), CrawlMetricsMXBean.class, true),
+                    name);
+            return name;
+        } catch (JMException e) {
+            throw new IllegalStateException("Cannot register the crawl metrics MBean", e);
+        }
+    }
+
+    private static final class HostCounters {
+        final LongAdder pages = new LongAdder();
+        final LongAdder errors = new LongAdder();
+        final LongAdder bytes = new LongAdder();
+        final LongAdder nanos = new LongAdder();
+
+        boolean used() {
+            return pages.sum() + errors.sum() != 0;
+        }
+
+        MetricsSnapshot.HostStats snapshot() {
+            return new MetricsSnapshot.HostStats(pages.sum(), errors.sum(), bytes.sum(), nanos.sum());
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package org.ank.crawler.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A concurrent latency histogram with log-linear buckets, in the style of HdrHistogram.
+ * <p>
+ * Every power of two is split into {@value #SUB_BUCKETS} equal buckets, so a recorded value is reported with an
+ * error of at most 1/{@value #SUB_BUCKETS} (about 1.6%) anywhere between a nanosecond and an hour; longer values
+ * are clamped to an hour. The bucket of a value is found with a leading-zero count and a shift, and recording is
+ * one increment of a fixed array slot plus two {@link LongAdder} adds: no allocation and no lock.
+ * <p>
+ * Snapshots taken while values are recorded are not atomic, but every count they report was recorded.
+ */
+public final class LatencyHistogram {
+
+    static final int SUB_BUCKET_BITS = 6;
+    static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    static final long HIGHEST_NANOS = TimeUnit.HOURS.toNanos(1);
+
+    // Values below 2 * SUB_BUCKETS get a bucket each; above, every power of two gets SUB_BUCKETS buckets
+    private static final int BUCKET_COUNT = indexOf(HIGHEST_NANOS) + 1;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    /**
+     * Records one duration; negative values count as zero.
+     */
+    public void record(long nanos) {
+        final long value = Math.min(Math.max(nanos, 0), HIGHEST_NANOS);
+        counts.getAndIncrement(indexOf(value));
+        count.increment();
+        totalNanos.add(value);
+        long max = maxNanos.get();
+        while (value > max && !maxNanos.compareAndSet(max, value)) {
+            max = maxNanos.get();
+        }
+    }
+
+    public long count() {
+        return count.sum();
+    }
+
+    /**
+     * @return The smallest recorded value that {@code percentile} percent of the values do not exceed, in
+     * nanoseconds, rounded up to its bucket's upper bound; 0 if nothing was recorded.
+     */
+    public long valueAtPercentile(double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("Percentile must be between 0 and 100: " + percentile);
+        }
+        long total = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            total += counts.get(i);
+        }
+        if (total == 0) {
+            return 0;
+        }
+        final long rank = Math.max(1, (long) Math.ceil(percentile / 100 * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                return Math.min(highestEquivalent(i), maxNanos.get());
+            }
+        }
+        return maxNanos.get();
+    }
+
+    public Summary summary() {
+        final long n = count.sum();
+        return new Summary(n, n == 0 ? 0 : totalNanos.sum() / n, valueAtPercentile(50), valueAtPercentile(90),
+                valueAtPercentile(99), maxNanos.get(), totalNanos.sum());
+    }
+
+    static int indexOf(long value) {
+        if (value < 2 * SUB_BUCKETS) {
+            return (int) value;
+        }
+        final int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        return (shift + 1) * SUB_BUCKETS + (int) (value >>> shift) - SUB_BUCKETS;
+    }
+
+    static long highestEquivalent(int index) {
+        if (index < 2 * SUB_BUCKETS) {
+            return index;
+        }
+        final int shift = index / SUB_BUCKETS - 1;
+        final long subBucket = index % SUB_BUCKETS + SUB_BUCKETS;
+        return ((subBucket + 1) << shift) - 1;
+    }
+
+    /**
+     * Percentiles of a histogram at one point in time, all in nanoseconds.
+     *
+     * @param count      Number of recorded values.
+     * @param meanNanos  Mean of the recorded values.
+     * @param p50Nanos   Median.
+     * @param p90Nanos   90th percentile.
+     * @param p99Nanos   99th percentile.
+     * @param maxNanos   Largest recorded value (exact).
+     * @param totalNanos Sum of the recorded values.
+     */
+    public record Summary(long count, long meanNanos, long p50Nanos, long p90Nanos, long p99Nanos, long maxNanos,
+                          long totalNanos) {
+
+        public static final Summary EMPTY = new Summary(0, 0, 0, 0, 0, 0, 0);
+    }
+}
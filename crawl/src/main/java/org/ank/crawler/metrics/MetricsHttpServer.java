@@ -0,0 +1,175 @@
+package org.ank.crawler.metrics;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Serves the crawl metrics at {@code http://127.0.0.1:<port>/metrics} in the Prometheus text format, so a
+ * scraper (or {@code curl}) can follow a long crawl. Counters are totals since the start; rates over any window
+ * are left to the scraper. The server only listens on the loopback interface and answers on one thread.
+ */
+public final class MetricsHttpServer implements AutoCloseable {
+
+    static final String PATH = "/metrics";
+    private static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private final HttpServer server;
+
+    private MetricsHttpServer(HttpServer server) {
+        this.server = server;
+    }
+
+    /**
+     * @param metrics What to serve; a snapshot is taken per request.
+     * @param port    Loopback port, or 0 for any free port.
+     * @throws UncheckedIOException If the port cannot be bound.
+     */
+    public static MetricsHttpServer start(CrawlMetrics metrics, int port) {
+        try {
+            final HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+            server.createContext(PATH, exchange -> serve(exchange, metrics));
+            server.start();
+            return new MetricsHttpServer(server);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot start the metrics endpoint on port " + port, e);
+        }
+    }
+
+    public int port() {
+        return server.getAddress().getPort();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+
+    private static void serve(HttpExchange exchange, CrawlMetrics metrics) throws IOException {
+        try (exchange) {
+            if (!PATH.equals(exchange.getRequestURI().getPath())) {
+                exchange.sendResponseHeaders(404, -1);
+                return;
+            }
+            final byte[] body = render(metrics.snapshot()).getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        }
+    }
+
+    /**
+     * Formats a snapshot in the Prometheus text exposition format.
+     */
+    static String render(MetricsSnapshot snapshot) {
+        final StringBuilder out = new StringBuilder(1024 + 128 * snapshot.hosts().size());
+        counter(out, "crawler_pages_fetched_total", "Responses received.", snapshot.pagesFetched());
+        counter(out, "crawler_bytes_fetched_total", "Response body bytes received.", snapshot.bytesFetched());
+        counter(out, "crawler_fetch_errors_total", "Fetches that ended in an exception.", snapshot.fetchErrors());
+        counter(out, "crawler_links_extracted_total", "Links reported by the processors.", snapshot.linksExtracted());
+        gauge(out, "crawler_queue_depth", "URIs waiting to be fetched.", snapshot.queueDepth());
+        gauge(out, "crawler_in_flight_fetches", "Fetches in progress.", snapshot.inFlight());
+        gauge(out, "crawler_visited_urls", "Distinct URLs visited.", snapshot.visited().urls());
+        header(out, "crawler_visited_fill_ratio", "gauge", "Fraction of the visited Bloom filter's bits set.");
+        sample(out, "crawler_visited_fill_ratio", null, null, format(snapshot.visited().fillRatio()));
+        header(out, "crawler_visited_false_positive_rate", "gauge",
+                "Estimated chance an unvisited URL is skipped as visited.");
+        sample(out, "crawler_visited_false_positive_rate", null, null,
+                String.valueOf(snapshot.visited().estimatedFalsePositiveRate())); // too small for format's 6 digits
+        header(out, "crawler_pages_per_second", "gauge", "Average pages fetched per second since the start.");
+        sample(out, "crawler_pages_per_second", null, null, format(snapshot.pagesPerSecond()));
+        header(out, "crawler_bytes_per_second", "gauge", "Average bytes fetched per second since the start.");
+        sample(out, "crawler_bytes_per_second", null, null, format(snapshot.bytesPerSecond()));
+        summary(out, "crawler_fetch_latency_seconds", "Time to fetch a page.", snapshot.fetchLatency());
+        summary(out, "crawler_parse_latency_seconds", "Time in the processor chain per page.",
+                snapshot.parseLatency());
+
+        header(out, "crawler_responses_total", "counter", "Responses per HTTP status code.");
+        snapshot.statusCounts().forEach((status, count) ->
+                sample(out, "crawler_responses_total", "status", String.valueOf(status), String.valueOf(count)));
+        header(out, "crawler_errors_total", "counter", "Failed fetches per exception type.");
+        snapshot.errorCounts().forEach((type, count) ->
+                sample(out, "crawler_errors_total", "error", type, String.valueOf(count)));
+
+        final Map<String, MetricsSnapshot.HostStats> hosts = new TreeMap<>(snapshot.hosts());
+        header(out, "crawler_host_pages_total", "counter", "Responses per host.");
+        hosts.forEach((host, stats) -> sample(out, "crawler_host_pages_total", "host", host,
+                String.valueOf(stats.pages())));
+        header(out, "crawler_host_errors_total", "counter", "Failed fetches per host.");
+        hosts.forEach((host, stats) -> sample(out, "crawler_host_errors_total", "host", host,
+                String.valueOf(stats.errors())));
+        header(out, "crawler_host_bytes_total", "counter", "Response body bytes per host.");
+        hosts.forEach((host, stats) -> sample(out, "crawler_host_bytes_total", "host", host,
+                String.valueOf(stats.bytes())));
+        header(out, "crawler_host_fetch_seconds_total", "counter", "Time spent fetching per host.");
+        hosts.forEach((host, stats) -> sample(out, "crawler_host_fetch_seconds_total", "host", host,
+                seconds(stats.totalNanos())));
+        return out.toString();
+    }
+
+    private static void counter(StringBuilder out, String name, String help, long value) {
+        header(out, name, "counter", help);
+        sample(out, name, null, null, String.valueOf(value));
+    }
+
+    private static void gauge(StringBuilder out, String name, String help, long value) {
+        header(out, name, "gauge", help);
+        sample(out, name, null, null, String.valueOf(value));
+    }
+
+    private static void summary(StringBuilder out, String name, String help, LatencyHistogram.Summary summary) {
+        header(out, name, "summary", help);
+        sample(out, name, "quantile", "0.5", seconds(summary.p50Nanos()));
+        sample(out, name, "quantile", "0.9", seconds(summary.p90Nanos()));
+        sample(out, name, "quantile", "0.99", seconds(summary.p99Nanos()));
+        sample(out, name, "quantile", "1", seconds(summary.maxNanos()));
+        sample(out, name + "_sum", null, null, seconds(summary.totalNanos()));
+        sample(out, name + "_count", null, null, String.valueOf(summary.count()));
+    }
+
+    private static void header(StringBuilder out, String name, String type, String help) {
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    private static void sample(StringBuilder out, String name, String label, String labelValue, String value) {
+        out.append(name);
+        if (label != null) {
+            out.append('{').append(label).append("=\"");
+            escape(out, labelValue);
+            out.append("\"}");
+        }
+        out.append(' ').append(value).append('\n');
+    }
+
+    private static void escape(StringBuilder out, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            switch (c) {
+                case '\\' -> out.append("\\\\");
+                case '"' -> out.append("\\\"");
+                case '\n' -> out.append("\\n");
+                default -> out.append(c);
+            }
+        }
+    }
+
+    private static String seconds(long nanos) {
+        return format(nanos / 1e9);
+    }
+
+    private static String format(double value) {
+        return String.format(Locale.ROOT, "%.6f", value);
+    }
+}
@@ -0,0 +1,70 @@
+package org.ank.crawler.metrics;
+
+import org.ank.crawler.dedupe.VisitedSet;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * The crawl metrics at one point in time.
+ *
+ * @param elapsed        Time since recording started.
+ * @param pagesFetched   Responses received, whatever their status.
+ * @param bytesFetched   Response body sizes: {@code Content-Length} where given, otherwise the body's length.
+ * @param fetchErrors    Fetches that ended in an exception instead of a response.
+ * @param linksExtracted Links reported by the processor chains, before the scope check.
+ * @param queueDepth     URIs waiting to be fetched.
+ * @param inFlight       Fetches in progress.
+ * @param visited        Size of the visited set and, for a Bloom filter, its fill and false-positive rate.
+ * @param fetchLatency   Time from sending a request to having the whole response, failed fetches included.
+ * @param parseLatency   Time spent in the processor chain per page.
+ * @param statusCounts   Responses per HTTP status code.
+ * @param errorCounts    Failed fetches per exception type.
+ * @param hosts          Fetches per host; hosts beyond the tracked maximum are added up under {@link #OTHER_HOSTS}.
+ */
+public record MetricsSnapshot(Duration elapsed, long pagesFetched, long bytesFetched, long fetchErrors,
+                              long linksExtracted, long queueDepth, long inFlight, VisitedSet.Health visited,
+                              LatencyHistogram.Summary fetchLatency, LatencyHistogram.Summary parseLatency,
+                              Map<Integer, Long> statusCounts, Map<String, Long> errorCounts,
+                              Map<String, HostStats> hosts) {
+
+    public static final String OTHER_HOSTS = "(other)";
+
+    public static final MetricsSnapshot EMPTY = new MetricsSnapshot(Duration.ZERO, 0, 0, 0, 0, 0, 0, VisitedSet.Health.EMPTY,
+            LatencyHistogram.Summary.EMPTY, LatencyHistogram.Summary.EMPTY, Map.of(), Map.of(), Map.of());
+
+    /**
+     * @return Average pages fetched per second since recording started.
+     */
+    public double pagesPerSecond() {
+        return perSecond(pagesFetched);
+    }
+
+    /**
+     * @return Average bytes fetched per second since recording started.
+     */
+    public double bytesPerSecond() {
+        return perSecond(bytesFetched);
+    }
+
+    private double perSecond(long total) {
+        final long nanos = elapsed.toNanos();
+        return nanos <= 0 ? 0 : total * 1e9 / nanos;
+    }
+
+    /**
+     * Fetch counters of one host.
+     *
+     * @param pages      Responses received.
+     * @param errors     Fetches that ended in an exception.
+     * @param bytes      Response body sizes.
+     * @param totalNanos Time spent fetching, failed fetches included.
+     */
+    public record HostStats(long pages, long errors, long bytes, long totalNanos) {
+
+        public long meanLatencyNanos() {
+            final long fetches = pages + errors;
+            return fetches == 0 ? 0 : totalNanos / fetches;
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package org.ank.crawler.processor;
+
+import org.ank.crawler.dedupe.SimHash;
+import org.ank.crawler.dedupe.SimHashIndex;
+import org.ank.crawler.fetcher.FetchedContent;
+
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A Processor that stops the crawl from expanding pages whose text is a near-duplicate of a page already seen,
+ * e.g. the same article under session IDs, print views or sort orders.
+ * <p>
+ * Each page's {@link SimHash} is looked up in a {@link SimHashIndex}; a page within {@code maxDistance} bits
+ * of an earlier one is suppressed (no outlinks), which cuts off its whole duplicate subtree. Other pages are
+ * passed on to the wrapped processor. Pages without text, and non-200 responses, always go through.
+ */
+public class NearDuplicateFilterProcessor implements Processor {
+
+    /**
+     * Differing bits tolerated by default: 3 of 64, as commonly used for web pages.
+     */
+    public static final int DEFAULT_MAX_DISTANCE = 3;
+
+    private static final Logger LOGGER = Logger.getLogger(NearDuplicateFilterProcessor.class.getName());
+
+    private final Processor delegate;
+    private final SimHashIndex index;
+    private final AtomicLong suppressed = new AtomicLong();
+
+    public NearDuplicateFilterProcessor(Processor delegate) {
+        this(delegate, DEFAULT_MAX_DISTANCE);
+    }
+
+    /**
+     * @param delegate    The processor that extracts outlinks from distinct pages.
+     * @param maxDistance Largest Hamming distance between fingerprints still counted as a near-duplicate.
+     */
+    public NearDuplicateFilterProcessor(Processor delegate, int maxDistance) {
+        this.delegate = delegate;
+        this.index = new SimHashIndex(maxDistance);
+    }
+
+    @Override
+    public Set<String> process(FetchedContent fetchedContent, String sourceUri) {
+        return process(new PageContext(fetchedContent, sourceUri));
+    }
+
+    /**
+     * Fingerprints the page through its context, and passes the same context on to the delegate.
+     */
+    @Override
+    public Set<String> process(PageContext page) {
+        if (!page.hasBody()) {
+            return delegate.process(page);
+        }
+        final SimHash simHash = page.simHash();
+        if (simHash.featureCount() > 0 && !index.addIfDistinct(simHash.value())) {
+            suppressed.incrementAndGet();
+            LOGGER.log(Level.FINE, "Not expanding near-duplicate page {0}", page.uri());
+            return Set.of();
+        }
+        return delegate.process(page);
+    }
+
+    /**
+     * @return Number of pages whose outlinks were dropped as near-duplicates.
+     */
+    public long suppressedCount() {
+        return suppressed.get();
+    }
+
+    /**
+     * @return Number of distinct pages fingerprinted so far.
+     */
+    public long distinctCount() {
+        return index.size();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d distinct pages, %d near-duplicates suppressed", distinctCount(), suppressedCount());
+    }
+}
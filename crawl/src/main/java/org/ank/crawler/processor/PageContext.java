@@ -0,0 +1,162 @@
+package org.ank.crawler.processor;
+
+import org.ank.crawler.dedupe.SimHash;
+import org.ank.crawler.fetcher.FetchedContent;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * One fetched page as seen by the whole {@link Processor} chain. The HTML is parsed at most once, the first time a
+ * processor asks for the {@link #document()}, and everything derived from it (text, title, links, fingerprint) is
+ * cached, so adding processors does not add parses.
+ * <p>
+ * A context belongs to a single page being processed by a single thread, and is not thread-safe. The frontier
+ * {@link #release() releases} it once the chain is done, so the DOM is not kept alive by a processor holding on
+ * to the context.
+ */
+public final class PageContext {
+
+    private final FetchedContent content;
+    private final String uri;
+    private Document document;
+    private String text;
+    private Set<String> links;
+    private SimHash simHash;
+    private Map<String, Object> derived;
+    private boolean released;
+
+    /**
+     * @param content The fetched response.
+     * @param uri     The URI it was fetched from, used to resolve relative links.
+     */
+    public PageContext(FetchedContent content, String uri) {
+        this.content = content;
+        this.uri = uri;
+    }
+
+    public FetchedContent content() {
+        return content;
+    }
+
+    public String uri() {
+        return uri;
+    }
+
+    /**
+     * @return true for a {@code 200} response with a body, the only kind there is anything to parse in.
+     */
+    public boolean hasBody() {
+        return content.statusCode() == 200 && content.content() != null;
+    }
+
+    /**
+     * @return The parsed page; parsed on the first call only. An empty document if there is no body.
+     */
+    public Document document() {
+        checkNotReleased();
+        if (document == null) {
+            document = hasBody() ? Jsoup.parse(content.content(), uri) : Document.createShell(uri);
+        }
+        return document;
+    }
+
+    /**
+     * @return true if some processor has already paid for parsing the page.
+     */
+    public boolean isParsed() {
+        return document != null;
+    }
+
+    /**
+     * @return The page's visible text, whitespace-normalized.
+     */
+    public String text() {
+        if (text == null) {
+            text = document().text();
+        }
+        return text;
+    }
+
+    /**
+     * @return The page's {@code <title>}, or an empty string.
+     */
+    public String title() {
+        return document().title();
+    }
+
+    /**
+     * @return The absolute URLs of every {@code <a href>} on the page, in document order; read-only.
+     */
+    public Set<String> links() {
+        if (links == null) {
+            final Set<String> found = new LinkedHashSet<>();
+            for (Element el : document().select("a[href]")) {
+                final String absUrl = el.absUrl("href");
+                if (absUrl != null && !absUrl.isBlank()) {
+                    found.add(absUrl);
+                }
+            }
+            links = Collections.unmodifiableSet(found);
+        }
+        return links;
+    }
+
+    /**
+     * @return The page's SimHash, computed from the raw HTML (no parse needed).
+     */
+    public SimHash simHash() {
+        checkNotReleased();
+        if (simHash == null) {
+            simHash = SimHash.ofHtml(hasBody() ? content.content() : "");
+        }
+        return simHash;
+    }
+
+    /**
+     * Returns a value derived from the page, computing it on first use, so a result one processor needs can be
+     * shared with the processors after it.
+     *
+     * @param key     Names the value; prefix it with the processor's class to avoid clashes.
+     * @param compute Derives the value from this context.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T computeIfAbsent(String key, Function<PageContext, T> compute) {
+        checkNotReleased();
+        if (derived == null) {
+            derived = new HashMap<>();
+        }
+        final Object cached = derived.get(key);
+        if (cached != null) {
+            return (T) cached;
+        }
+        final T value = compute.apply(this);
+        derived.put(key, value);
+        return value;
+    }
+
+    /**
+     * Drops the parsed document and everything derived from it. Later calls that would need them throw.
+     */
+    public void release() {
+        released = true;
+        document = null;
+        text = null;
+        links = null;
+        simHash = null;
+        derived = null;
+    }
+
+    private void checkNotReleased() {
+        if (released) {
+            throw new IllegalStateException("Page context of " + uri + " used after release");
+        }
+    }
+}
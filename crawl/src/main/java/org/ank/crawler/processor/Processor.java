@@ -21,4 +21,16 @@ public interface Processor {
      * @return A set of discovered URIs that might be scheduled
      */
     Set<String> process(FetchedContent fetchedContent, String sourceUri);
+
+    /**
+     * Processes a page whose parse is shared with the rest of the chain. The frontier calls this one; processors
+     * that need the DOM, text or links should override it and take them from the {@link PageContext} instead of
+     * parsing the content again. By default it hands the raw content to {@link #process(FetchedContent, String)}.
+     *
+     * @param page The fetched page and what has been derived from it so far
+     * @return A set of discovered URIs that might be scheduled
+     */
+    default Set<String> process(PageContext page) {
+        return process(page.content(), page.uri());
+    }
 }
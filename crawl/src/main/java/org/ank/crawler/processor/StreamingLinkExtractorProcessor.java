@@ -0,0 +1,671 @@
+package org.ank.crawler.processor;
+
+import org.ank.crawler.fetcher.FetchedContent;
+import org.jsoup.nodes.Entities;
+
+import java.net.MalformedURLException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * A Processor that extracts hyperlinks in a single forward scan of the HTML, without building a DOM.
+ * <p>
+ * It tokenizes just enough of the markup to find {@code <a href>} and the first {@code <base href>}:
+ * comments, doctypes, end tags and the content of raw-text elements ({@code script}, {@code style},
+ * {@code textarea}, ...) are skipped the way the HTML tokenizer skips them, and attribute values are
+ * entity-decoded with the tokenizer's rules. Relative URLs are parsed with {@link URI} and resolved by the rules of
+ * RFC 3986 against a base parsed once per page, so the output matches {@link LinkExtractorProcessor} while avoiding
+ * its parse and allocation cost. The one difference is that "." and ".." segments are always removed, as browsers
+ * do, where {@code Element.absUrl} keeps them in absolute and root-relative hrefs; the URL canonicalizer removes
+ * them anyway.
+ * <p>
+ * As in JSoup, the first {@code <base href>} applies to the whole document, including links that appear
+ * before it, so hrefs are collected during the scan and resolved once it completes.
+ */
+public class StreamingLinkExtractorProcessor implements Processor {
+
+    // Elements whose content is text up to the matching end tag, never markup
+    private static final String[] RAW_TEXT_ELEMENTS =
+            {"script", "style", "textarea", "title", "xmp", "iframe", "noembed", "noframes"};
+    private static final String PLAINTEXT_ELEMENT = "plaintext";
+    private static final Pattern VALID_URI_SCHEME = Pattern.compile("^[a-zA-Z][a-zA-Z0-9+-.]*:");
+    // Start of the private-use block standing in for ASCII characters URI rejects, see swapInStandIns
+    private static final char STAND_IN_BASE = '\uE000';
+
+    // Numeric references in 0x80-0x9F are read as windows-1252, as browsers do
+    private static final int WIN1252_EXTENSIONS_START = 0x80;
+    private static final int[] WIN1252_EXTENSIONS = {
+            0x20AC, 0x0081, 0x201A, 0x0192, 0x201E, 0x2026, 0x2020, 0x2021,
+            0x02C6, 0x2030, 0x0160, 0x2039, 0x0152, 0x008D, 0x017D, 0x008F,
+            0x0090, 0x2018, 0x2019, 0x201C, 0x201D, 0x2022, 0x2013, 0x2014,
+            0x02DC, 0x2122, 0x0161, 0x203A, 0x0153, 0x009D, 0x017E, 0x0178,
+    };
+
+    @Override
+    public Set<String> process(FetchedContent fetchedContent, String sourceUri) {
+        final Set<String> discovered = new LinkedHashSet<>();
+
+        // If status code not 200, skip
+        if (fetchedContent.statusCode() != 200 || fetchedContent.content() == null) {
+            return discovered;
+        }
+
+        final Scan scan = new Scan(fetchedContent.content(), sourceUri);
+        scan.run();
+
+        final String baseUri = scan.baseUri != null ? scan.baseUri : sourceUri;
+        final URI base = parseBase(baseUri);
+        for (String href : scan.hrefs) {
+            final String absUrl = base != null ? resolve(base, href) : resolveWithoutBase(href);
+            if (!absUrl.isBlank()) {
+                discovered.add(absUrl);
+            }
+        }
+        return discovered;
+    }
+
+    /**
+     * Resolves an href the way {@code Element.absUrl} does, with the base already parsed.
+     *
+     * @return The absolute URL, or "" if the href cannot be made into one.
+     */
+    private static String resolve(URI base, String href) {
+        String relative = stripControlChars(href).trim();
+        if (relative.isEmpty()) {
+            return externalForm(base);
+        }
+        final int colon = relative.indexOf(':');
+        if (colon >= 0 && !VALID_URI_SCHEME.matcher(relative).find()
+                && relative.substring(0, colon).chars().noneMatch(c -> c == '/' || c == '?' || c == '#')) {
+            relative = "./" + relative; // e.g. "bad scheme://x", which is a relative path to a browser
+        }
+        try {
+            final String absolute = externalForm(resolveReference(base, new URI(swapInStandIns(relative))));
+            if (!absolute.isEmpty()) {
+                return absolute;
+            }
+        } catch (URISyntaxException | IllegalArgumentException e) {
+            // not resolvable against the base, but may be absolute on its own
+        }
+        return resolveWithoutBase(relative);
+    }
+
+    /**
+     * Resolves a reference as RFC 3986 (section 5.2) does. {@link URI#resolve} follows the older RFC 2396, which
+     * differs for query-only references, and its normalization merges the "//" in paths such as "/a//b".
+     */
+    private static URI resolveReference(URI base, URI reference) throws URISyntaxException {
+        if (reference.isOpaque() || base.isOpaque()) {
+            return reference;
+        }
+        final String scheme;
+        final String authority;
+        final String path;
+        String query = reference.getRawQuery();
+        if (reference.getScheme() != null) {
+            scheme = reference.getScheme();
+            authority = reference.getRawAuthority();
+            path = removeDotSegments(reference.getRawPath());
+        } else if (reference.getRawAuthority() != null) {
+            scheme = base.getScheme();
+            authority = reference.getRawAuthority();
+            path = removeDotSegments(reference.getRawPath());
+        } else {
+            scheme = base.getScheme();
+            authority = base.getRawAuthority();
+            final String basePath = base.getRawPath();
+            final String referencePath = reference.getRawPath();
+            if (referencePath.isEmpty()) {
+                path = basePath;
+                if (query == null) {
+                    query = base.getRawQuery();
+                }
+            } else if (referencePath.startsWith("/")) {
+                path = removeDotSegments(referencePath);
+            } else if (authority != null && basePath.isEmpty()) {
+                path = removeDotSegments("/" + referencePath);
+            } else {
+                path = removeDotSegments(basePath.substring(0, basePath.lastIndexOf('/') + 1) + referencePath);
+            }
+        }
+
+        final StringBuilder target = new StringBuilder().append(scheme).append(':');
+        if (authority != null) {
+            target.append("//").append(authority);
+        }
+        target.append(path);
+        if (query != null) {
+            target.append('?').append(query);
+        }
+        if (reference.getRawFragment() != null) {
+            target.append('#').append(reference.getRawFragment());
+        }
+        return new URI(target.toString());
+    }
+
+    /**
+     * Removes "." and ".." segments from a path as RFC 3986 (section 5.2.4) does, including ".." above the root.
+     */
+    private static String removeDotSegments(String path) {
+        if (path.indexOf('.') < 0) {
+            return path;
+        }
+        final StringBuilder output = new StringBuilder(path.length());
+        final int length = path.length();
+        int pos = 0;
+        while (pos < length) {
+            if (path.startsWith("../", pos)) {
+                pos += 3;
+            } else if (path.startsWith("./", pos) || path.startsWith("/./", pos)) {
+                pos += 2;
+            } else if (pos + 2 == length && path.startsWith("/.", pos)) {
+                output.append('/');
+                pos = length;
+            } else if (path.startsWith("/../", pos)) {
+                pos += 3;
+                output.setLength(Math.max(output.lastIndexOf("/"), 0));
+            } else if (pos + 3 == length && path.startsWith("/..", pos)) {
+                output.setLength(Math.max(output.lastIndexOf("/"), 0));
+                output.append('/');
+                pos = length;
+            } else if (path.substring(pos).equals(".") || path.substring(pos).equals("..")) {
+                pos = length;
+            } else {
+                final int next = path.indexOf('/', pos + 1);
+                final int segmentEnd = next < 0 ? length : next;
+                output.append(path, pos, segmentEnd);
+                pos = segmentEnd;
+            }
+        }
+        return output.toString();
+    }
+
+    /**
+     * Resolves an href found where there is no usable base URL: only an absolute URL is kept.
+     */
+    private static String resolveWithoutBase(String href) {
+        final String stripped = stripControlChars(href).trim();
+        try {
+            final String absolute = externalForm(new URI(swapInStandIns(stripped)));
+            if (!absolute.isEmpty()) {
+                return absolute;
+            }
+        } catch (URISyntaxException | IllegalArgumentException e) {
+            // not a URI even with stand-ins; fall through
+        }
+        return VALID_URI_SCHEME.matcher(stripped).find() ? stripped : "";
+    }
+
+    private static URI parseBase(String baseUri) {
+        try {
+            final URI base = new URI(swapInStandIns(stripControlChars(baseUri).trim()));
+            return base.isAbsolute() ? base : null;
+        } catch (URISyntaxException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Formats a resolved URI as JSoup does, without user info.
+     *
+     * @return The URL, or "" if it has no registered stream handler (e.g. tel:), which the caller checks.
+     * @throws IllegalArgumentException If the URI is not absolute.
+     */
+    private static String externalForm(URI uri) {
+        final URL url;
+        try {
+            url = uri.toURL();
+        } catch (MalformedURLException e) {
+            return "";
+        }
+        final StringBuilder external = new StringBuilder(url.getProtocol()).append(':');
+        if (!url.getHost().isEmpty()) {
+            external.append("//").append(url.getHost());
+            if (url.getPort() != -1) {
+                external.append(':').append(url.getPort());
+            }
+        }
+        external.append(url.getFile());
+        if (url.getRef() != null) {
+            external.append('#').append(url.getRef());
+        }
+        return swapOutStandIns(external.toString());
+    }
+
+    /**
+     * Replaces the ASCII characters that browsers accept in an href but {@link URI} rejects (spaces, quotes, angle
+     * brackets, backslashes, {@code ^ ` { | }}, a '%' not starting an escape and any '#' after the first) with
+     * private-use characters, which URI passes through untouched, so the resolved URL can be given back with the
+     * characters as written rather than percent-encoded.
+     * <p>
+     * Text that already holds one of the stand-ins is returned as is, and fails to parse if it needed them.
+     */
+    private static String swapInStandIns(String value) {
+        StringBuilder swapped = null;
+        boolean inFragment = false;
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            if (c >= STAND_IN_BASE && c < STAND_IN_BASE + 0x80) {
+                return value;
+            }
+            final boolean rejected = switch (c) {
+                case ' ', '"', '<', '>', '\\', '^', '`', '{', '|', '}' -> true;
+                case '%' -> i + 2 >= value.length() || Character.digit(value.charAt(i + 1), 16) < 0
+                        || Character.digit(value.charAt(i + 2), 16) < 0;
+                case '#' -> {
+                    final boolean repeated = inFragment;
+                    inFragment = true;
+                    yield repeated;
+                }
+                default -> false;
+            };
+            if (rejected && swapped == null) {
+                swapped = new StringBuilder(value.length()).append(value, 0, i);
+            }
+            if (swapped != null) {
+                swapped.append(rejected ? (char) (STAND_IN_BASE + c) : c);
+            }
+        }
+        return swapped == null ? value : swapped.toString();
+    }
+
+    private static String swapOutStandIns(String value) {
+        StringBuilder swapped = null;
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            final boolean standIn = c >= STAND_IN_BASE && c < STAND_IN_BASE + 0x80;
+            if (standIn && swapped == null) {
+                swapped = new StringBuilder(value.length()).append(value, 0, i);
+            }
+            if (swapped != null) {
+                swapped.append(standIn ? (char) (c - STAND_IN_BASE) : c);
+            }
+        }
+        return swapped == null ? value : swapped.toString();
+    }
+
+    private static String stripControlChars(String value) {
+        int i = 0;
+        while (i < value.length() && value.charAt(i) >= 0x20) {
+            i++;
+        }
+        if (i == value.length()) {
+            return value;
+        }
+        final StringBuilder stripped = new StringBuilder(value.length()).append(value, 0, i);
+        for (; i < value.length(); i++) {
+            if (value.charAt(i) >= 0x20) {
+                stripped.append(value.charAt(i));
+            }
+        }
+        return stripped.toString();
+    }
+
+    /**
+     * Decodes character references in an attribute value following the JSoup tokenizer:
+     * numeric references with or without ';', named references with ';', and legacy named references
+     * without ';' unless followed by a letter, digit, '=', '-' or '_'.
+     */
+    static String decodeAttributeEntities(String value) {
+        int amp = value.indexOf('&');
+        if (amp < 0) {
+            return value;
+        }
+        final StringBuilder decoded = new StringBuilder(value.length());
+        int pos = 0;
+        final int[] codepoints = new int[2];
+        while (amp >= 0) {
+            decoded.append(value, pos, amp);
+            pos = amp + 1;
+            final int end = decodeReference(value, pos, codepoints, decoded);
+            if (end < 0) {
+                decoded.append('&');
+            } else {
+                pos = end;
+            }
+            amp = value.indexOf('&', pos);
+        }
+        return decoded.append(value, pos, value.length()).toString();
+    }
+
+    /**
+     * Decodes the character reference starting just after an '&' and appends it.
+     *
+     * @return The position after the reference, or -1 if there is no valid reference (nothing is appended).
+     */
+    private static int decodeReference(String value, int pos, int[] codepoints, StringBuilder out) {
+        final int length = value.length();
+        if (pos >= length) {
+            return -1;
+        }
+        final char first = value.charAt(pos);
+        if (isWhitespace(first) || first == '<' || first == '&') {
+            return -1;
+        }
+
+        if (first == '#') {
+            int digits = pos + 1;
+            final boolean hex = digits < length && (value.charAt(digits) == 'x' || value.charAt(digits) == 'X');
+            if (hex) {
+                digits++;
+            }
+            int end = digits;
+            while (end < length && (hex ? Character.digit(value.charAt(end), 16) >= 0 && value.charAt(end) < 0x80
+                    : value.charAt(end) >= '0' && value.charAt(end) <= '9')) {
+                end++;
+            }
+            if (end == digits) {
+                return -1;
+            }
+            int codepoint;
+            try {
+                codepoint = Integer.parseInt(value, digits, end, hex ? 16 : 10);
+            } catch (NumberFormatException e) {
+                codepoint = -1;
+            }
+            if (codepoint == -1 || (codepoint >= 0xD800 && codepoint <= 0xDFFF) || codepoint > 0x10FFFF) {
+                codepoint = 0xFFFD;
+            } else if (codepoint >= WIN1252_EXTENSIONS_START
+                    && codepoint < WIN1252_EXTENSIONS_START + WIN1252_EXTENSIONS.length) {
+                codepoint = WIN1252_EXTENSIONS[codepoint - WIN1252_EXTENSIONS_START];
+            }
+            out.appendCodePoint(codepoint);
+            return end < length && value.charAt(end) == ';' ? end + 1 : end;
+        }
+
+        int end = pos;
+        while (end < length && isLetter(value.charAt(end))) {
+            end++;
+        }
+        while (end < length && value.charAt(end) >= '0' && value.charAt(end) <= '9') {
+            end++;
+        }
+        final String name = value.substring(pos, end);
+        final boolean terminated = end < length && value.charAt(end) == ';';
+        if (!Entities.isBaseNamedEntity(name) && !(terminated && Entities.isNamedEntity(name))) {
+            return -1;
+        }
+        if (end < length) {
+            final char next = value.charAt(end);
+            if (isLetter(next) || (next >= '0' && next <= '9') || next == '=' || next == '-' || next == '_') {
+                return -1;
+            }
+        }
+        final int count = Entities.codepointsForName(name, codepoints);
+        for (int i = 0; i < count; i++) {
+            out.appendCodePoint(codepoints[i]);
+        }
+        return terminated ? end + 1 : end;
+    }
+
+    /**
+     * State of one pass over a document. Positions are indexes into {@code html}.
+     */
+    private static final class Scan {
+        private final String html;
+        private final int length;
+        private final String sourceUri;
+        private final List<String> hrefs = new ArrayList<>();
+        private String baseUri;
+
+        // attributes of the tag currently being read
+        private boolean tagHasHref;
+        private int hrefStart;
+        private int hrefEnd;
+
+        private Scan(String html, String sourceUri) {
+            this.html = html;
+            this.length = html.length();
+            this.sourceUri = sourceUri;
+        }
+
+        private void run() {
+            int pos = 0;
+            while (pos < length) {
+                final int lt = html.indexOf('<', pos);
+                if (lt < 0 || lt + 1 >= length) {
+                    return;
+                }
+                final char next = html.charAt(lt + 1);
+                if (isAsciiLetter(next)) {
+                    pos = startTag(lt + 1);
+                } else if (next == '/') {
+                    pos = endTag(lt + 2);
+                } else if (next == '!') {
+                    pos = markupDeclaration(lt + 2);
+                } else if (next == '?') {
+                    pos = skipPast('>', lt + 2);
+                } else {
+                    pos = lt + 1; // a lone '<' is just text
+                }
+            }
+        }
+
+        /**
+         * Reads a start tag whose name begins at {@code pos}, records href/base if relevant,
+         * and skips the content of raw-text elements.
+         *
+         * @return The position after the tag (and its raw-text content).
+         */
+        private int startTag(int pos) {
+            final int nameStart = pos;
+            while (pos < length && !isTagNameEnd(html.charAt(pos))) {
+                pos++;
+            }
+            final int nameEnd = pos;
+
+            if (pos < length && html.charAt(pos) == '<') {
+                // "<a<b>" : the tag is closed by the next tag, as in the JSoup tokenizer
+                tagHasHref = false;
+            } else {
+                pos = attributes(pos);
+                if (pos < 0) {
+                    return length; // tag ran into EOF and is discarded
+                }
+            }
+
+            if (isName(nameStart, nameEnd, "a")) {
+                if (tagHasHref) {
+                    hrefs.add(attributeValue());
+                }
+            } else if (isName(nameStart, nameEnd, "base")) {
+                if (tagHasHref && baseUri == null) {
+                    final URI source = parseBase(sourceUri);
+                    final String href = attributeValue();
+                    final String resolved = source != null ? resolve(source, href) : resolveWithoutBase(href);
+                    if (!resolved.isEmpty()) {
+                        baseUri = resolved;
+                    }
+                }
+            } else if (isName(nameStart, nameEnd, PLAINTEXT_ELEMENT)) {
+                return length;
+            } else {
+                for (String rawText : RAW_TEXT_ELEMENTS) {
+                    if (isName(nameStart, nameEnd, rawText)) {
+                        return skipRawText(pos, rawText);
+                    }
+                }
+            }
+            return pos;
+        }
+
+        /**
+         * Reads the attributes of a tag up to and including its closing '>', noting the first href.
+         *
+         * @return The position after '>', or -1 if the input ends inside the tag.
+         */
+        private int attributes(int pos) {
+            tagHasHref = false;
+            while (pos < length) {
+                char c = html.charAt(pos);
+                if (isWhitespace(c) || c == '/') {
+                    pos++;
+                    continue;
+                }
+                if (c == '>') {
+                    return pos + 1;
+                }
+
+                // attribute name; a leading '=' is part of the name
+                final int nameStart = pos++;
+                while (pos < length && !isAttributeNameEnd(html.charAt(pos))) {
+                    pos++;
+                }
+                final int nameEnd = pos;
+                pos = skipWhitespace(pos);
+
+                int valueStart = pos;
+                int valueEnd = pos;
+                if (pos < length && html.charAt(pos) == '=') {
+                    pos = skipWhitespace(pos + 1);
+                    if (pos >= length) {
+                        return -1;
+                    }
+                    c = html.charAt(pos);
+                    if (c == '"' || c == '\'') {
+                        valueStart = pos + 1;
+                        valueEnd = html.indexOf(c, valueStart);
+                        if (valueEnd < 0) {
+                            return -1;
+                        }
+                        pos = valueEnd + 1;
+                    } else {
+                        valueStart = pos;
+                        while (pos < length && !isWhitespace(html.charAt(pos)) && html.charAt(pos) != '>') {
+                            pos++;
+                        }
+                        valueEnd = pos;
+                    }
+                }
+
+                // first occurrence of a duplicated attribute wins
+                if (!tagHasHref && isName(nameStart, nameEnd, "href")) {
+                    tagHasHref = true;
+                    hrefStart = valueStart;
+                    hrefEnd = valueEnd;
+                }
+            }
+            return -1;
+        }
+
+        private String attributeValue() {
+            return decodeAttributeEntities(html.substring(hrefStart, hrefEnd));
+        }
+
+        /**
+         * Skips an end tag whose name begins at {@code pos}. End tags may carry (ignored) attributes.
+         */
+        private int endTag(int pos) {
+            if (pos >= length) {
+                return length;
+            }
+            final char c = html.charAt(pos);
+            if (c == '>') {
+                return pos + 1; // "</>" is dropped
+            }
+            if (!isAsciiLetter(c)) {
+                return skipPast('>', pos); // bogus comment
+            }
+            while (pos < length && !isTagNameEnd(html.charAt(pos))) {
+                pos++;
+            }
+            if (pos < length && html.charAt(pos) == '<') {
+                return pos;
+            }
+            final int end = attributes(pos);
+            return end < 0 ? length : end;
+        }
+
+        /**
+         * Skips a comment, doctype, CDATA section or other {@code <!...>} declaration starting at {@code pos}.
+         */
+        private int markupDeclaration(int pos) {
+            if (!html.startsWith("--", pos)) {
+                return skipPast('>', pos);
+            }
+            pos += 2;
+            // "<!-->" and "<!--->" are complete (empty) comments
+            if (html.startsWith(">", pos)) {
+                return pos + 1;
+            }
+            if (html.startsWith("->", pos)) {
+                return pos + 2;
+            }
+            while (true) {
+                final int dashes = html.indexOf("--", pos);
+                if (dashes < 0) {
+                    return length;
+                }
+                if (html.startsWith(">", dashes + 2)) {
+                    return dashes + 3;
+                }
+                if (html.startsWith("!>", dashes + 2)) {
+                    return dashes + 4;
+                }
+                pos = dashes + 1;
+            }
+        }
+
+        /**
+         * Skips the text content of a raw-text element up to its end tag.
+         *
+         * @return The position of the end tag, or the end of input if it is never closed.
+         */
+        private int skipRawText(int pos, String name) {
+            while (true) {
+                final int lt = html.indexOf("</", pos);
+                if (lt < 0) {
+                    return length;
+                }
+                final int afterName = lt + 2 + name.length();
+                if (html.regionMatches(true, lt + 2, name, 0, name.length())
+                        && (afterName >= length || isTagNameEnd(html.charAt(afterName)))) {
+                    return lt;
+                }
+                pos = lt + 2;
+            }
+        }
+
+        private int skipPast(char c, int pos) {
+            final int found = html.indexOf(c, pos);
+            return found < 0 ? length : found + 1;
+        }
+
+        private int skipWhitespace(int pos) {
+            while (pos < length && isWhitespace(html.charAt(pos))) {
+                pos++;
+            }
+            return pos;
+        }
+
+        private boolean isName(int start, int end, String name) {
+            return end - start == name.length() && html.regionMatches(true, start, name, 0, name.length());
+        }
+    }
+
+    private static boolean isAsciiLetter(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+
+    private static boolean isLetter(char c) {
+        return isAsciiLetter(c) || Character.isLetter(c);
+    }
+
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\r' || c == '\f';
+    }
+
+    private static boolean isTagNameEnd(char c) {
+        return isWhitespace(c) || c == '/' || c == '>' || c == '<';
+    }
+
+    private static boolean isAttributeNameEnd(char c) {
+        return isWhitespace(c) || c == '/' || c == '=' || c == '>';
+    }
+}
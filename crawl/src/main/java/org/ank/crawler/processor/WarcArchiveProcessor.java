@@ -0,0 +1,28 @@
+package org.ank.crawler.processor;
+
+import org.ank.crawler.fetcher.FetchedContent;
+import org.ank.crawler.warc.WarcWriter;
+
+import java.util.Set;
+
+/**
+ * A Processor that archives every response it sees as a WARC record, and discovers nothing.
+ * Add it to the processor chain next to a link extractor; the {@link WarcWriter} does the compression and disk I/O
+ * on its own thread, so the worker only hands the record over.
+ * <p>
+ * The writer is not closed by the crawl: close it once {@code beginCrawl} has returned to complete the last file.
+ */
+public class WarcArchiveProcessor implements Processor {
+
+    private final WarcWriter writer;
+
+    public WarcArchiveProcessor(WarcWriter writer) {
+        this.writer = writer;
+    }
+
+    @Override
+    public Set<String> process(FetchedContent fetchedContent, String sourceUri) {
+        writer.write(sourceUri, fetchedContent);
+        return Set.of();
+    }
+}
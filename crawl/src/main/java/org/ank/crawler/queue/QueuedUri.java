@@ -0,0 +1,10 @@
+package org.ank.crawler.queue;
+
+/**
+ * A URI waiting to be fetched, with the link depth it was found at.
+ *
+ * @param uri   The canonical URI.
+ * @param depth Fewest links between a seed and the URI as far as the frontier knows; seeds are 0.
+ */
+public record QueuedUri(String uri, int depth) {
+}
@@ -0,0 +1,276 @@
+package org.ank.crawler.queue;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A FIFO queue that keeps a bounded "hot" head on the heap and spills everything beyond it to append-only,
+ * memory-mapped segment files, so heap use stays flat however large the backlog grows.
+ * <p>
+ * While anything is on disk, new URIs are appended to the newest segment rather than the hot head,
+ * which keeps the order strictly FIFO: hot head first, then the segments oldest to newest.
+ * A segment is deleted as soon as its last record has been read. Each record is a 4-byte length and a
+ * 4-byte depth followed by the URI's UTF-8 bytes; read and write positions are kept in memory, so the files
+ * are scratch space and do not survive a restart.
+ */
+public class SpillingUriQueue implements UriQueue {
+
+    private static final Logger LOGGER = Logger.getLogger(SpillingUriQueue.class.getName());
+    private static final int HEADER_BYTES = 2 * Integer.BYTES; // length, depth
+
+    private final Path directory;
+    private final int hotCapacity;
+    private final int segmentBytes;
+
+    // all guarded by lock
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Deque<QueuedUri> hot = new ArrayDeque<>();
+    private final Deque<Segment> segments = new ArrayDeque<>();
+    private long spilledCount;
+    private long segmentSequence;
+    private boolean closed;
+
+    /**
+     * @param spillDirectory Parent directory; the queue creates (and on close deletes) its own subdirectory in it.
+     * @param hotCapacity    Number of URIs kept on the heap.
+     * @param segmentBytes   Size of each segment file.
+     */
+    public SpillingUriQueue(Path spillDirectory, int hotCapacity, int segmentBytes) {
+        this.hotCapacity = hotCapacity;
+        this.segmentBytes = segmentBytes;
+        try {
+            Files.createDirectories(spillDirectory);
+            this.directory = Files.createTempDirectory(spillDirectory, "uri-queue-");
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create spill directory in " + spillDirectory, e);
+        }
+    }
+
+    @Override
+    public boolean offer(String uri, int depth) {
+        lock.lock();
+        try {
+            if (closed) {
+                return false;
+            }
+            if (spilledCount == 0 && hot.size() < hotCapacity) {
+                hot.add(new QueuedUri(uri, depth));
+            } else if (!spill(uri, depth)) {
+                return false;
+            }
+            notEmpty.signal();
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public QueuedUri poll(long timeout, TimeUnit unit) throws InterruptedException {
+        long nanos = unit.toNanos(timeout);
+        lock.lockInterruptibly();
+        try {
+            while (hot.isEmpty() && spilledCount == 0) {
+                if (nanos <= 0 || closed) {
+                    return null;
+                }
+                nanos = notEmpty.awaitNanos(nanos);
+            }
+            return hot.isEmpty() ? readSpilled() : hot.poll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public long size() {
+        lock.lock();
+        try {
+            return hot.size() + spilledCount;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return Number of URIs currently held on the heap.
+     */
+    public int inMemorySize() {
+        lock.lock();
+        try {
+            return hot.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return Number of segment files currently on disk.
+     */
+    public int segmentCount() {
+        lock.lock();
+        try {
+            return segments.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Deletes every remaining segment and the queue's directory. URIs still queued, or offered later, are dropped.
+     */
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            hot.clear();
+            spilledCount = 0;
+            while (!segments.isEmpty()) {
+                segments.poll().delete();
+            }
+            Files.deleteIfExists(directory);
+            notEmpty.signalAll();
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Could not delete spill directory " + directory, e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Must hold lock
+    private boolean spill(String uri, int depth) {
+        final byte[] bytes = uri.getBytes(StandardCharsets.UTF_8);
+        final int recordBytes = HEADER_BYTES + bytes.length;
+        if (recordBytes > segmentBytes) {
+            LOGGER.log(Level.WARNING, "Dropping URI too long to spill ({0} bytes)", bytes.length);
+            return false;
+        }
+        Segment tail = segments.peekLast();
+        if (tail == null || tail.writePosition + recordBytes > segmentBytes) {
+            if (tail != null) {
+                tail.seal();
+            }
+            tail = new Segment(directory.resolve(String.format(Locale.ROOT, "%016d.seg", segmentSequence++)), segmentBytes);
+            segments.add(tail);
+        }
+        tail.write(bytes, depth);
+        spilledCount++;
+        return true;
+    }
+
+    // Must hold lock, with spilledCount > 0
+    private QueuedUri readSpilled() {
+        final Segment head = segments.peek();
+        final QueuedUri uri = head.read();
+        spilledCount--;
+        if (head.exhausted()) {
+            segments.poll().delete();
+        }
+        return uri;
+    }
+
+    /**
+     * One append-only segment file. The writer maps it read-write while it is the newest segment;
+     * once sealed it is unmapped and mapped again read-only when reading reaches it.
+     */
+    private static final class Segment {
+        private final Path path;
+        private final int size;
+        private FileChannel channel;
+        private MappedByteBuffer buffer;
+        private int writePosition;
+        private int readPosition;
+        private long written;
+        private long read;
+
+        private Segment(Path path, int size) {
+            this.path = path;
+            this.size = size;
+            try {
+                channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+                        StandardOpenOption.WRITE);
+                buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot create queue segment " + path, e);
+            }
+        }
+
+        private void write(byte[] bytes, int depth) {
+            buffer.putInt(writePosition, bytes.length);
+            buffer.putInt(writePosition + Integer.BYTES, depth);
+            buffer.put(writePosition + HEADER_BYTES, bytes);
+            writePosition += HEADER_BYTES + bytes.length;
+            written++;
+        }
+
+        private QueuedUri read() {
+            if (buffer == null) {
+                try {
+                    channel = FileChannel.open(path, StandardOpenOption.READ);
+                    buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Cannot read queue segment " + path, e);
+                }
+            }
+            final byte[] bytes = new byte[buffer.getInt(readPosition)];
+            final int depth = buffer.getInt(readPosition + Integer.BYTES);
+            buffer.get(readPosition + HEADER_BYTES, bytes);
+            readPosition += HEADER_BYTES + bytes.length;
+            read++;
+            return new QueuedUri(new String(bytes, StandardCharsets.UTF_8), depth);
+        }
+
+        private boolean exhausted() {
+            return read == written;
+        }
+
+        // The mapping itself is released when the buffer is garbage collected
+        private void seal() {
+            if (read == 0) {
+                buffer = null;
+                closeChannel();
+            }
+        }
+
+        private void delete() {
+            buffer = null;
+            closeChannel();
+            try {
+                Files.deleteIfExists(path);
+            } catch (IOException e) {
+                LOGGER.log(Level.WARNING, "Could not delete queue segment " + path, e);
+            }
+        }
+
+        private void closeChannel() {
+            try {
+                if (channel != null) {
+                    channel.close();
+                }
+            } catch (IOException e) {
+                LOGGER.log(Level.FINE, "Could not close queue segment " + path, e);
+            } finally {
+                channel = null;
+            }
+        }
+    }
+}
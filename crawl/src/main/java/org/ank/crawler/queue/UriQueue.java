@@ -0,0 +1,48 @@
+package org.ank.crawler.queue;
+
+import org.ank.crawler.config.QueueConfig;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * FIFO queue of URIs waiting to be fetched, each with its link depth. Implementations are thread-safe.
+ */
+public interface UriQueue extends AutoCloseable {
+
+    /**
+     * Appends a URI to the tail of the queue.
+     *
+     * @param depth The URI's link depth, handed back with it by {@link #poll}.
+     * @return false if the URI was dropped (the queue is closed, or it cannot hold the URI).
+     */
+    boolean offer(String uri, int depth);
+
+    /**
+     * Takes the URI at the head of the queue, waiting up to the given time for one to arrive.
+     *
+     * @return The URI and its depth, or null if the queue stayed empty or has been closed.
+     */
+    QueuedUri poll(long timeout, TimeUnit unit) throws InterruptedException;
+
+    long size();
+
+    default boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * Drops anything still queued, wakes up every thread blocked in {@link #poll} and
+     * releases any resources (e.g. spill files) held by the queue.
+     */
+    @Override
+    void close();
+
+    /**
+     * Creates the queue described by the config.
+     */
+    static UriQueue create(QueueConfig config) {
+        return config.spills()
+                ? new SpillingUriQueue(config.spillDirectory(), config.hotCapacity(), config.segmentBytes())
+                : new InMemoryUriQueue();
+    }
+}
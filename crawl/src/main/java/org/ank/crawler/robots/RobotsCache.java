@@ -0,0 +1,188 @@
+package org.ank.crawler.robots;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A bounded LRU cache of compiled robots.txt rules, keyed by origin ({@code scheme://host[:port]}), whose entries
+ * expire after a TTL.
+ * <p>
+ * Lookups take the origin straight out of the URI being checked: it is hashed and compared in place, so a hit
+ * allocates nothing. Entries live in an open-addressing table (linear probing, backward-shift deletion) and
+ * in an intrusive recency list, both guarded by one lock that is held for a few dozen nanoseconds.
+ */
+final class RobotsCache {
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final int capacity;
+    private final long ttlNanos;
+    private final Entry[] table;
+    private final int mask;
+    private final ReentrantLock lock = new ReentrantLock();
+    // recency list: head is the most recently used entry
+    private Entry head;
+    private Entry tail;
+    private int size;
+
+    RobotsCache(int capacity, long ttlNanos) {
+        this.capacity = capacity;
+        this.ttlNanos = ttlNanos;
+        final int tableSize = Integer.highestOneBit(Math.max(2, capacity * 2 - 1)) << 1;
+        this.table = new Entry[tableSize];
+        this.mask = tableSize - 1;
+    }
+
+    /**
+     * @param uri         The URI whose origin is looked up.
+     * @param originEnd   Index just past the origin in the URI.
+     * @param nowNanos    The current {@link System#nanoTime()}.
+     * @return The rules cached for the origin, or null if absent or expired.
+     */
+    RobotsRules get(String uri, int originEnd, long nowNanos) {
+        final long hash = hash(uri, 0, originEnd);
+        lock.lock();
+        try {
+            for (int slot = (int) hash & mask; table[slot] != null; slot = (slot + 1) & mask) {
+                final Entry entry = table[slot];
+                if (entry.hash == hash && entry.origin.length() == originEnd
+                        && entry.origin.regionMatches(true, 0, uri, 0, originEnd)) {
+                    if (nowNanos - entry.expiresAtNanos >= 0) {
+                        return null;
+                    }
+                    moveToFront(entry);
+                    return entry.rules;
+                }
+            }
+            return null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Caches the rules of an origin, replacing any earlier entry and evicting the least recently used one if full.
+     *
+     * @param origin Lower-case {@code scheme://host[:port]}.
+     */
+    void put(String origin, RobotsRules rules, long nowNanos) {
+        final long hash = hash(origin, 0, origin.length());
+        lock.lock();
+        try {
+            int slot = (int) hash & mask;
+            for (; table[slot] != null; slot = (slot + 1) & mask) {
+                final Entry entry = table[slot];
+                if (entry.hash == hash && entry.origin.equals(origin)) {
+                    entry.rules = rules;
+                    entry.expiresAtNanos = nowNanos + ttlNanos;
+                    moveToFront(entry);
+                    return;
+                }
+            }
+            final Entry entry = new Entry(origin, hash, rules, nowNanos + ttlNanos);
+            table[slot] = entry;
+            linkFirst(entry);
+            if (++size > capacity) {
+                evict(tail);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int size() {
+        lock.lock();
+        try {
+            return size;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Lower-case FNV-1a over {@code s[start, end)}, finished with a mixer so the low bits pick good slots.
+     */
+    static long hash(String s, int start, int end) {
+        long hash = FNV_OFFSET_BASIS;
+        for (int i = start; i < end; i++) {
+            hash = (hash ^ Character.toLowerCase(s.charAt(i))) * FNV_PRIME;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        return hash ^ (hash >>> 33);
+    }
+
+    // Must hold lock
+    private void evict(Entry entry) {
+        unlink(entry);
+        size--;
+        int slot = (int) entry.hash & mask;
+        while (table[slot] != entry) {
+            slot = (slot + 1) & mask;
+        }
+        // Backward-shift deletion: pull later entries of the probe run into the gap
+        int gap = slot;
+        table[gap] = null;
+        for (int next = (gap + 1) & mask; table[next] != null; next = (next + 1) & mask) {
+            final int home = (int) table[next].hash & mask;
+            if (((next - home) & mask) >= ((next - gap) & mask)) {
+                table[gap] = table[next];
+                table[next] = null;
+                gap = next;
+            }
+        }
+    }
+
+    // Must hold lock
+    private void moveToFront(Entry entry) {
+        if (entry != head) {
+            unlink(entry);
+            linkFirst(entry);
+        }
+    }
+
+    // Must hold lock
+    private void linkFirst(Entry entry) {
+        entry.previous = null;
+        entry.next = head;
+        if (head != null) {
+            head.previous = entry;
+        }
+        head = entry;
+        if (tail == null) {
+            tail = entry;
+        }
+    }
+
+    // Must hold lock
+    private void unlink(Entry entry) {
+        if (entry.previous != null) {
+            entry.previous.next = entry.next;
+        } else {
+            head = entry.next;
+        }
+        if (entry.next != null) {
+            entry.next.previous = entry.previous;
+        } else {
+            tail = entry.previous;
+        }
+        entry.previous = null;
+        entry.next = null;
+    }
+
+    private static final class Entry {
+        private final String origin;
+        private final long hash;
+        private RobotsRules rules;
+        private long expiresAtNanos;
+        private Entry previous;
+        private Entry next;
+
+        private Entry(String origin, long hash, RobotsRules rules, long expiresAtNanos) {
+            this.origin = origin;
+            this.hash = hash;
+            this.rules = rules;
+            this.expiresAtNanos = expiresAtNanos;
+        }
+    }
+}
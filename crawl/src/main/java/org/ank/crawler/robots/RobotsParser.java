@@ -0,0 +1,113 @@
+package org.ank.crawler.robots;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Parses a robots.txt file into the {@link RobotsRules} for one user agent (RFC 9309).
+ * <p>
+ * The rules come from every group naming the agent's product token (case-insensitive); only if there is none
+ * are the {@code *} groups used. Unknown lines and lines without a colon are ignored, and only the first
+ * {@value #MAX_BYTES} characters are read, as the RFC allows.
+ */
+public final class RobotsParser {
+
+    static final int MAX_BYTES = 500 * 1024;
+
+    private RobotsParser() {
+    }
+
+    /**
+     * @param content   The robots.txt body.
+     * @param userAgent The crawler's user agent, e.g. {@code WebCrawler/1.0}.
+     */
+    public static RobotsRules parse(String content, String userAgent) {
+        final String token = productToken(userAgent);
+        final List<RobotsRules.Rule> ownRules = new ArrayList<>();
+        final List<RobotsRules.Rule> wildcardRules = new ArrayList<>();
+        final List<String> sitemaps = new ArrayList<>();
+        Duration ownDelay = null;
+        Duration wildcardDelay = null;
+        boolean ownMatched = false;
+
+        boolean inAgentLines = false;
+        boolean groupIsOwn = false;
+        boolean groupIsWildcard = false;
+        final String text = content.length() > MAX_BYTES ? content.substring(0, MAX_BYTES) : content;
+        for (String rawLine : text.split("\r\n|\r|\n")) {
+            final int comment = rawLine.indexOf('#');
+            final String line = (comment >= 0 ? rawLine.substring(0, comment) : rawLine).strip();
+            final int colon = line.indexOf(':');
+            if (colon < 0) {
+                continue;
+            }
+            final String key = line.substring(0, colon).strip().toLowerCase(Locale.ROOT);
+            final String value = line.substring(colon + 1).strip();
+            switch (key) {
+                case "user-agent" -> {
+                    if (!inAgentLines) {
+                        groupIsOwn = false;
+                        groupIsWildcard = false;
+                        inAgentLines = true;
+                    }
+                    final String agent = value.toLowerCase(Locale.ROOT);
+                    if (agent.equals("*")) {
+                        groupIsWildcard = true;
+                    } else if (agent.equals(token)) {
+                        groupIsOwn = true;
+                        ownMatched = true;
+                    }
+                }
+                case "allow", "disallow" -> {
+                    inAgentLines = false;
+                    if (value.isEmpty()) {
+                        continue; // an empty Disallow allows everything, an empty Allow means nothing
+                    }
+                    final RobotsRules.Rule rule = new RobotsRules.Rule(value, key.equals("allow"));
+                    if (groupIsOwn) {
+                        ownRules.add(rule);
+                    }
+                    if (groupIsWildcard) {
+                        wildcardRules.add(rule);
+                    }
+                }
+                case "crawl-delay" -> {
+                    inAgentLines = false;
+                    final Duration delay = parseDelay(value);
+                    if (delay != null && groupIsOwn) {
+                        ownDelay = delay;
+                    }
+                    if (delay != null && groupIsWildcard) {
+                        wildcardDelay = delay;
+                    }
+                }
+                case "sitemap" -> sitemaps.add(value); // not part of any group
+                default -> inAgentLines = false;
+            }
+        }
+
+        final List<RobotsRules.Rule> rules = ownMatched ? ownRules : wildcardRules;
+        final Duration delay = ownMatched ? ownDelay : wildcardDelay;
+        if (rules.isEmpty() && delay == null && sitemaps.isEmpty()) {
+            return RobotsRules.ALLOW_ALL;
+        }
+        return new RobotsRules(rules, delay == null ? Duration.ZERO : delay, sitemaps);
+    }
+
+    static String productToken(String userAgent) {
+        final int slash = userAgent.indexOf('/');
+        return (slash < 0 ? userAgent : userAgent.substring(0, slash)).strip().toLowerCase(Locale.ROOT);
+    }
+
+    private static Duration parseDelay(String value) {
+        try {
+            final double seconds = Double.parseDouble(value);
+            return seconds > 0 && seconds < Long.MAX_VALUE / 1_000_000_000L
+                    ? Duration.ofNanos((long) (seconds * 1_000_000_000L)) : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
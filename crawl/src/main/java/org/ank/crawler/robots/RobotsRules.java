@@ -0,0 +1,135 @@
+package org.ank.crawler.robots;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * The robots.txt rules that apply to this crawler on one host, compiled for matching.
+ * <p>
+ * Follows RFC 9309: {@code *} matches any run of characters, a trailing {@code $} anchors the pattern at the end
+ * of the path, the longest matching pattern wins, and {@code Allow} wins a tie. Rules are sorted by that
+ * precedence once, so a check stops at the first match. Matching reads the URI in place and never allocates.
+ */
+public final class RobotsRules {
+
+    public static final RobotsRules ALLOW_ALL = new RobotsRules(List.of(), Duration.ZERO, List.of());
+
+    public static final RobotsRules DISALLOW_ALL =
+            new RobotsRules(List.of(new Rule("/", false)), Duration.ZERO, List.of());
+
+    private static final String ROBOTS_PATH = "/robots.txt";
+
+    private final Rule[] rules;
+    private final Duration crawlDelay;
+    private final List<String> sitemaps;
+
+    RobotsRules(List<Rule> rules, Duration crawlDelay, List<String> sitemaps) {
+        final List<Rule> sorted = new ArrayList<>(rules);
+        sorted.sort(Comparator.comparingInt((Rule rule) -> rule.length).reversed()
+                .thenComparing(rule -> !rule.allow));
+        this.rules = sorted.toArray(new Rule[0]);
+        this.crawlDelay = crawlDelay;
+        this.sitemaps = List.copyOf(sitemaps);
+    }
+
+    /**
+     * Checks the path (and query) of a URI.
+     *
+     * @param uri       The URI.
+     * @param pathStart Index where the path starts, i.e. the end of the authority.
+     * @return true if the crawler may fetch it.
+     */
+    public boolean isAllowed(String uri, int pathStart) {
+        int end = uri.indexOf('#', pathStart);
+        if (end < 0) {
+            end = uri.length();
+        }
+        if (end - pathStart == ROBOTS_PATH.length() && uri.startsWith(ROBOTS_PATH, pathStart)) {
+            return true; // robots.txt itself is always allowed
+        }
+        for (Rule rule : rules) {
+            if (rule.matches(uri, pathStart, end)) {
+                return rule.allow;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return The requested delay between fetches ({@code Crawl-delay}), zero if none.
+     */
+    public Duration crawlDelay() {
+        return crawlDelay;
+    }
+
+    /**
+     * @return The {@code Sitemap} URLs listed in the file.
+     */
+    public List<String> sitemaps() {
+        return sitemaps;
+    }
+
+    public int ruleCount() {
+        return rules.length;
+    }
+
+    /**
+     * One {@code Allow} or {@code Disallow} line: the pattern split at its wildcards.
+     */
+    static final class Rule {
+        private final String[] segments;
+        private final boolean anchored;
+        private final boolean allow;
+        private final int length;
+
+        Rule(String pattern, boolean allow) {
+            this.anchored = pattern.endsWith("$");
+            final String body = anchored ? pattern.substring(0, pattern.length() - 1) : pattern;
+            this.segments = body.split("\\*", -1);
+            this.allow = allow;
+            this.length = pattern.length();
+        }
+
+        /**
+         * Matches the pattern against {@code uri[start, end)}; an empty path is matched as {@code /}.
+         */
+        boolean matches(String uri, int start, int end) {
+            if (start == end) {
+                return matchesEmptyPath();
+            }
+            // The first segment is a prefix; each later one is found as early as possible after the previous one
+            final String first = segments[0];
+            if (end - start < first.length() || !uri.startsWith(first, start)) {
+                return false;
+            }
+            int position = start + first.length();
+            final int last = segments.length - 1;
+            if (last == 0) {
+                return !anchored || position == end;
+            }
+            for (int i = 1; i < last; i++) {
+                position = indexOf(uri, segments[i], position, end);
+                if (position < 0) {
+                    return false;
+                }
+                position += segments[i].length();
+            }
+            final String tail = segments[last];
+            if (anchored) {
+                return end - position >= tail.length() && uri.startsWith(tail, end - tail.length());
+            }
+            return indexOf(uri, tail, position, end) >= 0;
+        }
+
+        private boolean matchesEmptyPath() {
+            return matches("/", 0, 1);
+        }
+
+        private static int indexOf(String uri, String segment, int from, int end) {
+            final int found = uri.indexOf(segment, from); // intrinsic; may run past end, which is rare
+            return found >= 0 && found <= end - segment.length() ? found : -1;
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package org.ank.crawler.robots;
+
+import org.ank.crawler.config.RobotsConfig;
+import org.ank.crawler.fetcher.FetchedContent;
+import org.ank.crawler.fetcher.HtmlFetcher;
+import org.ank.crawler.scope.Scope;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A {@link Scope} decorator that also requires robots.txt to allow the URI.
+ * <p>
+ * Each host's robots.txt is fetched once, the first time one of its URIs is checked, and its compiled rules are
+ * kept in a {@link RobotsCache}. Threads checking a host whose file is being fetched wait for that fetch instead of
+ * starting their own. Once cached, a check allocates nothing.
+ * <p>
+ * As RFC 9309 prescribes, a missing file (4xx) allows everything, and a file that cannot be fetched (5xx, network
+ * error) disallows everything until the entry expires.
+ */
+public class RobotsScope implements Scope {
+
+    private static final Logger LOGGER = Logger.getLogger(RobotsScope.class.getName());
+
+    private final Scope delegate;
+    private final HtmlFetcher fetcher;
+    private final String userAgent;
+    private final RobotsCache cache;
+    private final Map<String, CompletableFuture<RobotsRules>> loading = new ConcurrentHashMap<>();
+
+    public RobotsScope(Scope delegate, HtmlFetcher fetcher) {
+        this(delegate, fetcher, RobotsConfig.DEFAULT);
+    }
+
+    /**
+     * @param delegate The scope a URI must be in first; robots.txt is only fetched for hosts it lets through.
+     * @param fetcher  Fetches robots.txt files, e.g. the crawl's own fetcher.
+     * @param config   User agent, cache size and TTL.
+     */
+    public RobotsScope(Scope delegate, HtmlFetcher fetcher, RobotsConfig config) {
+        this.delegate = delegate;
+        this.fetcher = fetcher;
+        this.userAgent = config.userAgent();
+        this.cache = new RobotsCache(config.cacheCapacity(), config.ttl().toNanos());
+    }
+
+    @Override
+    public boolean isInScope(String uri) {
+        if (!delegate.isInScope(uri)) {
+            return false;
+        }
+        final int originEnd = originEnd(uri);
+        if (originEnd < 0) {
+            return false;
+        }
+        RobotsRules rules = cache.get(uri, originEnd, System.nanoTime());
+        if (rules == null) {
+            rules = load(uri.substring(0, originEnd).toLowerCase(Locale.ROOT));
+        }
+        return rules.isAllowed(uri, originEnd);
+    }
+
+    /**
+     * Returns the host's {@code Crawl-delay}, if its robots.txt is cached; never fetches.
+     */
+    @Override
+    public Duration crawlDelay(String uri) {
+        final int originEnd = originEnd(uri);
+        final RobotsRules rules = originEnd < 0 ? null : cache.get(uri, originEnd, System.nanoTime());
+        return rules == null ? delegate.crawlDelay(uri) : max(rules.crawlDelay(), delegate.crawlDelay(uri));
+    }
+
+    private RobotsRules load(String origin) {
+        final CompletableFuture<RobotsRules> mine = new CompletableFuture<>();
+        final CompletableFuture<RobotsRules> existing = loading.putIfAbsent(origin, mine);
+        if (existing != null) {
+            return existing.join();
+        }
+        try {
+            final RobotsRules rules = fetchRules(origin);
+            cache.put(origin, rules, System.nanoTime());
+            mine.complete(rules);
+            return rules;
+        } catch (RuntimeException | Error e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            loading.remove(origin);
+        }
+    }
+
+    private RobotsRules fetchRules(String origin) {
+        final String robotsUri = origin + "/robots.txt";
+        try {
+            final FetchedContent content = fetcher.fetch(robotsUri);
+            final int status = content.statusCode();
+            if (status >= 200 && status < 300) {
+                final RobotsRules rules = RobotsParser.parse(content.content() == null ? "" : content.content(),
+                        userAgent);
+                LOGGER.log(Level.FINE, "Loaded {0} rules from {1}", new Object[]{rules.ruleCount(), robotsUri});
+                return rules;
+            }
+            if (status >= 400 && status < 500) {
+                return RobotsRules.ALLOW_ALL;
+            }
+            LOGGER.log(Level.WARNING, "{0} answered {1}; not crawling the host", new Object[]{robotsUri, status});
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Failed to fetch {0}: {1}; not crawling the host",
+                    new Object[]{robotsUri, e.getMessage()});
+        }
+        return RobotsRules.DISALLOW_ALL;
+    }
+
+    /**
+     * @return The index where the authority of an absolute http(s) URI ends, or -1 for other URIs.
+     */
+    static int originEnd(String uri) {
+        final int schemeEnd = uri.indexOf("://");
+        if (schemeEnd <= 0) {
+            return -1;
+        }
+        final int authorityStart = schemeEnd + 3;
+        for (int i = authorityStart; i < uri.length(); i++) {
+            final char c = uri.charAt(i);
+            if (c == '/' || c == '?' || c == '#') {
+                return i == authorityStart ? -1 : i;
+            }
+        }
+        return uri.length() == authorityStart ? -1 : uri.length();
+    }
+
+    private static Duration max(Duration a, Duration b) {
+        return a.compareTo(b) >= 0 ? a : b;
+    }
+}
@@ -0,0 +1,115 @@
+package org.ank.crawler.scope;
+
+/**
+ * A character trie whose nodes are plain ints and whose edges all live in one open-addressing table keyed by
+ * (node, character). Following an edge costs one hash probe whatever the fan-out, and nothing is allocated.
+ * Node 0 is the root. Not thread-safe while being built; safe to read concurrently afterwards.
+ */
+final class CharTrie {
+
+    static final int NONE = -1;
+
+    private long[] keys = new long[16];
+    private int[] targets = new int[16];
+    private int edgeCount;
+    private int nodeCount = 1;
+
+    /**
+     * @return The node reached from {@code node} over {@code c}, or {@link #NONE}.
+     */
+    int child(int node, char c) {
+        final long key = key(node, c);
+        final int mask = keys.length - 1;
+        for (int slot = slot(key) & mask; ; slot = (slot + 1) & mask) {
+            final long stored = keys[slot];
+            if (stored == 0) {
+                return NONE;
+            }
+            if (stored == key) {
+                return targets[slot];
+            }
+        }
+    }
+
+    /**
+     * @return The node reached from {@code node} over {@code c}, created if missing.
+     */
+    int addChild(int node, char c) {
+        final int existing = child(node, c);
+        if (existing != NONE) {
+            return existing;
+        }
+        if ((edgeCount + 1) * 2 > keys.length) {
+            resize();
+        }
+        final int created = nodeCount++;
+        insert(key(node, c), created);
+        edgeCount++;
+        return created;
+    }
+
+    /**
+     * @return The node reached from the root over all of {@code s}, created as needed.
+     */
+    int add(String s) {
+        int node = 0;
+        for (int i = 0; i < s.length(); i++) {
+            node = addChild(node, s.charAt(i));
+        }
+        return node;
+    }
+
+    int nodeCount() {
+        return nodeCount;
+    }
+
+    /**
+     * Calls {@code visitor} for every edge; used to build derived tables such as failure links.
+     */
+    void forEachEdge(EdgeVisitor visitor) {
+        for (int slot = 0; slot < keys.length; slot++) {
+            if (keys[slot] != 0) {
+                visitor.visit((int) (keys[slot] >>> 16) - 1, (char) keys[slot], targets[slot]);
+            }
+        }
+    }
+
+    @FunctionalInterface
+    interface EdgeVisitor {
+        void visit(int from, char c, int to);
+    }
+
+    private void insert(long key, int target) {
+        final int mask = keys.length - 1;
+        int slot = slot(key) & mask;
+        while (keys[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        targets[slot] = target;
+    }
+
+    private void resize() {
+        final long[] oldKeys = keys;
+        final int[] oldTargets = targets;
+        keys = new long[oldKeys.length * 2];
+        targets = new int[oldKeys.length * 2];
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != 0) {
+                insert(oldKeys[i], oldTargets[i]);
+            }
+        }
+    }
+
+    /**
+     * Never 0, which marks an empty slot.
+     */
+    private static long key(int node, char c) {
+        return ((long) (node + 1) << 16) | c;
+    }
+
+    private static int slot(long key) {
+        final long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
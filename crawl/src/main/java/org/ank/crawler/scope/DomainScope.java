@@ -1,56 +1,90 @@
 package org.ank.crawler.scope;
 
 import java.net.MalformedURLException;
-import java.net.URL;
-import java.util.logging.Level;
-import java.util.logging.Logger;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.Collection;
+import java.util.List;
 
 /**
  * Basic Domain scope: only allow URIs in a certain domain (including subdomains).
  * <p>
+ * Domains are compared by their registrable part according to the {@link PublicSuffixList}, so
+ * {@code news.bbc.co.uk} belongs to {@code bbc.co.uk} (not to {@code co.uk}), and IP hosts must match exactly.
+ * {@link #isInScope} finds the host by scanning the URI string and matches it through precompiled tables, without
+ * allocating, since it runs for every discovered link.
+ * <p>
  * "scope" can be more generalized with multiple rules,
  * but here I illustrate a single domain-based approach.
  */
 public class DomainScope implements Scope {
 
-    private static final Logger LOGGER = Logger.getLogger(DomainScope.class.getName());
-    private final String domain; // e.g. "teya.com"
+    private final PublicSuffixList suffixes;
+    private final LabelTable<Boolean> domains = new LabelTable<>(); // e.g. "teya.com"
 
     public DomainScope(String domain) {
-        if (domain == null || domain.isBlank()) {
-            throw new IllegalArgumentException("Domain cannot be null or empty");
+        this(List.of(domain == null ? "" : domain), PublicSuffixList.defaultList());
+    }
+
+    /**
+     * @param domains  The domains to allow, with their subdomains; a subdomain given here allows its whole
+     *                 registrable domain.
+     * @param suffixes The public suffixes that decide where a registrable domain starts.
+     */
+    public DomainScope(Collection<String> domains, PublicSuffixList suffixes) {
+        this.suffixes = suffixes;
+        for (String domain : domains) {
+            if (domain == null || domain.isBlank()) {
+                throw new IllegalArgumentException("Domain cannot be null or empty");
+            }
+            final String host = domain.strip();
+            this.domains.put(UriScanner.isIpAddress(host, 0, host.length()) ? host : suffixes.registrableDomain(host), true);
         }
-        this.domain = domain.toLowerCase();
     }
 
     @Override
     public boolean isInScope(String uri) {
-        if (uri == null || uri.isBlank()) return false;
-        if (!uri.startsWith("http://") && !uri.startsWith("https://")) return false;
+        if (uri == null) return false;
+        final int schemeEnd = UriScanner.schemeEnd(uri);
+        if (schemeEnd < 0) return false;
 
-        try {
-            final String baseDomain = extractBaseDomain(uri);
-            return domain.equals(baseDomain);
-        } catch (MalformedURLException e) {
-            return false; // Skip malformed URLs
+        final int authorityEnd = UriScanner.authorityEnd(uri, schemeEnd);
+        int hostStart = UriScanner.hostStart(uri, schemeEnd, authorityEnd);
+        final int hostEnd = UriScanner.hostEnd(uri, hostStart, authorityEnd);
+        if (hostEnd <= hostStart) {
+            return false;
         }
+
+        if (!UriScanner.isIpAddress(uri, hostStart, hostEnd)) {
+            final int registrableStart = suffixes.registrableStart(uri, hostStart, hostEnd);
+            if (registrableStart >= 0) {
+                hostStart = registrableStart;
+            }
+        }
+        return domains.get(uri, hostStart, hostEnd) != null;
     }
 
     /**
-     * Extracts the base domain (e.g., "teya.com") from a given URL.
+     * Extracts the base domain (e.g., "teya.com", or "bbc.co.uk") from a given URL.
      *
      * @param url The input URL.
      * @return The base domain.
-     * @throws MalformedURLException If the URL is invalid.
+     * @throws MalformedURLException If the URL is invalid, relative or of an unknown protocol.
      */
     public static String extractBaseDomain(String url) throws MalformedURLException {
-        final String host = new URL(url).getHost().toLowerCase();
-        final String[] parts = host.split("\\.");
-        if (parts.length > 2 && !Character.isDigit(parts[0].charAt(0))) {
-            // Remove the first segment (subdomain) if it's not an IP address
-            return String.join(".", parts[parts.length - 2], parts[parts.length - 1]);
+        final URI parsed;
+        try {
+            parsed = new URI(url);
+        } catch (URISyntaxException e) {
+            throw new MalformedURLException(e.getMessage());
         }
-        return host;
+        if (!parsed.isAbsolute()) {
+            throw new MalformedURLException("Not an absolute URL: " + url);
+        }
+        final String host = parsed.toURL().getHost(); // rejects schemes with no protocol handler, e.g. "htp:"
+        if (UriScanner.isIpAddress(host, 0, host.length())) {
+            return host;
+        }
+        return PublicSuffixList.defaultList().registrableDomain(host);
     }
-
 }
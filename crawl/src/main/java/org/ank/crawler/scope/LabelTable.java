@@ -0,0 +1,107 @@
+package org.ank.crawler.scope;
+
+/**
+ * An open-addressing hash map from host labels (or whole hosts) to values that is looked up by a range of
+ * characters of a larger string, ignoring case, so a URL never has to be cut into substrings to be matched.
+ * Keys are stored lower-cased. Not thread-safe while being filled; safe to read concurrently afterwards.
+ */
+final class LabelTable<V> {
+
+    private String[] keys = new String[4];
+    private Object[] values = new Object[4];
+    private int size;
+
+    /**
+     * @return The value stored for {@code s[from, to)}, compared case-insensitively, or null.
+     */
+    @SuppressWarnings("unchecked")
+    V get(String s, int from, int to) {
+        final int mask = keys.length - 1;
+        final int length = to - from;
+        for (int slot = hash(s, from, to) & mask; ; slot = (slot + 1) & mask) {
+            final String key = keys[slot];
+            if (key == null) {
+                return null;
+            }
+            if (key.length() == length && equalsIgnoreCase(key, s, from)) {
+                return (V) values[slot];
+            }
+        }
+    }
+
+    /**
+     * Stores a value under a key, replacing any value already stored for it.
+     */
+    void put(String key, V value) {
+        if ((size + 1) * 2 > keys.length) {
+            resize();
+        }
+        final String lowerKey = toLowerCase(key);
+        final int mask = keys.length - 1;
+        for (int slot = hash(lowerKey, 0, lowerKey.length()) & mask; ; slot = (slot + 1) & mask) {
+            if (keys[slot] == null) {
+                keys[slot] = lowerKey;
+                values[slot] = value;
+                size++;
+                return;
+            }
+            if (keys[slot].equals(lowerKey)) {
+                values[slot] = value;
+                return;
+            }
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    private void resize() {
+        final String[] oldKeys = keys;
+        final Object[] oldValues = values;
+        keys = new String[oldKeys.length * 2];
+        values = new Object[oldKeys.length * 2];
+        size = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != null) {
+                @SuppressWarnings("unchecked") final V value = (V) oldValues[i];
+                put(oldKeys[i], value);
+            }
+        }
+    }
+
+    /**
+     * Case-insensitive hash of {@code s[from, to)}, consistent with {@link #equalsIgnoreCase}.
+     */
+    static int hash(String s, int from, int to) {
+        int h = 0;
+        for (int i = from; i < to; i++) {
+            h = 31 * h + lower(s.charAt(i));
+        }
+        return h ^ (h >>> 16);
+    }
+
+    private static boolean equalsIgnoreCase(String lowerKey, String s, int from) {
+        for (int i = 0; i < lowerKey.length(); i++) {
+            if (lowerKey.charAt(i) != lower(s.charAt(from + i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static char lower(char c) {
+        if (c < 0x80) {
+            return c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+        }
+        return Character.toLowerCase(c);
+    }
+
+    static String toLowerCase(String s) {
+        final char[] chars = s.toCharArray();
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = lower(chars[i]);
+        }
+        return new String(chars);
+    }
+}
@@ -0,0 +1,99 @@
+package org.ank.crawler.scope;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Deque;
+
+/**
+ * Finds whether a string contains any of a set of literals in one left-to-right pass (Aho-Corasick), so the cost
+ * depends on the length of the string, not on how many literals there are.
+ */
+final class LiteralMatcher {
+
+    private final CharTrie trie = new CharTrie();
+    private final int[] failure;
+    private final boolean[] output;
+    private final boolean empty;
+
+    LiteralMatcher(Collection<String> literals) {
+        final boolean[] terminal = new boolean[countNodes(literals)];
+        for (String literal : literals) {
+            terminal[trie.add(literal)] = true;
+        }
+        empty = literals.isEmpty();
+        failure = new int[trie.nodeCount()];
+        output = new boolean[trie.nodeCount()];
+        System.arraycopy(terminal, 0, output, 0, trie.nodeCount());
+        buildFailureLinks();
+    }
+
+    /**
+     * @return true if {@code s[from, to)} contains one of the literals.
+     */
+    boolean containsAny(String s, int from, int to) {
+        if (empty) {
+            return false;
+        }
+        int state = 0;
+        for (int i = from; i < to; i++) {
+            final char c = s.charAt(i);
+            int next = trie.child(state, c);
+            while (next == CharTrie.NONE && state != 0) {
+                state = failure[state];
+                next = trie.child(state, c);
+            }
+            state = next == CharTrie.NONE ? 0 : next;
+            if (output[state]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Breadth-first over the trie: a node's failure link is the longest proper suffix of its string that is also
+     * in the trie, and it matches if any literal ends at it or along its failure chain.
+     */
+    private void buildFailureLinks() {
+        // Children lists, since the trie only answers "child over c"
+        final int nodes = trie.nodeCount();
+        final int[] firstChild = new int[nodes];
+        final int[] nextSibling = new int[nodes];
+        final char[] edgeChar = new char[nodes];
+        Arrays.fill(firstChild, CharTrie.NONE);
+        trie.forEachEdge((from, c, to) -> {
+            edgeChar[to] = c;
+            nextSibling[to] = firstChild[from];
+            firstChild[from] = to;
+        });
+
+        final Deque<Integer> queue = new ArrayDeque<>();
+        for (int child = firstChild[0]; child != CharTrie.NONE; child = nextSibling[child]) {
+            failure[child] = 0;
+            queue.add(child);
+        }
+        while (!queue.isEmpty()) {
+            final int node = queue.poll();
+            for (int child = firstChild[node]; child != CharTrie.NONE; child = nextSibling[child]) {
+                int fallback = failure[node];
+                int target = trie.child(fallback, edgeChar[child]);
+                while (target == CharTrie.NONE && fallback != 0) {
+                    fallback = failure[fallback];
+                    target = trie.child(fallback, edgeChar[child]);
+                }
+                failure[child] = target == CharTrie.NONE ? 0 : target;
+                output[child] |= output[failure[child]];
+                queue.add(child);
+            }
+        }
+    }
+
+    private static int countNodes(Collection<String> literals) {
+        int count = 1;
+        for (String literal : literals) {
+            count += literal.length();
+        }
+        return count;
+    }
+}
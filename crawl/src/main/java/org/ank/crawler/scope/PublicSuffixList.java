@@ -0,0 +1,191 @@
+package org.ank.crawler.scope;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.net.IDN;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * The public suffixes (effective TLDs such as {@code com}, {@code co.uk} or {@code *.ck}) from the
+ * <a href="https://publicsuffix.org/">Public Suffix List</a>, compiled into a trie of host labels read right to
+ * left. It answers where the registrable domain of a host starts: {@code bbc.co.uk} for {@code www.bbc.co.uk},
+ * where a "last two labels" rule would give {@code co.uk}.
+ * <p>
+ * Lookups walk the host inside the URL string and allocate nothing. Rules in Unicode are also added in their
+ * punycode form, which is what appears in URLs. A copy of the list is bundled; {@link #load(Path)} reads a newer one.
+ */
+public final class PublicSuffixList {
+
+    private static final String BUNDLED_LIST = "public_suffix_list.dat";
+
+    private final Node root = new Node();
+    private int ruleCount;
+
+    private PublicSuffixList() {
+    }
+
+    /**
+     * @return The bundled list, loaded once on first use.
+     */
+    public static PublicSuffixList defaultList() {
+        return Bundled.INSTANCE;
+    }
+
+    /**
+     * Reads a list in the publicsuffix.org format.
+     */
+    public static PublicSuffixList load(Path file) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            return of(reader.lines().toList());
+        }
+    }
+
+    /**
+     * Compiles rules in the publicsuffix.org format: one per line, {@code //} comments, {@code *} wildcards and
+     * {@code !} exceptions.
+     */
+    public static PublicSuffixList of(List<String> lines) {
+        final PublicSuffixList list = new PublicSuffixList();
+        for (String line : lines) {
+            final String rule = line.strip();
+            if (rule.isEmpty() || rule.startsWith("//")) {
+                continue;
+            }
+            // Only the first word of a line is the rule
+            final int space = rule.indexOf(' ');
+            list.add(space < 0 ? rule : rule.substring(0, space));
+        }
+        return list;
+    }
+
+    private void add(String rule) {
+        final boolean exception = rule.startsWith("!");
+        final String labels = exception ? rule.substring(1) : rule;
+        addLabels(labels, exception);
+        final String ascii = toAscii(labels);
+        if (ascii != null && !ascii.equals(labels)) {
+            addLabels(ascii, exception);
+        }
+        ruleCount++;
+    }
+
+    private void addLabels(String labels, boolean exception) {
+        Node node = root;
+        int end = labels.length();
+        while (end > 0) {
+            final int start = labels.lastIndexOf('.', end - 1) + 1;
+            final String label = labels.substring(start, end);
+            if (label.equals("*")) {
+                if (node.wildcard == null) {
+                    node.wildcard = new Node();
+                }
+                node = node.wildcard;
+            } else {
+                Node child = node.children.get(label, 0, label.length());
+                if (child == null) {
+                    child = new Node();
+                    node.children.put(label, child);
+                }
+                node = child;
+            }
+            end = start - 1;
+        }
+        if (exception) {
+            node.exception = true;
+        } else {
+            node.rule = true;
+        }
+    }
+
+    /**
+     * Finds where the registrable domain (public suffix plus one label) of the host {@code s[hostStart, hostEnd)}
+     * starts. The host must not end with a dot. Hosts that match no rule have a one-label public suffix.
+     *
+     * @return The index of the registrable domain's first character, or -1 if the host is itself a public suffix.
+     */
+    int registrableStart(String s, int hostStart, int hostEnd) {
+        int suffixStart = Math.max(hostStart, s.lastIndexOf('.', hostEnd - 1) + 1);
+        Node node = root;
+        int labelEnd = hostEnd;
+        while (labelEnd > hostStart) {
+            final int labelStart = Math.max(hostStart, s.lastIndexOf('.', labelEnd - 1) + 1);
+            final Node exact = node.children.get(s, labelStart, labelEnd);
+            if (exact != null && exact.exception) {
+                // "!city.kawasaki.jp": the exception label is registrable, the suffix is what follows it
+                suffixStart = labelEnd + 1;
+                break;
+            }
+            final Node next = exact != null ? exact : node.wildcard;
+            if (next == null) {
+                break;
+            }
+            if (next.rule) {
+                suffixStart = labelStart;
+            }
+            node = next;
+            labelEnd = labelStart - 1;
+        }
+        if (suffixStart <= hostStart) {
+            return -1;
+        }
+        return Math.max(hostStart, s.lastIndexOf('.', suffixStart - 2) + 1);
+    }
+
+    /**
+     * @param host A host name, e.g. {@code www.bbc.co.uk}.
+     * @return Its registrable domain in lower case, e.g. {@code bbc.co.uk}, or the host itself if it is a public
+     * suffix.
+     */
+    public String registrableDomain(String host) {
+        String lower = LabelTable.toLowerCase(host);
+        if (lower.endsWith(".")) {
+            lower = lower.substring(0, lower.length() - 1);
+        }
+        final int start = registrableStart(lower, 0, lower.length());
+        return start < 0 ? lower : lower.substring(start);
+    }
+
+    /**
+     * @return Number of rules (including exceptions) in the list.
+     */
+    public int ruleCount() {
+        return ruleCount;
+    }
+
+    private static String toAscii(String labels) {
+        try {
+            return IDN.toASCII(labels, IDN.ALLOW_UNASSIGNED);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static final class Node {
+        private final LabelTable<Node> children = new LabelTable<>();
+        private Node wildcard;
+        private boolean rule;
+        private boolean exception;
+    }
+
+    private static final class Bundled {
+        private static final PublicSuffixList INSTANCE = loadBundled();
+
+        private static PublicSuffixList loadBundled() {
+            try (InputStream in = PublicSuffixList.class.getResourceAsStream(BUNDLED_LIST)) {
+                if (in == null) {
+                    throw new IllegalStateException("Missing bundled " + BUNDLED_LIST);
+                }
+                final BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+                return of(reader.lines().toList());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
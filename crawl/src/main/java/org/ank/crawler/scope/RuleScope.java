@@ -0,0 +1,326 @@
+package org.ank.crawler.scope;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * A scope built from many rules, compiled so that checking a link costs about the same with ten rules as with
+ * thousands:
+ * <ul>
+ *     <li>allowed domains and hosts go into hash tables looked up by the URI's host (public-suffix aware, as in
+ *     {@link DomainScope});</li>
+ *     <li>included and excluded path prefixes go into one character trie, walked once along the path;
+ *     the longest matching prefix decides;</li>
+ *     <li>excluded substrings go into one Aho-Corasick automaton, run once over the URI;</li>
+ *     <li>excluded regexes are joined into a single alternation. Unlike the others their cost grows with their
+ *     number, so prefer substrings where they do.</li>
+ * </ul>
+ * A link is in scope if it is http(s), its host is allowed, its path has at most {@code max-depth} segments, the
+ * longest matching path rule (if any) is an include, or there are no include rules, and no substring or regex
+ * exclusion matches.
+ * <p>
+ * Rule files have one rule per line; lines starting with {@code #} are comments. Once any {@code include} is
+ * given, only paths it covers are in scope:
+ * <pre>
+ * # teya.com and all its subdomains, and one host of another site
+ * domain teya.com
+ * host static.example.org
+ * include /docs/
+ * exclude /docs/internal/
+ * exclude-contains ?sort=
+ * exclude-regex /\d{4}/\d{2}/\d{2}/
+ * max-depth 8
+ * </pre>
+ */
+public final class RuleScope implements Scope {
+
+    private static final int NO_RULE = 0;
+    private static final int INCLUDE = 1;
+    private static final int EXCLUDE = 2;
+
+    private final PublicSuffixList suffixes;
+    private final LabelTable<Boolean> domains;
+    private final LabelTable<Boolean> hosts;
+    private final CharTrie paths;
+    private final byte[] pathRules;
+    private final boolean hasIncludes;
+    private final LiteralMatcher excludedSubstrings;
+    private final Pattern excludedPattern;
+    private final int maxDepth;
+    private final int ruleCount;
+
+    private RuleScope(Builder builder) {
+        this.suffixes = builder.suffixes;
+        this.domains = new LabelTable<>();
+        for (String domain : builder.domains) {
+            domains.put(UriScanner.isIpAddress(domain, 0, domain.length())
+                    ? domain : suffixes.registrableDomain(domain), true);
+        }
+        this.hosts = new LabelTable<>();
+        for (String host : builder.hosts) {
+            hosts.put(host.endsWith(".") ? host.substring(0, host.length() - 1) : host, true);
+        }
+        this.paths = new CharTrie();
+        final List<Integer> nodes = new ArrayList<>();
+        for (String prefix : builder.includes) {
+            nodes.add(paths.add(prefix));
+        }
+        for (String prefix : builder.excludes) {
+            nodes.add(paths.add(prefix));
+        }
+        this.pathRules = new byte[paths.nodeCount()];
+        for (int i = 0; i < nodes.size(); i++) {
+            // An exclude wins over an include of the same prefix
+            pathRules[nodes.get(i)] = (byte) Math.max(pathRules[nodes.get(i)],
+                    i < builder.includes.size() ? INCLUDE : EXCLUDE);
+        }
+        this.hasIncludes = !builder.includes.isEmpty();
+        this.excludedSubstrings = new LiteralMatcher(builder.excludedSubstrings);
+        this.excludedPattern = builder.excludedRegexes.isEmpty() ? null
+                : Pattern.compile(String.join("|", builder.excludedRegexes.stream()
+                .map(regex -> "(?:" + regex + ")").toList()));
+        this.maxDepth = builder.maxDepth;
+        this.ruleCount = builder.domains.size() + builder.hosts.size() + builder.includes.size()
+                + builder.excludes.size() + builder.excludedSubstrings.size() + builder.excludedRegexes.size()
+                + (builder.maxDepth == Integer.MAX_VALUE ? 0 : 1);
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Compiles a rule file.
+     *
+     * @throws IllegalArgumentException If a line is not a valid rule; the message names the line.
+     */
+    public static RuleScope load(Path file) throws IOException {
+        return parse(Files.readAllLines(file, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Compiles rules in the rule file format.
+     *
+     * @throws IllegalArgumentException If a line is not a valid rule; the message names the line.
+     */
+    public static RuleScope parse(List<String> lines) {
+        final Builder builder = builder();
+        for (int i = 0; i < lines.size(); i++) {
+            final String line = lines.get(i).strip();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            final int space = line.indexOf(' ');
+            final String keyword = space < 0 ? line : line.substring(0, space);
+            final String value = space < 0 ? "" : line.substring(space + 1).strip();
+            try {
+                switch (keyword.toLowerCase(Locale.ROOT)) {
+                    case "domain" -> builder.allowDomain(value);
+                    case "host" -> builder.allowHost(value);
+                    case "include" -> builder.includePath(value);
+                    case "exclude" -> builder.excludePath(value);
+                    case "exclude-contains" -> builder.excludeContaining(value);
+                    case "exclude-regex" -> builder.excludeMatching(value);
+                    case "max-depth" -> builder.maxDepth(Integer.parseInt(value));
+                    default -> throw new IllegalArgumentException("unknown rule '" + keyword + "'");
+                }
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Scope rule line " + (i + 1) + ": " + e.getMessage(), e);
+            }
+        }
+        return builder.build();
+    }
+
+    @Override
+    public boolean isInScope(String uri) {
+        if (uri == null) return false;
+        final int schemeEnd = UriScanner.schemeEnd(uri);
+        if (schemeEnd < 0) return false;
+
+        final int authorityEnd = UriScanner.authorityEnd(uri, schemeEnd);
+        final int hostStart = UriScanner.hostStart(uri, schemeEnd, authorityEnd);
+        final int hostEnd = UriScanner.hostEnd(uri, hostStart, authorityEnd);
+        if (hostEnd <= hostStart || !isAllowedHost(uri, hostStart, hostEnd)) {
+            return false;
+        }
+
+        final int pathEnd = UriScanner.pathEnd(uri, authorityEnd);
+        if (!isAllowedPath(uri, authorityEnd, pathEnd)) {
+            return false;
+        }
+        if (excludedSubstrings.containsAny(uri, schemeEnd, uri.length())) {
+            return false;
+        }
+        return excludedPattern == null || !excludedPattern.matcher(uri).find();
+    }
+
+    private boolean isAllowedHost(String uri, int hostStart, int hostEnd) {
+        if (hosts.get(uri, hostStart, hostEnd) != null) {
+            return true;
+        }
+        int domainStart = hostStart;
+        if (!UriScanner.isIpAddress(uri, hostStart, hostEnd)) {
+            final int registrableStart = suffixes.registrableStart(uri, hostStart, hostEnd);
+            if (registrableStart >= 0) {
+                domainStart = registrableStart;
+            }
+        }
+        return domains.get(uri, domainStart, hostEnd) != null;
+    }
+
+    /**
+     * Walks the path through the prefix trie once, counting segments on the way.
+     */
+    private boolean isAllowedPath(String uri, int pathStart, int pathEnd) {
+        int rule = NO_RULE;
+        int node = 0;
+        int depth = 0;
+        char previous = '/';
+        if (pathStart == pathEnd) {
+            // An empty path is "/"
+            node = paths.child(0, '/');
+            if (node != CharTrie.NONE && pathRules[node] != NO_RULE) {
+                rule = pathRules[node];
+            }
+        }
+        for (int i = pathStart; i < pathEnd; i++) {
+            final char c = uri.charAt(i);
+            if (c != '/' && previous == '/') {
+                depth++;
+            }
+            previous = c;
+            if (node != CharTrie.NONE) {
+                node = paths.child(node, c);
+                if (node != CharTrie.NONE && pathRules[node] != NO_RULE) {
+                    rule = pathRules[node];
+                }
+            }
+        }
+        if (depth > maxDepth) {
+            return false;
+        }
+        return rule == INCLUDE || (rule == NO_RULE && !hasIncludes);
+    }
+
+    /**
+     * @return Number of rules the scope was compiled from.
+     */
+    public int ruleCount() {
+        return ruleCount;
+    }
+
+    @Override
+    public String toString() {
+        return "RuleScope[" + ruleCount + " rules]";
+    }
+
+    /**
+     * Collects rules for a {@link RuleScope}. Paths must start with {@code /}; hosts and domains are compared
+     * ignoring case.
+     */
+    public static final class Builder {
+        private PublicSuffixList suffixes = PublicSuffixList.defaultList();
+        private final List<String> domains = new ArrayList<>();
+        private final List<String> hosts = new ArrayList<>();
+        private final List<String> includes = new ArrayList<>();
+        private final List<String> excludes = new ArrayList<>();
+        private final List<String> excludedSubstrings = new ArrayList<>();
+        private final List<String> excludedRegexes = new ArrayList<>();
+        private int maxDepth = Integer.MAX_VALUE;
+
+        private Builder() {
+        }
+
+        public Builder publicSuffixes(PublicSuffixList suffixes) {
+            this.suffixes = suffixes;
+            return this;
+        }
+
+        /**
+         * Allows a registrable domain and all its subdomains; a subdomain given here allows its whole domain.
+         */
+        public Builder allowDomain(String domain) {
+            domains.add(requireValue(domain, "domain"));
+            return this;
+        }
+
+        /**
+         * Allows one host exactly.
+         */
+        public Builder allowHost(String host) {
+            hosts.add(requireValue(host, "host"));
+            return this;
+        }
+
+        public Builder includePath(String prefix) {
+            includes.add(requirePath(prefix));
+            return this;
+        }
+
+        public Builder excludePath(String prefix) {
+            excludes.add(requirePath(prefix));
+            return this;
+        }
+
+        /**
+         * Excludes every URI containing the text, e.g. {@code ?sort=} or {@code /calendar/}. Case-sensitive.
+         */
+        public Builder excludeContaining(String text) {
+            excludedSubstrings.add(requireValue(text, "text"));
+            return this;
+        }
+
+        /**
+         * Excludes every URI in which the regex is found.
+         */
+        public Builder excludeMatching(String regex) {
+            try {
+                Pattern.compile(requireValue(regex, "regex"));
+            } catch (PatternSyntaxException e) {
+                throw new IllegalArgumentException("invalid regex: " + e.getDescription());
+            }
+            excludedRegexes.add(regex);
+            return this;
+        }
+
+        /**
+         * @param maxDepth Most path segments a URI may have ({@code /a/b/} has 2).
+         */
+        public Builder maxDepth(int maxDepth) {
+            if (maxDepth < 0) {
+                throw new IllegalArgumentException("max-depth must not be negative");
+            }
+            this.maxDepth = maxDepth;
+            return this;
+        }
+
+        public RuleScope build() {
+            if (domains.isEmpty() && hosts.isEmpty()) {
+                throw new IllegalArgumentException("A rule scope needs at least one domain or host");
+            }
+            return new RuleScope(this);
+        }
+
+        private static String requireValue(String value, String what) {
+            if (value == null || value.isBlank()) {
+                throw new IllegalArgumentException("missing " + what);
+            }
+            return value.strip();
+        }
+
+        private static String requirePath(String prefix) {
+            final String path = requireValue(prefix, "path prefix");
+            if (!path.startsWith("/")) {
+                throw new IllegalArgumentException("path prefix must start with '/': " + path);
+            }
+            return path;
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package org.ank.crawler.scope;
 
+import java.time.Duration;
+
 /**
  * "Scope" decides if a given URI is included or excluded from the crawl.
  */
@@ -9,4 +11,14 @@ public interface Scope {
      * Determines whether the given URI is in scope.
      */
     boolean isInScope(String uri);
+
+    /**
+     * The minimum time the URI's host asks for between fetches (e.g. a robots.txt {@code Crawl-delay}),
+     * honored by frontiers that schedule per host. Must be cheap: it is asked under the frontier's lock.
+     *
+     * @return The delay, zero if the host asks for none.
+     */
+    default Duration crawlDelay(String uri) {
+        return Duration.ZERO;
+    }
 }
@@ -0,0 +1,100 @@
+package org.ank.crawler.scope;
+
+/**
+ * Finds the parts of an http(s) URI by index, without allocating, for scopes that run on every discovered link.
+ * Each method continues from the index the previous one returned.
+ */
+final class UriScanner {
+
+    private UriScanner() {
+    }
+
+    /**
+     * @return The index after {@code http://} or {@code https://} (any case), or -1 for other schemes.
+     */
+    static int schemeEnd(String uri) {
+        if (uri.regionMatches(true, 0, "http://", 0, 7)) {
+            return 7;
+        }
+        if (uri.regionMatches(true, 0, "https://", 0, 8)) {
+            return 8;
+        }
+        return -1;
+    }
+
+    /**
+     * @return Where the authority that starts at {@code from} ends: at the path, query or fragment.
+     */
+    static int authorityEnd(String uri, int from) {
+        int i = from;
+        while (i < uri.length()) {
+            final char c = uri.charAt(i);
+            if (c == '/' || c == '?' || c == '#' || c == '\\') {
+                break;
+            }
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * @return Where the host starts: after the last {@code @} of any user info.
+     */
+    static int hostStart(String uri, int authorityStart, int authorityEnd) {
+        final int at = uri.lastIndexOf('@', authorityEnd - 1);
+        return at >= authorityStart ? at + 1 : authorityStart;
+    }
+
+    /**
+     * @return Where the host ends: after the closing bracket of an IPv6 literal, or at the port separator, and
+     * before the trailing dot of a fully qualified name. Equal to {@code hostStart} if there is no host.
+     */
+    static int hostEnd(String uri, int hostStart, int authorityEnd) {
+        if (hostStart < authorityEnd && uri.charAt(hostStart) == '[') {
+            final int close = uri.indexOf(']', hostStart);
+            return close < 0 || close >= authorityEnd ? hostStart : close + 1;
+        }
+        int end = authorityEnd;
+        for (int i = hostStart; i < authorityEnd; i++) {
+            if (uri.charAt(i) == ':') {
+                end = i;
+                break;
+            }
+        }
+        if (end > hostStart && uri.charAt(end - 1) == '.') {
+            end--; // fully qualified "example.com."
+        }
+        return end;
+    }
+
+    /**
+     * @return Where the path that starts at {@code from} ends: at the query or fragment.
+     */
+    static int pathEnd(String uri, int from) {
+        int i = from;
+        while (i < uri.length()) {
+            final char c = uri.charAt(i);
+            if (c == '?' || c == '#') {
+                break;
+            }
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * @return true for an IPv6 literal in brackets, or a host of only digits and dots (IPv4).
+     */
+    static boolean isIpAddress(String s, int from, int to) {
+        if (from < to && s.charAt(from) == '[') {
+            return true;
+        }
+        for (int i = from; i < to; i++) {
+            final char c = s.charAt(i);
+            if ((c < '0' || c > '9') && c != '.') {
+                return false;
+            }
+        }
+        return from < to;
+    }
+}
@@ -0,0 +1,24 @@
+package org.ank.crawler.sink;
+
+/**
+ * What became of one crawled page, reported to the {@link ResultSink} once the frontier is done with it
+ * (after its last retry, if any).
+ *
+ * @param url          The canonical URL of the page.
+ * @param statusCode   The HTTP status of the last response, or {@link #NO_RESPONSE} if the fetch failed.
+ * @param depth        Links followed from the seed to reach the page, or {@link #UNKNOWN_DEPTH} if the frontier
+ *                     does not track depth.
+ * @param bytes        Response body size: {@code Content-Length} where given, otherwise the body's length.
+ * @param latencyNanos Time from sending the request to having the whole response (or the failure).
+ * @param outlinks     Links the processors found on the page, before the scope check.
+ */
+public record CrawlResult(String url, int statusCode, int depth, long bytes, long latencyNanos, int outlinks) {
+
+    public static final int NO_RESPONSE = 0;
+
+    public static final int UNKNOWN_DEPTH = -1;
+
+    public CrawlResult withDepth(int depth) {
+        return new CrawlResult(url, statusCode, depth, bytes, latencyNanos, outlinks);
+    }
+}
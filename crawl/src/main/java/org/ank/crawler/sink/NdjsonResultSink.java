@@ -0,0 +1,205 @@
+package org.ank.crawler.sink;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Streams crawl results as newline-delimited JSON, one object per page:
+ * <pre>
+ * {"url":"https://example.com/","status":200,"depth":0,"bytes":5120,"latencyMs":12.345,"outlinks":42}
+ * </pre>
+ * {@code depth} is null when the frontier does not track it.
+ * <p>
+ * Workers append their line to an in-memory batch; whoever fills the batch swaps it out and writes it, outside
+ * the batch lock, so other workers keep appending meanwhile. At most one batch per writing thread is held in
+ * memory, and the stream is flushed after every batch, so a reader sees results while the crawl runs. Gzip
+ * output is sync-flushed per batch, so what has been written so far can always be decompressed.
+ */
+public class NdjsonResultSink implements ResultSink {
+
+    private static final Logger LOGGER = Logger.getLogger(NdjsonResultSink.class.getName());
+    public static final int DEFAULT_BATCH_SIZE = 256;
+    private static final int BUFFER_BYTES = 64 * 1024;
+
+    private final OutputStream out;
+    private final boolean ownsStream;
+    private final int batchSize;
+
+    // batch guarded by bufferLock; the stream only touched while holding writeLock
+    private final ReentrantLock bufferLock = new ReentrantLock();
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private StringBuilder batch = new StringBuilder();
+    private int batchCount;
+    private boolean closed;
+    private long failedBatches;
+
+    /**
+     * Writes to the given file, gzip-compressed if its name ends in {@code .gz}.
+     */
+    public static NdjsonResultSink open(Path file) {
+        return new NdjsonResultSink(file, file.getFileName().toString().endsWith(".gz"), DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * @param file      The output file, replaced if it exists.
+     * @param gzip      Whether to gzip-compress the output.
+     * @param batchSize Results buffered before they are written out.
+     */
+    public NdjsonResultSink(Path file, boolean gzip, int batchSize) {
+        this(openFile(file, gzip), true, batchSize);
+    }
+
+    /**
+     * Writes to a stream the caller owns: it is flushed, but not closed, when the sink is closed.
+     *
+     * @param out       The output, e.g. {@code System.out}.
+     * @param batchSize Results buffered before they are written out.
+     */
+    public NdjsonResultSink(OutputStream out, int batchSize) {
+        this(out, false, batchSize);
+    }
+
+    private NdjsonResultSink(OutputStream out, boolean ownsStream, int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be at least 1");
+        }
+        this.out = out;
+        this.ownsStream = ownsStream;
+        this.batchSize = batchSize;
+    }
+
+    private static OutputStream openFile(Path file, boolean gzip) {
+        try {
+            final OutputStream fileOut = new BufferedOutputStream(Files.newOutputStream(file), BUFFER_BYTES);
+            return gzip ? new GZIPOutputStream(fileOut, BUFFER_BYTES, true) : fileOut;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open result file " + file, e);
+        }
+    }
+
+    @Override
+    public void accept(CrawlResult result) {
+        final StringBuilder line = new StringBuilder(128 + result.url().length());
+        appendJson(line, result);
+        StringBuilder full = null;
+        bufferLock.lock();
+        try {
+            if (closed) {
+                LOGGER.log(Level.WARNING, "Dropping result for {0}: the sink is closed", result.url());
+                return;
+            }
+            batch.append(line).append('\n');
+            if (++batchCount >= batchSize) {
+                full = batch;
+                batch = new StringBuilder(full.capacity());
+                batchCount = 0;
+            }
+        } finally {
+            bufferLock.unlock();
+        }
+        if (full != null) {
+            write(full);
+        }
+    }
+
+    private void write(StringBuilder lines) {
+        final byte[] bytes = lines.toString().getBytes(StandardCharsets.UTF_8);
+        writeLock.lock();
+        try {
+            out.write(bytes);
+            out.flush();
+        } catch (IOException e) {
+            failedBatches++;
+            LOGGER.log(Level.SEVERE, "Could not write crawl results", e);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Writes the last, partial batch and closes (or, if the caller owns it, flushes) the output.
+     */
+    @Override
+    public void close() {
+        final StringBuilder rest;
+        bufferLock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            rest = batch;
+            batch = new StringBuilder();
+        } finally {
+            bufferLock.unlock();
+        }
+        if (!rest.isEmpty()) {
+            write(rest);
+        }
+        writeLock.lock();
+        try {
+            if (ownsStream) {
+                out.close();
+            } else {
+                out.flush();
+            }
+        } catch (IOException e) {
+            LOGGER.log(Level.SEVERE, "Could not close the crawl result output", e);
+        } finally {
+            writeLock.unlock();
+        }
+        if (failedBatches > 0) {
+            LOGGER.log(Level.SEVERE, "{0} batch(es) of crawl results could not be written", failedBatches);
+        }
+    }
+
+    static void appendJson(StringBuilder json, CrawlResult result) {
+        json.append("{\"url\":");
+        appendString(json, result.url());
+        json.append(",\"status\":").append(result.statusCode())
+                .append(",\"depth\":");
+        if (result.depth() == CrawlResult.UNKNOWN_DEPTH) {
+            json.append("null");
+        } else {
+            json.append(result.depth());
+        }
+        final long micros = result.latencyNanos() / 1_000;
+        final long fraction = micros % 1_000;
+        json.append(",\"bytes\":").append(result.bytes())
+                .append(",\"latencyMs\":").append(micros / 1_000).append('.')
+                .append(fraction < 100 ? (fraction < 10 ? "00" : "0") : "").append(fraction)
+                .append(",\"outlinks\":").append(result.outlinks())
+                .append('}');
+    }
+
+    private static void appendString(StringBuilder json, String value) {
+        json.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            switch (c) {
+                case '"' -> json.append("\\\"");
+                case '\\' -> json.append("\\\\");
+                case '\n' -> json.append("\\n");
+                case '\r' -> json.append("\\r");
+                case '\t' -> json.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        json.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        json.append(c);
+                    }
+                }
+            }
+        }
+        json.append('"');
+    }
+}
@@ -0,0 +1,27 @@
+package org.ank.crawler.sink;
+
+/**
+ * Receives every crawled page as soon as the frontier is done with it, so results can be streamed out while the
+ * crawl runs instead of being read from the visited set at the end.
+ * Implementations are thread-safe: every worker reports its own pages.
+ */
+public interface ResultSink extends AutoCloseable {
+
+    /**
+     * A sink that drops every result, used when none is configured.
+     */
+    ResultSink NONE = result -> {
+    };
+
+    /**
+     * Reports one page. Called from the worker that processed it, so it should not block for long.
+     */
+    void accept(CrawlResult result);
+
+    /**
+     * Writes out anything still buffered; called by the frontier when the crawl ends.
+     */
+    @Override
+    default void close() {
+    }
+}
@@ -0,0 +1,71 @@
+package org.ank.crawler.sitemap;
+
+import org.ank.crawler.util.Constants;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.MalformedURLException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+/**
+ * A {@link SitemapSource} on top of {@link HttpClient} that hands out the response body as a stream,
+ * so a large sitemap is never buffered whole.
+ */
+public class HttpSitemapSource implements SitemapSource {
+
+    private static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(5);
+    private static final Duration RESPONSE_TIMEOUT = Duration.ofSeconds(30);
+
+    private final HttpClient client;
+
+    public HttpSitemapSource() {
+        this(HttpClient.newBuilder()
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .connectTimeout(CONNECT_TIMEOUT)
+                .build());
+    }
+
+    public HttpSitemapSource(HttpClient client) {
+        this.client = client;
+    }
+
+    /**
+     * @throws MalformedURLException If {@code uri} is not an absolute http(s) URL, which sitemap {@code <loc>}
+     *                               values from the wild often are not.
+     */
+    @Override
+    public InputStream open(String uri) throws IOException {
+        final HttpRequest request;
+        try {
+            request = HttpRequest.newBuilder(URI.create(uri))
+                    .timeout(RESPONSE_TIMEOUT)
+                    .header("User-Agent", Constants.USER_AGENT)
+                    .GET()
+                    .build();
+        } catch (IllegalArgumentException e) {
+            throw (MalformedURLException) new MalformedURLException("Cannot request " + uri).initCause(e);
+        }
+        final HttpResponse<InputStream> response;
+        try {
+            response = client.send(request, HttpResponse.BodyHandlers.ofInputStream());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while opening " + uri);
+        }
+        final int status = response.statusCode();
+        if (status >= 200 && status < 300) {
+            return response.body();
+        }
+        response.body().close();
+        if (status == 404 || status == 410) {
+            throw new FileNotFoundException(uri);
+        }
+        throw new IOException("HTTP " + status + " for " + uri);
+    }
+}
@@ -0,0 +1,186 @@
+package org.ank.crawler.sitemap;
+
+import org.ank.crawler.frontier.Frontier;
+import org.ank.crawler.robots.RobotsParser;
+import org.ank.crawler.scope.Scope;
+import org.ank.crawler.util.Constants;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Seeds a frontier with the URLs listed in a site's sitemaps.
+ * <p>
+ * The sitemaps are the {@code Sitemap:} lines of the site's robots.txt, or {@code /sitemap.xml} if there are none.
+ * Sitemap indexes are followed breadth-first, each sitemap at most once and no more than {@code maxSitemaps} in
+ * total. Every sitemap is streamed through {@link SitemapReader} and its in-scope URLs handed to
+ * {@link Frontier#scheduleAll} in fixed-size batches, so the ingester's own memory use stays constant however many
+ * URLs there are. For millions of URLs, pair it with a disk-spilling queue
+ * ({@link org.ank.crawler.config.QueueConfig#spilling}).
+ */
+public class SitemapIngester {
+
+    private static final Logger LOGGER = Logger.getLogger(SitemapIngester.class.getName());
+
+    public static final int DEFAULT_BATCH_SIZE = 1_000;
+    public static final int DEFAULT_MAX_SITEMAPS = 1_000;
+    private static final int MAX_ROBOTS_BYTES = 500 * 1024;
+
+    private final SitemapSource source;
+    private final int batchSize;
+    private final int maxSitemaps;
+
+    public SitemapIngester() {
+        this(new HttpSitemapSource());
+    }
+
+    public SitemapIngester(SitemapSource source) {
+        this(source, DEFAULT_BATCH_SIZE, DEFAULT_MAX_SITEMAPS);
+    }
+
+    /**
+     * @param source      Opens robots.txt and the sitemaps.
+     * @param batchSize   How many URLs are passed to the frontier at a time.
+     * @param maxSitemaps The most sitemap files (indexes included) read per site.
+     */
+    public SitemapIngester(SitemapSource source, int batchSize, int maxSitemaps) {
+        if (batchSize < 1 || maxSitemaps < 1) {
+            throw new IllegalArgumentException("batchSize and maxSitemaps must be positive");
+        }
+        this.source = source;
+        this.batchSize = batchSize;
+        this.maxSitemaps = maxSitemaps;
+    }
+
+    /**
+     * Schedules the in-scope URLs from the sitemaps of the site that {@code siteUri} belongs to.
+     *
+     * @return The number of URLs passed to the frontier (before its own de-duplication).
+     */
+    public long ingest(String siteUri, Scope scope, Frontier frontier) {
+        final String origin = originOf(siteUri);
+        if (origin == null) {
+            LOGGER.log(Level.WARNING, "Cannot find sitemaps for {0}", siteUri);
+            return 0;
+        }
+        final Deque<String> sitemaps = new ArrayDeque<>(discover(origin));
+        final Set<String> seen = new HashSet<>(sitemaps);
+        final Batch batch = new Batch(scope, frontier);
+        int read = 0;
+        while (!sitemaps.isEmpty() && read < maxSitemaps) {
+            final String sitemap = sitemaps.poll();
+            read++;
+            try (InputStream in = source.open(sitemap)) {
+                SitemapReader.read(in, batch::add, nested -> {
+                    if (seen.add(nested)) {
+                        sitemaps.add(nested);
+                    }
+                });
+            } catch (FileNotFoundException e) {
+                LOGGER.log(Level.FINE, "No sitemap at {0}", sitemap);
+            } catch (IOException e) {
+                LOGGER.log(Level.WARNING, "Failed to read sitemap " + sitemap, e);
+            }
+        }
+        batch.flush();
+        if (!sitemaps.isEmpty()) {
+            LOGGER.log(Level.WARNING, "Stopped after {0} sitemaps for {1}; {2} left unread",
+                    new Object[]{maxSitemaps, origin, sitemaps.size()});
+        }
+        LOGGER.log(Level.INFO, "Scheduled {0} URLs from {1} sitemap(s) of {2}",
+                new Object[]{batch.scheduled, read, origin});
+        return batch.scheduled;
+    }
+
+    private List<String> discover(String origin) {
+        final String robotsUri = origin + "/robots.txt";
+        try (InputStream in = source.open(robotsUri)) {
+            final String content = new String(in.readNBytes(MAX_ROBOTS_BYTES), StandardCharsets.UTF_8);
+            final List<String> listed = resolve(origin, RobotsParser.parse(content, Constants.USER_AGENT).sitemaps());
+            if (!listed.isEmpty()) {
+                return listed;
+            }
+        } catch (FileNotFoundException e) {
+            LOGGER.log(Level.FINE, "No robots.txt at {0}", robotsUri);
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Failed to read " + robotsUri, e);
+        }
+        return List.of(origin + "/sitemap.xml");
+    }
+
+    /**
+     * Resolves {@code Sitemap:} values against the origin, since some sites list them as paths; unparseable
+     * values are dropped.
+     */
+    private static List<String> resolve(String origin, List<String> sitemaps) {
+        final URI base = URI.create(origin + "/");
+        final List<String> resolved = new ArrayList<>(sitemaps.size());
+        for (String sitemap : sitemaps) {
+            try {
+                resolved.add(base.resolve(sitemap).toString());
+            } catch (IllegalArgumentException e) {
+                LOGGER.log(Level.WARNING, "Ignoring malformed sitemap {0} in {1}/robots.txt",
+                        new Object[]{sitemap, origin});
+            }
+        }
+        return resolved;
+    }
+
+    private static String originOf(String uri) {
+        try {
+            final URI parsed = URI.create(uri);
+            if (parsed.getScheme() == null || parsed.getRawAuthority() == null) {
+                return null;
+            }
+            return parsed.getScheme().toLowerCase(Locale.ROOT) + "://" + parsed.getRawAuthority();
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Collects in-scope URLs and hands them to the frontier whenever the (reused) list fills up.
+     */
+    private final class Batch {
+        private final Scope scope;
+        private final Frontier frontier;
+        private final List<String> uris = new ArrayList<>(batchSize);
+        private long scheduled;
+
+        private Batch(Scope scope, Frontier frontier) {
+            this.scope = scope;
+            this.frontier = frontier;
+        }
+
+        private void add(String uri) {
+            if (!scope.isInScope(uri)) {
+                return;
+            }
+            uris.add(uri);
+            if (uris.size() == batchSize) {
+                flush();
+            }
+        }
+
+        private void flush() {
+            if (uris.isEmpty()) {
+                return;
+            }
+            frontier.scheduleAll(uris);
+            scheduled += uris.size();
+            uris.clear();
+        }
+    }
+}
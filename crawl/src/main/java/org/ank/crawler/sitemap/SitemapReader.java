@@ -0,0 +1,85 @@
+package org.ank.crawler.sitemap;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Reads a sitemap or sitemap index (sitemaps.org protocol) with a StAX pull parser, one {@code <loc>} at a time,
+ * so memory use does not depend on the size of the file.
+ * <p>
+ * Gzip-compressed input is recognized by its magic bytes, whatever the file is called. Elements are matched by
+ * local name, so missing or unusual namespaces are tolerated. DTDs and external entities are disabled.
+ */
+public final class SitemapReader {
+
+    private static final XMLInputFactory FACTORY = newFactory();
+    private static final int GZIP_MAGIC = 0x8b1f;
+
+    private SitemapReader() {
+    }
+
+    /**
+     * Streams the locations out of a sitemap.
+     *
+     * @param in       The sitemap bytes; not closed.
+     * @param pages    Receives the {@code <url><loc>} of a {@code <urlset>}.
+     * @param sitemaps Receives the {@code <sitemap><loc>} of a {@code <sitemapindex>}.
+     * @throws IOException If the stream cannot be read or is not well-formed XML.
+     */
+    public static void read(InputStream in, Consumer<String> pages, Consumer<String> sitemaps) throws IOException {
+        final InputStream decoded = decompressIfGzipped(in);
+        XMLStreamReader reader = null;
+        try {
+            reader = FACTORY.createXMLStreamReader(decoded);
+            String parent = null;
+            while (reader.hasNext()) {
+                if (reader.next() != XMLStreamConstants.START_ELEMENT) {
+                    continue;
+                }
+                final String name = reader.getLocalName();
+                if (name.equals("url") || name.equals("sitemap")) {
+                    parent = name;
+                } else if (name.equals("loc") && parent != null) {
+                    final String loc = reader.getElementText().strip();
+                    if (!loc.isEmpty()) {
+                        (parent.equals("url") ? pages : sitemaps).accept(loc);
+                    }
+                    parent = null; // one location per entry
+                }
+            }
+        } catch (XMLStreamException e) {
+            throw new IOException("Malformed sitemap: " + e.getMessage(), e);
+        } finally {
+            if (reader != null) {
+                try {
+                    reader.close();
+                } catch (XMLStreamException ignored) {
+                    // nothing left to release
+                }
+            }
+        }
+    }
+
+    private static InputStream decompressIfGzipped(InputStream in) throws IOException {
+        final BufferedInputStream buffered = new BufferedInputStream(in);
+        buffered.mark(2);
+        final int magic = buffered.read() | (buffered.read() << 8);
+        buffered.reset();
+        return magic == GZIP_MAGIC ? new GZIPInputStream(buffered) : buffered;
+    }
+
+    private static XMLInputFactory newFactory() {
+        final XMLInputFactory factory = XMLInputFactory.newFactory();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, true);
+        return factory;
+    }
+}
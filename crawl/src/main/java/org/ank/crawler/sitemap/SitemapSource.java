@@ -0,0 +1,20 @@
+package org.ank.crawler.sitemap;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Opens sitemap (and robots.txt) resources as byte streams, so they can be parsed as they arrive instead of
+ * being held in memory whole.
+ */
+@FunctionalInterface
+public interface SitemapSource {
+
+    /**
+     * @param uri The resource to open.
+     * @return The raw bytes of the resource, possibly gzip-compressed; the caller closes it.
+     * @throws java.io.FileNotFoundException If the resource does not exist (e.g. HTTP 404).
+     * @throws IOException                   If it cannot be read.
+     */
+    InputStream open(String uri) throws IOException;
+}
@@ -0,0 +1,267 @@
+package org.ank.crawler.url;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Canonicalizes http(s) URLs:
+ * - lowercases the scheme and host
+ * - drops the default port (80 for http, 443 for https) and the fragment
+ * - normalizes percent-encoding: unreserved characters are decoded, other escapes use upper-case hex,
+ *   and characters that are not allowed in a URL (spaces, non-ASCII, ...) are encoded as UTF-8
+ * - removes "." and ".." path segments, and uses "/" for an empty path
+ * - drops tracking query parameters and sorts the remaining ones by name
+ * - optionally drops a trailing slash from non-root paths
+ * <p>
+ * URLs with another scheme, or that cannot be parsed, are returned unchanged.
+ * <p>
+ * Removing trailing slashes is off by default: {@code /a} and {@code /a/} are usually the same page,
+ * but relative links on it resolve differently, so it is only safe for sites known to treat them alike.
+ */
+public class StandardUrlCanonicalizer implements UrlCanonicalizer {
+
+    /**
+     * Common analytics and ad-click parameters. Entries ending in '*' match any parameter name with that prefix.
+     */
+    public static final Set<String> DEFAULT_TRACKING_PARAMS = Set.of(
+            "utm_*", "gclid", "gclsrc", "dclid", "fbclid", "msclkid", "yclid", "mc_cid", "mc_eid", "_ga", "_gl",
+            "igshid", "_hsenc", "_hsmi", "mkt_tok");
+
+    private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+
+    private final Set<String> strippedParams = new HashSet<>();
+    private final List<String> strippedParamPrefixes = new ArrayList<>();
+    private final boolean removeTrailingSlash;
+
+    public StandardUrlCanonicalizer() {
+        this(DEFAULT_TRACKING_PARAMS, false);
+    }
+
+    /**
+     * @param strippedParams      Query parameter names to drop (case-insensitive); a trailing '*' makes a prefix.
+     * @param removeTrailingSlash Whether {@code /a/} should become {@code /a}.
+     */
+    public StandardUrlCanonicalizer(Set<String> strippedParams, boolean removeTrailingSlash) {
+        for (String param : strippedParams) {
+            final String name = param.toLowerCase(Locale.ROOT);
+            if (name.endsWith("*")) {
+                strippedParamPrefixes.add(name.substring(0, name.length() - 1));
+            } else {
+                this.strippedParams.add(name);
+            }
+        }
+        this.removeTrailingSlash = removeTrailingSlash;
+    }
+
+    @Override
+    public String canonicalize(String uri) {
+        if (uri == null) {
+            return null;
+        }
+        final String trimmed = uri.strip();
+        final int colon = trimmed.indexOf(':');
+        if (colon < 0 || !trimmed.startsWith("//", colon + 1)) {
+            return uri;
+        }
+        final String scheme = trimmed.substring(0, colon).toLowerCase(Locale.ROOT);
+        final int defaultPort;
+        if (scheme.equals("http")) {
+            defaultPort = 80;
+        } else if (scheme.equals("https")) {
+            defaultPort = 443;
+        } else {
+            return uri;
+        }
+
+        // split into authority, path, query; the fragment is dropped
+        final int authorityStart = colon + 3;
+        int authorityEnd = authorityStart;
+        while (authorityEnd < trimmed.length() && "/?#".indexOf(trimmed.charAt(authorityEnd)) < 0) {
+            authorityEnd++;
+        }
+        final int hash = trimmed.indexOf('#', authorityEnd);
+        final int end = hash < 0 ? trimmed.length() : hash;
+        final int question = trimmed.indexOf('?', authorityEnd);
+        final int pathEnd = question >= 0 && question < end ? question : end;
+
+        final String authority = canonicalAuthority(trimmed.substring(authorityStart, authorityEnd), defaultPort);
+        if (authority == null) {
+            return uri;
+        }
+        String path = removeDotSegments(normalizeEncoding(trimmed.substring(authorityEnd, pathEnd)));
+        if (removeTrailingSlash && path.length() > 1 && path.endsWith("/")) {
+            path = path.substring(0, path.length() - 1);
+        }
+        final String query = pathEnd < end ? canonicalQuery(trimmed.substring(pathEnd + 1, end)) : "";
+
+        final StringBuilder canonical = new StringBuilder(trimmed.length())
+                .append(scheme).append("://").append(authority).append(path);
+        if (!query.isEmpty()) {
+            canonical.append('?').append(query);
+        }
+        return canonical.toString();
+    }
+
+    /**
+     * @return The authority with a lower-case host and no default port, or null if it is not valid.
+     */
+    private static String canonicalAuthority(String authority, int defaultPort) {
+        final int at = authority.lastIndexOf('@');
+        final String userInfo = at >= 0 ? authority.substring(0, at + 1) : "";
+        final String hostPort = authority.substring(at + 1);
+
+        // IPv6 literals contain ':' inside brackets
+        final int portColon = hostPort.lastIndexOf(':');
+        final boolean hasPort = portColon >= 0 && portColon > hostPort.lastIndexOf(']');
+        String host = (hasPort ? hostPort.substring(0, portColon) : hostPort).toLowerCase(Locale.ROOT);
+        if (host.isEmpty()) {
+            return null;
+        }
+        if (host.endsWith(".")) {
+            host = host.substring(0, host.length() - 1); // "example.com." is the same host
+        }
+
+        String port = "";
+        if (hasPort && portColon < hostPort.length() - 1) {
+            final String digits = hostPort.substring(portColon + 1);
+            for (int i = 0; i < digits.length(); i++) {
+                if (digits.charAt(i) < '0' || digits.charAt(i) > '9') {
+                    return null;
+                }
+            }
+            final int portNumber;
+            try {
+                portNumber = Integer.parseInt(digits);
+            } catch (NumberFormatException e) {
+                return null;
+            }
+            if (portNumber != defaultPort) {
+                port = ":" + portNumber;
+            }
+        }
+        return userInfo + host + port;
+    }
+
+    private String canonicalQuery(String query) {
+        final List<String> params = new ArrayList<>();
+        for (String param : query.split("&")) {
+            if (!param.isEmpty() && !isStripped(param)) {
+                params.add(normalizeEncoding(param));
+            }
+        }
+        // Stable, so repeated names keep their order: ?id=2&id=1 may not be the same page as ?id=1&id=2
+        params.sort(Comparator.comparing(StandardUrlCanonicalizer::paramName));
+        return String.join("&", params);
+    }
+
+    private boolean isStripped(String param) {
+        final String name = paramName(param).toLowerCase(Locale.ROOT);
+        if (strippedParams.contains(name)) {
+            return true;
+        }
+        for (String prefix : strippedParamPrefixes) {
+            if (name.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String paramName(String param) {
+        final int equals = param.indexOf('=');
+        return equals < 0 ? param : param.substring(0, equals);
+    }
+
+    /**
+     * Decodes escaped unreserved characters, upper-cases the hex of the remaining escapes,
+     * and encodes characters that may not appear literally in a URL.
+     */
+    static String normalizeEncoding(String component) {
+        StringBuilder out = null;
+        for (int i = 0; i < component.length(); i++) {
+            final char c = component.charAt(i);
+            if (c == '%' && i + 2 < component.length() && isHex(component.charAt(i + 1)) && isHex(component.charAt(i + 2))) {
+                final int value = Character.digit(component.charAt(i + 1), 16) * 16 + Character.digit(component.charAt(i + 2), 16);
+                out = ensureCopy(out, component, i);
+                if (isUnreserved((char) value)) {
+                    out.append((char) value);
+                } else {
+                    appendEscaped(out, value);
+                }
+                i += 2;
+            } else if (c == '%' || mustEncode(c)) {
+                out = ensureCopy(out, component, i);
+                final int codePointEnd = Character.isHighSurrogate(c) && i + 1 < component.length() ? i + 2 : i + 1;
+                for (byte b : component.substring(i, codePointEnd).getBytes(StandardCharsets.UTF_8)) {
+                    appendEscaped(out, b & 0xFF);
+                }
+                i = codePointEnd - 1;
+            } else if (out != null) {
+                out.append(c);
+            }
+        }
+        return out == null ? component : out.toString();
+    }
+
+    /**
+     * Removes "." and ".." segments (RFC 3986, section 5.2.4); an empty path becomes "/".
+     */
+    static String removeDotSegments(String path) {
+        if (path.isEmpty()) {
+            return "/";
+        }
+        if (!path.contains(".")) {
+            return path;
+        }
+        final String[] segments = path.split("/", -1);
+        final List<String> output = new ArrayList<>(segments.length);
+        for (int i = 1; i < segments.length; i++) {
+            final String segment = segments[i];
+            final boolean last = i == segments.length - 1;
+            if (segment.equals(".")) {
+                if (last) {
+                    output.add("");
+                }
+            } else if (segment.equals("..")) {
+                if (!output.isEmpty()) {
+                    output.remove(output.size() - 1);
+                }
+                if (last) {
+                    output.add("");
+                }
+            } else {
+                output.add(segment);
+            }
+        }
+        return "/" + String.join("/", output);
+    }
+
+    private static StringBuilder ensureCopy(StringBuilder out, String component, int upTo) {
+        if (out != null) {
+            return out;
+        }
+        return new StringBuilder(component.length() + 16).append(component, 0, upTo);
+    }
+
+    private static void appendEscaped(StringBuilder out, int value) {
+        out.append('%').append(HEX[value >> 4]).append(HEX[value & 0xF]);
+    }
+
+    private static boolean isHex(char c) {
+        return (c >= '0' && c <= '9') || (c >= 'a' && c <= 'f') || (c >= 'A' && c <= 'F');
+    }
+
+    private static boolean isUnreserved(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')
+                || c == '-' || c == '.' || c == '_' || c == '~';
+    }
+
+    private static boolean mustEncode(char c) {
+        return c <= 0x20 || c >= 0x7F || "\"<>\\^`{|}".indexOf(c) >= 0;
+    }
+}
@@ -0,0 +1,18 @@
+package org.ank.crawler.url;
+
+/**
+ * Rewrites a URL into a canonical form, so that equivalent spellings of the same resource
+ * are scheduled and deduplicated once.
+ */
+public interface UrlCanonicalizer {
+
+    /**
+     * Leaves every URL as it is.
+     */
+    UrlCanonicalizer IDENTITY = uri -> uri;
+
+    /**
+     * Returns the canonical form of the URL, or the URL unchanged if it cannot be canonicalized.
+     */
+    String canonicalize(String uri);
+}
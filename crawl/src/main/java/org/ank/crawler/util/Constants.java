@@ -7,4 +7,6 @@ public class Constants {
     public static final String HTTP_PROTOCOL = "http://";
     public static final String HTTPS_PROTOCOL = "https://";
     public static final int DEFAULT_THREAD_COUNT = 5; // Default number of threads
+    public static final String USER_AGENT = "WebCrawler/1.0";
+    public static final int DEFAULT_MAX_IN_FLIGHT_FETCHES = 1000; // Cap on concurrent fetches in virtual-thread mode
 }
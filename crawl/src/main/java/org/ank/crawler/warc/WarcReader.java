@@ -0,0 +1,102 @@
+package org.ank.crawler.warc;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Reads the records of a WARC file, gzip-compressed (one member per record, or the whole file) or not, in order.
+ */
+public class WarcReader implements AutoCloseable {
+
+    private final InputStream in;
+
+    public WarcReader(Path file) throws IOException {
+        final InputStream raw = new BufferedInputStream(Files.newInputStream(file));
+        this.in = file.getFileName().toString().endsWith(".gz")
+                ? new BufferedInputStream(new GZIPInputStream(raw)) : raw;
+    }
+
+    /**
+     * @return Every record of the file.
+     */
+    public static List<WarcRecord> readAll(Path file) throws IOException {
+        try (WarcReader reader = new WarcReader(file)) {
+            final List<WarcRecord> records = new ArrayList<>();
+            WarcRecord record;
+            while ((record = reader.next()) != null) {
+                records.add(record);
+            }
+            return records;
+        }
+    }
+
+    /**
+     * @return The next record, or null at the end of the file.
+     * @throws IOException If the file is not valid WARC, or ends in the middle of a record.
+     */
+    public WarcRecord next() throws IOException {
+        String version = readLine();
+        while (version != null && version.isEmpty()) {
+            version = readLine(); // tolerate extra blank lines between records
+        }
+        if (version == null) {
+            return null;
+        }
+        if (!version.startsWith("WARC/")) {
+            throw new IOException("Not a WARC record: " + version);
+        }
+        final Map<String, String> fields = new HashMap<>();
+        String line;
+        while ((line = readLine()) != null && !line.isEmpty()) {
+            final int colon = line.indexOf(':');
+            if (colon > 0) {
+                fields.put(line.substring(0, colon).trim().toLowerCase(Locale.ROOT), line.substring(colon + 1).trim());
+            }
+        }
+        final String contentLength = fields.get("content-length");
+        if (line == null || contentLength == null) {
+            throw new IOException("Truncated WARC record header");
+        }
+        final byte[] block = in.readNBytes(Integer.parseInt(contentLength));
+        if (block.length < Integer.parseInt(contentLength)) {
+            throw new EOFException("Truncated WARC record block");
+        }
+        return new WarcRecord(fields.get("warc-type"), fields.get("warc-record-id"),
+                Instant.parse(fields.get("warc-date")), fields.get("warc-target-uri"), fields.get("content-type"),
+                block);
+    }
+
+    /**
+     * @return The next CRLF- (or LF-) terminated line without its terminator, or null at the end of the stream.
+     */
+    private String readLine() throws IOException {
+        final ByteArrayOutputStream line = new ByteArrayOutputStream(128);
+        int b;
+        while ((b = in.read()) != -1 && b != '\n') {
+            line.write(b);
+        }
+        if (b == -1 && line.size() == 0) {
+            return null;
+        }
+        final String text = line.toString(StandardCharsets.UTF_8);
+        return text.endsWith("\r") ? text.substring(0, text.length() - 1) : text;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
@@ -0,0 +1,26 @@
+package org.ank.crawler.warc;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * One WARC record: its named header fields and its content block.
+ *
+ * @param type        {@code WARC-Type}, e.g. {@link #RESPONSE}.
+ * @param recordId    {@code WARC-Record-ID}, a {@code <urn:uuid:...>}.
+ * @param date        {@code WARC-Date}.
+ * @param targetUri   {@code WARC-Target-URI}, or null for records about no URI (e.g. {@link #WARCINFO}).
+ * @param contentType {@code Content-Type} of the block.
+ * @param block       The content block; its length is the record's {@code Content-Length}.
+ */
+public record WarcRecord(String type, String recordId, Instant date, String targetUri, String contentType,
+                         byte[] block) {
+
+    public static final String RESPONSE = "response";
+    public static final String WARCINFO = "warcinfo";
+    public static final String HTTP_RESPONSE_CONTENT_TYPE = "application/http;msgtype=response";
+
+    public static String newRecordId() {
+        return "<urn:uuid:" + UUID.randomUUID() + ">";
+    }
+}
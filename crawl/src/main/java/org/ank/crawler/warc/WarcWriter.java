@@ -0,0 +1,378 @@
+package org.ank.crawler.warc;
+
+import org.ank.crawler.fetcher.FetchedContent;
+import org.ank.crawler.util.Constants;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Archives fetched responses as WARC 1.1 {@code response} records in gzip-compressed files
+ * ({@code <prefix>-<timestamp>-<sequence>.warc.gz}), each record its own gzip member so a reader can seek to any one.
+ * <p>
+ * Callers only build the record and put it on a bounded queue; a dedicated writer thread takes records off in
+ * batches, compresses them and writes each batch with one gathering {@link FileChannel} write. A caller waits only
+ * if the writer has fallen a whole queue behind. A file is rolled over, starting with a {@code warcinfo} record,
+ * before a record would take it past the size limit. Files being written end in {@code .open}, which is dropped
+ * once they are complete.
+ * <p>
+ * Responses are archived as the fetcher saw them, not byte for byte as the server sent them: the body is the decoded
+ * text, and the status line and headers are rebuilt around it. The {@code warcinfo} record of every file says so.
+ */
+public class WarcWriter implements AutoCloseable {
+
+    private static final Logger LOGGER = Logger.getLogger(WarcWriter.class.getName());
+    public static final long DEFAULT_MAX_FILE_BYTES = 1024L * 1024 * 1024;
+    public static final int DEFAULT_QUEUE_CAPACITY = 1024;
+    private static final int BATCH_SIZE = 64;
+    private static final String OPEN_SUFFIX = ".open";
+    private static final DateTimeFormatter FILE_TIMESTAMP =
+            DateTimeFormatter.ofPattern("yyyyMMddHHmmssSSS").withZone(ZoneOffset.UTC);
+    // Replaced by the length of the body as archived
+    private static final Set<String> DROPPED_HEADERS = Set.of("content-length", "content-encoding", "transfer-encoding");
+    // The charset parameter of Content-Type, which no longer applies once the body is stored as UTF-8
+    private static final Pattern CHARSET_PARAM =
+            Pattern.compile(";\\s*charset\\s*=\\s*(\"[^\"]*\"|[^;]*)", Pattern.CASE_INSENSITIVE);
+    private static final String WARCINFO_FIELDS = "software: " + Constants.USER_AGENT + "\r\n"
+            + "format: WARC File Format 1.1\r\n"
+            + "description: HTTP responses are reconstructed from the fetched status, headers and decoded body;"
+            + " bodies are stored as UTF-8 (with Content-Type rewritten to match), Content-Length is that of the"
+            + " stored body, Content-Encoding and Transfer-Encoding are dropped and reason phrases are the standard"
+            + " ones\r\n";
+    // Tells the writer thread that nothing more is coming
+    private static final WarcRecord END = new WarcRecord("", "", Instant.EPOCH, null, "", new byte[0]);
+
+    private final Path directory;
+    private final String prefix;
+    private final long maxFileBytes;
+    private final String fileTimestamp;
+    private final BlockingQueue<WarcRecord> queue;
+    private final Thread writerThread;
+    private final AtomicLong recordsWritten = new AtomicLong();
+    private final AtomicLong failedRecords = new AtomicLong();
+    private volatile boolean closed;
+
+    // completed files; the rest is only touched by the writer thread
+    private final List<Path> files = new CopyOnWriteArrayList<>();
+    private FileChannel channel;
+    private Path openPath;
+    private long fileBytes;
+
+    public WarcWriter(Path directory, String prefix) {
+        this(directory, prefix, DEFAULT_MAX_FILE_BYTES, DEFAULT_QUEUE_CAPACITY);
+    }
+
+    /**
+     * @param directory     Directory the WARC files are written to, created if missing.
+     * @param prefix        Start of every file name.
+     * @param maxFileBytes  Size a file is rolled over at; a single larger record still gets a file of its own.
+     * @param queueCapacity Records waiting for the writer thread before callers have to wait.
+     */
+    public WarcWriter(Path directory, String prefix, long maxFileBytes, int queueCapacity) {
+        if (maxFileBytes < 1 || queueCapacity < 1) {
+            throw new IllegalArgumentException("File size limit and queue capacity must be positive");
+        }
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create WARC directory " + directory, e);
+        }
+        this.directory = directory;
+        this.prefix = prefix;
+        this.maxFileBytes = maxFileBytes;
+        this.fileTimestamp = FILE_TIMESTAMP.format(Instant.now());
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.writerThread = Thread.ofPlatform().daemon().name("warc-writer").start(this::writeLoop);
+    }
+
+    /**
+     * Queues a response record for the page. The HTTP message is rebuilt from the status, every header value and
+     * the body as fetched (decoded text, stored as UTF-8, with the {@code Content-Type} charset set to match);
+     * {@code Content-Length} is set to the stored body's length.
+     *
+     * @param uri     The URL the response came from.
+     * @param content The response.
+     */
+    public void write(String uri, FetchedContent content) {
+        write(new WarcRecord(WarcRecord.RESPONSE, WarcRecord.newRecordId(), Instant.now(), uri,
+                WarcRecord.HTTP_RESPONSE_CONTENT_TYPE, httpResponse(content)));
+    }
+
+    /**
+     * Queues a record, waiting only if the writer thread has a full queue of records still to write.
+     *
+     * @throws IllegalStateException If the writer is closed.
+     */
+    public void write(WarcRecord record) {
+        if (closed) {
+            throw new IllegalStateException("WARC writer is closed");
+        }
+        try {
+            queue.put(record);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            LOGGER.log(Level.WARNING, "Interrupted; not archiving {0}", record.targetUri());
+        }
+    }
+
+    /**
+     * @return Number of records written to disk so far, {@code warcinfo} records included.
+     */
+    public long recordsWritten() {
+        return recordsWritten.get();
+    }
+
+    /**
+     * Writes every queued record, completes the current file and stops the writer thread.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            queue.put(END);
+            writerThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            writerThread.interrupt();
+        }
+        if (failedRecords.get() > 0) {
+            LOGGER.log(Level.SEVERE, "{0} WARC record(s) could not be written", failedRecords.get());
+        }
+    }
+
+    /**
+     * @return The completed WARC files, oldest first; complete once {@link #close()} has returned.
+     */
+    public List<Path> files() {
+        return List.copyOf(files);
+    }
+
+    private void writeLoop() {
+        final List<WarcRecord> batch = new ArrayList<>(BATCH_SIZE);
+        try {
+            boolean ended = false;
+            while (!ended) {
+                batch.add(queue.take());
+                queue.drainTo(batch, BATCH_SIZE - 1);
+                ended = batch.removeIf(record -> record == END);
+                if (ended) {
+                    queue.drainTo(batch); // from writers that raced with close
+                }
+                writeBatch(batch);
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            completeFile();
+        }
+    }
+
+    /**
+     * Compresses the records and writes them with as few gathering writes as the file size limit allows.
+     */
+    private void writeBatch(List<WarcRecord> batch) {
+        final List<ByteBuffer> pending = new ArrayList<>(batch.size() + 1);
+        long pendingBytes = 0;
+        for (WarcRecord record : batch) {
+            final ByteBuffer compressed = ByteBuffer.wrap(gzip(record));
+            if (channel != null && fileBytes + pendingBytes + compressed.remaining() > maxFileBytes) {
+                flush(pending, batch.size());
+                pending.clear();
+                pendingBytes = 0;
+                completeFile();
+            }
+            if (channel == null && !openFile()) {
+                failedRecords.incrementAndGet();
+                continue;
+            }
+            if (fileBytes + pendingBytes == 0) {
+                final ByteBuffer info = ByteBuffer.wrap(gzip(warcinfo()));
+                pending.add(info);
+                pendingBytes += info.remaining();
+            }
+            pending.add(compressed);
+            pendingBytes += compressed.remaining();
+        }
+        flush(pending, batch.size());
+    }
+
+    private void flush(List<ByteBuffer> buffers, int batchSize) {
+        if (buffers.isEmpty()) {
+            return;
+        }
+        final ByteBuffer[] array = buffers.toArray(ByteBuffer[]::new);
+        try {
+            long remaining = 0;
+            for (ByteBuffer buffer : array) {
+                remaining += buffer.remaining();
+            }
+            while (remaining > 0) {
+                final long written = channel.write(array);
+                remaining -= written;
+                fileBytes += written;
+            }
+            recordsWritten.addAndGet(array.length);
+        } catch (IOException e) {
+            failedRecords.addAndGet(array.length);
+            LOGGER.log(Level.SEVERE, "Could not write " + array.length + " WARC record(s) of a batch of " + batchSize
+                    + " to " + openPath, e);
+        }
+    }
+
+    private boolean openFile() {
+        final Path path = directory.resolve(String.format(Locale.ROOT, "%s-%s-%05d.warc.gz%s",
+                prefix, fileTimestamp, files.size(), OPEN_SUFFIX));
+        try {
+            channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+            openPath = path;
+            fileBytes = 0;
+            return true;
+        } catch (IOException e) {
+            LOGGER.log(Level.SEVERE, "Could not create WARC file " + path, e);
+            return false;
+        }
+    }
+
+    /**
+     * Closes the current file, if any, and drops its {@code .open} suffix.
+     */
+    private void completeFile() {
+        if (channel == null) {
+            return;
+        }
+        final String name = openPath.getFileName().toString();
+        final Path complete = openPath.resolveSibling(name.substring(0, name.length() - OPEN_SUFFIX.length()));
+        try {
+            channel.close();
+            Files.move(openPath, complete, StandardCopyOption.ATOMIC_MOVE);
+            files.add(complete);
+        } catch (IOException e) {
+            LOGGER.log(Level.SEVERE, "Could not complete WARC file " + openPath, e);
+        } finally {
+            channel = null;
+            openPath = null;
+        }
+    }
+
+    private WarcRecord warcinfo() {
+        return new WarcRecord(WarcRecord.WARCINFO, WarcRecord.newRecordId(), Instant.now(), null,
+                "application/warc-fields", WARCINFO_FIELDS.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return The record (header, block and the two closing CRLFs) as one gzip member.
+     */
+    private static byte[] gzip(WarcRecord record) {
+        final StringBuilder header = new StringBuilder(256)
+                .append("WARC/1.1\r\n")
+                .append("WARC-Type: ").append(record.type()).append("\r\n")
+                .append("WARC-Record-ID: ").append(record.recordId()).append("\r\n")
+                .append("WARC-Date: ").append(record.date().truncatedTo(ChronoUnit.MILLIS)).append("\r\n");
+        if (record.targetUri() != null) {
+            header.append("WARC-Target-URI: ").append(record.targetUri()).append("\r\n");
+        }
+        header.append("Content-Type: ").append(record.contentType()).append("\r\n")
+                .append("Content-Length: ").append(record.block().length).append("\r\n")
+                .append("\r\n");
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream(record.block().length / 3 + 256);
+        try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+            out.write(header.toString().getBytes(StandardCharsets.UTF_8));
+            out.write(record.block());
+            out.write(new byte[]{'\r', '\n', '\r', '\n'});
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // not thrown by in-memory streams
+        }
+        return bytes.toByteArray();
+    }
+
+    static byte[] httpResponse(FetchedContent content) {
+        final byte[] body = content.content() == null
+                ? new byte[0] : content.content().getBytes(StandardCharsets.UTF_8);
+        final StringBuilder head = new StringBuilder(256)
+                .append("HTTP/1.1 ").append(content.statusCode()).append(' ')
+                .append(reasonPhrase(content.statusCode())).append("\r\n");
+        for (Map.Entry<String, List<String>> header : content.headerValues().entrySet()) {
+            final String name = header.getKey();
+            if (DROPPED_HEADERS.contains(name)) {
+                continue;
+            }
+            for (String value : header.getValue()) {
+                head.append(name).append(": ").append(name.equals("content-type") ? utf8ContentType(value) : value)
+                        .append("\r\n");
+            }
+        }
+        head.append("content-length: ").append(body.length).append("\r\n\r\n");
+        final byte[] headBytes = head.toString().getBytes(StandardCharsets.ISO_8859_1);
+        final byte[] message = new byte[headBytes.length + body.length];
+        System.arraycopy(headBytes, 0, message, 0, headBytes.length);
+        System.arraycopy(body, 0, message, headBytes.length, body.length);
+        return message;
+    }
+
+    private static String utf8ContentType(String contentType) {
+        return CHARSET_PARAM.matcher(contentType).replaceAll("") + "; charset=utf-8";
+    }
+
+    // The fetchers do not keep the server's reason phrase, so the standard one stands in for it
+    private static String reasonPhrase(int status) {
+        return switch (status) {
+            case 200 -> "OK";
+            case 201 -> "Created";
+            case 202 -> "Accepted";
+            case 203 -> "Non-Authoritative Information";
+            case 204 -> "No Content";
+            case 206 -> "Partial Content";
+            case 300 -> "Multiple Choices";
+            case 301 -> "Moved Permanently";
+            case 302 -> "Found";
+            case 303 -> "See Other";
+            case 304 -> "Not Modified";
+            case 307 -> "Temporary Redirect";
+            case 308 -> "Permanent Redirect";
+            case 400 -> "Bad Request";
+            case 401 -> "Unauthorized";
+            case 403 -> "Forbidden";
+            case 404 -> "Not Found";
+            case 405 -> "Method Not Allowed";
+            case 406 -> "Not Acceptable";
+            case 408 -> "Request Timeout";
+            case 410 -> "Gone";
+            case 429 -> "Too Many Requests";
+            case 500 -> "Internal Server Error";
+            case 501 -> "Not Implemented";
+            case 502 -> "Bad Gateway";
+            case 503 -> "Service Unavailable";
+            case 504 -> "Gateway Timeout";
+            default -> "";
+        };
+    }
+}
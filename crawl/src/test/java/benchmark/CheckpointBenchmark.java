@@ -0,0 +1,87 @@
+package benchmark;
+
+import org.ank.crawler.checkpoint.CheckpointJournal;
+import org.ank.crawler.checkpoint.CheckpointReader;
+import org.ank.crawler.checkpoint.FileCheckpointJournal;
+import org.ank.crawler.config.WebCrawlerConfig;
+import org.ank.crawler.frontier.SimpleFrontier;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+/**
+ * Measures checkpoint overhead and recovery time for a crawl state of N visited URLs
+ * (plus N/10 still pending). Run from the crawl directory:
+ * <pre>
+ * mvn test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test \
+ *     -Dexec.args="-Xmx3g -cp %classpath benchmark.CheckpointBenchmark 1000000"
+ * </pre>
+ */
+public class CheckpointBenchmark {
+
+    public static void main(String[] args) throws IOException {
+        final int visited = args.length == 0 ? 1_000_000 : Integer.parseInt(args[0]);
+        final int pending = visited / 10;
+        final Path directory = Files.createTempDirectory("checkpoint-benchmark");
+        try {
+            // warm up the record path once, then measure on a fresh directory
+            record(CheckpointJournal.NONE, visited, pending);
+            final long baselineNanos = record(CheckpointJournal.NONE, visited, pending);
+
+            final FileCheckpointJournal journal = new FileCheckpointJournal(directory, Duration.ofSeconds(1));
+            final long journalNanos = record(journal, visited, pending);
+            final long closeStart = System.nanoTime();
+            journal.close();
+            final long finalCheckpointNanos = System.nanoTime() - closeStart;
+
+            final long records = 2L * visited + pending;
+            System.out.printf(Locale.ROOT, "state: %d visited, %d pending, %d records%n", visited, pending, records);
+            System.out.printf(Locale.ROOT, "record overhead: %.1f ns/record (%.1f ns with checkpointing, %.1f without)%n",
+                    (journalNanos - baselineNanos) / (double) records, journalNanos / (double) records,
+                    baselineNanos / (double) records);
+            System.out.printf(Locale.ROOT, "final checkpoint: %.1f ms; %d delta files, %.1f MB on disk%n",
+                    finalCheckpointNanos / 1e6, fileCount(directory), bytes(directory) / (1024.0 * 1024.0));
+
+            final SimpleFrontier frontier = new SimpleFrontier(WebCrawlerConfig.builder("https://www.site0.example.com/").build());
+            final long replayStart = System.nanoTime();
+            final CheckpointReader.Recovery recovery = CheckpointReader.replay(directory, frontier::markVisited);
+            recovery.pending().forEach(frontier::schedule);
+            final long replayNanos = System.nanoTime() - replayStart;
+            System.out.printf(Locale.ROOT, "recovery: %.0f ms for %d visited and %d pending URIs%n",
+                    replayNanos / 1e6, recovery.visitedCount(), recovery.pending().size());
+        } finally {
+            try (Stream<Path> files = Files.walk(directory)) {
+                files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+            }
+        }
+    }
+
+    // Replays the journal calls a frontier makes: every page queued, then visited, plus a pending tail
+    private static long record(CheckpointJournal journal, int visited, int pending) {
+        final long start = System.nanoTime();
+        for (int i = 0; i < visited + pending; i++) {
+            journal.enqueued(VisitedSetMemoryBenchmark.url(i));
+            if (i < visited) {
+                journal.visited(VisitedSetMemoryBenchmark.url(i));
+            }
+        }
+        return System.nanoTime() - start;
+    }
+
+    private static long fileCount(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.count();
+        }
+    }
+
+    private static long bytes(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.mapToLong(path -> path.toFile().length()).sum();
+        }
+    }
+}
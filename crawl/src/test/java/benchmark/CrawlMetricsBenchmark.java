@@ -0,0 +1,63 @@
+package benchmark;
+
+import org.ank.crawler.metrics.CrawlMetrics;
+import org.ank.crawler.metrics.InMemoryCrawlMetrics;
+import org.ank.crawler.metrics.LatencyHistogram;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * What recording one fetch costs on the hot path: {@code fetchStarted} plus {@code fetched} on
+ * {@link InMemoryCrawlMetrics} (histogram, counters, status array and the per-host lookup), against
+ * {@link CrawlMetrics#NONE}. {@code histogramOnly} isolates the {@link LatencyHistogram} part. The per-host lookup
+ * allocates the host name, which {@code gc.alloc.rate.norm} shows with {@code -prof gc}. Run it with
+ * {@code -t 4} to see the cost when threads record at once.
+ * <p>
+ * Run from the crawl directory:
+ * <pre>
+ * mvn test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test \
+ *     -Dexec.args="-cp %classpath org.openjdk.jmh.Main CrawlMetricsBenchmark -prof gc"
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CrawlMetricsBenchmark {
+
+    private static final String[] URIS = {
+            "https://www.teya.com/products/card-terminals",
+            "https://portal.teya.com/login",
+            "https://help.teya.com/docs/getting-started/accounts#security",
+            "https://www.teya.com/",
+    };
+    private static final int[] STATUSES = {200, 200, 404, 301};
+
+    private final CrawlMetrics recording = new InMemoryCrawlMetrics();
+    private final LatencyHistogram histogram = new LatencyHistogram();
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next;
+    }
+
+    @Benchmark
+    public void recordFetch(Cursor cursor) {
+        final int i = cursor.next++ & (URIS.length - 1);
+        recording.fetched(URIS[i], STATUSES[i], 20_000, recording.fetchStarted());
+    }
+
+    @Benchmark
+    public void disabled(Cursor cursor) {
+        final int i = cursor.next++ & (URIS.length - 1);
+        CrawlMetrics.NONE.fetched(URIS[i], STATUSES[i], 20_000, CrawlMetrics.NONE.fetchStarted());
+    }
+
+    @Benchmark
+    public void histogramOnly(Cursor cursor) {
+        histogram.record(1_000_000L + (cursor.next++ & 0xFFFF) * 997);
+    }
+}
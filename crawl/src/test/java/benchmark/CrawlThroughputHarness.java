@@ -0,0 +1,134 @@
+package benchmark;
+
+import org.ank.crawler.config.ExecutionMode;
+import org.ank.crawler.config.MetricsConfig;
+import org.ank.crawler.config.RetryConfig;
+import org.ank.crawler.config.WebCrawlerConfig;
+import org.ank.crawler.controller.CrawlController;
+import org.ank.crawler.factory.WebCrawlerFactory;
+import org.ank.crawler.fetcher.HttpClientHtmlFetcher;
+import org.ank.crawler.frontier.SimpleFrontier;
+import org.ank.crawler.metrics.LatencyHistogram;
+import org.ank.crawler.metrics.MetricsSnapshot;
+import org.ank.crawler.processor.LinkExtractorProcessor;
+import org.ank.crawler.scope.Scope;
+import server.SyntheticSiteServer;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.function.UnaryOperator;
+
+/**
+ * End-to-end crawl throughput: runs {@link CrawlController} with a {@link SimpleFrontier} against a
+ * {@link SyntheticSiteServer} and reports pages per second, fetch latency percentiles, peak heap and how much of
+ * the known site graph was crawled. Run from the crawl directory:
+ * <pre>
+ * mvn test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test \
+ *     -Dexec.args="-Xmx1g -cp %classpath benchmark.CrawlThroughputHarness 10000 8 20000 5 0.01 32 PLATFORM_THREADS"
+ * </pre>
+ * The arguments are page count, fan-out, page bytes, mean latency in ms, error rate, thread count and execution
+ * mode; each has a default.
+ */
+public class CrawlThroughputHarness {
+
+    /**
+     * What one crawl of the synthetic site achieved.
+     *
+     * @param pages          Pages in the site graph.
+     * @param visited        Pages of the site graph the frontier reports visited.
+     * @param served         Pages of the site graph the server answered 200 at least once.
+     * @param duplicates     Pages fetched successfully more than once.
+     * @param requests       Requests the server received, retries included.
+     * @param errors         Requests answered with a simulated 503.
+     * @param elapsed        Wall-clock time of the crawl.
+     * @param fetchLatency   Fetch latency as measured by the crawler.
+     * @param peakHeapBytes  Sum of the peak usage of the heap memory pools during the crawl.
+     */
+    public record Report(int pages, int visited, int served, int duplicates, int requests, int errors,
+                         Duration elapsed, LatencyHistogram.Summary fetchLatency, long peakHeapBytes) {
+
+        public double pagesPerSecond() {
+            final long nanos = elapsed.toNanos();
+            return nanos <= 0 ? 0 : served * 1e9 / nanos;
+        }
+
+        /**
+         * @return Fraction of the site's pages that were served successfully to the crawler.
+         */
+        public double completeness() {
+            return served / (double) pages;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT,
+                    "%d/%d pages (%.2f%% complete, %d visited, %d fetched twice) in %.2f s: %.1f pages/s; "
+                            + "%d requests, %d errors; fetch p50 %.2f ms, p99 %.2f ms; peak heap %.1f MB",
+                    served, pages, completeness() * 100, visited, duplicates, elapsed.toNanos() / 1e9,
+                    pagesPerSecond(), requests, errors, fetchLatency.p50Nanos() / 1e6, fetchLatency.p99Nanos() / 1e6,
+                    peakHeapBytes / (1024.0 * 1024.0));
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        final SyntheticSiteServer.Site site = new SyntheticSiteServer.Site(
+                intArg(args, 0, 10_000), intArg(args, 1, 8), intArg(args, 2, 20_000),
+                Duration.ofMillis(intArg(args, 3, 5)), args.length > 4 ? Double.parseDouble(args[4]) : 0.01, 1);
+        final int threadCount = intArg(args, 5, 32);
+        final ExecutionMode mode = args.length > 6 ? ExecutionMode.valueOf(args[6]) : ExecutionMode.PLATFORM_THREADS;
+
+        System.out.println(site + ", " + threadCount + " threads, " + mode);
+        System.out.println(run(site, builder -> builder.threadCount(threadCount).executionMode(mode)));
+    }
+
+    /**
+     * Crawls a freshly started synthetic site from its root and measures the crawl.
+     * <p>
+     * The crawl uses an {@link HttpClientHtmlFetcher}, a {@link LinkExtractorProcessor} and the site's origin as
+     * scope. Metrics are always recorded; retries back off for 10 to 100 ms unless {@code settings} says otherwise.
+     *
+     * @param site     The site to generate and serve.
+     * @param settings Applies the crawl settings under test, e.g. thread count, execution mode, dedupe.
+     */
+    public static Report run(SyntheticSiteServer.Site site, UnaryOperator<WebCrawlerConfig.Builder> settings)
+            throws IOException {
+        try (SyntheticSiteServer server = new SyntheticSiteServer(site)) {
+            final String seedUrl = server.pageUrl(0);
+            final String origin = server.baseUrl() + "/";
+            final Scope scope = uri -> uri.startsWith(origin);
+            final WebCrawlerConfig.Builder builder = WebCrawlerConfig.builder(seedUrl)
+                    .retry(new RetryConfig(5, Duration.ofMillis(10), Duration.ofMillis(100)));
+            final WebCrawlerConfig config = settings.apply(builder).metrics(MetricsConfig.RECORDING).build();
+            final SimpleFrontier frontier = new SimpleFrontier(config, new HttpClientHtmlFetcher());
+            final CrawlController controller =
+                    new WebCrawlerFactory(scope, List.of(new LinkExtractorProcessor()), frontier).createController();
+
+            final List<MemoryPoolMXBean> heapPools = ManagementFactory.getMemoryPoolMXBeans().stream()
+                    .filter(pool -> pool.getType() == MemoryType.HEAP && pool.isValid())
+                    .toList();
+            System.gc();
+            heapPools.forEach(MemoryPoolMXBean::resetPeakUsage);
+            final long startNanos = System.nanoTime();
+            controller.beginCrawl(seedUrl);
+            final Duration elapsed = Duration.ofNanos(System.nanoTime() - startNanos);
+            final long peakHeap = heapPools.stream().mapToLong(pool -> pool.getPeakUsage().getUsed()).sum();
+
+            final Set<String> visited = new HashSet<>(controller.getVisitedUris());
+            visited.retainAll(server.expectedUrls());
+            final MetricsSnapshot metrics = frontier.metrics();
+            return new Report(site.pageCount(), visited.size(), server.pagesServed(), server.duplicateFetches(),
+                    server.requestCount(), server.errorCount(), elapsed, metrics.fetchLatency(), peakHeap);
+        }
+    }
+
+    private static int intArg(String[] args, int index, int defaultValue) {
+        return args.length > index ? Integer.parseInt(args[index]) : defaultValue;
+    }
+}
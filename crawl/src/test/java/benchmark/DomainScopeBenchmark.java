@@ -0,0 +1,75 @@
+package benchmark;
+
+import org.ank.crawler.scope.DomainScope;
+import org.openjdk.jmh.annotations.*;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link DomainScope} with the check it replaced, which parsed a {@link URI}, lower-cased the host,
+ * split it with a regex and joined the last two labels for every discovered link. The links are a mix of
+ * in-scope subdomains, other sites and multi-level public suffixes. With {@code -prof gc},
+ * {@code gc.alloc.rate.norm} of {@code publicSuffixTrie} should be (close to) zero.
+ * <p>
+ * Run from the crawl directory:
+ * <pre>
+ * mvn test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test \
+ *     -Dexec.args="-cp %classpath org.openjdk.jmh.Main DomainScopeBenchmark -prof gc"
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DomainScopeBenchmark {
+
+    private static final String DOMAIN = "teya.com";
+    private static final String[] URIS = {
+            "https://www.teya.com/products/card-terminals?utm_source=newsletter",
+            "https://portal.teya.com/login",
+            "https://help.teya.com/docs/getting-started/accounts#security",
+            "https://www.google.com/search?q=teya+payments",
+            "https://www.bbc.co.uk/news/business-12345678",
+            "https://shop.example.com.au/checkout/step-2",
+            "http://192.168.1.1/admin",
+            "https://cdn.jsdelivr.net/npm/some-package@1.2.3/dist/index.min.js",
+    };
+
+    private final DomainScope scope = new DomainScope(DOMAIN);
+    private int next;
+
+    @Benchmark
+    public boolean publicSuffixTrie() {
+        return scope.isInScope(URIS[next++ & (URIS.length - 1)]);
+    }
+
+    @Benchmark
+    public boolean urlAndRegexSplit() {
+        return legacyIsInScope(URIS[next++ & (URIS.length - 1)]);
+    }
+
+    /**
+     * The former {@code DomainScope.isInScope}, kept here as the baseline, with {@link URI} standing in for the
+     * deprecated {@code new URL(String)} it called.
+     */
+    private static boolean legacyIsInScope(String uri) {
+        if (uri == null || uri.isBlank()) return false;
+        if (!uri.startsWith("http://") && !uri.startsWith("https://")) return false;
+        try {
+            final String parsedHost = new URI(uri).getHost();
+            if (parsedHost == null) return false;
+            final String host = parsedHost.toLowerCase();
+            final String[] parts = host.split("\\.");
+            final String baseDomain = parts.length > 2 && !Character.isDigit(parts[0].charAt(0))
+                    ? String.join(".", parts[parts.length - 2], parts[parts.length - 1])
+                    : host;
+            return DOMAIN.equals(baseDomain);
+        } catch (URISyntaxException e) {
+            return false;
+        }
+    }
+}
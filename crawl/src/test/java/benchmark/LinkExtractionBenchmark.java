@@ -0,0 +1,52 @@
+package benchmark;
+
+import org.ank.crawler.fetcher.FetchedContent;
+import org.ank.crawler.processor.LinkExtractorProcessor;
+import org.ank.crawler.processor.StreamingLinkExtractorProcessor;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the JSoup DOM-based {@link LinkExtractorProcessor} with the single-pass
+ * {@link StreamingLinkExtractorProcessor} on pages of realistic sizes.
+ * <p>
+ * Run from the crawl directory:
+ * <pre>
+ * mvn test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test \
+ *     -Dexec.args="-cp %classpath org.openjdk.jmh.Main LinkExtractionBenchmark -prof gc"
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LinkExtractionBenchmark {
+
+    private static final String SOURCE_URI = "https://www.example.com/section/page.html";
+
+    @Param({"20000", "200000", "1000000"})
+    private int pageSize;
+
+    private FetchedContent page;
+    private final LinkExtractorProcessor jsoupExtractor = new LinkExtractorProcessor();
+    private final StreamingLinkExtractorProcessor streamingExtractor = new StreamingLinkExtractorProcessor();
+
+    @Setup
+    public void setUp() {
+        page = new FetchedContent(200, SyntheticPages.page(pageSize, 42));
+    }
+
+    @Benchmark
+    public Set<String> jsoupDom() {
+        return jsoupExtractor.process(page, SOURCE_URI);
+    }
+
+    @Benchmark
+    public Set<String> streaming() {
+        return streamingExtractor.process(page, SOURCE_URI);
+    }
+}
@@ -0,0 +1,60 @@
+package benchmark;
+
+import org.ank.crawler.fetcher.FetchedContent;
+import org.ank.crawler.processor.PageContext;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of a chain of three processors (links, title, text) that each parse the page themselves, against the same
+ * chain sharing one {@link PageContext}.
+ * <p>
+ * Run from the crawl directory:
+ * <pre>
+ * mvn test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test \
+ *     -Dexec.args="-cp %classpath org.openjdk.jmh.Main ProcessorChainBenchmark -prof gc"
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ProcessorChainBenchmark {
+
+    private static final String SOURCE_URI = "https://www.example.com/section/page.html";
+
+    @Param({"20000", "200000"})
+    private int pageSize;
+
+    private FetchedContent page;
+
+    @Setup
+    public void setUp() {
+        page = new FetchedContent(200, SyntheticPages.page(pageSize, 42));
+    }
+
+    @Benchmark
+    public void parseInEachProcessor(Blackhole blackhole) {
+        final Document forLinks = Jsoup.parse(page.content(), SOURCE_URI);
+        blackhole.consume(forLinks.select("a[href]").eachAttr("abs:href"));
+        final Document forTitle = Jsoup.parse(page.content(), SOURCE_URI);
+        blackhole.consume(forTitle.title());
+        final Document forText = Jsoup.parse(page.content(), SOURCE_URI);
+        blackhole.consume(forText.text());
+    }
+
+    @Benchmark
+    public void sharedPageContext(Blackhole blackhole) {
+        final PageContext context = new PageContext(page, SOURCE_URI);
+        blackhole.consume(context.links());
+        blackhole.consume(context.title());
+        blackhole.consume(context.text());
+        context.release();
+    }
+}
@@ -0,0 +1,68 @@
+package benchmark;
+
+import org.ank.crawler.fetcher.FetchedContent;
+import org.ank.crawler.robots.RobotsScope;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures a {@link RobotsScope} check for a host whose robots.txt is already cached, which runs for every
+ * discovered link. With {@code -prof gc}, {@code gc.alloc.rate.norm} should be (close to) zero.
+ * <p>
+ * Run from the crawl directory:
+ * <pre>
+ * mvn test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test \
+ *     -Dexec.args="-cp %classpath org.openjdk.jmh.Main RobotsCheckBenchmark -prof gc"
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RobotsCheckBenchmark {
+
+    private static final int HOSTS = 1_000;
+    private static final String ROBOTS_TXT = """
+            User-agent: *
+            Disallow: /admin/
+            Disallow: /cart
+            Disallow: /checkout
+            Disallow: /*?sessionid=
+            Disallow: /*.pdf$
+            Disallow: /search
+            Allow: /search/help
+            Disallow: /tmp/
+            Disallow: /private*/drafts
+            Disallow: /print/
+            Allow: /print/index.html
+            Crawl-delay: 1
+            """;
+
+    private RobotsScope scope;
+    private String[] uris;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        scope = new RobotsScope(uri -> true, uri -> new FetchedContent(200, ROBOTS_TXT));
+        uris = new String[HOSTS * 4];
+        for (int host = 0; host < HOSTS; host++) {
+            final String origin = "https://www.host" + host + ".example.com";
+            uris[host * 4] = origin + "/products/category/item-" + host + ".html";
+            uris[host * 4 + 1] = origin + "/search/help/faq?lang=en";
+            uris[host * 4 + 2] = origin + "/private-area/team/drafts/plan.pdf";
+            uris[host * 4 + 3] = origin + "/blog/2024/05/a-fairly-long-article-slug-with-words#comments";
+            scope.isInScope(uris[host * 4]); // load the host's rules
+        }
+    }
+
+    @Benchmark
+    public boolean cachedCheck() {
+        final String uri = uris[next];
+        next = next + 1 == uris.length ? 0 : next + 1;
+        return scope.isInScope(uri);
+    }
+}
@@ -0,0 +1,116 @@
+package benchmark;
+
+import org.ank.crawler.scope.RuleScope;
+import org.openjdk.jmh.annotations.*;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Cost of a scope check as the number of rules grows: the compiled {@link RuleScope} against checking the same
+ * rules one after another. Each rule count has as many domains, excluded path prefixes and excluded substrings,
+ * plus two regexes.
+ * <p>
+ * Run from the crawl directory:
+ * <pre>
+ * mvn test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test \
+ *     -Dexec.args="-cp %classpath org.openjdk.jmh.Main RuleScopeBenchmark -prof gc"
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RuleScopeBenchmark {
+
+    private static final String[] REGEXES = {"/\\d{4}/\\d{2}/\\d{2}/", "[?&]page=\\d{3,}"};
+
+    @Param({"10", "100", "1000", "5000"})
+    private int rulesPerKind;
+
+    private RuleScope compiled;
+    private List<String> domains;
+    private List<String> excludedPaths;
+    private List<String> excludedSubstrings;
+    private List<Pattern> regexes;
+    private String[] uris;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        final List<String> rules = new ArrayList<>();
+        domains = new ArrayList<>();
+        excludedPaths = new ArrayList<>();
+        excludedSubstrings = new ArrayList<>();
+        for (int i = 0; i < rulesPerKind; i++) {
+            domains.add("site" + i + ".com");
+            excludedPaths.add("/section" + i + "/");
+            excludedSubstrings.add("facet" + i + "=");
+            rules.add("domain site" + i + ".com");
+            rules.add("exclude /section" + i + "/");
+            rules.add("exclude-contains facet" + i + "=");
+        }
+        regexes = new ArrayList<>();
+        for (String regex : REGEXES) {
+            rules.add("exclude-regex " + regex);
+            regexes.add(Pattern.compile(regex));
+        }
+        compiled = RuleScope.parse(rules);
+
+        final int last = rulesPerKind - 1;
+        uris = new String[]{
+                "https://www.site" + last + ".com/products/item-42?colour=red",
+                "https://www.site" + last / 2 + ".com/section" + last + "/page",
+                "https://shop.site0.com/list?facet" + last + "=blue&sort=price",
+                "https://www.elsewhere.org/about",
+                "https://blog.site" + last + ".com/2024/05/17/a-long-article-slug",
+                "https://www.site1.com/search?q=terminals&page=2",
+                "https://docs.site" + last + ".com/guides/getting-started/install",
+                "https://site" + last / 3 + ".com/",
+        };
+    }
+
+    @Benchmark
+    public boolean compiledRules() {
+        return compiled.isInScope(uris[next++ & (uris.length - 1)]);
+    }
+
+    @Benchmark
+    public boolean ruleByRule() {
+        final String uri = uris[next++ & (uris.length - 1)];
+        final URI parsed = URI.create(uri);
+        final String host = parsed.getHost();
+        final String path = parsed.getRawPath();
+        boolean allowed = false;
+        for (String domain : domains) {
+            if (host.equals(domain) || host.endsWith("." + domain)) {
+                allowed = true;
+                break;
+            }
+        }
+        if (!allowed) {
+            return false;
+        }
+        for (String prefix : excludedPaths) {
+            if (path.startsWith(prefix)) {
+                return false;
+            }
+        }
+        for (String text : excludedSubstrings) {
+            if (uri.contains(text)) {
+                return false;
+            }
+        }
+        for (Pattern regex : regexes) {
+            if (regex.matcher(uri).find()) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,69 @@
+package benchmark;
+
+import java.util.Random;
+
+/**
+ * Generates HTML pages that look like real content pages (head with scripts and styles,
+ * navigation, paragraphs of text with inline links, a footer), for benchmarks and equivalence tests.
+ */
+public final class SyntheticPages {
+
+    private static final String[] WORDS = {"crawler", "payments", "merchant", "card", "terminal", "support",
+            "business", "account", "pricing", "about", "careers", "press", "terms", "privacy", "help", "news"};
+
+    private SyntheticPages() {
+    }
+
+    /**
+     * @param approximateSize Target size of the page in characters.
+     * @param seed            Seed for the pseudo-random content, so pages are reproducible.
+     */
+    public static String page(int approximateSize, long seed) {
+        final Random random = new Random(seed);
+        final StringBuilder html = new StringBuilder(approximateSize + 1024);
+        html.append("<!DOCTYPE html>\n<html lang=\"en\">\n<head>\n<meta charset=\"utf-8\">\n")
+                .append("<title>Synthetic page ").append(seed).append("</title>\n")
+                .append("<link rel=\"stylesheet\" href=\"/assets/site.css\">\n")
+                .append("<script>window.dataLayer = [];function track(e){dataLayer.push('<a href=\"/x\">'+e);}</script>\n")
+                .append("<style>.nav a { color: #333; } .hero { background: url(\"/img/hero.png\"); }</style>\n")
+                .append("</head>\n<body>\n<nav class=\"top\">\n");
+        for (int i = 0; i < 12; i++) {
+            html.append("  <a class=\"nav-link\" href=\"/").append(word(random)).append("\">")
+                    .append(word(random)).append("</a>\n");
+        }
+        html.append("</nav>\n<main>\n");
+
+        int paragraph = 0;
+        while (html.length() < approximateSize) {
+            html.append("<section id=\"s").append(paragraph).append("\">\n<h2>").append(word(random)).append("</h2>\n<p>");
+            for (int w = 0; w < 60; w++) {
+                if (random.nextInt(12) == 0) {
+                    appendLink(html, random, paragraph, w);
+                } else {
+                    html.append(word(random)).append(' ');
+                }
+            }
+            html.append("</p>\n<!-- section ").append(paragraph).append(" end -->\n</section>\n");
+            paragraph++;
+        }
+
+        html.append("</main>\n<footer>\n<a href=\"https://www.example.com/terms\">Terms</a>\n")
+                .append("<a href=\"mailto:hello@example.com\">Contact</a>\n</footer>\n</body>\n</html>\n");
+        return html.toString();
+    }
+
+    private static void appendLink(StringBuilder html, Random random, int paragraph, int word) {
+        switch (random.nextInt(4)) {
+            case 0 -> html.append("<a href=\"/").append(word(random)).append('/').append(paragraph).append("\">");
+            case 1 -> html.append("<a class=\"inline\" href=\"https://www.example.com/").append(word(random))
+                    .append("?ref=").append(word).append("&amp;p=").append(paragraph).append("\">");
+            case 2 -> html.append("<a href='../").append(word(random)).append(".html' title=\"more\">");
+            default -> html.append("<a href=\"#s").append(paragraph).append("\">");
+        }
+        html.append(word(random)).append("</a> ");
+    }
+
+    private static String word(Random random) {
+        return WORDS[random.nextInt(WORDS.length)];
+    }
+}
@@ -0,0 +1,61 @@
+package benchmark;
+
+import org.ank.crawler.queue.InMemoryUriQueue;
+import org.ank.crawler.queue.SpillingUriQueue;
+import org.ank.crawler.queue.UriQueue;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.function.Supplier;
+
+/**
+ * Measures the heap retained by a backlog of N queued URIs: {@link InMemoryUriQueue} versus
+ * {@link SpillingUriQueue} with the default 10,000-URI hot head and 64 MB segments.
+ * Run from the crawl directory:
+ * <pre>
+ * mvn test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test \
+ *     -Dexec.args="-Xmx3g -cp %classpath benchmark.UriQueueMemoryBenchmark 1000000 5000000"
+ * </pre>
+ */
+public class UriQueueMemoryBenchmark {
+
+    private static final MemoryMXBean MEMORY = ManagementFactory.getMemoryMXBean();
+
+    public static void main(String[] args) throws IOException {
+        final long[] sizes = args.length == 0 ? new long[]{1_000_000, 5_000_000} : new long[args.length];
+        for (int i = 0; i < args.length; i++) {
+            sizes[i] = Long.parseLong(args[i]);
+        }
+        final Path spillDirectory = Files.createTempDirectory("uri-queue-benchmark");
+
+        System.out.printf("%-20s %12s %14s %12s%n", "queue", "backlog", "retained MB", "bytes/uri");
+        for (long size : sizes) {
+            measure("InMemoryUriQueue", size, InMemoryUriQueue::new);
+            measure("SpillingUriQueue", size, () -> new SpillingUriQueue(spillDirectory, 10_000, 64 * 1024 * 1024));
+        }
+        Files.deleteIfExists(spillDirectory);
+    }
+
+    private static void measure(String name, long size, Supplier<UriQueue> factory) {
+        final long before = usedHeapAfterGc();
+        try (UriQueue queue = factory.get()) {
+            for (long i = 0; i < size; i++) {
+                queue.offer(VisitedSetMemoryBenchmark.url(i), 1);
+            }
+            final long retained = usedHeapAfterGc() - before;
+            System.out.printf(Locale.ROOT, "%-20s %12d %14.1f %12.1f%n",
+                    name, queue.size(), retained / (1024.0 * 1024.0), retained / (double) size);
+        }
+    }
+
+    private static long usedHeapAfterGc() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return MEMORY.getHeapMemoryUsage().getUsed();
+    }
+}
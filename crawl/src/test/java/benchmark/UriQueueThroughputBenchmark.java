@@ -0,0 +1,98 @@
+package benchmark;
+
+import org.ank.crawler.queue.InMemoryUriQueue;
+import org.ank.crawler.queue.QueuedUri;
+import org.ank.crawler.queue.SpillingUriQueue;
+import org.ank.crawler.queue.UriQueue;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Queue throughput with producers and consumers running at once: one of each, then four of each. Each consumer
+ * polls without waiting, so when it runs ahead of the producers some of its polls find the queue empty and are
+ * cheap; compare the offer rates first. The spilling queue keeps the default 10,000-URI hot head, so a backlog
+ * that builds up goes through its segment files.
+ * <p>
+ * Run from the crawl directory:
+ * <pre>
+ * mvn test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test \
+ *     -Dexec.args="-cp %classpath org.openjdk.jmh.Main UriQueueThroughputBenchmark -prof gc"
+ * </pre>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Group)
+public class UriQueueThroughputBenchmark {
+
+    private static final String[] URIS = new String[1024];
+
+    static {
+        for (int i = 0; i < URIS.length; i++) {
+            URIS[i] = "https://www.example.com/catalogue/item?id=" + i;
+        }
+    }
+
+    @Param({"inMemory", "spilling"})
+    private String queueType;
+
+    private UriQueue queue;
+    private Path spillDirectory;
+
+    @Setup(Level.Iteration)
+    public void setUp() throws IOException {
+        if (queueType.equals("spilling")) {
+            spillDirectory = Files.createTempDirectory("uri-queue-throughput");
+            queue = new SpillingUriQueue(spillDirectory, 10_000, 64 * 1024 * 1024);
+        } else {
+            queue = new InMemoryUriQueue();
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() throws IOException {
+        queue.close();
+        if (spillDirectory != null) {
+            Files.deleteIfExists(spillDirectory);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next;
+    }
+
+    @Benchmark
+    @Group("onePair")
+    @GroupThreads(1)
+    public boolean offer1(Cursor cursor) {
+        return queue.offer(URIS[cursor.next++ & (URIS.length - 1)], 1);
+    }
+
+    @Benchmark
+    @Group("onePair")
+    @GroupThreads(1)
+    public QueuedUri poll1() throws InterruptedException {
+        return queue.poll(0, TimeUnit.NANOSECONDS);
+    }
+
+    @Benchmark
+    @Group("fourPairs")
+    @GroupThreads(4)
+    public boolean offer4(Cursor cursor) {
+        return queue.offer(URIS[cursor.next++ & (URIS.length - 1)], 1);
+    }
+
+    @Benchmark
+    @Group("fourPairs")
+    @GroupThreads(4)
+    public QueuedUri poll4() throws InterruptedException {
+        return queue.poll(0, TimeUnit.NANOSECONDS);
+    }
+}
@@ -0,0 +1,96 @@
+package benchmark;
+
+import org.ank.crawler.config.DedupeConfig;
+import org.ank.crawler.config.VisitedSetMode;
+import org.ank.crawler.dedupe.VisitedSet;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Visited-set cost as the frontier sees it, on one thread and with four threads at once: {@code contains} of URLs
+ * already visited (every discovered link is checked), and {@code add} of new URLs (every fetched page is added).
+ * The set is rebuilt with {@value #PREFILLED} URLs before every iteration. Fresh URLs are built per call, which is
+ * most of what {@code add} allocates.
+ * <p>
+ * Run from the crawl directory:
+ * <pre>
+ * mvn test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test \
+ *     -Dexec.args="-cp %classpath org.openjdk.jmh.Main VisitedSetContentionBenchmark -prof gc"
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@State(Scope.Benchmark)
+public class VisitedSetContentionBenchmark {
+
+    private static final int PREFILLED = 1 << 16;
+    private static final String PREFIX = "https://www.example.com/catalogue/item?id=";
+
+    @Param({"EXACT", "FINGERPRINT", "BLOOM"})
+    private VisitedSetMode mode;
+
+    private VisitedSet visited;
+    private String[] known;
+    private final AtomicInteger threads = new AtomicInteger();
+
+    @Setup
+    public void setUp() {
+        known = new String[PREFILLED];
+        for (int i = 0; i < PREFILLED; i++) {
+            known[i] = PREFIX + i;
+        }
+    }
+
+    // A fresh set per iteration, so the adds of a long run do not pile up until the heap runs out
+    @Setup(Level.Iteration)
+    public void fillVisited() {
+        visited = VisitedSet.create(switch (mode) {
+            case EXACT -> DedupeConfig.EXACT;
+            case FINGERPRINT -> DedupeConfig.fingerprint(4_000_000, null);
+            case BLOOM -> DedupeConfig.bloom(4_000_000, 0.01, null);
+        });
+        for (String uri : known) {
+            visited.add(uri);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        String freshPrefix;
+        int next;
+
+        @Setup
+        public void setUp(VisitedSetContentionBenchmark benchmark) {
+            freshPrefix = PREFIX + "t" + benchmark.threads.incrementAndGet() + "-";
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public boolean contains1Thread(Cursor cursor) {
+        return visited.contains(known[cursor.next++ & (PREFILLED - 1)]);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public boolean contains4Threads(Cursor cursor) {
+        return visited.contains(known[cursor.next++ & (PREFILLED - 1)]);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public boolean add1Thread(Cursor cursor) {
+        return visited.add(cursor.freshPrefix + cursor.next++);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public boolean add4Threads(Cursor cursor) {
+        return visited.add(cursor.freshPrefix + cursor.next++);
+    }
+}
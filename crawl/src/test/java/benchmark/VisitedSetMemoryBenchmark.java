@@ -0,0 +1,80 @@
+package benchmark;
+
+import org.ank.crawler.dedupe.BloomVisitedSet;
+import org.ank.crawler.dedupe.FingerprintVisitedSet;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Measures the heap retained by the visited set after adding N distinct URLs:
+ * the {@code ConcurrentHashMap.newKeySet()} of URL strings versus {@link FingerprintVisitedSet}
+ * and {@link BloomVisitedSet}.
+ * <p>
+ * Retained size is not something JMH measures, so this is a plain main that compares used heap
+ * after a full GC before and after filling each set. Run from the crawl directory:
+ * <pre>
+ * mvn test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test \
+ *     -Dexec.args="-Xmx3g -cp %classpath benchmark.VisitedSetMemoryBenchmark 1000000 10000000"
+ * </pre>
+ */
+public class VisitedSetMemoryBenchmark {
+
+    private static final MemoryMXBean MEMORY = ManagementFactory.getMemoryMXBean();
+
+    public static void main(String[] args) {
+        final long[] sizes = args.length == 0 ? new long[]{1_000_000, 10_000_000} : new long[args.length];
+        for (int i = 0; i < args.length; i++) {
+            sizes[i] = Long.parseLong(args[i]);
+        }
+
+        System.out.printf("%-24s %12s %14s %12s%n", "set", "urls", "retained MB", "bytes/url");
+        for (long size : sizes) {
+            measure("ConcurrentHashMap keySet", size, ConcurrentHashMap::newKeySet, Set::add);
+            measure("FingerprintVisitedSet", size, () -> new FingerprintVisitedSet(size, null),
+                    FingerprintVisitedSet::add);
+            measure("BloomVisitedSet (1%)", size, () -> new BloomVisitedSet(size, 0.01, null), BloomVisitedSet::add);
+        }
+    }
+
+    private static <T> void measure(String name, long size, Supplier<T> factory, UrlAdder<T> adder) {
+        final long before = usedHeapAfterGc();
+        final T set = factory.get();
+        for (long i = 0; i < size; i++) {
+            adder.add(set, url(i));
+        }
+        final long after = usedHeapAfterGc();
+        final long retained = after - before;
+        System.out.printf(Locale.ROOT, "%-24s %12d %14.1f %12.1f%n",
+                name, size, retained / (1024.0 * 1024.0), retained / (double) size);
+        blackhole(set);
+    }
+
+    // Realistic-looking, distinct URLs of around 60-70 characters
+    static String url(long i) {
+        return "https://www.site" + (i % 5_000) + ".example.com/section/" + (i / 5_000) + "/article-" + i + ".html";
+    }
+
+    private static long usedHeapAfterGc() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return MEMORY.getHeapMemoryUsage().getUsed();
+    }
+
+    private static volatile Object sink;
+
+    private static void blackhole(Object value) {
+        sink = value;
+        sink = null;
+    }
+
+    @FunctionalInterface
+    private interface UrlAdder<T> {
+        void add(T set, String url);
+    }
+}
@@ -0,0 +1,78 @@
+package org.ank.crawler.cache;
+
+import org.ank.crawler.fetcher.Validators;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link FileValidatorStore}.
+ */
+class FileValidatorStoreTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void close_shouldPersistPagesForTheNextCrawl() {
+        final Path file = directory.resolve("validators.bin");
+        final CachedPage withEtag = CachedPage.of(new Validators("\"abc\"", null),
+                List.of("https://example.com/a", "https://example.com/b"));
+        final CachedPage withDate = CachedPage.of(new Validators(null, "Wed, 21 Oct 2015 07:28:00 GMT"), List.of());
+
+        try (FileValidatorStore store = new FileValidatorStore(file)) {
+            store.put("https://example.com/", withEtag);
+            store.put("https://example.com/about", withDate);
+        }
+
+        try (FileValidatorStore reopened = new FileValidatorStore(file)) {
+            assertEquals(2, reopened.size());
+            assertEquals(withEtag, reopened.get("https://example.com/"));
+            assertEquals(withDate, reopened.get("https://example.com/about"));
+            assertNull(reopened.get("https://example.com/never-fetched"));
+        }
+    }
+
+    @Test
+    void close_shouldNotRewriteAnUnchangedStore() throws IOException {
+        final Path file = directory.resolve("validators.bin");
+        final CachedPage page = CachedPage.of(new Validators("\"abc\"", null), List.of("https://example.com/a"));
+        try (FileValidatorStore store = new FileValidatorStore(file)) {
+            store.put("https://example.com/", page);
+        }
+        final FileTime written = FileTime.fromMillis(0);
+        Files.setLastModifiedTime(file, written);
+
+        try (FileValidatorStore store = new FileValidatorStore(file)) {
+            store.put("https://example.com/", CachedPage.of(new Validators("\"abc\"", null),
+                    List.of("https://example.com/a")));
+        }
+        assertEquals(written, Files.getLastModifiedTime(file), "Storing the same page again is not a change");
+
+        try (FileValidatorStore store = new FileValidatorStore(file)) {
+            store.put("https://example.com/", CachedPage.of(new Validators("\"def\"", null), page.outlinks()));
+        }
+        assertNotEquals(written, Files.getLastModifiedTime(file), "A new ETag is");
+    }
+
+    @Test
+    void constructor_shouldRejectAFileThatIsNotAStore() throws IOException {
+        final Path file = Files.writeString(directory.resolve("validators.bin"), "not a store");
+
+        assertThrows(UncheckedIOException.class, () -> new FileValidatorStore(file));
+    }
+
+    @Test
+    void outlinkHash_shouldNotDependOnOrder() {
+        assertEquals(CachedPage.hash(List.of("a", "b", "c")), CachedPage.hash(List.of("c", "a", "b")));
+        assertNotEquals(CachedPage.hash(List.of("a", "b")), CachedPage.hash(List.of("a", "c")));
+    }
+}
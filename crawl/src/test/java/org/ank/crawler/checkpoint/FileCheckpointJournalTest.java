@@ -0,0 +1,143 @@
+package org.ank.crawler.checkpoint;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests {@link FileCheckpointJournal} together with {@link CheckpointReader}: round trips, incremental deltas,
+ * background checkpoints and damaged files.
+ */
+class FileCheckpointJournalTest {
+
+    private static final Duration NEVER = Duration.ofHours(1);
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void replay_shouldRecoverVisitedAndPendingUris() {
+        try (FileCheckpointJournal journal = new FileCheckpointJournal(tempDir, NEVER)) {
+            journal.enqueued("https://example.com/");
+            journal.enqueued("https://example.com/a");
+            journal.enqueued("https://example.com/b");
+            journal.visited("https://example.com/");
+            journal.enqueued("https://example.com/c");
+            journal.visited("https://example.com/b");
+            // re-queued after being visited, e.g. by a racing discovery: must not come back as pending
+            journal.enqueued("https://example.com/");
+        }
+
+        final List<String> visited = new ArrayList<>();
+        final CheckpointReader.Recovery recovery = CheckpointReader.replay(tempDir, visited::add);
+
+        assertEquals(List.of("https://example.com/", "https://example.com/b"), visited);
+        assertEquals(2, recovery.visitedCount());
+        assertEquals(List.of("https://example.com/a", "https://example.com/c"), recovery.pending(),
+                "Pending URIs should keep their queue order");
+        assertFalse(recovery.isEmpty());
+    }
+
+    @Test
+    void checkpoint_shouldWriteOnlyChangesSinceTheLastOne() throws IOException {
+        try (FileCheckpointJournal journal = new FileCheckpointJournal(tempDir, NEVER)) {
+            journal.enqueued("https://example.com/a");
+            journal.checkpoint();
+            final long firstSize = totalDeltaBytes();
+
+            journal.checkpoint();
+            assertEquals(1, deltaFiles().size(), "A checkpoint with no changes should not write a file");
+
+            journal.visited("https://example.com/a");
+            journal.checkpoint();
+            assertEquals(2, deltaFiles().size());
+            assertEquals(2 * firstSize, totalDeltaBytes(), "The second delta should hold only the new record");
+        }
+    }
+
+    @Test
+    void newJournal_shouldContinueAnExistingCheckpoint() {
+        try (FileCheckpointJournal journal = new FileCheckpointJournal(tempDir, NEVER)) {
+            journal.enqueued("https://example.com/a");
+            journal.enqueued("https://example.com/b");
+        }
+        try (FileCheckpointJournal journal = new FileCheckpointJournal(tempDir, NEVER)) {
+            journal.visited("https://example.com/a");
+        }
+
+        final List<String> visited = new ArrayList<>();
+        final CheckpointReader.Recovery recovery = CheckpointReader.replay(tempDir, visited::add);
+
+        assertEquals(2, recovery.deltaCount());
+        assertEquals(List.of("https://example.com/a"), visited);
+        assertEquals(List.of("https://example.com/b"), recovery.pending());
+    }
+
+    @Test
+    void backgroundThread_shouldCheckpointWithoutClose() throws Exception {
+        final FileCheckpointJournal journal = new FileCheckpointJournal(tempDir, Duration.ofMillis(20));
+        try {
+            journal.enqueued("https://example.com/a");
+            final long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+            while (deltaFiles().isEmpty() && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            // as if the process died here: nothing is closed
+            assertEquals(List.of("https://example.com/a"), CheckpointReader.replay(tempDir, uri -> {
+            }).pending());
+        } finally {
+            journal.close();
+        }
+    }
+
+    @Test
+    void replay_shouldIgnoreTemporaryFilesAndKeepRecordsBeforeDamage() throws IOException {
+        try (FileCheckpointJournal journal = new FileCheckpointJournal(tempDir, NEVER)) {
+            journal.enqueued("https://example.com/a");
+            journal.enqueued("https://example.com/b");
+        }
+        final Path delta = deltaFiles().getFirst();
+        final byte[] bytes = Files.readAllBytes(delta);
+        Files.write(delta, Arrays.copyOf(bytes, bytes.length - 3));
+        Files.write(tempDir.resolve("checkpoint-000000000001.delta.tmp"), new byte[]{1, 2, 3});
+
+        final CheckpointReader.Recovery recovery = CheckpointReader.replay(tempDir, uri -> {
+        });
+
+        assertEquals(List.of("https://example.com/a"), recovery.pending());
+        assertEquals(1, recovery.deltaCount());
+    }
+
+    @Test
+    void replay_shouldReturnEmptyRecoveryForMissingDirectory() {
+        final CheckpointReader.Recovery recovery = CheckpointReader.replay(tempDir.resolve("missing"), uri -> {
+        });
+
+        assertTrue(recovery.isEmpty());
+        assertTrue(recovery.pending().isEmpty());
+    }
+
+    private List<Path> deltaFiles() throws IOException {
+        try (Stream<Path> files = Files.list(tempDir)) {
+            return files.filter(path -> path.toString().endsWith(".delta")).sorted().toList();
+        }
+    }
+
+    private long totalDeltaBytes() throws IOException {
+        long total = 0;
+        for (Path delta : deltaFiles()) {
+            total += Files.size(delta);
+        }
+        return total;
+    }
+}
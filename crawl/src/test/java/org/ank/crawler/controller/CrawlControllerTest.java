@@ -1,12 +1,22 @@
 package org.ank.crawler.controller;
 
 import constant.TestConstants;
+import org.ank.crawler.checkpoint.FileCheckpointJournal;
 import org.ank.crawler.frontier.Frontier;
 import org.ank.crawler.processor.Processor;
 import org.ank.crawler.scope.Scope;
+import org.ank.crawler.sitemap.SitemapIngester;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InOrder;
 
+import java.io.ByteArrayInputStream;
+import java.io.FileNotFoundException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
 
@@ -54,6 +64,30 @@ class CrawlControllerTest {
         verify(mockFrontier).start(anyList(), eq(mockScope));
     }
 
+    @Test
+    void testSitemapsIngestedBeforeStart() {
+        when(mockScope.isInScope(anyString())).thenReturn(true);
+        final SitemapIngester sitemaps = new SitemapIngester(uri -> {
+            if (!uri.endsWith("/sitemap.xml")) {
+                throw new FileNotFoundException(uri);
+            }
+            return new ByteArrayInputStream(("<urlset><url><loc>" + TestConstants.CHILD_URL_1 + "</loc></url></urlset>")
+                    .getBytes(StandardCharsets.UTF_8));
+        });
+        controller = new CrawlController(mockScope, List.of(), mockFrontier, sitemaps);
+        final List<String> fromSitemaps = new ArrayList<>(); // the ingester reuses its batch list
+        doAnswer(invocation -> fromSitemaps.addAll(invocation.getArgument(0)))
+                .when(mockFrontier).scheduleAll(anyCollection());
+
+        controller.beginCrawl(TestConstants.VALID_SEED_URL);
+
+        final InOrder inOrder = inOrder(mockFrontier);
+        inOrder.verify(mockFrontier).schedule(TestConstants.VALID_SEED_URL);
+        inOrder.verify(mockFrontier).scheduleAll(anyCollection());
+        inOrder.verify(mockFrontier).start(anyList(), eq(mockScope));
+        assertEquals(List.of(TestConstants.CHILD_URL_1), fromSitemaps);
+    }
+
     @Test
     void testGetVisitedUris() {
         // Suppose the frontier already visited some URLs
@@ -66,4 +100,34 @@ class CrawlControllerTest {
         assertTrue(visited.contains(TestConstants.VALID_SEED_URL));
         assertTrue(visited.contains(TestConstants.VALID_PORTAL_URL));
     }
+
+    @Test
+    void testResumeCrawlWithoutCheckpointBeginsFromSeed(@TempDir Path checkpointDir) {
+        when(mockScope.isInScope(TestConstants.VALID_SEED_URL)).thenReturn(true);
+
+        controller.resumeCrawl(TestConstants.VALID_SEED_URL, checkpointDir);
+
+        verify(mockFrontier, never()).markVisited(anyString());
+        verify(mockFrontier).schedule(TestConstants.VALID_SEED_URL);
+        verify(mockFrontier).start(anyList(), eq(mockScope));
+    }
+
+    @Test
+    void testResumeCrawlRestoresVisitedAndPending(@TempDir Path checkpointDir) {
+        try (FileCheckpointJournal journal = new FileCheckpointJournal(checkpointDir, Duration.ofHours(1))) {
+            journal.enqueued(TestConstants.VALID_SEED_URL);
+            journal.enqueued(TestConstants.CHILD_URL_1);
+            journal.enqueued(TestConstants.CHILD_URL_2);
+            journal.visited(TestConstants.VALID_SEED_URL);
+        }
+
+        controller.resumeCrawl(TestConstants.VALID_SEED_URL, checkpointDir);
+
+        // The seed was visited, so only the pending children are scheduled
+        verify(mockFrontier).markVisited(TestConstants.VALID_SEED_URL);
+        verify(mockFrontier, never()).schedule(TestConstants.VALID_SEED_URL);
+        verify(mockFrontier).schedule(TestConstants.CHILD_URL_1);
+        verify(mockFrontier).schedule(TestConstants.CHILD_URL_2);
+        verify(mockFrontier).start(anyList(), eq(mockScope));
+    }
 }
@@ -0,0 +1,55 @@
+package org.ank.crawler.controller;
+
+import benchmark.CrawlThroughputHarness;
+import org.ank.crawler.config.DedupeConfig;
+import org.ank.crawler.config.ExecutionMode;
+import org.ank.crawler.config.PipelineConfig;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import server.SyntheticSiteServer;
+
+import java.io.IOException;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * End-to-end regression gate: full crawls of a {@link SyntheticSiteServer} site through
+ * {@link CrawlThroughputHarness}, checking that every page of the known graph is fetched exactly once
+ * despite slow pages and transient errors.
+ */
+class CrawlThroughputTest {
+
+    private static final SyntheticSiteServer.Site SITE =
+            new SyntheticSiteServer.Site(400, 6, 4_000, Duration.ofMillis(2), 0.05, 7);
+
+    @ParameterizedTest
+    @EnumSource(ExecutionMode.class)
+    void run_shouldCrawlTheWholeGraphOnceInEveryExecutionMode(ExecutionMode mode) throws IOException {
+        final CrawlThroughputHarness.Report report = CrawlThroughputHarness.run(SITE, builder -> builder
+                .threadCount(8)
+                .executionMode(mode)
+                .pipeline(new PipelineConfig(2, 16)));
+
+        assertEquals(1.0, report.completeness(), "Every page should be served once: " + report);
+        assertEquals(SITE.pageCount(), report.visited(), "Every page should be reported visited: " + report);
+        assertEquals(0, report.duplicates(), "No page should be fetched twice: " + report);
+        assertTrue(report.errors() > 0, "The site should have answered some requests with 503");
+        assertEquals(report.served() + report.errors(), report.requests(),
+                "Only retries of failed requests should be sent again");
+        assertTrue(report.fetchLatency().count() >= SITE.pageCount());
+        assertTrue(report.fetchLatency().p99Nanos() >= report.fetchLatency().p50Nanos());
+        assertTrue(report.peakHeapBytes() > 0);
+    }
+
+    @Test
+    void run_shouldCrawlTheWholeGraphWithFingerprintDedupe() throws IOException {
+        final CrawlThroughputHarness.Report report = CrawlThroughputHarness.run(SITE, builder -> builder
+                .threadCount(8)
+                .dedupe(DedupeConfig.fingerprint(SITE.pageCount(), null)));
+
+        assertEquals(1.0, report.completeness(), report::toString);
+        assertEquals(0, report.duplicates(), report::toString);
+    }
+}
@@ -0,0 +1,142 @@
+package org.ank.crawler.dedupe;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests {@link FingerprintVisitedSet}: set semantics, growth, concurrent adds and the URL log, including closing it.
+ */
+class FingerprintVisitedSetTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void add_shouldReportFirstVisitOnly() {
+        final FingerprintVisitedSet visited = new FingerprintVisitedSet(100, null);
+
+        assertTrue(visited.add("https://example.com/a"), "First add should report a new URL");
+        assertFalse(visited.add("https://example.com/a"), "Second add of the same URL should be rejected");
+        assertTrue(visited.add("https://example.com/b"), "A different URL should be new");
+
+        assertTrue(visited.contains("https://example.com/a"));
+        assertTrue(visited.contains("https://example.com/b"));
+        assertFalse(visited.contains("https://example.com/c"));
+        assertEquals(2, visited.size());
+    }
+
+    @Test
+    void add_shouldGrowPastExpectedSize() {
+        final FingerprintVisitedSet visited = new FingerprintVisitedSet(10, null);
+        final long initialCapacity = visited.capacity();
+
+        for (int i = 0; i < 50_000; i++) {
+            assertTrue(visited.add("https://example.com/page/" + i), "URL " + i + " should be new");
+        }
+        for (int i = 0; i < 50_000; i++) {
+            assertTrue(visited.contains("https://example.com/page/" + i), "URL " + i + " should be found");
+            assertFalse(visited.add("https://example.com/page/" + i), "URL " + i + " should not be added twice");
+        }
+        assertFalse(visited.contains("https://example.com/page/50000"));
+        assertEquals(50_000, visited.size());
+        assertTrue(visited.capacity() > initialCapacity, "Tables should have grown");
+    }
+
+    @Test
+    void fingerprintZero_shouldStillBeStored() {
+        final FingerprintVisitedSet visited = new FingerprintVisitedSet(10, null);
+
+        assertFalse(visited.containsFingerprint(0L));
+        assertTrue(visited.addFingerprint(0L), "The empty-slot marker must not be mistaken for a stored key");
+        assertTrue(visited.containsFingerprint(0L));
+        assertFalse(visited.addFingerprint(0L));
+    }
+
+    @Test
+    void concurrentAdds_shouldAcceptEachUrlExactlyOnce() throws Exception {
+        final int threads = 8;
+        final int urls = 20_000;
+        final FingerprintVisitedSet visited = new FingerprintVisitedSet(1_000, null);
+        final AtomicInteger accepted = new AtomicInteger();
+
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            final List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                // every thread tries to add every URL
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < urls; i++) {
+                        if (visited.add("https://example.com/" + i)) {
+                            accepted.incrementAndGet();
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(urls, accepted.get(), "Each URL should be accepted by exactly one thread");
+        assertEquals(urls, visited.size());
+    }
+
+    @Test
+    void urls_shouldBeReadBackFromLog() throws Exception {
+        final Path log = tempDir.resolve("visited.txt");
+        final FingerprintVisitedSet visited = new FingerprintVisitedSet(10, log);
+
+        visited.add("https://example.com/a");
+        visited.add("https://example.com/b");
+        visited.add("https://example.com/a");
+        visited.flush();
+
+        assertEquals(List.of("https://example.com/a", "https://example.com/b"), Files.readAllLines(log),
+                "Each URL should be logged once, in visit order");
+        assertEquals(Set.of("https://example.com/a", "https://example.com/b"), visited.urls());
+    }
+
+    @Test
+    void urls_shouldStreamTheWholeLogAfterClose() throws Exception {
+        final Path log = tempDir.resolve("visited.txt");
+        final FingerprintVisitedSet visited = new FingerprintVisitedSet(10_000, log);
+        final List<String> expected = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            expected.add("https://example.com/page/" + i);
+        }
+        expected.add("https://example.com/search?q=" + "x".repeat(100_000)); // longer than one read chunk
+        expected.forEach(visited::add);
+
+        visited.close();
+
+        assertEquals(expected, Files.readAllLines(log), "Closing should write out every buffered URL");
+        assertEquals(expected, new ArrayList<>(visited.urls()), "Iteration should read the log back in order");
+        assertEquals(expected.size(), visited.urls().size());
+        assertTrue(visited.urls().contains("https://example.com/page/42"));
+        assertThrows(IllegalStateException.class, () -> visited.add("https://example.com/late"),
+                "No URL can be logged once the set is closed");
+    }
+
+    @Test
+    void urls_shouldBeEmptyWithoutLog() {
+        final FingerprintVisitedSet visited = new FingerprintVisitedSet(10, null);
+        visited.add("https://example.com/a");
+
+        assertTrue(visited.urls().isEmpty(), "Without a log the URLs are not recoverable");
+        assertEquals(1, visited.size());
+    }
+}
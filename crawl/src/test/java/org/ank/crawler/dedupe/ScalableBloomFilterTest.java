@@ -0,0 +1,122 @@
+package org.ank.crawler.dedupe;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests {@link ScalableBloomFilter}: no false negatives, false-positive rate near the target,
+ * growth in stages and reported stats.
+ */
+class ScalableBloomFilterTest {
+
+    private static long key(int i) {
+        return UrlFingerprint.of("https://example.com/page/" + i);
+    }
+
+    @Test
+    void add_shouldNeverForgetAKey() {
+        final ScalableBloomFilter filter = new ScalableBloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.add(key(i));
+        }
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(filter.mightContain(key(i)), "Key " + i + " should be reported as present");
+            assertFalse(filter.add(key(i)), "Key " + i + " should not be added twice");
+        }
+    }
+
+    @Test
+    void falsePositiveRate_shouldStayNearTargetAtExpectedCount() {
+        final double target = 0.01;
+        final ScalableBloomFilter filter = new ScalableBloomFilter(50_000, target);
+        for (int i = 0; i < 50_000; i++) {
+            filter.add(key(i));
+        }
+
+        final double measured = measureFalsePositiveRate(filter, 50_000, 100_000);
+        final ScalableBloomFilter.Stats stats = filter.stats();
+
+        assertEquals(1, stats.stages(), "Filter should not grow before reaching its expected count");
+        assertTrue(measured <= target, "Measured rate " + measured + " should not exceed " + target);
+        assertTrue(stats.estimatedFalsePositiveRate() <= target,
+                "Estimated rate " + stats.estimatedFalsePositiveRate() + " should not exceed " + target);
+        assertEquals(measured, stats.estimatedFalsePositiveRate(), target / 2,
+                "Estimate should be close to the measured rate");
+    }
+
+    @Test
+    void add_shouldGrowInStagesAndKeepCompoundRateBounded() {
+        final double target = 0.01;
+        final ScalableBloomFilter filter = new ScalableBloomFilter(1_000, target);
+        final long firstStageBits = filter.stats().bits();
+        int added = 0;
+        for (int i = 0; i < 50_000; i++) {
+            if (filter.add(key(i))) {
+                added++;
+            }
+        }
+
+        final ScalableBloomFilter.Stats stats = filter.stats();
+        assertTrue(stats.stages() >= 5, "50x the expected count should need several stages, got " + stats.stages());
+        assertTrue(stats.bits() > firstStageBits * 32, "Memory should grow with the key count");
+        assertEquals(added, stats.insertions());
+        assertTrue(added > 49_000, "Only a small fraction of keys may be lost to false positives");
+        final double measured = measureFalsePositiveRate(filter, 50_000, 100_000);
+        assertTrue(measured <= target, "Compound rate " + measured + " should not exceed " + target);
+    }
+
+    @Test
+    void concurrentAdds_shouldAcceptEachKeyAtMostOnce() throws Exception {
+        final int threads = 8;
+        final int keys = 20_000;
+        final ScalableBloomFilter filter = new ScalableBloomFilter(1_000, 0.001);
+        final AtomicInteger accepted = new AtomicInteger();
+
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            final List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < keys; i++) {
+                        if (filter.add(key(i))) {
+                            accepted.incrementAndGet();
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(filter.insertions(), accepted.get(), "Every accepted key should be counted once");
+        assertTrue(accepted.get() <= keys, "No key may be accepted by two threads");
+    }
+
+    @Test
+    void constructor_shouldRejectInvalidSettings() {
+        assertThrows(IllegalArgumentException.class, () -> new ScalableBloomFilter(0, 0.01));
+        assertThrows(IllegalArgumentException.class, () -> new ScalableBloomFilter(100, 0));
+        assertThrows(IllegalArgumentException.class, () -> new ScalableBloomFilter(100, 1));
+    }
+
+    private static double measureFalsePositiveRate(ScalableBloomFilter filter, int from, int probes) {
+        int falsePositives = 0;
+        for (int i = from; i < from + probes; i++) {
+            if (filter.mightContain(key(i))) {
+                falsePositives++;
+            }
+        }
+        return falsePositives / (double) probes;
+    }
+}
@@ -0,0 +1,67 @@
+package org.ank.crawler.dedupe;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link SimHashIndex}.
+ */
+class SimHashIndexTest {
+
+    @Test
+    void addIfDistinct_shouldRejectFingerprintsWithinTheDistance() {
+        final SimHashIndex index = new SimHashIndex(3);
+        final long fingerprint = 0x0123_4567_89AB_CDEFL;
+
+        assertTrue(index.addIfDistinct(fingerprint));
+        assertFalse(index.addIfDistinct(fingerprint), "An exact duplicate");
+        // Three bits in three different bands: no band matches except the fourth
+        assertFalse(index.addIfDistinct(fingerprint ^ (1L | 1L << 20 | 1L << 40)));
+        assertTrue(index.addIfDistinct(fingerprint ^ 0xFL), "Four differing bits is too far");
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    void addIfDistinct_shouldAgreeWithBruteForce() {
+        final SplittableRandom random = new SplittableRandom(42);
+        final SimHashIndex index = new SimHashIndex(3);
+        final List<Long> seen = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            // Half the candidates are small perturbations of an earlier one
+            long candidate = random.nextLong();
+            if (!seen.isEmpty() && random.nextBoolean()) {
+                candidate = seen.get(random.nextInt(seen.size()));
+                for (int flips = random.nextInt(6); flips > 0; flips--) {
+                    candidate ^= 1L << random.nextInt(64);
+                }
+            }
+            final long c = candidate;
+            final boolean expected = seen.stream().noneMatch(s -> SimHash.distance(s, c) <= 3);
+
+            assertEquals(expected, index.addIfDistinct(candidate));
+            if (expected) {
+                seen.add(candidate);
+            }
+        }
+    }
+
+    @Test
+    void zeroDistance_shouldOnlyMatchExactFingerprints() {
+        final SimHashIndex index = new SimHashIndex(0);
+
+        assertTrue(index.addIfDistinct(-1L));
+        assertFalse(index.addIfDistinct(-1L));
+        assertTrue(index.addIfDistinct(-2L));
+    }
+
+    @Test
+    void constructor_shouldRejectUnsupportedDistances() {
+        assertThrows(IllegalArgumentException.class, () -> new SimHashIndex(-1));
+        assertThrows(IllegalArgumentException.class, () -> new SimHashIndex(16));
+    }
+}
@@ -0,0 +1,61 @@
+package org.ank.crawler.dedupe;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link SimHash}.
+ */
+class SimHashTest {
+
+    private static final String ARTICLE = """
+            The quick brown fox jumps over the lazy dog while the farmer watches from the porch.
+            Later that evening the fox returns to the field, looking for the chickens it saw earlier,
+            but the dog has moved the flock into the barn and locked the door behind them.
+            """;
+
+    @Test
+    void ofHtml_shouldIgnoreMarkupScriptsAndStyles() {
+        final long plain = SimHash.ofHtml(ARTICLE).value();
+        final long marked = SimHash.ofHtml("<html><head><style>p { color: red }</style>"
+                + "<script type=\"text/javascript\">var session = 'abc123';</script></head>"
+                + "<body><!-- generated --><p class=\"lead\">" + ARTICLE + "</p></body></html>").value();
+
+        assertEquals(plain, marked);
+    }
+
+    @Test
+    void ofHtml_shouldBeCaseInsensitive() {
+        assertEquals(SimHash.ofHtml(ARTICLE).value(), SimHash.ofHtml(ARTICLE.toUpperCase()).value());
+    }
+
+    @Test
+    void smallEdits_shouldFlipFewBits() {
+        final long original = SimHash.ofHtml(ARTICLE).value();
+        final long edited = SimHash.ofHtml(ARTICLE.replace("evening", "night")).value();
+
+        assertTrue(SimHash.distance(original, edited) <= 6,
+                "One changed word should move the fingerprint only slightly, moved "
+                        + SimHash.distance(original, edited));
+    }
+
+    @Test
+    void differentPages_shouldBeFarApart() {
+        final long article = SimHash.ofHtml(ARTICLE).value();
+        final long other = SimHash.ofHtml("""
+                Quarterly revenue grew eleven percent on strong demand for cloud services, the company said,
+                while operating costs fell after the restructuring announced in the spring. Analysts expect
+                margins to improve further next year as the new data centres come online.
+                """).value();
+
+        assertTrue(SimHash.distance(article, other) > 10);
+    }
+
+    @Test
+    void featureCount_shouldBeZeroWithoutText() {
+        assertEquals(0, SimHash.ofHtml("<html><body><img src=\"a.png\"></body></html>").featureCount());
+        assertEquals(1, SimHash.ofHtml("<p>Hello</p>").featureCount());
+        assertEquals(2, SimHash.ofHtml("Hello big world").featureCount());
+    }
+}
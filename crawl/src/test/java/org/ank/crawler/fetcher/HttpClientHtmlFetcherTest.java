@@ -0,0 +1,100 @@
+package org.ank.crawler.fetcher;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import server.TestSiteServer;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link HttpClientHtmlFetcher} against a local {@link TestSiteServer}.
+ */
+class HttpClientHtmlFetcherTest {
+
+    private TestSiteServer site;
+    private HttpClientHtmlFetcher fetcher;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        site = new TestSiteServer(10, 2);
+        fetcher = new HttpClientHtmlFetcher();
+    }
+
+    @AfterEach
+    void tearDown() {
+        site.close();
+    }
+
+    @Test
+    void fetch_shouldReturnFetchedContentForValidUrl() throws IOException {
+        final FetchedContent content = fetcher.fetch(site.pageUrl(0));
+
+        assertEquals(200, content.statusCode(), "Status code should match");
+        assertTrue(content.content().contains("href=\"/page/1\""), "Body should contain the page links");
+    }
+
+    @Test
+    void fetch_shouldReturnErrorStatusInsteadOfThrowing() throws IOException {
+        final FetchedContent content = fetcher.fetch(site.baseUrl() + "/missing");
+
+        assertEquals(404, content.statusCode(), "A 404 should be reported as content, not as an exception");
+    }
+
+    @Test
+    void fetch_shouldFailForInvalidUrl() {
+        assertThrows(IllegalArgumentException.class, () -> fetcher.fetch("invalid-url"),
+                "Should throw IllegalArgumentException for invalid URL");
+    }
+
+    @Test
+    void fetch_shouldThrowIOExceptionWhenHostUnreachable() throws IOException {
+        final int closedPort;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            closedPort = socket.getLocalPort();
+        }
+
+        assertThrows(IOException.class, () -> fetcher.fetch("http://127.0.0.1:" + closedPort + "/"),
+                "Should throw IOException when the connection is refused");
+    }
+
+    @Test
+    void fetchAsync_shouldCompleteWithContent() throws ExecutionException, InterruptedException {
+        final FetchedContent content = fetcher.fetchAsync(site.pageUrl(1)).get();
+
+        assertEquals(200, content.statusCode(), "Status code should match");
+    }
+
+    @Test
+    void fetch_shouldReuseConnectionsAcrossRequests() throws IOException {
+        for (int i = 0; i < 10; i++) {
+            fetcher.fetch(site.pageUrl(i));
+        }
+
+        assertEquals(10, site.requestCount(), "Every fetch should reach the server");
+        assertEquals(1, site.connectionCount(), "Sequential fetches should share one pooled connection");
+    }
+
+    @Test
+    void fetchAsync_shouldRunManyFetchesConcurrently() {
+        site.setResponseDelayMillis(200);
+        final List<CompletableFuture<FetchedContent>> futures = new ArrayList<>();
+
+        final long startNanos = System.nanoTime();
+        for (int i = 0; i < 10; i++) {
+            futures.add(fetcher.fetchAsync(site.pageUrl(i)));
+        }
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+        final long elapsedMillis = (System.nanoTime() - startNanos) / 1_000_000;
+
+        futures.forEach(future -> assertEquals(200, future.join().statusCode()));
+        assertTrue(elapsedMillis < 1500, "10 async fetches of 200ms each took " + elapsedMillis + "ms");
+    }
+}
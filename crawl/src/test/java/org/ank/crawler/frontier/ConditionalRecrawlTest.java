@@ -0,0 +1,123 @@
+package org.ank.crawler.frontier;
+
+import org.ank.crawler.config.PolitenessConfig;
+import org.ank.crawler.config.ValidatorStoreConfig;
+import org.ank.crawler.config.WebCrawlerConfig;
+import org.ank.crawler.fetcher.FetchedContent;
+import org.ank.crawler.fetcher.HtmlFetcher;
+import org.ank.crawler.fetcher.HttpClientHtmlFetcher;
+import org.ank.crawler.fetcher.JsoupHtmlFetcher;
+import org.ank.crawler.processor.LinkExtractorProcessor;
+import org.ank.crawler.processor.Processor;
+import org.ank.crawler.scope.DomainScope;
+import org.ank.crawler.scope.Scope;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import server.TestSiteServer;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Recrawls a local {@link TestSiteServer} with a validator store and checks that unchanged pages are neither
+ * downloaded nor parsed again, while the crawl still reaches every page through the stored outlinks.
+ */
+class ConditionalRecrawlTest {
+
+    private static final int PAGE_COUNT = 40;
+    private static final int FAN_OUT = 3;
+
+    @TempDir
+    Path directory;
+
+    private TestSiteServer site;
+    private Scope scope;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        site = new TestSiteServer(PAGE_COUNT, FAN_OUT);
+        scope = new DomainScope(site.host());
+    }
+
+    @AfterEach
+    void tearDown() {
+        site.close();
+    }
+
+    @Test
+    void recrawl_shouldReuseOutlinksOfUnchangedPages() {
+        for (HtmlFetcher fetcher : List.of(new HttpClientHtmlFetcher(), new JsoupHtmlFetcher())) {
+            final WebCrawlerConfig config = config(fetcher.getClass().getSimpleName());
+            final CountingProcessor first = new CountingProcessor();
+            assertEquals(site.expectedUrls(), crawl(config, fetcher, first));
+            assertEquals(PAGE_COUNT, first.pages.get());
+
+            final int notModifiedBefore = site.notModifiedCount();
+            final CountingProcessor second = new CountingProcessor();
+            assertEquals(site.expectedUrls(), crawl(config, fetcher, second), "Stored outlinks should lead to every page");
+            assertEquals(0, second.pages.get(), "No unchanged page should be parsed again");
+            assertEquals(PAGE_COUNT, site.notModifiedCount() - notModifiedBefore);
+        }
+    }
+
+    @Test
+    void recrawl_shouldParsePagesThatChanged() {
+        final WebCrawlerConfig config = config("store");
+        crawl(config, new HttpClientHtmlFetcher(), new CountingProcessor());
+        site.setContentVersion(1);
+
+        final CountingProcessor processor = new CountingProcessor();
+        assertEquals(site.expectedUrls(), crawl(config, new HttpClientHtmlFetcher(), processor));
+        assertEquals(PAGE_COUNT, processor.pages.get());
+    }
+
+    @Test
+    void politeFrontier_shouldRecrawlConditionallyToo() {
+        final WebCrawlerConfig config = config("store");
+        crawl(config, new HttpClientHtmlFetcher(), new CountingProcessor());
+        final int notModifiedBefore = site.notModifiedCount();
+
+        final CountingProcessor processor = new CountingProcessor();
+        final PoliteFrontier frontier = new PoliteFrontier(config, new PolitenessConfig(1_000, 100, 4),
+                new HttpClientHtmlFetcher());
+        frontier.schedule(site.pageUrl(0));
+        frontier.start(List.of(processor), scope);
+
+        assertEquals(site.expectedUrls(), frontier.getVisited());
+        assertEquals(0, processor.pages.get());
+        assertEquals(PAGE_COUNT, site.notModifiedCount() - notModifiedBefore);
+    }
+
+    private WebCrawlerConfig config(String storeName) {
+        return WebCrawlerConfig.builder(site.pageUrl(0)).threadCount(4)
+                .validatorStore(ValidatorStoreConfig.at(directory.resolve(storeName + ".bin"))).build();
+    }
+
+    private Set<String> crawl(WebCrawlerConfig config, HtmlFetcher fetcher, Processor processor) {
+        final SimpleFrontier frontier = new SimpleFrontier(config, fetcher);
+        frontier.schedule(site.pageUrl(0));
+        frontier.start(List.of(processor), scope);
+        return frontier.getVisited();
+    }
+
+    /**
+     * Extracts links and counts the pages it was given.
+     */
+    private static final class CountingProcessor implements Processor {
+        private final Processor delegate = new LinkExtractorProcessor();
+        private final AtomicInteger pages = new AtomicInteger();
+
+        @Override
+        public Set<String> process(FetchedContent content, String uri) {
+            pages.incrementAndGet();
+            return delegate.process(content, uri);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package org.ank.crawler.frontier;
+
+import org.ank.crawler.fetcher.FetchedContent;
+import org.jsoup.HttpStatusException;
+import org.jsoup.UnsupportedMimeTypeException;
+import org.junit.jupiter.api.Test;
+
+import javax.net.ssl.SSLHandshakeException;
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.ProtocolException;
+import java.net.SocketTimeoutException;
+import java.net.UnknownHostException;
+import java.net.UnknownServiceException;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link FetchFailure}.
+ */
+class FetchFailureTest {
+
+    @Test
+    void status_shouldBeTransientOnlyForServerErrorsTimeoutsAndThrottling() {
+        for (int status : new int[]{408, 429, 500, 502, 503, 504}) {
+            assertNotNull(FetchFailure.of(new FetchedContent(status, "")), status + " should be retried");
+        }
+        for (int status : new int[]{200, 301, 400, 403, 404, 410, 501}) {
+            assertNull(FetchFailure.of(new FetchedContent(status, "")), status + " should not be retried");
+        }
+    }
+
+    @Test
+    void status_shouldCarryRetryAfter() {
+        final FetchFailure failure = FetchFailure.of(new FetchedContent(503, "", Map.of("Retry-After", "7")));
+
+        assertEquals(Duration.ofSeconds(7), failure.retryAfter());
+    }
+
+    @Test
+    void exceptions_shouldSeparateNetworkHiccupsFromPermanentErrors() {
+        assertTrue(FetchFailure.of(new SocketTimeoutException("read timed out")).transientFailure());
+        assertTrue(FetchFailure.of(new HttpTimeoutException("request timed out")).transientFailure());
+        assertTrue(FetchFailure.of(new ConnectException("refused")).transientFailure());
+        assertTrue(FetchFailure.of(new IOException("connection reset")).transientFailure());
+        assertTrue(FetchFailure.of(new HttpStatusException("busy", 503, "https://example.com")).transientFailure());
+
+        assertFalse(FetchFailure.of(new UnknownHostException("nowhere.invalid")).transientFailure());
+        assertFalse(FetchFailure.of(new SSLHandshakeException("bad certificate")).transientFailure());
+        assertFalse(FetchFailure.of(new HttpStatusException("gone", 404, "https://example.com")).transientFailure());
+        assertFalse(FetchFailure.of(new IllegalArgumentException("bad URL")).transientFailure());
+    }
+
+    @Test
+    void exceptions_shouldNotRetryResponsesThatWillNeverParse() {
+        assertFalse(FetchFailure.of(new UnsupportedMimeTypeException("Unhandled content type", "application/pdf",
+                "https://example.com/report.pdf")).transientFailure(), "A PDF stays a PDF");
+        assertFalse(FetchFailure.of(new ProtocolException("too many redirects")).transientFailure());
+        assertFalse(FetchFailure.of(new UnknownServiceException("no content handler")).transientFailure());
+    }
+
+    @Test
+    void parseRetryAfter_shouldAcceptSecondsAndHttpDates() {
+        final Instant now = Instant.parse("2015-10-21T07:28:00Z");
+
+        assertEquals(Duration.ofSeconds(120), FetchFailure.parseRetryAfter(" 120 ", now));
+        assertEquals(Duration.ofSeconds(30), FetchFailure.parseRetryAfter("Wed, 21 Oct 2015 07:28:30 GMT", now));
+        assertEquals(Duration.ZERO, FetchFailure.parseRetryAfter("Wed, 21 Oct 2015 07:00:00 GMT", now));
+        assertNull(FetchFailure.parseRetryAfter("soon", now));
+        assertNull(FetchFailure.parseRetryAfter(null, now));
+    }
+}
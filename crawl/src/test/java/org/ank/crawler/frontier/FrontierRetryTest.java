@@ -0,0 +1,149 @@
+package org.ank.crawler.frontier;
+
+import org.ank.crawler.config.PolitenessConfig;
+import org.ank.crawler.config.RetryConfig;
+import org.ank.crawler.config.WebCrawlerConfig;
+import org.ank.crawler.fetcher.FetchedContent;
+import org.ank.crawler.fetcher.HtmlFetcher;
+import org.ank.crawler.processor.LinkExtractorProcessor;
+import org.ank.crawler.processor.Processor;
+import org.ank.crawler.scope.Scope;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that both frontiers retry transient fetch failures without blocking a worker during the backoff,
+ * and give up on permanent ones straight away.
+ */
+class FrontierRetryTest {
+
+    private static final String ROOT = "https://example.com/";
+    private static final String FLAKY = ROOT + "flaky";
+    private static final String TIMING_OUT = ROOT + "timing-out";
+    private static final String MISSING = ROOT + "missing";
+    private static final String UNKNOWN_HOST = "https://gone.example.com/";
+    private static final int LEAVES = 5;
+    private static final Duration BACKOFF = Duration.ofMillis(300);
+
+    private final Scope scope = uri -> uri.contains("example.com");
+    private final List<Processor> processors = List.of(new LinkExtractorProcessor());
+    private final WebCrawlerConfig config = WebCrawlerConfig.builder(ROOT).threadCount(1)
+            .retry(new RetryConfig(3, BACKOFF, Duration.ofSeconds(5))).build();
+
+    @Test
+    void simpleFrontier_shouldRetryTransientFailuresWhileOtherPagesProceed() {
+        final FlakySite site = new FlakySite();
+        final SimpleFrontier frontier = new SimpleFrontier(config, site);
+
+        frontier.schedule(ROOT);
+        assertTimeoutPreemptively(Duration.ofSeconds(10), () -> frontier.start(processors, scope));
+
+        site.assertRetriedWithoutBlocking();
+        assertTrue(frontier.getVisited().containsAll(site.successfulPages()));
+    }
+
+    @Test
+    void politeFrontier_shouldRetryTransientFailuresWhileOtherPagesProceed() {
+        final FlakySite site = new FlakySite();
+        final PoliteFrontier frontier = new PoliteFrontier(config, new PolitenessConfig(1_000, 10, 1), site);
+
+        frontier.schedule(ROOT);
+        assertTimeoutPreemptively(Duration.ofSeconds(10), () -> frontier.start(processors, scope));
+
+        site.assertRetriedWithoutBlocking();
+        assertTrue(frontier.getVisited().containsAll(site.successfulPages()));
+    }
+
+    @Test
+    void retriesDisabled_shouldFetchEveryPageOnce() {
+        final FlakySite site = new FlakySite();
+        final SimpleFrontier frontier = new SimpleFrontier(
+                WebCrawlerConfig.builder(ROOT).threadCount(1).retry(RetryConfig.NONE).build(), site);
+
+        frontier.schedule(ROOT);
+        frontier.start(processors, scope);
+
+        assertEquals(1, site.attempts(FLAKY));
+        assertEquals(1, site.attempts(TIMING_OUT));
+    }
+
+    /**
+     * A root page linking to a page that answers 503 (with {@code Retry-After: 0}) once, a page that times out twice,
+     * a 404, an unknown host and a few healthy leaves. Records every attempt and when it happened.
+     */
+    private static final class FlakySite implements HtmlFetcher {
+        private final Map<String, AtomicInteger> attempts = new ConcurrentHashMap<>();
+        private final Map<String, Long> firstAttemptNanos = new ConcurrentHashMap<>();
+        private final Map<String, Long> lastAttemptNanos = new ConcurrentHashMap<>();
+
+        @Override
+        public FetchedContent fetch(String uri) throws IOException {
+            final int attempt = attempts.computeIfAbsent(uri, u -> new AtomicInteger()).incrementAndGet();
+            firstAttemptNanos.putIfAbsent(uri, System.nanoTime());
+            lastAttemptNanos.put(uri, System.nanoTime());
+            if (ROOT.equals(uri)) {
+                final StringBuilder html = new StringBuilder();
+                for (String link : List.of(FLAKY, TIMING_OUT, MISSING, UNKNOWN_HOST)) {
+                    html.append("<a href=\"").append(link).append("\">x</a>");
+                }
+                for (int i = 0; i < LEAVES; i++) {
+                    html.append("<a href=\"/leaf/").append(i).append("\">leaf</a>");
+                }
+                return new FetchedContent(200, html.toString());
+            }
+            if (FLAKY.equals(uri) && attempt == 1) {
+                return new FetchedContent(503, "", Map.of("Retry-After", "0"));
+            }
+            if (TIMING_OUT.equals(uri) && attempt <= 2) {
+                throw new SocketTimeoutException("Read timed out");
+            }
+            if (MISSING.equals(uri)) {
+                return new FetchedContent(404, "");
+            }
+            if (UNKNOWN_HOST.equals(uri)) {
+                throw new UnknownHostException("gone.example.com");
+            }
+            return new FetchedContent(200, "<p>ok</p>");
+        }
+
+        int attempts(String uri) {
+            return attempts.getOrDefault(uri, new AtomicInteger()).get();
+        }
+
+        Set<String> successfulPages() {
+            final Set<String> pages = new HashSet<>(Set.of(ROOT, FLAKY, TIMING_OUT));
+            for (int i = 0; i < LEAVES; i++) {
+                pages.add(ROOT + "leaf/" + i);
+            }
+            return pages;
+        }
+
+        void assertRetriedWithoutBlocking() {
+            assertEquals(2, attempts(FLAKY), "A 503 should be retried once it succeeds");
+            assertEquals(3, attempts(TIMING_OUT), "Timeouts should be retried until the page answers");
+            assertEquals(1, attempts(MISSING), "A 404 is permanent");
+            assertEquals(1, attempts(UNKNOWN_HOST), "An unknown host is permanent");
+
+            // The only worker fetched every leaf while the failed pages were backing off
+            final long lastLeaf = successfulPages().stream()
+                    .filter(uri -> uri.contains("/leaf/"))
+                    .mapToLong(lastAttemptNanos::get).max().orElseThrow();
+            assertTrue(lastLeaf < lastAttemptNanos.get(TIMING_OUT),
+                    "Healthy pages should be fetched during the backoff, not after it");
+            assertTrue(lastAttemptNanos.get(TIMING_OUT) - firstAttemptNanos.get(TIMING_OUT)
+                    >= BACKOFF.toNanos() / 2, "Retries should honor the backoff");
+        }
+    }
+}
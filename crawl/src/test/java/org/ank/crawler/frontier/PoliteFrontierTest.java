@@ -0,0 +1,180 @@
+package org.ank.crawler.frontier;
+
+import org.ank.crawler.config.DedupeConfig;
+import org.ank.crawler.config.MetricsConfig;
+import org.ank.crawler.config.PolitenessConfig;
+import org.ank.crawler.config.WebCrawlerConfig;
+import org.ank.crawler.dedupe.VisitedSet;
+import org.ank.crawler.processor.LinkExtractorProcessor;
+import org.ank.crawler.processor.Processor;
+import org.ank.crawler.scope.Scope;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import server.TestSiteServer;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests {@link PoliteFrontier} against a local {@link TestSiteServer}:
+ * completeness, depth reporting, per-host concurrency and per-host rate limits.
+ */
+class PoliteFrontierTest {
+
+    private TestSiteServer site;
+    private Scope scope;
+    private List<Processor> processors;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        site = new TestSiteServer(40, 3);
+        scope = uri -> uri.startsWith(site.baseUrl());
+        processors = List.of(new LinkExtractorProcessor());
+    }
+
+    @AfterEach
+    void tearDown() {
+        site.close();
+    }
+
+    @Test
+    void start_shouldVisitEveryPageOfTheSite() {
+        final PoliteFrontier frontier = new PoliteFrontier(4, new PolitenessConfig(1000, 10, 4));
+
+        frontier.schedule(site.pageUrl(0));
+        frontier.start(processors, scope);
+
+        assertEquals(site.expectedUrls(), frontier.getVisited(), "Every page of the site should be visited");
+        assertEquals(site.expectedUrls().size(), site.requestCount(), "Each page should be fetched exactly once");
+    }
+
+    @Test
+    void start_shouldReportTheLinkDepthOfEveryPage() {
+        final Map<String, Integer> depths = new ConcurrentHashMap<>();
+        final PoliteFrontier frontier = new PoliteFrontier(WebCrawlerConfig.builder(site.pageUrl(0)).threadCount(4)
+                .results(result -> depths.put(result.url(), result.depth())).build(),
+                new PolitenessConfig(1000, 10, 4));
+
+        frontier.schedule(site.pageUrl(0));
+        frontier.start(processors, scope);
+
+        for (int page = 0; page < 40; page++) {
+            // Fan-out 3: pages 1-3 are at depth 1, 4-12 at depth 2 and 13-39 at depth 3
+            final int depth = page == 0 ? 0 : page < 4 ? 1 : page < 13 ? 2 : 3;
+            assertEquals(depth, depths.get(site.pageUrl(page)), "Depth of page " + page);
+        }
+    }
+
+    @Test
+    void metrics_shouldReportTheHealthOfTheBloomFilterWhileCrawling() {
+        final List<VisitedSet.Health> seen = new ArrayList<>();
+        final PoliteFrontier[] frontier = new PoliteFrontier[1];
+        frontier[0] = new PoliteFrontier(WebCrawlerConfig.builder(site.pageUrl(0)).threadCount(1)
+                .dedupe(DedupeConfig.bloom(1_000, 0.01, null)).metrics(MetricsConfig.RECORDING)
+                .results(result -> seen.add(frontier[0].metrics().visited())).build(),
+                new PolitenessConfig(1000, 10, 1));
+
+        frontier[0].schedule(site.pageUrl(0));
+        frontier[0].start(processors, scope);
+
+        assertEquals(40, seen.size());
+        assertTrue(seen.getFirst().urls() >= 1 && seen.getFirst().urls() < 40, "Read during the crawl");
+        final VisitedSet.Health done = frontier[0].metrics().visited();
+        assertEquals(40, done.urls());
+        assertTrue(done.fillRatio() > 0 && done.fillRatio() < 1, "Fill ratio " + done.fillRatio());
+        assertTrue(done.estimatedFalsePositiveRate() > 0 && done.estimatedFalsePositiveRate() < 0.01,
+                "False-positive rate " + done.estimatedFalsePositiveRate());
+    }
+
+    @Test
+    void start_shouldNeverExceedPerHostConcurrency() {
+        site.setResponseDelayMillis(30);
+        final PoliteFrontier frontier = new PoliteFrontier(8, new PolitenessConfig(1000, 10, 2));
+
+        frontier.schedule(site.pageUrl(0));
+        frontier.start(processors, scope);
+
+        assertEquals(site.expectedUrls(), frontier.getVisited(), "Every page of the site should be visited");
+        assertTrue(site.maxConcurrentRequests() <= 2,
+                "Host saw " + site.maxConcurrentRequests() + " concurrent requests, limit is 2");
+    }
+
+    @Test
+    void start_shouldRateLimitEachHost() {
+        final PoliteFrontier frontier = new PoliteFrontier(4, new PolitenessConfig(20, 1, 4));
+
+        final long startNanos = System.nanoTime();
+        frontier.schedule(site.pageUrl(0));
+        frontier.start(processors, scope);
+        final long elapsedMillis = (System.nanoTime() - startNanos) / 1_000_000;
+
+        // 40 pages at 20/s with a burst of 1 need at least 39 intervals of 50ms
+        assertEquals(40, frontier.getVisited().size(), "Every page of the site should be visited");
+        assertTrue(elapsedMillis >= 1900, "Crawl finished in " + elapsedMillis + "ms, faster than the rate allows");
+    }
+
+    @Test
+    void start_shouldHonorTheCrawlDelayOfTheScope() {
+        final Scope slowHost = new Scope() {
+            @Override
+            public boolean isInScope(String uri) {
+                return scope.isInScope(uri);
+            }
+
+            @Override
+            public java.time.Duration crawlDelay(String uri) {
+                return java.time.Duration.ofMillis(50);
+            }
+        };
+        final PoliteFrontier frontier = new PoliteFrontier(4, new PolitenessConfig(1000, 10, 4));
+
+        final long startNanos = System.nanoTime();
+        frontier.schedule(site.pageUrl(0));
+        frontier.start(processors, slowHost);
+        final long elapsedMillis = (System.nanoTime() - startNanos) / 1_000_000;
+
+        // A 50ms crawl delay overrides 1000/s: 40 pages need at least 39 intervals
+        assertEquals(40, frontier.getVisited().size(), "Every page of the site should be visited");
+        assertTrue(elapsedMillis >= 1900, "Crawl finished in " + elapsedMillis + "ms, ignoring the crawl delay");
+    }
+
+    @Test
+    void scheduleAll_shouldVisitEveryUriOfTheBatchOnce() {
+        final PoliteFrontier frontier = new PoliteFrontier(4, new PolitenessConfig(1000, 10, 4));
+        final List<String> batch = new ArrayList<>(site.expectedUrls());
+        batch.add(site.pageUrl(1)); // duplicates within a batch are fetched once
+        batch.add("mailto:support@teya.com");
+
+        frontier.scheduleAll(batch);
+        frontier.start(List.of(), scope);
+
+        assertEquals(site.expectedUrls(), frontier.getVisited(), "Every URI of the batch should be visited");
+        assertEquals(site.expectedUrls().size(), site.requestCount(), "Each page should be fetched exactly once");
+    }
+
+    @Test
+    void start_shouldReturnImmediatelyWhenNothingScheduled() {
+        final PoliteFrontier frontier = new PoliteFrontier(2, PolitenessConfig.DEFAULT);
+
+        assertTimeoutPreemptively(java.time.Duration.ofSeconds(2), () -> frontier.start(processors, scope),
+                "An empty frontier should finish without waiting");
+        assertTrue(frontier.getVisited().isEmpty(), "Nothing should be visited");
+    }
+
+    @Test
+    void schedule_shouldIgnoreUrisWithoutHost() {
+        final PoliteFrontier frontier = new PoliteFrontier(1, PolitenessConfig.DEFAULT);
+
+        frontier.schedule("mailto:support@teya.com");
+        frontier.start(processors, scope);
+
+        assertEquals(Set.of(), frontier.getVisited(), "URIs without a host should never be visited");
+    }
+}
@@ -0,0 +1,177 @@
+package org.ank.crawler.frontier;
+
+import org.ank.crawler.config.CrawlBudget;
+import org.ank.crawler.config.WebCrawlerConfig;
+import org.ank.crawler.processor.LinkExtractorProcessor;
+import org.ank.crawler.processor.Processor;
+import org.ank.crawler.scope.Scope;
+import org.ank.crawler.sink.CrawlResult;
+import org.ank.crawler.sink.ResultSink;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import server.TestSiteServer;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests {@link PriorityFrontier} against a local {@link TestSiteServer}: depth tracking, scoring order
+ * and each of the crawl budgets.
+ * <p>
+ * The site is a tree with a fan-out of 3, so page 0 is at depth 0, pages 1-3 at depth 1, pages 4-12 at depth 2
+ * and pages 13-39 at depth 3.
+ */
+class PriorityFrontierTest {
+
+    private TestSiteServer site;
+    private Scope scope;
+    private List<Processor> processors;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        site = new TestSiteServer(40, 3);
+        scope = uri -> uri.startsWith(site.baseUrl());
+        processors = List.of(new LinkExtractorProcessor());
+    }
+
+    @AfterEach
+    void tearDown() {
+        site.close();
+    }
+
+    @Test
+    void start_shouldVisitEveryPageAndReportItsDepth() {
+        final Map<String, Integer> depths = new ConcurrentHashMap<>();
+        final PriorityFrontier frontier = new PriorityFrontier(config(4, result -> depths.put(result.url(),
+                result.depth())), CrawlBudget.UNLIMITED, UriScorer.BREADTH_FIRST);
+
+        frontier.schedule(site.pageUrl(0));
+        frontier.start(processors, scope);
+
+        assertEquals(site.expectedUrls(), frontier.getVisited(), "Every page of the site should be visited");
+        assertEquals(site.expectedUrls().size(), site.requestCount(), "Each page should be fetched exactly once");
+        assertEquals(PriorityFrontier.StopReason.DRAINED, frontier.stopReason());
+        for (int page = 0; page < 40; page++) {
+            assertEquals(treeDepth(page), depths.get(site.pageUrl(page)), "Depth of page " + page);
+        }
+    }
+
+    @Test
+    void start_shouldNotFollowLinksBeyondTheMaxDepth() {
+        final PriorityFrontier frontier =
+                new PriorityFrontier(4, CrawlBudget.UNLIMITED.withMaxDepth(2), UriScorer.BREADTH_FIRST);
+
+        frontier.schedule(site.pageUrl(0));
+        frontier.start(processors, scope);
+
+        assertEquals(pages(0, 13), frontier.getVisited(), "Only pages up to depth 2 should be visited");
+        assertEquals(13, site.requestCount());
+        assertEquals(PriorityFrontier.StopReason.MAX_DEPTH, frontier.stopReason());
+    }
+
+    @Test
+    void start_shouldStopAtTheMaxPagesBreadthFirst() {
+        final PriorityFrontier frontier =
+                new PriorityFrontier(1, CrawlBudget.UNLIMITED.withMaxPages(10), UriScorer.BREADTH_FIRST);
+
+        frontier.schedule(site.pageUrl(0));
+        frontier.start(processors, scope);
+
+        assertEquals(pages(0, 10), frontier.getVisited(), "The 10 shallowest pages should be visited, in order");
+        assertEquals(10, site.requestCount(), "No page beyond the budget should be fetched");
+        assertEquals(PriorityFrontier.StopReason.MAX_PAGES, frontier.stopReason());
+    }
+
+    @Test
+    void start_shouldStopStartingFetchesOnceTheDurationHasElapsed() {
+        site.setResponseDelayMillis(100);
+        final List<CrawlResult> reported = Collections.synchronizedList(new ArrayList<>());
+        final boolean[] closed = new boolean[1];
+        final ResultSink sink = new ResultSink() {
+            @Override
+            public void accept(CrawlResult result) {
+                reported.add(result);
+            }
+
+            @Override
+            public void close() {
+                closed[0] = true;
+            }
+        };
+        final PriorityFrontier frontier = new PriorityFrontier(config(2, sink),
+                CrawlBudget.UNLIMITED.withMaxDuration(Duration.ofMillis(300)), UriScorer.BREADTH_FIRST);
+
+        final long startNanos = System.nanoTime();
+        frontier.schedule(site.pageUrl(0));
+        frontier.start(processors, scope);
+        final long elapsedMillis = (System.nanoTime() - startNanos) / 1_000_000;
+
+        // A full crawl takes at least 20 rounds of 100ms with 2 threads
+        assertTrue(elapsedMillis < 1500, "Crawl took " + elapsedMillis + "ms, past its 300ms budget");
+        assertTrue(site.requestCount() < 40, "The crawl should be cut short");
+        assertEquals(PriorityFrontier.StopReason.MAX_DURATION, frontier.stopReason());
+        assertEquals(site.requestCount(), reported.size(), "Fetches in flight should finish and be reported");
+        assertTrue(closed[0], "The result sink should be closed as usual");
+    }
+
+    @Test
+    void start_shouldFetchTheBestScoredPagesFirst() {
+        final UriScorer preferSubtree3 = UriScorer.BREADTH_FIRST
+                .plus(UriScorer.patterns(Map.of("/page/(3|10|11|12)$", 10.0)));
+        final PriorityFrontier frontier =
+                new PriorityFrontier(1, CrawlBudget.UNLIMITED.withMaxPages(5), preferSubtree3);
+
+        frontier.schedule(site.pageUrl(0));
+        frontier.start(processors, scope);
+
+        assertEquals(Set.of(site.pageUrl(0), site.pageUrl(3), site.pageUrl(10), site.pageUrl(11),
+                site.pageUrl(12)), frontier.getVisited(), "Page 3 and its children should jump the queue");
+    }
+
+    @Test
+    void start_shouldRescorePendingPagesAsInLinksArrive() {
+        // root -> 1, 2, 3; 1 -> 4; 2 -> 4, 5; 3 -> 4
+        final Map<Integer, List<Integer>> links = Map.of(0, List.of(1, 2, 3), 1, List.of(4), 2, List.of(4, 5),
+                3, List.of(4));
+        final Processor graph = (content, sourceUri) -> {
+            final int page = sourceUri.equals(site.pageUrl(0)) ? 0
+                    : Integer.parseInt(sourceUri.substring(sourceUri.lastIndexOf('/') + 1));
+            return links.getOrDefault(page, List.of()).stream().map(site::pageUrl)
+                    .collect(Collectors.toCollection(LinkedHashSet::new));
+        };
+        final List<String> order = Collections.synchronizedList(new ArrayList<>());
+        final PriorityFrontier frontier = new PriorityFrontier(config(1, result -> order.add(result.url())),
+                CrawlBudget.UNLIMITED, UriScorer.inLinks(1));
+
+        frontier.schedule(site.pageUrl(0));
+        frontier.start(List.of(graph), scope);
+
+        // After page 2, page 4 has two in-links and overtakes page 3, which was found first
+        assertEquals(List.of(site.pageUrl(0), site.pageUrl(1), site.pageUrl(2), site.pageUrl(4), site.pageUrl(3),
+                site.pageUrl(5)), order);
+    }
+
+    private WebCrawlerConfig config(int threadCount, ResultSink results) {
+        return WebCrawlerConfig.builder(site.pageUrl(0)).threadCount(threadCount).results(results).build();
+    }
+
+    private Set<String> pages(int from, int to) {
+        return IntStream.range(from, to).mapToObj(site::pageUrl).collect(Collectors.toSet());
+    }
+
+    private static int treeDepth(int page) {
+        int depth = 0;
+        while (page > 0) {
+            page = (page - 1) / 3;
+            depth++;
+        }
+        return depth;
+    }
+}
@@ -0,0 +1,100 @@
+package org.ank.crawler.frontier;
+
+import org.ank.crawler.config.RetryConfig;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link RetryScheduler}.
+ */
+class RetrySchedulerTest {
+
+    private static final String URI = "https://example.com/flaky";
+    private static final FetchFailure TRANSIENT = new FetchFailure(true, null, "HTTP 503");
+
+    private final BlockingQueue<String> dueUris = new LinkedBlockingQueue<>();
+    private final BlockingQueue<Integer> dueDepths = new LinkedBlockingQueue<>();
+
+    @Test
+    void retryLater_shouldHandTheUriBackAfterItsBackoff() throws InterruptedException {
+        try (RetryScheduler scheduler = scheduler(new RetryConfig(3, Duration.ofMillis(200), Duration.ofSeconds(1)))) {
+            final long start = System.nanoTime();
+            assertTrue(scheduler.retryLater(URI, 2, TRANSIENT));
+            assertFalse(scheduler.isDue(URI), "The URI should wait for its backoff");
+
+            assertEquals(URI, dueUris.poll(2, TimeUnit.SECONDS));
+            assertEquals(2, dueDepths.poll(), "The URI should come back at the depth it was queued at");
+            final long waitedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            assertTrue(waitedMillis >= 100, "Equal jitter never waits less than half the backoff, waited " + waitedMillis);
+            assertTrue(scheduler.claim(URI), "A due URI can be claimed once");
+            assertFalse(scheduler.claim(URI));
+        }
+    }
+
+    @Test
+    void retryLater_shouldGiveUpOnceAttemptsAreExhausted() throws InterruptedException {
+        try (RetryScheduler scheduler = scheduler(new RetryConfig(3, Duration.ZERO, Duration.ZERO))) {
+            assertTrue(scheduler.retryLater(URI, 0, TRANSIENT), "Attempt 1 failed, 2 left");
+            assertNotNull(dueUris.poll(1, TimeUnit.SECONDS));
+            assertTrue(scheduler.retryLater(URI, 0, TRANSIENT), "Attempt 2 failed, 1 left");
+            assertNotNull(dueUris.poll(1, TimeUnit.SECONDS));
+            assertFalse(scheduler.retryLater(URI, 0, TRANSIENT), "Attempt 3 was the last one");
+
+            assertTrue(scheduler.retryLater(URI, 0, TRANSIENT), "Giving up resets the count");
+        }
+    }
+
+    @Test
+    void succeeded_shouldResetTheAttemptCount() {
+        try (RetryScheduler scheduler = scheduler(new RetryConfig(2, Duration.ofMinutes(1), Duration.ofMinutes(1)))) {
+            assertTrue(scheduler.retryLater(URI, 0, TRANSIENT));
+            scheduler.succeeded(URI);
+            assertTrue(scheduler.retryLater(URI, 0, TRANSIENT));
+        }
+    }
+
+    @Test
+    void retryLater_shouldRejectPermanentFailuresAndLongRetryAfter() {
+        try (RetryScheduler scheduler = scheduler(new RetryConfig(5, Duration.ofMillis(10), Duration.ofSeconds(30)))) {
+            assertFalse(scheduler.retryLater(URI, 0, new FetchFailure(false, null, "HTTP 404")));
+            assertFalse(scheduler.retryLater(URI, 0, new FetchFailure(true, Duration.ofHours(1), "HTTP 429")),
+                    "A Retry-After beyond the maximum delay is not worth waiting for");
+            assertTrue(dueUris.isEmpty());
+        }
+    }
+
+    @Test
+    void retryLater_shouldCapTheBackoffOfManyAttemptsWithoutOverflowing() throws InterruptedException {
+        try (RetryScheduler scheduler = scheduler(new RetryConfig(100, Duration.ofSeconds(10), Duration.ofHours(1)))) {
+            for (int attempt = 1; attempt < 100; attempt++) {
+                assertTrue(scheduler.retryLater(URI, 0, TRANSIENT), "Attempt " + attempt + " should be retried");
+            }
+
+            assertNull(dueUris.poll(300, TimeUnit.MILLISECONDS), "Every backoff should be capped at an hour, not wrap");
+        }
+    }
+
+    @Test
+    void retryLater_shouldWaitAtLeastRetryAfter() throws InterruptedException {
+        try (RetryScheduler scheduler = scheduler(new RetryConfig(3, Duration.ZERO, Duration.ofSeconds(5)))) {
+            final long start = System.nanoTime();
+            assertTrue(scheduler.retryLater(URI, 0, new FetchFailure(true, Duration.ofMillis(300), "HTTP 429")));
+
+            assertEquals(URI, dueUris.poll(2, TimeUnit.SECONDS));
+            assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(300));
+        }
+    }
+
+    private RetryScheduler scheduler(RetryConfig config) {
+        return new RetryScheduler(config, (uri, depth) -> {
+            dueDepths.add(depth);
+            dueUris.add(uri);
+        });
+    }
+}
@@ -0,0 +1,106 @@
+package org.ank.crawler.frontier;
+
+import org.ank.crawler.config.CheckpointConfig;
+import org.ank.crawler.config.WebCrawlerConfig;
+import org.ank.crawler.controller.CrawlController;
+import org.ank.crawler.fetcher.FetchedContent;
+import org.ank.crawler.fetcher.HtmlFetcher;
+import org.ank.crawler.fetcher.JsoupHtmlFetcher;
+import org.ank.crawler.processor.LinkExtractorProcessor;
+import org.ank.crawler.processor.Processor;
+import org.ank.crawler.scope.DomainScope;
+import org.ank.crawler.scope.Scope;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import server.TestSiteServer;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Stops a crawl of a local {@link TestSiteServer} part-way, then resumes it from its checkpoint
+ * through {@link CrawlController#resumeCrawl} and checks no page is fetched twice.
+ */
+class SimpleFrontierCheckpointTest {
+
+    private static final int PAGE_COUNT = 120;
+    private static final int FAN_OUT = 4;
+    private static final int FETCHES_BEFORE_CRASH = 40;
+
+    @TempDir
+    Path checkpointDir;
+
+    private TestSiteServer site;
+    private Scope scope;
+    private List<Processor> processors;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        site = new TestSiteServer(PAGE_COUNT, FAN_OUT);
+        scope = new DomainScope(site.host());
+        processors = List.of(new LinkExtractorProcessor());
+    }
+
+    @AfterEach
+    void tearDown() {
+        site.close();
+    }
+
+    @Test
+    void resumeCrawl_shouldFinishWithoutRefetchingVisitedPages() {
+        final WebCrawlerConfig config = WebCrawlerConfig.builder(site.pageUrl(0))
+                .threadCount(1).checkpoint(CheckpointConfig.in(checkpointDir)).build();
+
+        final SimpleFrontier firstRun = new SimpleFrontier(config, new CrashingFetcher(FETCHES_BEFORE_CRASH));
+        new CrawlController(scope, processors, firstRun).beginCrawl(config.seedUrl());
+        assertEquals(FETCHES_BEFORE_CRASH, site.requestCount(), "The first run should stop after the crash");
+
+        final SimpleFrontier secondRun = new SimpleFrontier(config);
+        final CrawlController controller = new CrawlController(scope, processors, secondRun);
+        controller.resumeCrawl(config.seedUrl(), checkpointDir);
+
+        assertEquals(site.expectedUrls(), controller.getVisitedUris(), "The resumed crawl should reach every page");
+        assertEquals(site.expectedUrls().size(), site.requestCount(), "Every page should be fetched exactly once");
+    }
+
+    @Test
+    void resumeCrawl_shouldStartFromSeedWithoutCheckpoint() {
+        final WebCrawlerConfig config = WebCrawlerConfig.builder(site.pageUrl(0))
+                .threadCount(4).checkpoint(CheckpointConfig.in(checkpointDir)).build();
+        final CrawlController controller = new CrawlController(scope, processors, new SimpleFrontier(config));
+
+        controller.resumeCrawl(config.seedUrl(), checkpointDir.resolve("empty"));
+
+        assertEquals(site.expectedUrls(), controller.getVisitedUris());
+    }
+
+    /**
+     * Fetches normally until its budget is spent, then kills the worker thread like a dying process would.
+     */
+    private static final class CrashingFetcher implements HtmlFetcher {
+        private final HtmlFetcher delegate = new JsoupHtmlFetcher();
+        private final AtomicInteger remaining;
+
+        private CrashingFetcher(int fetches) {
+            this.remaining = new AtomicInteger(fetches);
+        }
+
+        @Override
+        public FetchedContent fetch(String uri) throws IOException {
+            if (remaining.getAndDecrement() <= 0) {
+                throw new SimulatedCrash();
+            }
+            return delegate.fetch(uri);
+        }
+    }
+
+    private static final class SimulatedCrash extends Error {
+        private static final long serialVersionUID = 1L;
+    }
+}
@@ -0,0 +1,225 @@
+package org.ank.crawler.frontier;
+
+import org.ank.crawler.config.DedupeConfig;
+import org.ank.crawler.config.ExecutionMode;
+import org.ank.crawler.config.MetricsConfig;
+import org.ank.crawler.config.QueueConfig;
+import org.ank.crawler.config.WebCrawlerConfig;
+import org.ank.crawler.fetcher.HttpClientHtmlFetcher;
+import org.ank.crawler.metrics.MetricsSnapshot;
+import org.ank.crawler.processor.LinkExtractorProcessor;
+import org.ank.crawler.processor.Processor;
+import org.ank.crawler.scope.DomainScope;
+import org.ank.crawler.scope.Scope;
+import org.ank.crawler.sink.CrawlResult;
+import org.ank.crawler.sink.ResultSink;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import server.TestSiteServer;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Crawls a local {@link TestSiteServer} with each {@link ExecutionMode}
+ * and checks both modes reach exactly the same pages.
+ */
+class SimpleFrontierExecutionModeTest {
+
+    private static final int PAGE_COUNT = 120;
+    private static final int FAN_OUT = 4;
+
+    private TestSiteServer site;
+    private Scope scope;
+    private List<Processor> processors;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        site = new TestSiteServer(PAGE_COUNT, FAN_OUT);
+        scope = new DomainScope(site.host());
+        processors = List.of(new LinkExtractorProcessor());
+    }
+
+    @AfterEach
+    void tearDown() {
+        site.close();
+    }
+
+    @Test
+    void virtualThreadMode_shouldVisitSameUrlsAsPlatformThreadMode() {
+        final Set<String> platformVisited = crawl(WebCrawlerConfig.builder(site.pageUrl(0))
+                .threadCount(4).executionMode(ExecutionMode.PLATFORM_THREADS).build());
+        final Set<String> virtualVisited = crawl(WebCrawlerConfig.builder(site.pageUrl(0))
+                .executionMode(ExecutionMode.VIRTUAL_THREADS).maxInFlightFetches(64).build());
+
+        assertEquals(site.expectedUrls(), platformVisited, "Platform-thread crawl should reach every page");
+        assertEquals(platformVisited, virtualVisited, "Both modes should visit the same set of URLs");
+    }
+
+    @Test
+    void virtualThreadMode_shouldRespectSingleInFlightCap() {
+        final Set<String> visited = crawl(WebCrawlerConfig.builder(site.pageUrl(0))
+                .executionMode(ExecutionMode.VIRTUAL_THREADS).maxInFlightFetches(1).build());
+
+        assertEquals(site.expectedUrls(), visited, "A cap of one fetch should still complete the crawl");
+    }
+
+    @Test
+    void metrics_shouldCountEveryFetchOfTheCrawl() {
+        final SimpleFrontier frontier = new SimpleFrontier(WebCrawlerConfig.builder(site.pageUrl(0))
+                .executionMode(ExecutionMode.VIRTUAL_THREADS).maxInFlightFetches(16)
+                .metrics(MetricsConfig.RECORDING).build(), new HttpClientHtmlFetcher());
+
+        frontier.schedule(site.pageUrl(0));
+        frontier.start(processors, scope);
+
+        final MetricsSnapshot metrics = frontier.metrics();
+        assertEquals(PAGE_COUNT, metrics.pagesFetched());
+        assertEquals(Map.of(200, (long) PAGE_COUNT), metrics.statusCounts());
+        assertEquals(PAGE_COUNT, metrics.parseLatency().count());
+        assertEquals(PAGE_COUNT, metrics.hosts().get(site.baseUrl().substring("http://".length())).pages());
+        assertEquals(0, metrics.inFlight());
+        assertEquals(0, metrics.queueDepth());
+        assertTrue(metrics.bytesFetched() > 0);
+        assertTrue(metrics.fetchLatency().p99Nanos() >= metrics.fetchLatency().p50Nanos());
+        assertTrue(metrics.pagesPerSecond() > 0);
+    }
+
+    @Test
+    void metrics_shouldBeEmptyWhenDisabled() {
+        final SimpleFrontier frontier = new SimpleFrontier(WebCrawlerConfig.builder(site.pageUrl(0)).build(),
+                new HttpClientHtmlFetcher());
+
+        frontier.schedule(site.pageUrl(0));
+        frontier.start(processors, scope);
+
+        assertEquals(MetricsSnapshot.EMPTY, frontier.metrics());
+    }
+
+    @Test
+    void results_shouldReportEveryPageOnceAndCloseTheSink() {
+        final Map<String, CrawlResult> results = new ConcurrentHashMap<>();
+        final AtomicBoolean closed = new AtomicBoolean();
+        final ResultSink sink = new ResultSink() {
+            @Override
+            public void accept(CrawlResult result) {
+                assertFalse(closed.get(), "No result should arrive after the sink is closed");
+                assertNull(results.put(result.url(), result), "Each page should be reported once");
+            }
+
+            @Override
+            public void close() {
+                closed.set(true);
+            }
+        };
+        final SimpleFrontier frontier = new SimpleFrontier(WebCrawlerConfig.builder(site.pageUrl(0))
+                .threadCount(4).results(sink).build(), new HttpClientHtmlFetcher());
+
+        frontier.schedule(site.pageUrl(0));
+        frontier.start(processors, scope);
+
+        assertTrue(closed.get(), "The frontier should close the sink when the crawl ends");
+        assertEquals(site.expectedUrls(), results.keySet());
+        final CrawlResult root = results.get(site.pageUrl(0));
+        assertEquals(200, root.statusCode());
+        assertEquals(0, root.depth());
+        assertTrue(root.bytes() > 0);
+        assertTrue(root.latencyNanos() > 0);
+        assertEquals(FAN_OUT + 2, root.outlinks(), "Children, home and the off-site link, before the scope check");
+    }
+
+    @Test
+    void results_shouldReportTheLinkDepthOfEveryPage() {
+        final Map<String, Integer> depths = new ConcurrentHashMap<>();
+        final SimpleFrontier frontier = new SimpleFrontier(WebCrawlerConfig.builder(site.pageUrl(0))
+                .executionMode(ExecutionMode.VIRTUAL_THREADS).maxInFlightFetches(16)
+                .results(result -> depths.put(result.url(), result.depth())).build(), new HttpClientHtmlFetcher());
+
+        frontier.schedule(site.pageUrl(0));
+        frontier.start(processors, scope);
+
+        for (int page = 0; page < PAGE_COUNT; page++) {
+            assertEquals(treeDepth(page), depths.get(site.pageUrl(page)), "Depth of page " + page);
+        }
+    }
+
+    @Test
+    void virtualThreadMode_shouldCrawlWithSharedHttpClientFetcher() {
+        final WebCrawlerConfig config = WebCrawlerConfig.builder(site.pageUrl(0))
+                .executionMode(ExecutionMode.VIRTUAL_THREADS).maxInFlightFetches(64).build();
+        final SimpleFrontier frontier = new SimpleFrontier(config, new HttpClientHtmlFetcher());
+
+        frontier.schedule(config.seedUrl());
+        frontier.start(processors, scope);
+
+        assertEquals(site.expectedUrls(), frontier.getVisited(), "Pooled fetcher should reach every page");
+        assertTrue(site.connectionCount() < PAGE_COUNT, "Connections should be reused across pages");
+    }
+
+    @Test
+    void fingerprintDedupe_shouldVisitSameUrlsAsExactDedupe(@TempDir Path tempDir) {
+        final Set<String> exactVisited = crawl(WebCrawlerConfig.builder(site.pageUrl(0))
+                .threadCount(4).build());
+        final Set<String> fingerprintVisited = crawl(WebCrawlerConfig.builder(site.pageUrl(0))
+                .executionMode(ExecutionMode.VIRTUAL_THREADS).maxInFlightFetches(64)
+                .dedupe(DedupeConfig.fingerprint(PAGE_COUNT, tempDir.resolve("visited.txt"))).build());
+
+        assertEquals(site.expectedUrls(), exactVisited, "Exact dedupe should reach every page");
+        assertEquals(exactVisited, fingerprintVisited, "Fingerprint dedupe should visit the same set of URLs");
+    }
+
+    @Test
+    void bloomDedupe_shouldVisitSameUrlsAsExactDedupe(@TempDir Path tempDir) {
+        final Set<String> exactVisited = crawl(WebCrawlerConfig.builder(site.pageUrl(0))
+                .threadCount(4).build());
+        final Set<String> bloomVisited = crawl(WebCrawlerConfig.builder(site.pageUrl(0))
+                .threadCount(4)
+                .dedupe(DedupeConfig.bloom(PAGE_COUNT / 4, 1e-6, tempDir.resolve("visited.txt"))).build());
+
+        assertEquals(exactVisited, bloomVisited, "Bloom dedupe should visit the same set of URLs, even after growing");
+    }
+
+    @Test
+    void spillingQueue_shouldVisitSameUrlsAsInMemoryQueue(@TempDir Path tempDir) {
+        final Set<String> inMemoryVisited = crawl(WebCrawlerConfig.builder(site.pageUrl(0))
+                .threadCount(4).build());
+        final Set<String> spillingVisited = crawl(WebCrawlerConfig.builder(site.pageUrl(0))
+                .executionMode(ExecutionMode.VIRTUAL_THREADS).maxInFlightFetches(64)
+                .queue(QueueConfig.spilling(tempDir, 2, QueueConfig.MIN_SEGMENT_BYTES)).build());
+
+        assertEquals(inMemoryVisited, spillingVisited, "A queue that spills almost everything should visit the same URLs");
+        assertEquals(0, tempDir.toFile().list().length, "Spill files should be removed after the crawl");
+    }
+
+    @Test
+    void config_shouldRejectNonPositiveInFlightCap() {
+        assertThrows(IllegalArgumentException.class,
+                () -> WebCrawlerConfig.builder(site.pageUrl(0)).maxInFlightFetches(0).build(),
+                "A zero in-flight cap should be rejected");
+    }
+
+    private Set<String> crawl(WebCrawlerConfig config) {
+        final SimpleFrontier frontier = new SimpleFrontier(config);
+        frontier.schedule(config.seedUrl());
+        frontier.start(processors, scope);
+        return Set.copyOf(frontier.getVisited());
+    }
+
+    private static int treeDepth(int page) {
+        int depth = 0;
+        while (page > 0) {
+            page = (page - 1) / FAN_OUT;
+            depth++;
+        }
+        return depth;
+    }
+}
@@ -0,0 +1,168 @@
+package org.ank.crawler.frontier;
+
+import org.ank.crawler.config.ExecutionMode;
+import org.ank.crawler.config.WebCrawlerConfig;
+import org.ank.crawler.fetcher.FetchedContent;
+import org.ank.crawler.fetcher.HtmlFetcher;
+import org.ank.crawler.processor.LinkExtractorProcessor;
+import org.ank.crawler.processor.Processor;
+import org.ank.crawler.scope.DomainScope;
+import org.ank.crawler.scope.Scope;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that {@link SimpleFrontier} keeps every worker until the frontier is truly drained,
+ * using an in-memory site whose fetches are artificially slow.
+ */
+class SimpleFrontierQuiescenceTest {
+
+    private static final String ROOT = "https://example.com/";
+    private static final String SLOW_HUB = ROOT + "hub";
+    private static final int LEAVES = 8;
+    private static final int THREADS = 4;
+
+    private final Scope scope = new DomainScope("example.com");
+    private final List<Processor> processors = List.of(new LinkExtractorProcessor());
+
+    @Test
+    void workers_shouldStayAliveWhileASlowFetchIsStillDiscoveringLinks() {
+        // The hub takes longer than the queue poll timeout, so idle workers used to give up before it returned
+        final SlowSite site = new SlowSite(Map.of(SLOW_HUB, 1_500L), 400);
+        final SimpleFrontier frontier = new SimpleFrontier(
+                WebCrawlerConfig.builder(ROOT).threadCount(THREADS).build(), site);
+
+        frontier.schedule(ROOT);
+        frontier.start(processors, scope);
+
+        assertEquals(site.urls(), frontier.getVisited(), "Every page should be visited");
+        assertEquals(THREADS, site.maxConcurrentAfterHub(),
+                "All workers should still be there to fetch the hub's links in parallel");
+    }
+
+    @Test
+    void virtualThreads_shouldWaitForSlowFetchesAndFetchDiscoveriesInParallel() {
+        final SlowSite site = new SlowSite(Map.of(SLOW_HUB, 1_500L), 400);
+        final SimpleFrontier frontier = new SimpleFrontier(WebCrawlerConfig.builder(ROOT)
+                .executionMode(ExecutionMode.VIRTUAL_THREADS).maxInFlightFetches(THREADS).build(), site);
+
+        frontier.schedule(ROOT);
+        frontier.start(processors, scope);
+
+        assertEquals(site.urls(), frontier.getVisited());
+        assertEquals(THREADS, site.maxConcurrentAfterHub());
+    }
+
+    @Test
+    void crawl_shouldEndAsSoonAsFrontierIsEmpty() {
+        for (ExecutionMode mode : ExecutionMode.values()) {
+            final SlowSite site = new SlowSite(Map.of(), 0);
+            final SimpleFrontier frontier = new SimpleFrontier(
+                    WebCrawlerConfig.builder(ROOT).threadCount(THREADS).executionMode(mode).build(), site);
+            frontier.schedule(ROOT);
+
+            final long start = System.nanoTime();
+            frontier.start(processors, scope);
+            final Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+            assertEquals(site.urls(), frontier.getVisited());
+            assertTrue(elapsed.toMillis() < SimpleFrontier.QUEUE_POLL_TIMEOUT_SECONDS * 1000L / 2,
+                    mode + " crawl should not wait out an idle poll, took " + elapsed.toMillis() + " ms");
+        }
+    }
+
+    @Test
+    void scheduleAll_shouldVisitEveryUriOfTheBatch() {
+        final SlowSite site = new SlowSite(Map.of(), 0);
+        final SimpleFrontier frontier = new SimpleFrontier(
+                WebCrawlerConfig.builder(ROOT).threadCount(THREADS).build(), site);
+
+        frontier.scheduleAll(List.copyOf(site.urls()));
+        frontier.start(List.of(), scope);
+
+        assertEquals(site.urls(), frontier.getVisited());
+    }
+
+    @Test
+    void start_shouldReturnImmediatelyWhenNothingIsScheduled() {
+        final SimpleFrontier frontier = new SimpleFrontier(WebCrawlerConfig.builder(ROOT).threadCount(THREADS).build(),
+                uri -> fail("Nothing should be fetched"));
+
+        assertTimeoutPreemptively(Duration.ofMillis(500), () -> frontier.start(processors, scope));
+        assertTrue(frontier.getVisited().isEmpty());
+    }
+
+    @Test
+    void fatalError_shouldStopTheCrawlInsteadOfHanging() {
+        final SimpleFrontier frontier = new SimpleFrontier(WebCrawlerConfig.builder(ROOT).threadCount(1).build(),
+                uri -> {
+                    throw new AssertionError("fatal");
+                });
+        frontier.schedule(ROOT);
+        frontier.schedule(ROOT + "other");
+
+        assertTimeoutPreemptively(Duration.ofSeconds(5), () -> frontier.start(processors, scope),
+                "A worker that dies must not leave the frontier waiting for work that will never finish");
+    }
+
+    /**
+     * A root page linking to a hub, which links to {@value #LEAVES} leaves. Fetches sleep for a configured time
+     * and the fetcher records how many run at once once the hub has been fetched.
+     */
+    private static final class SlowSite implements HtmlFetcher {
+        private final Map<String, String> pages = new HashMap<>();
+        private final Map<String, Long> delays;
+        private final long defaultDelayMillis;
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicInteger maxConcurrentAfterHub = new AtomicInteger();
+        private volatile boolean hubFetched;
+
+        private SlowSite(Map<String, Long> delays, long defaultDelayMillis) {
+            this.delays = delays;
+            this.defaultDelayMillis = defaultDelayMillis;
+            pages.put(ROOT, "<a href=\"/hub\">hub</a>");
+            final StringBuilder hub = new StringBuilder();
+            for (int i = 0; i < LEAVES; i++) {
+                hub.append("<a href=\"/leaf/").append(i).append("\">leaf</a>");
+                pages.put(ROOT + "leaf/" + i, "<p>leaf</p>");
+            }
+            pages.put(SLOW_HUB, hub.toString());
+        }
+
+        Set<String> urls() {
+            return pages.keySet();
+        }
+
+        int maxConcurrentAfterHub() {
+            return maxConcurrentAfterHub.get();
+        }
+
+        @Override
+        public FetchedContent fetch(String uri) {
+            final int concurrent = inFlight.incrementAndGet();
+            try {
+                if (hubFetched) {
+                    maxConcurrentAfterHub.accumulateAndGet(concurrent, Math::max);
+                }
+                Thread.sleep(delays.getOrDefault(uri, ROOT.equals(uri) ? 0 : defaultDelayMillis));
+                if (SLOW_HUB.equals(uri)) {
+                    hubFetched = true;
+                }
+                return new FetchedContent(200, pages.getOrDefault(uri, ""));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return new FetchedContent(500, "");
+            } finally {
+                inFlight.decrementAndGet();
+            }
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package org.ank.crawler.frontier;
+
+import org.ank.crawler.config.ExecutionMode;
+import org.ank.crawler.config.PipelineConfig;
+import org.ank.crawler.config.WebCrawlerConfig;
+import org.ank.crawler.fetcher.HttpClientHtmlFetcher;
+import org.ank.crawler.processor.LinkExtractorProcessor;
+import org.ank.crawler.processor.Processor;
+import org.ank.crawler.scope.Scope;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import server.TestSiteServer;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests {@link ExecutionMode#STAGED} crawls of {@link SimpleFrontier} against a local {@link TestSiteServer}:
+ * completeness, backpressure from a slow parse stage, and the per-stage statistics.
+ */
+class SimpleFrontierStagedTest {
+
+    private static final int FETCH_THREADS = 4;
+
+    private TestSiteServer site;
+    private Scope scope;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        site = new TestSiteServer(60, 3);
+        scope = uri -> uri.startsWith(site.baseUrl());
+    }
+
+    @AfterEach
+    void tearDown() {
+        site.close();
+    }
+
+    @Test
+    void start_shouldVisitEveryPageOfTheSiteOnce() {
+        final SimpleFrontier frontier = stagedFrontier(new PipelineConfig(2, 8));
+
+        frontier.schedule(site.pageUrl(0));
+        frontier.start(List.of(new LinkExtractorProcessor()), scope);
+
+        assertEquals(site.expectedUrls(), frontier.getVisited(), "Every page of the site should be visited");
+        assertEquals(site.expectedUrls().size(), site.requestCount(), "Each page should be fetched exactly once");
+    }
+
+    @Test
+    void start_shouldHoldFetchingBackWhenParsingFallsBehind() {
+        final int capacity = 2;
+        final SimpleFrontier frontier = stagedFrontier(new PipelineConfig(1, capacity));
+        final AtomicInteger parsed = new AtomicInteger();
+        final AtomicInteger maxAhead = new AtomicInteger();
+        final LinkExtractorProcessor links = new LinkExtractorProcessor();
+        final Processor slowParser = (content, uri) -> {
+            maxAhead.accumulateAndGet(site.requestCount() - parsed.get(), Math::max);
+            sleep(20);
+            parsed.incrementAndGet();
+            return links.process(content, uri);
+        };
+
+        frontier.schedule(site.pageUrl(0));
+        frontier.start(List.of(slowParser), scope);
+
+        assertEquals(site.expectedUrls(), frontier.getVisited());
+        // At most: the page being parsed, a full handoff queue, and one page per fetch thread waiting for room
+        assertTrue(maxAhead.get() <= 1 + capacity + FETCH_THREADS,
+                "Fetching ran " + maxAhead.get() + " pages ahead of parsing");
+
+        final List<StageStats> stats = frontier.stageStats();
+        assertEquals(List.of("fetch", "parse"), stats.stream().map(StageStats::name).toList());
+        final StageStats fetch = stats.get(0);
+        final StageStats parse = stats.get(1);
+        assertEquals(site.expectedUrls().size(), fetch.processed());
+        assertEquals(site.expectedUrls().size(), parse.processed());
+        assertEquals(capacity, parse.queueCapacity());
+        assertEquals(0, parse.queueDepth());
+        assertTrue(parse.utilization() > 0.5, "The slow parse stage should be the busy one: " + parse);
+        assertTrue(fetch.blocked() > 0, "Fetch threads should have waited for the parse stage: " + fetch);
+    }
+
+    @Test
+    void stageStats_shouldBeEmptyOutsideStagedMode() {
+        final SimpleFrontier frontier = new SimpleFrontier(WebCrawlerConfig.builder(site.baseUrl()).build(),
+                new HttpClientHtmlFetcher());
+
+        frontier.schedule(site.pageUrl(0));
+        frontier.start(List.of(new LinkExtractorProcessor()), scope);
+
+        assertEquals(List.of(), frontier.stageStats());
+    }
+
+    @Test
+    void fatalError_inParseStage_shouldStopTheCrawlInsteadOfHanging() {
+        final SimpleFrontier frontier = stagedFrontier(new PipelineConfig(1, 1));
+        frontier.schedule(site.pageUrl(0));
+        frontier.schedule(site.pageUrl(1));
+
+        assertTimeoutPreemptively(Duration.ofSeconds(5), () -> frontier.start(List.of((content, uri) -> {
+            throw new AssertionError("fatal");
+        }), scope), "A parse thread that dies must not leave the frontier waiting");
+        assertEquals(Set.of(site.pageUrl(0), site.pageUrl(1)), frontier.getVisited());
+    }
+
+    private SimpleFrontier stagedFrontier(PipelineConfig pipeline) {
+        return new SimpleFrontier(WebCrawlerConfig.builder(site.baseUrl())
+                .threadCount(FETCH_THREADS)
+                .executionMode(ExecutionMode.STAGED)
+                .pipeline(pipeline)
+                .build(), new HttpClientHtmlFetcher());
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
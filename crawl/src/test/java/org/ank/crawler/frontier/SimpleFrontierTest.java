@@ -1,8 +1,11 @@
 package org.ank.crawler.frontier;
 
 import constant.TestConstants;
+import org.ank.crawler.config.WebCrawlerConfig;
+import org.ank.crawler.fetcher.FetchedContent;
 import org.ank.crawler.processor.Processor;
 import org.ank.crawler.scope.Scope;
+import org.ank.crawler.url.StandardUrlCanonicalizer;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -29,7 +32,8 @@ class SimpleFrontierTest {
         mockScope = mock(Scope.class);
         when(mockScope.isInScope(anyString())).thenReturn(true);
 
-        mockProcessor = mock(Processor.class);
+        // Real default methods, so the page-context entry point reaches the stubbed raw-content one
+        mockProcessor = mock(Processor.class, CALLS_REAL_METHODS);
         when(mockProcessor.process(any(), any())).thenReturn(Set.of());
     }
 
@@ -81,4 +85,25 @@ class SimpleFrontierTest {
         assertTrue(visited.contains(TestConstants.VALID_SEED_URL));
         assertFalse(visited.contains(TestConstants.OUT_OF_SCOPE_URL));
     }
+
+    @Test
+    void testCanonicalizedDuplicatesAreVisitedOnce() {
+        when(mockProcessor.process(any(), eq("https://www.teya.com/")))
+                .thenReturn(Set.of("https://WWW.teya.com/child1", "https://www.teya.com/child1#top",
+                        "https://www.teya.com:443/child1?utm_source=news", "https://www.teya.com/x/../child1",
+                        TestConstants.CHILD_URL_2));
+
+        final WebCrawlerConfig config = WebCrawlerConfig.builder(TestConstants.VALID_SEED_URL)
+                .threadCount(2)
+                .urlCanonicalizer(new StandardUrlCanonicalizer())
+                .build();
+        final SimpleFrontier canonicalizing = new SimpleFrontier(config, uri -> new FetchedContent(200, ""));
+
+        canonicalizing.schedule(TestConstants.VALID_SEED_URL);
+        canonicalizing.start(List.of(mockProcessor), mockScope);
+
+        assertEquals(Set.of("https://www.teya.com/", TestConstants.CHILD_URL_1, TestConstants.CHILD_URL_2),
+                canonicalizing.getVisited(), "Equivalent URLs should collapse to one canonical visit");
+        verify(mockProcessor, times(3)).process(any(), any());
+    }
 }
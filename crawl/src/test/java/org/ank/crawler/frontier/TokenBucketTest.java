@@ -0,0 +1,46 @@
+package org.ank.crawler.frontier;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests {@link TokenBucket}'s refill and wait-time arithmetic using synthetic clock readings.
+ */
+class TokenBucketTest {
+
+    private static final long MILLI = 1_000_000L;
+
+    @Test
+    void tryAcquire_shouldAllowBurstThenRefuse() {
+        final TokenBucket bucket = new TokenBucket(10, 3, 0);
+
+        assertTrue(bucket.tryAcquire(0));
+        assertTrue(bucket.tryAcquire(0));
+        assertTrue(bucket.tryAcquire(0));
+        assertFalse(bucket.tryAcquire(0), "Burst of 3 should be exhausted");
+    }
+
+    @Test
+    void nanosUntilAvailable_shouldReflectRefillRate() {
+        final TokenBucket bucket = new TokenBucket(10, 1, 0);
+        assertTrue(bucket.tryAcquire(0));
+
+        assertEquals(100 * MILLI, bucket.nanosUntilAvailable(0), "10 tokens/s means one token every 100ms");
+        assertEquals(40 * MILLI, bucket.nanosUntilAvailable(60 * MILLI), "60ms in, 40ms should remain");
+        assertTrue(bucket.tryAcquire(100 * MILLI), "A token should be available after 100ms");
+    }
+
+    @Test
+    void refill_shouldNeverExceedCapacity() {
+        final TokenBucket bucket = new TokenBucket(10, 2, 0);
+        assertTrue(bucket.tryAcquire(0));
+        assertTrue(bucket.tryAcquire(0));
+
+        // A long idle period refills only up to the burst size
+        final long later = 10_000 * MILLI;
+        assertTrue(bucket.tryAcquire(later));
+        assertTrue(bucket.tryAcquire(later));
+        assertFalse(bucket.tryAcquire(later), "Bucket should hold at most 2 tokens");
+    }
+}
@@ -0,0 +1,101 @@
+package org.ank.crawler.frontier;
+
+import org.ank.crawler.cache.ValidatorStore;
+import org.ank.crawler.fetcher.FetchedContent;
+import org.ank.crawler.metrics.InMemoryCrawlMetrics;
+import org.ank.crawler.metrics.MetricsSnapshot;
+import org.ank.crawler.processor.LinkExtractorProcessor;
+import org.ank.crawler.processor.PageContext;
+import org.ank.crawler.processor.Processor;
+import org.ank.crawler.url.UrlCanonicalizer;
+import org.jsoup.nodes.Document;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests that {@link UriProcessor} runs the processor chain on one shared {@link PageContext}, and reports its fetches
+ * and parses to the crawl metrics.
+ */
+class UriProcessorTest {
+
+    private static final String URI = "https://www.example.com/";
+
+    @Test
+    void process_shouldParseThePageOnceForTheWholeChain() {
+        final List<Document> documents = new ArrayList<>();
+        final List<PageContext> pages = new ArrayList<>();
+        final Processor titles = new Processor() {
+            @Override
+            public Set<String> process(FetchedContent fetchedContent, String sourceUri) {
+                throw new AssertionError("The frontier should pass the page context");
+            }
+
+            @Override
+            public Set<String> process(PageContext page) {
+                documents.add(page.document());
+                pages.add(page);
+                return Set.of();
+            }
+        };
+        final UriProcessor uriProcessor = new UriProcessor(
+                uri -> new FetchedContent(200, "<title>t</title><a href=\"/next\">next</a>"),
+                List.of(titles, new LinkExtractorProcessor(), titles),
+                uri -> true, UrlCanonicalizer.IDENTITY, ValidatorStore.NONE);
+
+        final UriProcessor.Result result = uriProcessor.process(URI);
+
+        assertEquals(Set.of(URI + "next"), result.discovered());
+        assertEquals(2, documents.size());
+        assertSame(documents.get(0), documents.get(1), "Every processor should see the same parse");
+        assertFalse(pages.get(0).isParsed(), "The context should be released once the chain is done");
+    }
+
+    @Test
+    void process_shouldReportFetchesAndParsesToTheMetrics() {
+        final InMemoryCrawlMetrics metrics = new InMemoryCrawlMetrics();
+        final UriProcessor uriProcessor = new UriProcessor(uri -> {
+            if (uri.endsWith("slow")) {
+                throw new SocketTimeoutException("timed out");
+            }
+            return new FetchedContent(uri.endsWith("missing") ? 404 : 200,
+                    "<a href=\"/a\">a</a><a href=\"/b\">b</a>", Map.of("Content-Length", "1000"));
+        }, List.of(new LinkExtractorProcessor()), uri -> true, UrlCanonicalizer.IDENTITY, ValidatorStore.NONE, metrics);
+
+        uriProcessor.process(URI);
+        uriProcessor.process(URI + "missing");
+        uriProcessor.process(URI + "slow");
+
+        final MetricsSnapshot snapshot = metrics.snapshot();
+        assertEquals(2, snapshot.pagesFetched());
+        assertEquals(2000, snapshot.bytesFetched(), "The announced Content-Length should be counted");
+        assertEquals(Map.of(200, 1L, 404, 1L), snapshot.statusCounts());
+        assertEquals(Map.of("SocketTimeoutException", 1L), snapshot.errorCounts());
+        assertEquals(3, snapshot.fetchLatency().count(), "Failed fetches should be timed too");
+        assertEquals(2, snapshot.parseLatency().count(), "Only responses should be parsed");
+        assertEquals(2, snapshot.linksExtracted(), "The 404 page should yield no links");
+        assertEquals(0, snapshot.inFlight());
+        assertEquals(new MetricsSnapshot.HostStats(2, 1, 2000, snapshot.fetchLatency().totalNanos()),
+                snapshot.hosts().get("www.example.com"));
+    }
+
+    @Test
+    void fetch_shouldCountFetcherExceptionsAsErrors() throws IOException {
+        final InMemoryCrawlMetrics metrics = new InMemoryCrawlMetrics();
+        final UriProcessor uriProcessor = new UriProcessor(uri -> {
+            throw new IllegalStateException("bug");
+        }, List.of(), uri -> true, UrlCanonicalizer.IDENTITY, ValidatorStore.NONE, metrics);
+
+        assertNull(uriProcessor.fetch(URI).content());
+
+        assertEquals(Map.of("IllegalStateException", 1L), metrics.snapshot().errorCounts());
+        assertEquals(0, metrics.snapshot().inFlight(), "A failed fetch should leave the in-flight count");
+    }
+}
@@ -0,0 +1,158 @@
+package org.ank.crawler.metrics;
+
+import org.ank.crawler.config.MetricsConfig;
+import org.ank.crawler.dedupe.VisitedSet;
+import org.junit.jupiter.api.Test;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.TabularData;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.net.ConnectException;
+import java.net.SocketTimeoutException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests what {@link InMemoryCrawlMetrics} records and how it is exported over JMX and HTTP.
+ */
+class InMemoryCrawlMetricsTest {
+
+    @Test
+    void snapshot_shouldAddUpFetchesPerStatusErrorAndHost() {
+        final InMemoryCrawlMetrics metrics = new InMemoryCrawlMetrics();
+        metrics.fetched("https://a.example/x", 200, 100, metrics.fetchStarted());
+        metrics.fetched("https://a.example/y?q", 200, 50, metrics.fetchStarted());
+        metrics.fetched("https://b.example:8443/", 503, 10, metrics.fetchStarted());
+        metrics.fetchFailed("https://b.example:8443/z", new SocketTimeoutException(), metrics.fetchStarted());
+        metrics.fetchFailed("https://b.example:8443/z", new SocketTimeoutException(), metrics.fetchStarted());
+        metrics.fetchFailed("https://c.example", new ConnectException(), metrics.fetchStarted());
+        metrics.parsed(7, 1000);
+        metrics.fetchStarted(); // still in flight
+        metrics.queueDepth(() -> 42);
+        metrics.visitedSet(() -> new VisitedSet.Health(9, 0.25, 1e-7));
+
+        final MetricsSnapshot snapshot = metrics.snapshot();
+        assertEquals(3, snapshot.pagesFetched());
+        assertEquals(160, snapshot.bytesFetched());
+        assertEquals(3, snapshot.fetchErrors());
+        assertEquals(7, snapshot.linksExtracted());
+        assertEquals(42, snapshot.queueDepth());
+        assertEquals(1, snapshot.inFlight());
+        assertEquals(new VisitedSet.Health(9, 0.25, 1e-7), snapshot.visited());
+        assertEquals(6, snapshot.fetchLatency().count());
+        assertEquals(1, snapshot.parseLatency().count());
+        assertEquals(Map.of(200, 2L, 503, 1L), snapshot.statusCounts());
+        assertEquals(Map.of("SocketTimeoutException", 2L, "ConnectException", 1L), snapshot.errorCounts());
+        assertEquals(Map.of("a.example", 2L, "b.example:8443", 1L, "c.example", 0L),
+                Map.of("a.example", snapshot.hosts().get("a.example").pages(),
+                        "b.example:8443", snapshot.hosts().get("b.example:8443").pages(),
+                        "c.example", snapshot.hosts().get("c.example").pages()));
+        assertEquals(2, snapshot.hosts().get("b.example:8443").errors());
+        assertEquals(150, snapshot.hosts().get("a.example").bytes());
+    }
+
+    @Test
+    void hostOf_shouldTakeTheAuthorityWithoutUserInfo() {
+        assertEquals("www.example.com", InMemoryCrawlMetrics.hostOf("https://www.example.com/path"));
+        assertEquals("example.com:8080", InMemoryCrawlMetrics.hostOf("http://user:pw@example.com:8080?q#f"));
+        assertEquals("example.com", InMemoryCrawlMetrics.hostOf("http://example.com#top"));
+        assertEquals("not a url", InMemoryCrawlMetrics.hostOf("not a url"));
+    }
+
+    @Test
+    void hosts_beyondTheMaximum_shouldBeAddedUpTogether() {
+        final InMemoryCrawlMetrics metrics = new InMemoryCrawlMetrics();
+        for (int i = 0; i < InMemoryCrawlMetrics.MAX_HOSTS + 5; i++) {
+            metrics.fetched("https://host" + i + ".example/", 200, 1, metrics.fetchStarted());
+        }
+
+        final Map<String, MetricsSnapshot.HostStats> hosts = metrics.snapshot().hosts();
+        assertEquals(InMemoryCrawlMetrics.MAX_HOSTS + 1, hosts.size());
+        assertEquals(5, hosts.get(MetricsSnapshot.OTHER_HOSTS).pages());
+    }
+
+    @Test
+    void close_shouldFreezeTheElapsedTime() throws InterruptedException {
+        final InMemoryCrawlMetrics metrics = new InMemoryCrawlMetrics();
+        metrics.fetched("https://a.example/", 200, 1, metrics.fetchStarted());
+        metrics.close();
+        final MetricsSnapshot atClose = metrics.snapshot();
+        Thread.sleep(20);
+
+        assertEquals(atClose.elapsed(), metrics.snapshot().elapsed());
+        assertEquals(atClose.pagesPerSecond(), metrics.snapshot().pagesPerSecond());
+    }
+
+    @Test
+    void jmx_shouldExposeTheMetricsUntilClosed() throws Exception {
+        final InMemoryCrawlMetrics metrics = new InMemoryCrawlMetrics(MetricsConfig.overJmx());
+        final ObjectName name = metrics.mbeanName();
+        final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        metrics.fetched("https://a.example/", 200, 10, metrics.fetchStarted());
+        metrics.fetched("https://a.example/missing", 404, 10, metrics.fetchStarted());
+
+        try {
+            assertEquals(2L, server.getAttribute(name, "PagesFetched"));
+            assertEquals(20L, server.getAttribute(name, "BytesFetched"));
+            assertTrue((Double) server.getAttribute(name, "FetchLatencyP99Millis") >= 0);
+            final TabularData statuses = (TabularData) server.getAttribute(name, "StatusCounts");
+            assertEquals(2, statuses.size());
+            final TabularData hosts = (TabularData) server.getAttribute(name, "PagesByHost");
+            assertEquals(2L, hosts.get(new Object[]{"a.example"}).get("value"));
+        } finally {
+            metrics.close();
+        }
+        assertFalse(server.isRegistered(name), "Closing should unregister the MBean");
+    }
+
+    @Test
+    void http_shouldServeThePrometheusTextFormat() throws IOException, InterruptedException {
+        final InMemoryCrawlMetrics metrics = new InMemoryCrawlMetrics(MetricsConfig.onPort(0));
+        metrics.fetched("https://a.example/", 200, 10, metrics.fetchStarted());
+        metrics.fetchFailed("https://quote\".example/", new ConnectException(), metrics.fetchStarted());
+        metrics.visitedSet(() -> new VisitedSet.Health(2, 0.5, 1e-7));
+        final HttpClient client = HttpClient.newHttpClient();
+        final String base = "http://127.0.0.1:" + metrics.httpPort();
+
+        try {
+            final HttpResponse<String> response = client.send(
+                    HttpRequest.newBuilder(URI.create(base + "/metrics")).build(), HttpResponse.BodyHandlers.ofString());
+            assertEquals(200, response.statusCode());
+            assertTrue(response.headers().firstValue("Content-Type").orElseThrow().startsWith("text/plain"));
+            final String body = response.body();
+            assertTrue(body.contains("\ncrawler_pages_fetched_total 1\n"), body);
+            assertTrue(body.contains("\ncrawler_responses_total{status=\"200\"} 1\n"), body);
+            assertTrue(body.contains("\ncrawler_errors_total{error=\"ConnectException\"} 1\n"), body);
+            assertTrue(body.contains("\ncrawler_host_errors_total{host=\"quote\\\".example\"} 1\n"), body);
+            assertTrue(body.contains("\ncrawler_fetch_latency_seconds_count 2\n"), body);
+            assertTrue(body.contains("\ncrawler_visited_urls 2\n"), body);
+            assertTrue(body.contains("\ncrawler_visited_fill_ratio 0.500000\n"), body);
+            assertTrue(body.contains("\ncrawler_visited_false_positive_rate 1.0E-7\n"), body);
+            assertTrue(body.contains("# TYPE crawler_fetch_latency_seconds summary\n"), body);
+
+            final HttpResponse<String> other = client.send(
+                    HttpRequest.newBuilder(URI.create(base + "/other")).build(), HttpResponse.BodyHandlers.ofString());
+            assertEquals(404, other.statusCode());
+        } finally {
+            metrics.close();
+        }
+        assertThrows(IOException.class, () -> client.send(
+                HttpRequest.newBuilder(URI.create(base + "/metrics")).build(), HttpResponse.BodyHandlers.ofString()),
+                "Closing should stop the endpoint");
+    }
+
+    @Test
+    void create_shouldRecordNothingWhenDisabled() {
+        assertSame(CrawlMetrics.NONE, CrawlMetrics.create(MetricsConfig.DISABLED));
+        assertInstanceOf(InMemoryCrawlMetrics.class, CrawlMetrics.create(MetricsConfig.RECORDING));
+        assertTrue(new MetricsConfig(false, true, MetricsConfig.NO_HTTP).enabled(), "JMX export implies recording");
+        assertThrows(IllegalArgumentException.class, () -> MetricsConfig.onPort(70000));
+    }
+}
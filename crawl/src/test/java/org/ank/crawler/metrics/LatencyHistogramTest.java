@@ -0,0 +1,79 @@
+package org.ank.crawler.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the bucketing and percentiles of {@link LatencyHistogram}.
+ */
+class LatencyHistogramTest {
+
+    @Test
+    void buckets_shouldCoverEveryValueInOrderWithBoundedError() {
+        int previous = -1;
+        for (long value = 0; value < 1_000_000; value += 1 + value / 50) {
+            final int index = LatencyHistogram.indexOf(value);
+            assertTrue(index >= previous, "Buckets should grow with the value at " + value);
+            final long highest = LatencyHistogram.highestEquivalent(index);
+            assertTrue(highest >= value, "The bucket of " + value + " should contain it");
+            assertTrue(highest - value <= value / LatencyHistogram.SUB_BUCKETS,
+                    "Error for " + value + " should be at most 1/" + LatencyHistogram.SUB_BUCKETS);
+            previous = index;
+        }
+        assertEquals(LatencyHistogram.indexOf(127) + 1, LatencyHistogram.indexOf(128));
+        assertEquals(LatencyHistogram.indexOf(129), LatencyHistogram.indexOf(128), "128 and 129 share a bucket");
+    }
+
+    @Test
+    void valueAtPercentile_shouldBeExactForSmallValues() {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        for (int value = 1; value <= 100; value++) {
+            histogram.record(value);
+        }
+
+        assertEquals(50, histogram.valueAtPercentile(50));
+        assertEquals(99, histogram.valueAtPercentile(99));
+        assertEquals(100, histogram.valueAtPercentile(100));
+        assertEquals(1, histogram.valueAtPercentile(0));
+    }
+
+    @Test
+    void summary_shouldReportPercentilesWithinTheBucketError() {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        for (int millis = 1; millis <= 1000; millis++) {
+            histogram.record(TimeUnit.MILLISECONDS.toNanos(millis));
+        }
+
+        final LatencyHistogram.Summary summary = histogram.summary();
+        assertEquals(1000, summary.count());
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(1000), summary.maxNanos(), "The maximum should be exact");
+        assertEquals(500.5e6, summary.meanNanos(), 1);
+        assertEquals(500e6, summary.p50Nanos(), 500e6 / LatencyHistogram.SUB_BUCKETS);
+        assertEquals(990e6, summary.p99Nanos(), 990e6 / LatencyHistogram.SUB_BUCKETS);
+        assertTrue(summary.p50Nanos() >= 500e6, "Percentiles should round up, never down");
+    }
+
+    @Test
+    void record_shouldClampValuesOutsideTheRange() {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(-5);
+        histogram.record(TimeUnit.DAYS.toNanos(2));
+
+        assertEquals(2, histogram.count());
+        assertEquals(0, histogram.valueAtPercentile(50));
+        assertEquals(LatencyHistogram.HIGHEST_NANOS, histogram.valueAtPercentile(100));
+    }
+
+    @Test
+    void emptyHistogram_shouldReportZeros() {
+        assertEquals(LatencyHistogram.Summary.EMPTY, new LatencyHistogram().summary());
+    }
+
+    @Test
+    void valueAtPercentile_shouldRejectOutOfRangePercentiles() {
+        assertThrows(IllegalArgumentException.class, () -> new LatencyHistogram().valueAtPercentile(101));
+    }
+}
@@ -0,0 +1,68 @@
+package org.ank.crawler.processor;
+
+import org.ank.crawler.fetcher.FetchedContent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link NearDuplicateFilterProcessor}.
+ */
+class NearDuplicateFilterProcessorTest {
+
+    private static final String ARTICLE = """
+            <html><body><h1>Fox news</h1>
+            <p>The quick brown fox jumps over the lazy dog while the farmer watches from the porch.
+            Later that evening the fox returns to the field, looking for the chickens it saw earlier,
+            but the dog has moved the flock into the barn and locked the door behind them.</p>
+            <a href="/next%s">Next</a></body></html>
+            """;
+
+    private NearDuplicateFilterProcessor processor;
+
+    @BeforeEach
+    void setUp() {
+        processor = new NearDuplicateFilterProcessor(new LinkExtractorProcessor());
+    }
+
+    @Test
+    void process_shouldExpandOnlyTheFirstOfNearDuplicatePages() {
+        final Set<String> first = processor.process(
+                new FetchedContent(200, ARTICLE.formatted("")), "https://example.com/article");
+        // Same page under a session ID, with the session in its links too
+        final Set<String> second = processor.process(
+                new FetchedContent(200, ARTICLE.formatted("?sid=42")), "https://example.com/article?sid=42");
+
+        assertEquals(Set.of("https://example.com/next"), first);
+        assertTrue(second.isEmpty(), "The duplicate's outlinks should not be expanded");
+        assertEquals(1, processor.suppressedCount());
+        assertEquals(1, processor.distinctCount());
+    }
+
+    @Test
+    void process_shouldPassDistinctPagesThrough() {
+        processor.process(new FetchedContent(200, ARTICLE.formatted("")), "https://example.com/article");
+        final Set<String> other = processor.process(new FetchedContent(200, """
+                <html><body><p>Quarterly revenue grew eleven percent on strong demand for cloud services,
+                while operating costs fell after the restructuring announced in the spring.</p>
+                <a href="/investors">Investors</a></body></html>
+                """), "https://example.com/results");
+
+        assertEquals(Set.of("https://example.com/investors"), other);
+        assertEquals(0, processor.suppressedCount());
+    }
+
+    @Test
+    void process_shouldNotFingerprintPagesWithoutText() {
+        final String linksOnly = "<html><body><a href=\"/a\"><img src=\"a.png\"></a></body></html>";
+
+        processor.process(new FetchedContent(200, linksOnly), "https://example.com/1");
+        final Set<String> again = processor.process(new FetchedContent(200, linksOnly), "https://example.com/2");
+
+        assertEquals(Set.of("https://example.com/a"), again);
+        assertEquals(0, processor.distinctCount());
+    }
+}
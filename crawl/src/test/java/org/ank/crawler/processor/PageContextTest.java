@@ -0,0 +1,100 @@
+package org.ank.crawler.processor;
+
+import org.ank.crawler.dedupe.SimHash;
+import org.ank.crawler.fetcher.FetchedContent;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests {@link PageContext}: lazy, single parse, cached derived data and release.
+ */
+class PageContextTest {
+
+    private static final String URI = "https://www.example.com/dir/page";
+    private static final String HTML = """
+            <html><head><title>Hello</title></head>
+            <body><p>Some  text</p><a href="/a">A</a><a href="b">B</a><a href="/a">again</a><a href="">none</a></body>
+            </html>""";
+
+    @Test
+    void document_shouldBeParsedOnceAndOnlyWhenAskedFor() {
+        final PageContext page = new PageContext(new FetchedContent(200, HTML), URI);
+
+        assertFalse(page.isParsed());
+        assertSame(page.document(), page.document());
+        assertTrue(page.isParsed());
+    }
+
+    @Test
+    void derivedData_shouldComeFromThePage() {
+        final PageContext page = new PageContext(new FetchedContent(200, HTML), URI);
+
+        assertEquals("Hello", page.title());
+        assertTrue(page.text().contains("Some text"));
+        // An empty href points back at the page itself, as in a browser
+        assertEquals(List.of("https://www.example.com/a", "https://www.example.com/dir/b", URI),
+                List.copyOf(page.links()));
+        assertSame(page.links(), page.links());
+        assertEquals(SimHash.ofHtml(HTML).value(), page.simHash().value());
+        assertThrows(UnsupportedOperationException.class, () -> page.links().add("x"));
+    }
+
+    @Test
+    void simHash_shouldNotParseThePage() {
+        final PageContext page = new PageContext(new FetchedContent(200, HTML), URI);
+
+        page.simHash();
+
+        assertFalse(page.isParsed());
+    }
+
+    @Test
+    void pagesWithoutBody_shouldLookEmpty() {
+        final PageContext notFound = new PageContext(new FetchedContent(404, HTML), URI);
+
+        assertFalse(notFound.hasBody());
+        assertEquals(Set.of(), notFound.links());
+        assertEquals("", notFound.text());
+        assertEquals(0, notFound.simHash().featureCount());
+    }
+
+    @Test
+    void computeIfAbsent_shouldComputeEachValueOnce() {
+        final PageContext page = new PageContext(new FetchedContent(200, HTML), URI);
+        final AtomicInteger computations = new AtomicInteger();
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(page.text().length(), (int) page.computeIfAbsent("test.length", p -> {
+                computations.incrementAndGet();
+                return p.text().length();
+            }));
+        }
+
+        assertEquals(1, computations.get());
+    }
+
+    @Test
+    void release_shouldDropTheParse() {
+        final PageContext page = new PageContext(new FetchedContent(200, HTML), URI);
+        page.links();
+
+        page.release();
+
+        assertFalse(page.isParsed());
+        assertThrows(IllegalStateException.class, page::document);
+        assertThrows(IllegalStateException.class, page::links);
+        assertEquals(URI, page.uri(), "The response itself stays available");
+    }
+
+    @Test
+    void defaultProcess_shouldHandTheRawContentToExistingProcessors() {
+        final Processor legacy = (content, uri) -> Set.of(uri + "#" + content.statusCode());
+
+        assertEquals(Set.of(URI + "#200"), legacy.process(new PageContext(new FetchedContent(200, HTML), URI)));
+    }
+}
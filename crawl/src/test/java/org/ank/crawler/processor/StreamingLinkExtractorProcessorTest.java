@@ -0,0 +1,133 @@
+package org.ank.crawler.processor;
+
+import benchmark.SyntheticPages;
+import constant.TestConstants;
+import org.ank.crawler.fetcher.FetchedContent;
+import org.jsoup.parser.Parser;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests {@link StreamingLinkExtractorProcessor}, mainly that it finds exactly the links
+ * {@link LinkExtractorProcessor} finds on a corpus of pages with awkward markup.
+ */
+class StreamingLinkExtractorProcessorTest {
+
+    private static final String CORPUS_BASE_URL = "https://www.example.com/dir/page.html";
+
+    private final StreamingLinkExtractorProcessor streaming = new StreamingLinkExtractorProcessor();
+    private final LinkExtractorProcessor jsoup = new LinkExtractorProcessor();
+
+    @ParameterizedTest
+    @ValueSource(strings = {"basic.html", "base-href.html", "entities-and-quoting.html",
+            "skipped-regions.html", "schemes.html", "malformed.html"})
+    void process_shouldMatchJsoupExtractorOnCorpus(String page) throws IOException {
+        final FetchedContent fetched = new FetchedContent(200, readCorpusPage(page));
+
+        final Set<String> expected = jsoup.process(fetched, CORPUS_BASE_URL);
+        final Set<String> actual = streaming.process(fetched, CORPUS_BASE_URL);
+
+        assertFalse(expected.isEmpty(), "Corpus page should contain links");
+        assertEquals(expected, actual, "Streaming extractor should find the same links as JSoup on " + page);
+    }
+
+    @Test
+    void process_shouldMatchJsoupExtractorOnGeneratedPages() {
+        for (long seed = 0; seed < 20; seed++) {
+            final FetchedContent fetched = new FetchedContent(200, SyntheticPages.page(50_000, seed));
+
+            assertEquals(jsoup.process(fetched, CORPUS_BASE_URL), streaming.process(fetched, CORPUS_BASE_URL),
+                    "Streaming extractor should match JSoup on generated page " + seed);
+        }
+    }
+
+    @Test
+    void process_shouldApplyFirstBaseHrefToEveryLink() {
+        final String html = """
+                <a href="early">early</a>
+                <base href="https://static.example.net/root/">
+                <a href="late">late</a>
+                """;
+
+        final Set<String> discovered = streaming.process(new FetchedContent(200, html), TestConstants.URL_EXAMPLE_BASE);
+
+        assertEquals(Set.of("https://static.example.net/root/early", "https://static.example.net/root/late"), discovered);
+    }
+
+    @Test
+    void process_shouldIgnoreLinksInScriptsAndComments() {
+        final String html = """
+                <script>document.write('<a href="/in-script">');</script>
+                <!-- <a href="/in-comment"> -->
+                <a href="/relative">Relative Link</a>
+                """;
+
+        final Set<String> discovered = streaming.process(new FetchedContent(200, html), TestConstants.URL_EXAMPLE_BASE);
+
+        assertEquals(Set.of(TestConstants.URL_EXAMPLE_RELATIVE), discovered);
+    }
+
+    @Test
+    void process_shouldDecodeEntitiesInHref() {
+        final String html = "<a href=\"/relative?a=1&amp;b=2\">Link</a>";
+
+        final Set<String> discovered = streaming.process(new FetchedContent(200, html), TestConstants.URL_EXAMPLE_BASE);
+
+        assertEquals(Set.of(TestConstants.URL_EXAMPLE_RELATIVE + "?a=1&b=2"), discovered);
+    }
+
+    @Test
+    void process_shouldResolveHrefsAsRfc3986Does() {
+        final String html = """
+                <a href="?page=2">query only</a>
+                <a href="../a//b">double slash</a>
+                <a href="/x/./y/../z">dot segments</a>
+                <a href="https://other.example.org/p/../q">absolute</a>
+                <a href="bad scheme://x">space in scheme</a>
+                """;
+
+        final Set<String> discovered = streaming.process(new FetchedContent(200, html),
+                "https://www.example.com/dir/page?page=1");
+
+        assertEquals(List.of("https://www.example.com/dir/page?page=2", "https://www.example.com/a//b",
+                "https://www.example.com/x/z", "https://other.example.org/q",
+                "https://www.example.com/dir/bad scheme://x"), List.copyOf(discovered));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"/a?x=1&amp;y=2", "&lt;&gt;&quot;&apos;", "&copy=2", "&copy;", "&copyx", "&copy-x",
+            "&notit;", "&notin;", "&#38;&#x26;&#X26", "&#;", "&#x;", "&#128;&#150;", "&#xD800;", "&#99999999999;",
+            "&nosuchentity;", "& amp;", "&&amp;", "trailing&", "&frac12x", "&acE;", "&eacute&Eacute;"})
+    void decodeAttributeEntities_shouldMatchJsoupTokenizer(String value) {
+        assertEquals(Parser.unescapeEntities(value, true), StreamingLinkExtractorProcessor.decodeAttributeEntities(value),
+                "Decoding should match JSoup for " + value);
+    }
+
+    @Test
+    void testProcessNon200Status() {
+        final FetchedContent fetched = new FetchedContent(404, "<a href=\"/relative\">404 Not Found</a>");
+        assertTrue(streaming.process(fetched, TestConstants.URL_EXAMPLE_BASE).isEmpty());
+    }
+
+    @Test
+    void testEmptyHtml() {
+        final FetchedContent fetched = new FetchedContent(200, "");
+        assertTrue(streaming.process(fetched, TestConstants.URL_EXAMPLE_BASE).isEmpty());
+    }
+
+    private static String readCorpusPage(String name) throws IOException {
+        try (InputStream in = StreamingLinkExtractorProcessorTest.class.getResourceAsStream("/link-corpus/" + name)) {
+            assertNotNull(in, "Missing corpus page " + name);
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
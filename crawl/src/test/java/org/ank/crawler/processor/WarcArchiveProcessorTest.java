@@ -0,0 +1,68 @@
+package org.ank.crawler.processor;
+
+import org.ank.crawler.config.WebCrawlerConfig;
+import org.ank.crawler.fetcher.FetchedContent;
+import org.ank.crawler.fetcher.HttpClientHtmlFetcher;
+import org.ank.crawler.frontier.SimpleFrontier;
+import org.ank.crawler.warc.WarcReader;
+import org.ank.crawler.warc.WarcRecord;
+import org.ank.crawler.warc.WarcWriter;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import server.TestSiteServer;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests {@link WarcArchiveProcessor} on its own and in a crawl of a local {@link TestSiteServer}.
+ */
+class WarcArchiveProcessorTest {
+
+    @Test
+    void process_shouldArchiveThePageAndDiscoverNothing(@TempDir Path tempDir) throws IOException {
+        final WarcWriter writer = new WarcWriter(tempDir, "test");
+        final WarcArchiveProcessor processor = new WarcArchiveProcessor(writer);
+
+        assertTrue(processor.process(new FetchedContent(200, "<a href=\"/next\">next</a>"), "https://example.com/")
+                .isEmpty(), "Link extraction is left to the other processors");
+        writer.close();
+
+        final List<WarcRecord> records = WarcReader.readAll(writer.files().getFirst());
+        assertEquals(2, records.size());
+        assertEquals("https://example.com/", records.get(1).targetUri());
+    }
+
+    @Test
+    void crawl_shouldArchiveEveryFetchedPage(@TempDir Path tempDir) throws IOException {
+        final Map<String, String> archived = new HashMap<>();
+        try (TestSiteServer site = new TestSiteServer(40, 3)) {
+            final WarcWriter writer = new WarcWriter(tempDir, "crawl", 4 * 1024, 8);
+            final SimpleFrontier frontier = new SimpleFrontier(WebCrawlerConfig.builder(site.pageUrl(0))
+                    .threadCount(4).build(), new HttpClientHtmlFetcher());
+
+            frontier.schedule(site.pageUrl(0));
+            frontier.start(List.of(new LinkExtractorProcessor(), new WarcArchiveProcessor(writer)),
+                    uri -> uri.startsWith(site.baseUrl()));
+            writer.close();
+
+            for (Path file : writer.files()) {
+                for (WarcRecord record : WarcReader.readAll(file)) {
+                    if (record.type().equals(WarcRecord.RESPONSE)) {
+                        archived.put(record.targetUri(), new String(record.block(), StandardCharsets.UTF_8));
+                    }
+                }
+            }
+            assertEquals(site.expectedUrls(), archived.keySet(), "Every page should be archived once");
+            assertTrue(writer.files().size() > 1, "The archive should have been rolled over");
+        }
+        assertTrue(archived.values().stream().allMatch(http -> http.startsWith("HTTP/1.1 200 ")
+                && http.contains("<title>Page ")));
+    }
+}
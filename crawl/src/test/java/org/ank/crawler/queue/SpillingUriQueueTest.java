@@ -0,0 +1,173 @@
+package org.ank.crawler.queue;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests {@link SpillingUriQueue}: FIFO order across the hot head and segments, bounded heap use,
+ * segment deletion and concurrent producers/consumers.
+ */
+class SpillingUriQueueTest {
+
+    private static final int HOT_CAPACITY = 100;
+    private static final int SEGMENT_BYTES = 4096;
+
+    @TempDir
+    Path tempDir;
+
+    private static String uri(int i) {
+        return "https://example.com/section/" + (i % 17) + "/page-" + i + ".html";
+    }
+
+    @Test
+    void poll_shouldReturnUrisAndDepthsInFifoOrderAcrossHotHeadAndSegments() throws Exception {
+        try (SpillingUriQueue queue = new SpillingUriQueue(tempDir, HOT_CAPACITY, SEGMENT_BYTES)) {
+            for (int i = 0; i < 5_000; i++) {
+                queue.offer(uri(i), i % 7);
+            }
+            assertEquals(5_000, queue.size());
+            assertEquals(HOT_CAPACITY, queue.inMemorySize(), "Only the hot head should stay on the heap");
+            assertTrue(queue.segmentCount() > 10, "The overflow should span several segments");
+
+            for (int i = 0; i < 5_000; i++) {
+                assertEquals(new QueuedUri(uri(i), i % 7), queue.poll(0, TimeUnit.SECONDS),
+                        "URI " + i + " out of order");
+            }
+            assertNull(queue.poll(10, TimeUnit.MILLISECONDS));
+            assertTrue(queue.isEmpty());
+        }
+    }
+
+    @Test
+    void poll_shouldKeepFifoOrderWhenOffersInterleaveWithPolls() throws Exception {
+        try (SpillingUriQueue queue = new SpillingUriQueue(tempDir, 10, SEGMENT_BYTES)) {
+            int offered = 0;
+            int polled = 0;
+            for (int round = 0; round < 200; round++) {
+                for (int i = 0; i < 7; i++) {
+                    queue.offer(uri(offered++), 0);
+                }
+                for (int i = 0; i < 5; i++) {
+                    assertEquals(uri(polled++), queue.poll(0, TimeUnit.SECONDS).uri());
+                }
+            }
+            while (polled < offered) {
+                assertEquals(uri(polled++), queue.poll(0, TimeUnit.SECONDS).uri());
+            }
+            assertTrue(queue.isEmpty());
+        }
+    }
+
+    @Test
+    void consumedSegments_shouldBeDeleted() throws Exception {
+        try (SpillingUriQueue queue = new SpillingUriQueue(tempDir, HOT_CAPACITY, SEGMENT_BYTES)) {
+            for (int i = 0; i < 2_000; i++) {
+                queue.offer(uri(i), 0);
+            }
+            final int initialSegments = segmentFiles().size();
+            assertEquals(queue.segmentCount(), initialSegments);
+
+            for (int i = 0; i < 1_000; i++) {
+                queue.poll(0, TimeUnit.SECONDS);
+            }
+            assertTrue(segmentFiles().size() < initialSegments, "Segments read to the end should be deleted");
+
+            while (queue.poll(0, TimeUnit.SECONDS) != null) {
+                // drain
+            }
+            assertEquals(0, segmentFiles().size(), "A drained queue should leave no segments behind");
+        }
+    }
+
+    @Test
+    void close_shouldDeleteSpillDirectory() throws Exception {
+        final SpillingUriQueue queue = new SpillingUriQueue(tempDir, HOT_CAPACITY, SEGMENT_BYTES);
+        for (int i = 0; i < 1_000; i++) {
+            queue.offer(uri(i), 0);
+        }
+        queue.close();
+
+        try (Stream<Path> files = Files.list(tempDir)) {
+            assertEquals(0, files.count(), "Closing should remove every spill file and directory");
+        }
+        assertFalse(queue.offer(uri(0), 0), "Offers after close should be dropped");
+        assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    void nonAsciiUris_shouldSurviveTheRoundTrip() throws Exception {
+        try (SpillingUriQueue queue = new SpillingUriQueue(tempDir, 1, SEGMENT_BYTES)) {
+            final List<String> uris = List.of("https://example.com/a", "https://bücher.example/straße", "https://例子.测试/路径");
+            uris.forEach(uri -> queue.offer(uri, 0));
+            for (String uri : uris) {
+                assertEquals(uri, queue.poll(0, TimeUnit.SECONDS).uri());
+            }
+        }
+    }
+
+    @Test
+    void concurrentProducersAndConsumers_shouldDeliverEveryUriOnce() throws Exception {
+        final int producers = 4;
+        final int perProducer = 5_000;
+        try (SpillingUriQueue queue = new SpillingUriQueue(tempDir, HOT_CAPACITY, SEGMENT_BYTES)) {
+            final ExecutorService executor = Executors.newFixedThreadPool(producers * 2);
+            try {
+                final List<Future<?>> producerFutures = new ArrayList<>();
+                for (int p = 0; p < producers; p++) {
+                    final int offset = p * perProducer;
+                    producerFutures.add(executor.submit(() -> {
+                        for (int i = 0; i < perProducer; i++) {
+                            queue.offer(uri(offset + i), 0);
+                        }
+                    }));
+                }
+                final List<Future<Set<String>>> consumerFutures = new ArrayList<>();
+                for (int c = 0; c < producers; c++) {
+                    consumerFutures.add(executor.submit(() -> {
+                        final Set<String> received = new HashSet<>();
+                        QueuedUri queued;
+                        while ((queued = queue.poll(500, TimeUnit.MILLISECONDS)) != null) {
+                            received.add(queued.uri());
+                        }
+                        return received;
+                    }));
+                }
+                for (Future<?> future : producerFutures) {
+                    future.get();
+                }
+                final Set<String> all = new HashSet<>();
+                int total = 0;
+                for (Future<Set<String>> future : consumerFutures) {
+                    final Set<String> received = future.get();
+                    total += received.size();
+                    all.addAll(received);
+                }
+                assertEquals(producers * perProducer, total, "Every URI should be delivered exactly once");
+                assertEquals(producers * perProducer, all.size());
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+    }
+
+    private List<Path> segmentFiles() throws IOException {
+        try (Stream<Path> files = Files.walk(tempDir)) {
+            return files.filter(path -> path.toString().endsWith(".seg")).toList();
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package org.ank.crawler.robots;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link RobotsCache}.
+ */
+class RobotsCacheTest {
+
+    private static final long TTL = 1_000;
+
+    @Test
+    void get_shouldFindTheOriginOfAnyUriOnTheHost() {
+        final RobotsCache cache = new RobotsCache(10, TTL);
+        cache.put("https://example.com", RobotsRules.DISALLOW_ALL, 0);
+
+        assertSame(RobotsRules.DISALLOW_ALL, lookup(cache, "https://example.com/some/page?q=1", 0));
+        assertSame(RobotsRules.DISALLOW_ALL, lookup(cache, "HTTPS://Example.COM/", 0), "Origins are case-insensitive");
+        assertNull(lookup(cache, "http://example.com/", 0), "The scheme is part of the origin");
+        assertNull(lookup(cache, "https://example.com:8443/", 0), "So is the port");
+    }
+
+    @Test
+    void get_shouldExpireEntriesAfterTheTtl() {
+        final RobotsCache cache = new RobotsCache(10, TTL);
+        cache.put("https://example.com", RobotsRules.ALLOW_ALL, 0);
+
+        assertNotNull(lookup(cache, "https://example.com/", TTL - 1));
+        assertNull(lookup(cache, "https://example.com/", TTL));
+
+        cache.put("https://example.com", RobotsRules.ALLOW_ALL, TTL);
+        assertNotNull(lookup(cache, "https://example.com/", TTL + 1), "Putting again renews the entry");
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void put_shouldEvictTheLeastRecentlyUsedOrigin() {
+        final RobotsCache cache = new RobotsCache(2, TTL);
+        cache.put("https://a.com", RobotsRules.ALLOW_ALL, 0);
+        cache.put("https://b.com", RobotsRules.ALLOW_ALL, 0);
+        lookup(cache, "https://a.com/", 0);
+        cache.put("https://c.com", RobotsRules.ALLOW_ALL, 0);
+
+        assertNotNull(lookup(cache, "https://a.com/", 0));
+        assertNull(lookup(cache, "https://b.com/", 0), "b.com was used least recently");
+        assertNotNull(lookup(cache, "https://c.com/", 0));
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    void cache_shouldBehaveLikeAnAccessOrderedLinkedHashMap() {
+        final int capacity = 64;
+        final RobotsCache cache = new RobotsCache(capacity, Long.MAX_VALUE / 2);
+        final Map<String, RobotsRules> model = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, RobotsRules> eldest) {
+                return size() > capacity;
+            }
+        };
+        final SplittableRandom random = new SplittableRandom(7);
+        for (int i = 0; i < 50_000; i++) {
+            final String origin = "https://host" + random.nextInt(200) + ".com";
+            if (random.nextBoolean()) {
+                final RobotsRules rules = random.nextBoolean() ? RobotsRules.ALLOW_ALL : RobotsRules.DISALLOW_ALL;
+                cache.put(origin, rules, 0);
+                model.put(origin, rules);
+            } else {
+                assertSame(model.get(origin), lookup(cache, origin + "/page", 0), origin);
+            }
+        }
+        assertEquals(model.size(), cache.size());
+    }
+
+    private static RobotsRules lookup(RobotsCache cache, String uri, long now) {
+        return cache.get(uri, RobotsScope.originEnd(uri), now);
+    }
+}
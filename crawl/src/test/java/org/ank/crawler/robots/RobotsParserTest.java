@@ -0,0 +1,78 @@
+package org.ank.crawler.robots;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link RobotsParser}.
+ */
+class RobotsParserTest {
+
+    private static final String ROBOTS = """
+            # Example robots.txt
+            User-agent: *
+            Disallow: /everyone
+            Crawl-delay: 5
+
+            User-agent: OtherBot
+            User-agent: webcrawler   # our product token, in any case
+            Disallow: /us            # trailing comment
+            Crawl-delay: 0.5
+
+            user-agent: WebCrawler
+            allow: /us/public
+
+            Sitemap: https://example.com/sitemap.xml
+            """;
+
+    @Test
+    void parse_shouldMergeEveryGroupNamingTheProductToken() {
+        final RobotsRules rules = RobotsParser.parse(ROBOTS, "WebCrawler/1.0 (+https://example.com/bot)");
+
+        assertFalse(rules.isAllowed("https://example.com/us/private", 19));
+        assertTrue(rules.isAllowed("https://example.com/us/public/page", 19));
+        assertTrue(rules.isAllowed("https://example.com/everyone", 19), "The * group does not apply to us");
+        assertEquals(Duration.ofMillis(500), rules.crawlDelay());
+        assertEquals(List.of("https://example.com/sitemap.xml"), rules.sitemaps());
+    }
+
+    @Test
+    void parse_shouldFallBackToTheWildcardGroup() {
+        final RobotsRules rules = RobotsParser.parse(ROBOTS, "SomeoneElse/2.0");
+
+        assertFalse(rules.isAllowed("https://example.com/everyone", 19));
+        assertTrue(rules.isAllowed("https://example.com/us", 19));
+        assertEquals(Duration.ofSeconds(5), rules.crawlDelay());
+    }
+
+    @Test
+    void parse_shouldTreatAnEmptyDisallowAsAllowingEverything() {
+        final RobotsRules rules = RobotsParser.parse("User-agent: *\nDisallow:\n", "WebCrawler/1.0");
+
+        assertSame(RobotsRules.ALLOW_ALL, rules);
+    }
+
+    @Test
+    void parse_shouldIgnoreGarbage() {
+        final RobotsRules rules = RobotsParser.parse("""
+                <html>not a robots file</html>
+                User-agent *
+                Disallow /missing-colon
+                Crawl-delay: soon
+                Unknown: value
+                """, "WebCrawler/1.0");
+
+        assertTrue(rules.isAllowed("https://example.com/missing-colon", 19));
+        assertEquals(Duration.ZERO, rules.crawlDelay());
+    }
+
+    @Test
+    void productToken_shouldBeTheNameBeforeTheVersion() {
+        assertEquals("webcrawler", RobotsParser.productToken("WebCrawler/1.0"));
+        assertEquals("bot", RobotsParser.productToken("Bot"));
+    }
+}
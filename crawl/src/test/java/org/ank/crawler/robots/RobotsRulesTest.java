@@ -0,0 +1,89 @@
+package org.ank.crawler.robots;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link RobotsRules} matching (RFC 9309 section 2.2.2 and Google's documented examples).
+ */
+class RobotsRulesTest {
+
+    private static final String ORIGIN = "https://example.com";
+
+    @Test
+    void prefixRules_shouldMatchPathPrefixes() {
+        final RobotsRules rules = parse("Disallow: /fish");
+
+        assertFalse(allowed(rules, "/fish"));
+        assertFalse(allowed(rules, "/fish.html"));
+        assertFalse(allowed(rules, "/fishheads/yummy.html"));
+        assertFalse(allowed(rules, "/fish?id=anything"));
+        assertTrue(allowed(rules, "/Fish.asp"), "Paths are case-sensitive");
+        assertTrue(allowed(rules, "/catfish"));
+        assertTrue(allowed(rules, "/"));
+    }
+
+    @Test
+    void wildcards_shouldMatchAnyRun() {
+        final RobotsRules rules = parse("Disallow: /*.php\nDisallow: /private*/secret");
+
+        assertFalse(allowed(rules, "/index.php"));
+        assertFalse(allowed(rules, "/folder/any.php.file.html"));
+        assertFalse(allowed(rules, "/private-area/x/secret/y"));
+        assertTrue(allowed(rules, "/windows.PHP"));
+        assertTrue(allowed(rules, "/private/open"));
+    }
+
+    @Test
+    void dollar_shouldAnchorAtTheEnd() {
+        final RobotsRules rules = parse("Disallow: /*.php$\nDisallow: /exact$");
+
+        assertFalse(allowed(rules, "/filename.php"));
+        assertFalse(allowed(rules, "/folder/filename.php"));
+        assertTrue(allowed(rules, "/filename.php?parameters"));
+        assertTrue(allowed(rules, "/filename.php/"));
+        assertFalse(allowed(rules, "/exact"));
+        assertTrue(allowed(rules, "/exact/more"));
+    }
+
+    @Test
+    void longestMatch_shouldWinAndAllowShouldWinTies() {
+        final RobotsRules rules = parse("""
+                Allow: /p
+                Disallow: /
+                Allow: /folder
+                Disallow: /folder/private
+                Allow: /page
+                Disallow: /*.ht
+                """);
+
+        assertTrue(allowed(rules, "/page"));
+        assertTrue(allowed(rules, "/folder/page"));
+        assertFalse(allowed(rules, "/folder/private/page"));
+        assertFalse(allowed(rules, "/other"));
+        assertTrue(allowed(rules, "/page.htm"), "/page and /*.ht have the same length; allow wins");
+    }
+
+    @Test
+    void robotsTxt_shouldAlwaysBeAllowed() {
+        assertTrue(allowed(RobotsRules.DISALLOW_ALL, "/robots.txt"));
+        assertFalse(allowed(RobotsRules.DISALLOW_ALL, "/"));
+        assertFalse(allowed(RobotsRules.DISALLOW_ALL, ""), "An empty path is the root");
+    }
+
+    @Test
+    void fragments_shouldBeIgnored() {
+        final RobotsRules rules = parse("Disallow: /a$");
+
+        assertFalse(allowed(rules, "/a#section"));
+    }
+
+    private static RobotsRules parse(String rules) {
+        return RobotsParser.parse("User-agent: *\n" + rules, "WebCrawler/1.0");
+    }
+
+    private static boolean allowed(RobotsRules rules, String path) {
+        return rules.isAllowed(ORIGIN + path, ORIGIN.length());
+    }
+}
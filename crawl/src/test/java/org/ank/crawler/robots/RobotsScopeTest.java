@@ -0,0 +1,185 @@
+package org.ank.crawler.robots;
+
+import org.ank.crawler.config.PolitenessConfig;
+import org.ank.crawler.config.RobotsConfig;
+import org.ank.crawler.fetcher.FetchedContent;
+import org.ank.crawler.fetcher.HtmlFetcher;
+import org.ank.crawler.fetcher.HttpClientHtmlFetcher;
+import org.ank.crawler.frontier.PoliteFrontier;
+import org.ank.crawler.processor.LinkExtractorProcessor;
+import org.ank.crawler.scope.Scope;
+import org.junit.jupiter.api.Test;
+import server.TestSiteServer;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link RobotsScope}, plus a crawl of a local {@link TestSiteServer} that serves a robots.txt.
+ */
+class RobotsScopeTest {
+
+    private static final Scope EVERYTHING = uri -> true;
+
+    @Test
+    void isInScope_shouldFetchRobotsTxtOncePerHost() {
+        final FakeRobots robots = new FakeRobots(Map.of(
+                "https://a.com/robots.txt", new FetchedContent(200, "User-agent: *\nDisallow: /private"),
+                "https://b.com/robots.txt", new FetchedContent(200, "User-agent: *\nDisallow: /")));
+        final RobotsScope scope = new RobotsScope(EVERYTHING, robots);
+
+        assertTrue(scope.isInScope("https://a.com/"));
+        assertFalse(scope.isInScope("https://a.com/private/page"));
+        assertTrue(scope.isInScope("https://A.com/public?x=1"));
+        assertFalse(scope.isInScope("https://b.com/anything"));
+
+        assertEquals(1, robots.fetches("https://a.com/robots.txt"));
+        assertEquals(1, robots.fetches("https://b.com/robots.txt"));
+    }
+
+    @Test
+    void isInScope_shouldAllowEverythingWithoutRobotsTxtAndNothingWhenItIsUnreachable() {
+        final FakeRobots robots = new FakeRobots(Map.of(
+                "https://missing.com/robots.txt", new FetchedContent(404, ""),
+                "https://broken.com/robots.txt", new FetchedContent(503, "")));
+        final RobotsScope scope = new RobotsScope(EVERYTHING, robots);
+
+        assertTrue(scope.isInScope("https://missing.com/page"));
+        assertFalse(scope.isInScope("https://broken.com/page"));
+        assertFalse(scope.isInScope("https://unreachable.com/page"), "Network errors disallow the host");
+    }
+
+    @Test
+    void isInScope_shouldNotFetchRobotsTxtForUrisTheDelegateRejects() {
+        final FakeRobots robots = new FakeRobots(Map.of());
+        final RobotsScope scope = new RobotsScope(uri -> false, robots);
+
+        assertFalse(scope.isInScope("https://a.com/"));
+        assertFalse(scope.isInScope("mailto:someone@a.com"));
+        assertEquals(0, robots.totalFetches());
+    }
+
+    @Test
+    void isInScope_shouldFetchOnceWhenManyThreadsAskAtOnce() throws Exception {
+        final CountDownLatch release = new CountDownLatch(1);
+        final FakeRobots robots = new FakeRobots(Map.of(
+                "https://a.com/robots.txt", new FetchedContent(200, "User-agent: *\nDisallow: /x"))) {
+            @Override
+            public FetchedContent fetch(String uri) throws IOException {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.fetch(uri);
+            }
+        };
+        final RobotsScope scope = new RobotsScope(EVERYTHING, robots);
+
+        try (ExecutorService pool = Executors.newFixedThreadPool(8)) {
+            final List<Future<Boolean>> answers = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                answers.add(pool.submit(() -> scope.isInScope("https://a.com/x/page")));
+            }
+            Thread.sleep(100); // let every thread reach the check
+            release.countDown();
+            for (Future<Boolean> answer : answers) {
+                assertFalse(answer.get());
+            }
+        }
+        assertEquals(1, robots.fetches("https://a.com/robots.txt"));
+    }
+
+    @Test
+    void crawlDelay_shouldComeFromCachedRulesOnly() {
+        final FakeRobots robots = new FakeRobots(Map.of(
+                "https://slow.com/robots.txt", new FetchedContent(200, "User-agent: *\nCrawl-delay: 2")));
+        final RobotsScope scope = new RobotsScope(EVERYTHING, robots, RobotsConfig.DEFAULT);
+
+        assertEquals(Duration.ZERO, scope.crawlDelay("https://slow.com/page"), "Not fetched yet");
+        assertEquals(0, robots.totalFetches(), "Asking for the crawl delay never fetches");
+
+        scope.isInScope("https://slow.com/page");
+        assertEquals(Duration.ofSeconds(2), scope.crawlDelay("https://slow.com/page"));
+    }
+
+    @Test
+    void crawl_shouldSkipDisallowedPages() throws IOException {
+        try (TestSiteServer site = new TestSiteServer(40, 3)) {
+            // Pages 1-3 are the root's children: disallowing /page/1 prunes page 1's whole subtree (4-6, 13-21, ...)
+            site.setRobotsTxt("User-agent: *\nDisallow: /page/1$\nDisallow: /page/2*\n");
+            final RobotsScope scope = new RobotsScope(uri -> uri.startsWith(site.baseUrl()), new HttpClientHtmlFetcher());
+            final PoliteFrontier frontier = new PoliteFrontier(4, new PolitenessConfig(1000, 10, 4));
+
+            frontier.schedule(site.pageUrl(0));
+            frontier.start(List.of(new LinkExtractorProcessor()), scope);
+
+            assertTrue(frontier.getVisited().contains(site.pageUrl(3)));
+            assertTrue(frontier.getVisited().contains(site.pageUrl(10)), "A child of page 3");
+            for (String uri : frontier.getVisited()) {
+                assertFalse(uri.equals(site.pageUrl(1)) || uri.startsWith(site.baseUrl() + "/page/2"),
+                        uri + " is disallowed");
+            }
+            assertEquals(frontier.getVisited().size() + 1, site.requestCount(), "Pages plus one robots.txt");
+        }
+    }
+
+    @Test
+    void crawl_shouldSpaceFetchesByTheRobotsCrawlDelayFromTheSeedOn() throws IOException {
+        try (TestSiteServer site = new TestSiteServer(6, 3)) {
+            site.setRobotsTxt("User-agent: *\nCrawl-delay: 0.3\n");
+            final RobotsScope scope = new RobotsScope(uri -> uri.startsWith(site.baseUrl()), new HttpClientHtmlFetcher());
+            final PoliteFrontier frontier = new PoliteFrontier(4, new PolitenessConfig(1000, 10, 4));
+
+            final long startNanos = System.nanoTime();
+            frontier.schedule(site.pageUrl(0));
+            frontier.start(List.of(new LinkExtractorProcessor()), scope);
+            final long elapsedMillis = (System.nanoTime() - startNanos) / 1_000_000;
+
+            // robots.txt is only loaded once the seed's links are checked; the delay still counts from the seed
+            assertEquals(6, frontier.getVisited().size(), "Every page of the site should be visited");
+            assertTrue(elapsedMillis >= 1500, "Crawl finished in " + elapsedMillis + "ms, ignoring the crawl delay");
+        }
+    }
+
+    /**
+     * Serves canned robots.txt responses; unknown URIs fail with an {@link IOException}.
+     */
+    private static class FakeRobots implements HtmlFetcher {
+        private final Map<String, FetchedContent> responses;
+        private final Map<String, AtomicInteger> fetches = new ConcurrentHashMap<>();
+
+        FakeRobots(Map<String, FetchedContent> responses) {
+            this.responses = responses;
+        }
+
+        @Override
+        public FetchedContent fetch(String uri) throws IOException {
+            fetches.computeIfAbsent(uri, u -> new AtomicInteger()).incrementAndGet();
+            final FetchedContent response = responses.get(uri);
+            if (response == null) {
+                throw new IOException("Connection refused: " + uri);
+            }
+            return response;
+        }
+
+        int fetches(String uri) {
+            return fetches.getOrDefault(uri, new AtomicInteger()).get();
+        }
+
+        int totalFetches() {
+            return fetches.values().stream().mapToInt(AtomicInteger::get).sum();
+        }
+    }
+}
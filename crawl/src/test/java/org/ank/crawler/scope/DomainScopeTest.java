@@ -5,6 +5,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.net.MalformedURLException;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -64,6 +65,65 @@ class DomainScopeTest {
         assertFalse(domainScope.isInScope(TestConstants.TEYA_UK_URL), "Similar but different domain should be out of scope");
     }
 
+    @Test
+    void testMultiLevelPublicSuffix() {
+        final DomainScope bbc = new DomainScope("bbc.co.uk");
+
+        assertTrue(bbc.isInScope("https://www.bbc.co.uk/news"), "Subdomain under a two-level suffix should be in scope");
+        assertTrue(bbc.isInScope("https://bbc.co.uk"), "The registrable domain itself should be in scope");
+        assertFalse(bbc.isInScope("https://www.itv.co.uk/"), "Another domain under co.uk should be out of scope");
+        assertFalse(bbc.isInScope("https://co.uk/"), "The public suffix itself should be out of scope");
+        assertFalse(domainScope.isInScope("https://teya.co.uk/"), "teya.co.uk is not teya.com");
+    }
+
+    @Test
+    void testSubdomainGivenAsDomainAllowsWholeRegistrableDomain() {
+        final DomainScope scope = new DomainScope("www.bbc.co.uk");
+
+        assertTrue(scope.isInScope("https://sport.bbc.co.uk/"), "Scope should be widened to bbc.co.uk");
+    }
+
+    @Test
+    void testIpHosts() {
+        final DomainScope ipScope = new DomainScope("192.168.1.1");
+
+        assertTrue(ipScope.isInScope(TestConstants.IP_ADDRESS_URL + "/admin"), "Same IP should be in scope");
+        assertTrue(ipScope.isInScope("http://192.168.1.1:8080/"), "Port should not matter");
+        assertFalse(ipScope.isInScope("http://10.168.1.1/"), "IPs share no registrable domain");
+        assertFalse(domainScope.isInScope(TestConstants.IP_ADDRESS_URL), "An IP is not in a named domain");
+
+        final DomainScope ipv6Scope = new DomainScope("[::1]");
+        assertTrue(ipv6Scope.isInScope("http://[::1]:8080/page"), "IPv6 literal should match");
+        assertFalse(ipv6Scope.isInScope("http://[::2]/"), "Another IPv6 literal should not match");
+    }
+
+    @Test
+    void testAuthorityVariants() {
+        assertTrue(domainScope.isInScope("HTTPS://WWW.TEYA.COM/About"), "Scheme and host are case-insensitive");
+        assertTrue(domainScope.isInScope("https://www.teya.com:8443/x"), "Port should be ignored");
+        assertTrue(domainScope.isInScope("https://user:pw@www.teya.com/"), "User info should be skipped");
+        assertFalse(domainScope.isInScope("https://www.teya.com@evil.com/"), "The host follows the user info");
+        assertTrue(domainScope.isInScope("https://www.teya.com./"), "A fully qualified host should match");
+        assertTrue(domainScope.isInScope("https://teya.com?q=1"), "Query right after the host");
+        assertFalse(domainScope.isInScope("https://evilteya.com/"), "A suffix of the label is not the domain");
+        assertFalse(domainScope.isInScope("https:///path"), "An empty host should be out of scope");
+    }
+
+    @Test
+    void testSeveralDomains() {
+        final DomainScope scope = new DomainScope(List.of("teya.com", "teya.co.uk"), PublicSuffixList.defaultList());
+
+        assertTrue(scope.isInScope(TestConstants.VALID_SEED_URL));
+        assertTrue(scope.isInScope(TestConstants.TEYA_UK_URL));
+        assertFalse(scope.isInScope(TestConstants.OUT_OF_SCOPE_URL));
+    }
+
+    @Test
+    void testBlankDomainRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new DomainScope(" "));
+        assertThrows(IllegalArgumentException.class, () -> new DomainScope((String) null));
+    }
+
     // ----------------------- Tests for extractBaseDomain -----------------------
 
     @Test
@@ -95,6 +155,12 @@ class DomainScopeTest {
         assertEquals("teya.com", domain, "The extracted domain should match for URLs with multiple subdomains");
     }
 
+    @Test
+    void extractDomain_shouldHandleMultiLevelPublicSuffix() throws MalformedURLException {
+        assertEquals("bbc.co.uk", DomainScope.extractBaseDomain("https://www.bbc.co.uk/news"),
+                "The registrable domain under co.uk should be kept whole");
+    }
+
     @Test
     void extractDomain_shouldHandleIpAddress() throws MalformedURLException {
         final String domain = DomainScope.extractBaseDomain(TestConstants.IP_ADDRESS_URL);
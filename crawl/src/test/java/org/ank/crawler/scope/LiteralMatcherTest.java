@@ -0,0 +1,46 @@
+package org.ank.crawler.scope;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests {@link LiteralMatcher}, including literals that overlap or hide inside one another.
+ */
+class LiteralMatcherTest {
+
+    @Test
+    void containsAny_shouldFindEveryLiteral() {
+        final LiteralMatcher matcher = new LiteralMatcher(List.of("he", "she", "his", "hers"));
+
+        assertTrue(matcher.containsAny("ushers", 0, 6));
+        assertTrue(matcher.containsAny("xxhisx", 0, 6));
+        assertFalse(matcher.containsAny("hxsxhx", 0, 6));
+    }
+
+    @Test
+    void containsAny_shouldFollowFailureLinksToShorterLiterals() {
+        // "abcd" fails at 'x'; "bc" ends inside it and must still be reported
+        final LiteralMatcher matcher = new LiteralMatcher(List.of("abcd", "bc"));
+
+        assertTrue(matcher.containsAny("abcx", 0, 4));
+        assertTrue(matcher.containsAny("aabcd", 0, 5));
+        assertFalse(matcher.containsAny("abxd", 0, 4));
+    }
+
+    @Test
+    void containsAny_shouldOnlyLookInsideTheRange() {
+        final LiteralMatcher matcher = new LiteralMatcher(List.of("?sort="));
+        final String uri = "https://example.com/list?sort=asc";
+
+        assertTrue(matcher.containsAny(uri, 0, uri.length()));
+        assertFalse(matcher.containsAny(uri, 0, uri.indexOf('?') + 3));
+    }
+
+    @Test
+    void containsAny_shouldMatchNothingWithoutLiterals() {
+        assertFalse(new LiteralMatcher(List.of()).containsAny("anything", 0, 8));
+    }
+}
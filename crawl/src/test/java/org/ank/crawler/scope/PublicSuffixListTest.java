@@ -0,0 +1,81 @@
+package org.ank.crawler.scope;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests {@link PublicSuffixList}: plain, wildcard and exception rules, and the bundled list.
+ */
+class PublicSuffixListTest {
+
+    private final PublicSuffixList list = PublicSuffixList.of(List.of(
+            "// comment",
+            "com",
+            "uk",
+            "co.uk",
+            "jp",
+            "*.kawasaki.jp",
+            "!city.kawasaki.jp",
+            "",
+            "github.io extra words are ignored",
+            "公司.cn"));
+
+    @Test
+    void registrableDomain_shouldApplyTheLongestRule() {
+        assertEquals("example.com", list.registrableDomain("www.example.com"));
+        assertEquals("bbc.co.uk", list.registrableDomain("a.b.bbc.co.uk"));
+        assertEquals("gov.uk", list.registrableDomain("www.gov.uk"));
+        assertEquals("me.github.io", list.registrableDomain("me.github.io"));
+    }
+
+    @Test
+    void registrableDomain_shouldApplyWildcardsAndExceptions() {
+        assertEquals("shop.town.kawasaki.jp", list.registrableDomain("www.shop.town.kawasaki.jp"));
+        assertEquals("city.kawasaki.jp", list.registrableDomain("www.city.kawasaki.jp"));
+    }
+
+    @Test
+    void registrableDomain_shouldTreatUnknownTldsAsOneLabelSuffixes() {
+        assertEquals("example.test", list.registrableDomain("a.example.test"));
+        assertEquals("localhost", list.registrableDomain("localhost"));
+    }
+
+    @Test
+    void registrableDomain_shouldReturnPublicSuffixesUnchanged() {
+        assertEquals("co.uk", list.registrableDomain("co.uk"));
+        assertEquals("town.kawasaki.jp", list.registrableDomain("town.kawasaki.jp"));
+    }
+
+    @Test
+    void registrableDomain_shouldIgnoreCaseAndTrailingDot() {
+        assertEquals("bbc.co.uk", list.registrableDomain("WWW.BBC.Co.Uk."));
+    }
+
+    @Test
+    void unicodeRules_shouldAlsoMatchPunycodeHosts() {
+        assertEquals("example.xn--55qx5d.cn", list.registrableDomain("www.example.xn--55qx5d.cn"));
+        assertEquals("example.公司.cn", list.registrableDomain("www.example.公司.cn"));
+    }
+
+    @Test
+    void registrableStart_shouldWorkOnARangeOfALargerString() {
+        final String uri = "https://www.bbc.co.uk/news";
+
+        assertEquals(uri.indexOf("bbc"), list.registrableStart(uri, 8, 21));
+        assertEquals(-1, list.registrableStart(uri, uri.indexOf("co.uk"), 21), "co.uk alone is a public suffix");
+    }
+
+    @Test
+    void defaultList_shouldKnowCommonMultiLevelSuffixes() {
+        final PublicSuffixList bundled = PublicSuffixList.defaultList();
+
+        assertTrue(bundled.ruleCount() > 5_000);
+        assertEquals("bbc.co.uk", bundled.registrableDomain("www.bbc.co.uk"));
+        assertEquals("example.com.au", bundled.registrableDomain("shop.example.com.au"));
+        assertEquals("example.co.jp", bundled.registrableDomain("www.example.co.jp"));
+        assertEquals("teya.com", bundled.registrableDomain("portal.teya.com"));
+    }
+}
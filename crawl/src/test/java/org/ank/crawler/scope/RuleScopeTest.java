@@ -0,0 +1,134 @@
+package org.ank.crawler.scope;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests {@link RuleScope}: hosts, path prefixes, substring and regex exclusions, depth, and the rule file format.
+ */
+class RuleScopeTest {
+
+    private static final List<String> RULES = List.of(
+            "# Company sites",
+            "domain teya.com",
+            "domain bbc.co.uk",
+            "host static.example.org",
+            "",
+            "exclude /admin/",
+            "exclude /blog/drafts",
+            "exclude-contains ?sort=",
+            "exclude-contains &sort=",
+            "exclude-regex /\\d{4}/\\d{2}/\\d{2}/",
+            "max-depth 4");
+
+    private final RuleScope scope = RuleScope.parse(RULES);
+
+    @Test
+    void hosts_shouldBeMatchedByDomainOrExactly() {
+        assertTrue(scope.isInScope("https://www.teya.com/"));
+        assertTrue(scope.isInScope("https://news.bbc.co.uk/story"));
+        assertTrue(scope.isInScope("https://STATIC.example.org/logo.png"));
+        assertFalse(scope.isInScope("https://www.example.org/"), "Only the listed host of example.org");
+        assertFalse(scope.isInScope("https://www.itv.co.uk/"));
+        assertFalse(scope.isInScope("ftp://teya.com/file"));
+        assertFalse(scope.isInScope(null));
+    }
+
+    @Test
+    void pathPrefixes_shouldExclude() {
+        assertFalse(scope.isInScope("https://teya.com/admin/users"));
+        assertTrue(scope.isInScope("https://teya.com/administrators"), "/admin/ is not a prefix of /administrators");
+        assertFalse(scope.isInScope("https://teya.com/blog/drafts-2024"));
+        assertTrue(scope.isInScope("https://teya.com/blog/published"));
+    }
+
+    @Test
+    void substringsAndRegexes_shouldExclude() {
+        assertFalse(scope.isInScope("https://teya.com/shop?sort=price"));
+        assertFalse(scope.isInScope("https://teya.com/shop?page=2&sort=price"));
+        assertTrue(scope.isInScope("https://teya.com/shop?page=2"));
+        assertFalse(scope.isInScope("https://teya.com/events/2024/05/17/"));
+        assertTrue(scope.isInScope("https://teya.com/events/2024/"));
+    }
+
+    @Test
+    void maxDepth_shouldCountPathSegments() {
+        assertTrue(scope.isInScope("https://teya.com/a/b/c/d"));
+        assertTrue(scope.isInScope("https://teya.com/a/b/c/d/"));
+        assertFalse(scope.isInScope("https://teya.com/a/b/c/d/e"));
+        assertTrue(scope.isInScope("https://teya.com/a/b/c/d?x=/1/2/3"), "The query is not part of the path");
+    }
+
+    @Test
+    void includes_shouldRestrictPathsAndLongestPrefixShouldWin() {
+        final RuleScope docs = RuleScope.builder()
+                .allowDomain("teya.com")
+                .includePath("/docs/")
+                .excludePath("/docs/internal/")
+                .includePath("/docs/internal/public/")
+                .build();
+
+        assertTrue(docs.isInScope("https://teya.com/docs/start"));
+        assertFalse(docs.isInScope("https://teya.com/pricing"), "Not covered by any include");
+        assertFalse(docs.isInScope("https://teya.com"), "The empty path is / and not included");
+        assertFalse(docs.isInScope("https://teya.com/docs/internal/plans"));
+        assertTrue(docs.isInScope("https://teya.com/docs/internal/public/faq"));
+    }
+
+    @Test
+    void samePrefixIncludedAndExcluded_shouldBeExcluded() {
+        final RuleScope both = RuleScope.builder().allowDomain("teya.com")
+                .includePath("/x/").excludePath("/x/").build();
+
+        assertFalse(both.isInScope("https://teya.com/x/page"));
+    }
+
+    @Test
+    void thousandsOfRules_shouldStillMatchEachOne() {
+        final List<String> rules = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            rules.add("domain site" + i + ".com");
+            rules.add("exclude /section" + i + "/");
+            rules.add("exclude-contains facet" + i + "=");
+        }
+        final RuleScope large = RuleScope.parse(rules);
+
+        assertEquals(15_000, large.ruleCount());
+        assertTrue(large.isInScope("https://www.site4999.com/section5000/page"));
+        assertFalse(large.isInScope("https://www.site4999.com/section4999/page"));
+        assertFalse(large.isInScope("https://site17.com/list?facet123=red"));
+        assertTrue(large.isInScope("https://site17.com/list?facet=red"));
+        assertFalse(large.isInScope("https://site5000.com/"));
+    }
+
+    @Test
+    void parse_shouldRejectInvalidRulesWithTheLineNumber() {
+        final IllegalArgumentException unknown = assertThrows(IllegalArgumentException.class,
+                () -> RuleScope.parse(List.of("domain teya.com", "allow everything")));
+        assertTrue(unknown.getMessage().contains("line 2"), unknown.getMessage());
+
+        assertThrows(IllegalArgumentException.class, () -> RuleScope.parse(List.of("domain teya.com", "exclude admin")));
+        assertThrows(IllegalArgumentException.class, () -> RuleScope.parse(List.of("domain teya.com", "exclude-regex (")));
+        assertThrows(IllegalArgumentException.class, () -> RuleScope.parse(List.of("domain teya.com", "max-depth x")));
+        assertThrows(IllegalArgumentException.class, () -> RuleScope.parse(List.of("exclude /admin/")),
+                "A scope without any host allows nothing");
+    }
+
+    @Test
+    void load_shouldReadARuleFile(@TempDir Path dir) throws IOException {
+        final Path file = Files.write(dir.resolve("scope.rules"), RULES);
+
+        final RuleScope loaded = RuleScope.load(file);
+
+        assertEquals(scope.ruleCount(), loaded.ruleCount());
+        assertTrue(loaded.isInScope("https://www.teya.com/"));
+    }
+}
@@ -0,0 +1,137 @@
+package org.ank.crawler.sink;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests {@link NdjsonResultSink}: the line format, batching, gzip output and concurrent writers.
+ */
+class NdjsonResultSinkTest {
+
+    private static final CrawlResult PAGE =
+            new CrawlResult("https://example.com/a", 200, 2, 5120, 12_345_678, 42);
+
+    @Test
+    void accept_shouldWriteOneJsonObjectPerLine() {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (NdjsonResultSink sink = new NdjsonResultSink(out, 10)) {
+            sink.accept(PAGE);
+            sink.accept(new CrawlResult("https://example.com/\"q\"\\", CrawlResult.NO_RESPONSE,
+                    CrawlResult.UNKNOWN_DEPTH, 0, 999, 0));
+        }
+
+        assertEquals("""
+                {"url":"https://example.com/a","status":200,"depth":2,"bytes":5120,"latencyMs":12.345,"outlinks":42}
+                {"url":"https://example.com/\\"q\\"\\\\","status":0,"depth":null,"bytes":0,"latencyMs":0.000,"outlinks":0}
+                """, out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void accept_shouldWriteEachBatchAsSoonAsItIsFull() {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final NdjsonResultSink sink = new NdjsonResultSink(out, 3);
+
+        sink.accept(PAGE);
+        sink.accept(PAGE);
+        assertEquals(0, out.size(), "A partial batch should stay buffered");
+        sink.accept(PAGE);
+        assertEquals(3, lines(out).size(), "A full batch should be written right away");
+        sink.accept(PAGE);
+        assertEquals(3, lines(out).size());
+
+        sink.close();
+        assertEquals(4, lines(out).size(), "Closing should write the partial batch");
+    }
+
+    @Test
+    void open_shouldGzipFilesEndingInGz(@TempDir Path tempDir) throws IOException {
+        final Path file = tempDir.resolve("results.ndjson.gz");
+        final NdjsonResultSink sink = NdjsonResultSink.open(file);
+        for (int i = 0; i < NdjsonResultSink.DEFAULT_BATCH_SIZE; i++) {
+            sink.accept(PAGE);
+        }
+
+        assertEquals(NdjsonResultSink.DEFAULT_BATCH_SIZE, gunzip(file).lines().count(),
+                "A written batch should be readable before the sink is closed");
+
+        sink.accept(PAGE);
+        sink.close();
+        assertEquals(NdjsonResultSink.DEFAULT_BATCH_SIZE + 1, gunzip(file).lines().count());
+    }
+
+    @Test
+    void accept_shouldKeepLinesWholeUnderConcurrentWriters(@TempDir Path tempDir) throws Exception {
+        final Path file = tempDir.resolve("results.ndjson");
+        final int threads = 8;
+        final int perThread = 1_000;
+        final NdjsonResultSink sink = new NdjsonResultSink(file, false, 16);
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        for (int t = 0; t < threads; t++) {
+            final int thread = t;
+            executor.submit(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    sink.accept(new CrawlResult("https://example.com/" + thread + "/" + i, 200, 1, 10, 1_000, 1));
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+        sink.close();
+
+        final List<String> lines = Files.readAllLines(file);
+        final Set<String> urls = new HashSet<>();
+        for (String line : lines) {
+            assertTrue(line.startsWith("{\"url\":\"https://example.com/") && line.endsWith("\"outlinks\":1}"), line);
+            urls.add(line.substring(8, line.indexOf('"', 8)));
+        }
+        assertEquals(threads * perThread, lines.size());
+        assertEquals(threads * perThread, urls.size(), "Every result should be written exactly once");
+    }
+
+    @Test
+    void accept_shouldDropResultsAfterClose() {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final NdjsonResultSink sink = new NdjsonResultSink(out, 1);
+        sink.close();
+
+        sink.accept(PAGE);
+
+        assertEquals(0, out.size());
+    }
+
+    private static List<String> lines(ByteArrayOutputStream out) {
+        return out.toString(StandardCharsets.UTF_8).lines().toList();
+    }
+
+    // Reads as much as can be decompressed; a stream still being written has no gzip trailer yet
+    private static String gunzip(Path file) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(file))) {
+            final byte[] buffer = new byte[8192];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+        } catch (EOFException e) {
+            // end of what was flushed so far
+        }
+        return out.toString(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,207 @@
+package org.ank.crawler.sitemap;
+
+import org.ank.crawler.frontier.Frontier;
+import org.ank.crawler.processor.Processor;
+import org.ank.crawler.scope.Scope;
+import org.junit.jupiter.api.Test;
+import server.TestSiteServer;
+
+import java.io.ByteArrayInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests {@link SitemapIngester}: discovery, index traversal, batching and scope filtering.
+ */
+class SitemapIngesterTest {
+
+    private static final String SITE = "https://example.com";
+    private static final Scope ALL = uri -> true;
+
+    private final Map<String, byte[]> files = new HashMap<>();
+    private final List<String> opened = new ArrayList<>();
+    private final SitemapSource source = uri -> {
+        opened.add(uri);
+        final byte[] body = files.get(uri);
+        if (body == null) {
+            throw new FileNotFoundException(uri);
+        }
+        return new ByteArrayInputStream(body);
+    };
+    private final RecordingFrontier frontier = new RecordingFrontier();
+
+    @Test
+    void ingest_shouldUseTheSitemapsListedInRobotsTxt() {
+        put("/robots.txt", "User-agent: *\nDisallow: /private\nSitemap: " + SITE + "/pages.xml\n");
+        put("/pages.xml", urlset("/a", "/b"));
+        put("/sitemap.xml", urlset("/never"));
+
+        final long scheduled = new SitemapIngester(source).ingest(SITE + "/start", ALL, frontier);
+
+        assertEquals(2, scheduled);
+        assertEquals(List.of(SITE + "/a", SITE + "/b"), frontier.scheduled);
+        assertFalse(opened.contains(SITE + "/sitemap.xml"));
+    }
+
+    @Test
+    void ingest_shouldFallBackToSitemapXml() {
+        put("/sitemap.xml", urlset("/a"));
+
+        new SitemapIngester(source).ingest(SITE, ALL, frontier);
+
+        assertEquals(List.of(SITE + "/a"), frontier.scheduled);
+    }
+
+    @Test
+    void ingest_shouldScheduleNothingWithoutSitemaps() {
+        assertEquals(0, new SitemapIngester(source).ingest(SITE, ALL, frontier));
+        assertTrue(frontier.batches.isEmpty());
+    }
+
+    @Test
+    void ingest_shouldFollowIndexesOnceEach() {
+        put("/sitemap.xml", index("/index2.xml", "/s1.xml"));
+        put("/index2.xml", index("/sitemap.xml", "/s1.xml", "/s2.xml")); // loops back
+        put("/s1.xml", urlset("/a"));
+        put("/s2.xml", urlset("/b"));
+
+        new SitemapIngester(source).ingest(SITE, ALL, frontier);
+
+        assertEquals(Set.of(SITE + "/a", SITE + "/b"), new HashSet<>(frontier.scheduled));
+        assertEquals(1, opened.stream().filter(uri -> uri.endsWith("/s1.xml")).count());
+        assertEquals(1, opened.stream().filter(uri -> uri.endsWith("/sitemap.xml")).count());
+    }
+
+    @Test
+    void ingest_shouldStopAfterTheMaximumNumberOfSitemaps() {
+        put("/sitemap.xml", index("/s1.xml", "/s2.xml"));
+        put("/s1.xml", urlset("/a"));
+        put("/s2.xml", urlset("/b"));
+
+        new SitemapIngester(source, 10, 2).ingest(SITE, ALL, frontier);
+
+        assertEquals(List.of(SITE + "/a"), frontier.scheduled);
+    }
+
+    @Test
+    void ingest_shouldKeepGoingAfterABrokenSitemap() {
+        put("/sitemap.xml", index("/broken.xml", "/missing.xml", "/s1.xml"));
+        put("/broken.xml", "<urlset><url><loc>" + SITE + "/x</url>");
+        put("/s1.xml", urlset("/a"));
+
+        new SitemapIngester(source).ingest(SITE, ALL, frontier);
+
+        assertTrue(frontier.scheduled.contains(SITE + "/a"));
+    }
+
+    @Test
+    void ingest_shouldScheduleInScopeUrlsInBatches() {
+        final String[] paths = new String[25];
+        for (int i = 0; i < paths.length; i++) {
+            paths[i] = (i % 5 == 0 ? "/out/" : "/in/") + i;
+        }
+        put("/sitemap.xml", urlset(paths));
+
+        final long scheduled = new SitemapIngester(source, 8, 10)
+                .ingest(SITE, uri -> !uri.contains("/out/"), frontier);
+
+        assertEquals(20, scheduled);
+        assertEquals(List.of(8, 8, 4), frontier.batches);
+        assertTrue(frontier.scheduled.stream().noneMatch(uri -> uri.contains("/out/")));
+    }
+
+    @Test
+    void ingest_shouldReadGzippedSitemapsOverHttp() throws IOException {
+        try (TestSiteServer server = new TestSiteServer(10, 3)) {
+            server.setRobotsTxt("Sitemap: " + server.baseUrl() + "/sitemap_index.xml\n");
+            server.addFile("/sitemap_index.xml",
+                    ("<sitemapindex><sitemap><loc>" + server.baseUrl() + "/pages.xml.gz</loc></sitemap>"
+                            + "<sitemap><loc>" + server.baseUrl() + "/gone.xml</loc></sitemap></sitemapindex>")
+                            .getBytes(StandardCharsets.UTF_8));
+            final StringBuilder pages = new StringBuilder("<urlset>");
+            server.expectedUrls().forEach(url -> pages.append("<url><loc>").append(url).append("</loc></url>"));
+            server.addFile("/pages.xml.gz", SitemapReaderTest.gzip(pages.append("</urlset>").toString()));
+
+            new SitemapIngester(new HttpSitemapSource()).ingest(server.baseUrl(), ALL, frontier);
+
+            assertEquals(server.expectedUrls(), new HashSet<>(frontier.scheduled));
+        }
+    }
+
+    @Test
+    void ingest_shouldResolveRelativeRobotsSitemapsAndSkipMalformedLocs() throws IOException {
+        try (TestSiteServer server = new TestSiteServer(10, 3)) {
+            server.setRobotsTxt("Sitemap: /sitemap_index.xml\nSitemap: http://[broken\n");
+            server.addFile("/sitemap_index.xml",
+                    ("<sitemapindex><sitemap><loc>http://[broken/pages.xml</loc></sitemap>"
+                            + "<sitemap><loc>relative/pages.xml</loc></sitemap>"
+                            + "<sitemap><loc>" + server.baseUrl() + "/pages.xml</loc></sitemap></sitemapindex>")
+                            .getBytes(StandardCharsets.UTF_8));
+            final StringBuilder pages = new StringBuilder("<urlset>");
+            server.expectedUrls().forEach(url -> pages.append("<url><loc>").append(url).append("</loc></url>"));
+            server.addFile("/pages.xml", pages.append("</urlset>").toString().getBytes(StandardCharsets.UTF_8));
+
+            new SitemapIngester(new HttpSitemapSource()).ingest(server.baseUrl(), ALL, frontier);
+
+            assertEquals(server.expectedUrls(), new HashSet<>(frontier.scheduled));
+        }
+    }
+
+    private void put(String path, String body) {
+        files.put(SITE + path, body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String urlset(String... paths) {
+        final StringBuilder xml = new StringBuilder("<urlset xmlns=\"http://www.sitemaps.org/schemas/sitemap/0.9\">");
+        for (String path : paths) {
+            xml.append("<url><loc>").append(SITE).append(path).append("</loc></url>");
+        }
+        return xml.append("</urlset>").toString();
+    }
+
+    private static String index(String... paths) {
+        final StringBuilder xml = new StringBuilder("<sitemapindex>");
+        for (String path : paths) {
+            xml.append("<sitemap><loc>").append(SITE).append(path).append("</loc></sitemap>");
+        }
+        return xml.append("</sitemapindex>").toString();
+    }
+
+    /**
+     * Records what is scheduled, batch by batch. Copies each batch, since the ingester reuses its list.
+     */
+    private static final class RecordingFrontier implements Frontier {
+        private final List<String> scheduled = new ArrayList<>();
+        private final List<Integer> batches = new ArrayList<>();
+
+        @Override
+        public void schedule(String uri) {
+            scheduled.add(uri);
+        }
+
+        @Override
+        public void scheduleAll(Collection<String> uris) {
+            batches.add(uris.size());
+            scheduled.addAll(uris);
+        }
+
+        @Override
+        public void start(List<Processor> processors, Scope scope) {
+        }
+
+        @Override
+        public Set<String> getVisited() {
+            return Set.of();
+        }
+    }
+}
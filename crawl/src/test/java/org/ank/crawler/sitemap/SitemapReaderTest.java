@@ -0,0 +1,147 @@
+package org.ank.crawler.sitemap;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests {@link SitemapReader} on url sets, indexes, gzip and hostile input.
+ */
+class SitemapReaderTest {
+
+    private static final String URLSET = """
+            <?xml version="1.0" encoding="UTF-8"?>
+            <urlset xmlns="http://www.sitemaps.org/schemas/sitemap/0.9">
+              <url><loc>https://example.com/a</loc><lastmod>2024-01-01</lastmod></url>
+              <url>
+                <loc>
+                  https://example.com/b?x=1&amp;y=2
+                </loc>
+                <priority>0.5</priority>
+              </url>
+            </urlset>
+            """;
+
+    private final List<String> pages = new ArrayList<>();
+    private final List<String> sitemaps = new ArrayList<>();
+
+    @Test
+    void read_shouldReportTheLocationsOfAUrlSet() throws IOException {
+        SitemapReader.read(stream(URLSET), pages::add, sitemaps::add);
+
+        assertEquals(List.of("https://example.com/a", "https://example.com/b?x=1&y=2"), pages);
+        assertTrue(sitemaps.isEmpty());
+    }
+
+    @Test
+    void read_shouldReportTheSitemapsOfAnIndex() throws IOException {
+        final String index = """
+                <sitemapindex xmlns="http://www.sitemaps.org/schemas/sitemap/0.9">
+                  <sitemap><loc>https://example.com/s1.xml</loc><lastmod>2024-01-01</lastmod></sitemap>
+                  <sitemap><loc>https://example.com/s2.xml.gz</loc></sitemap>
+                </sitemapindex>
+                """;
+
+        SitemapReader.read(stream(index), pages::add, sitemaps::add);
+
+        assertEquals(List.of("https://example.com/s1.xml", "https://example.com/s2.xml.gz"), sitemaps);
+        assertTrue(pages.isEmpty());
+    }
+
+    @Test
+    void read_shouldDecompressGzippedSitemaps() throws IOException {
+        SitemapReader.read(new ByteArrayInputStream(gzip(URLSET)), pages::add, sitemaps::add);
+
+        assertEquals(2, pages.size());
+    }
+
+    @Test
+    void read_shouldIgnoreNamespacesAndLocationsOutsideEntries() throws IOException {
+        final String xml = """
+                <s:urlset xmlns:s="http://www.sitemaps.org/schemas/sitemap/0.9"
+                          xmlns:image="http://www.google.com/schemas/sitemap-image/1.1">
+                  <s:url>
+                    <s:loc>https://example.com/a</s:loc>
+                    <image:image><image:loc>https://example.com/a.png</image:loc></image:image>
+                  </s:url>
+                  <s:url><s:loc>   </s:loc></s:url>
+                </s:urlset>
+                """;
+
+        SitemapReader.read(stream(xml), pages::add, sitemaps::add);
+
+        assertEquals(List.of("https://example.com/a"), pages);
+    }
+
+    @Test
+    void read_shouldNotResolveExternalEntities() {
+        final String xml = """
+                <?xml version="1.0"?>
+                <!DOCTYPE urlset [<!ENTITY xxe SYSTEM "file:///etc/passwd">]>
+                <urlset><url><loc>https://example.com/&xxe;</loc></url></urlset>
+                """;
+
+        assertThrows(IOException.class, () -> SitemapReader.read(stream(xml), pages::add, sitemaps::add));
+        assertTrue(pages.isEmpty());
+    }
+
+    @Test
+    void read_shouldRejectMalformedXml() {
+        assertThrows(IOException.class,
+                () -> SitemapReader.read(stream("<urlset><url><loc>x</url>"), pages::add, sitemaps::add));
+    }
+
+    @Test
+    void read_shouldStreamALargeSitemap() throws IOException {
+        final int count = 200_000;
+        final InputStream header = stream("<urlset xmlns=\"http://www.sitemaps.org/schemas/sitemap/0.9\">");
+        final InputStream footer = stream("</urlset>");
+        final InputStream body = new InputStream() {
+            private int next;
+            private byte[] current = new byte[0];
+            private int position;
+
+            @Override
+            public int read() {
+                if (position == current.length) {
+                    if (next == count) {
+                        return -1;
+                    }
+                    current = ("<url><loc>https://example.com/p/" + next++ + "</loc></url>\n")
+                            .getBytes(StandardCharsets.UTF_8);
+                    position = 0;
+                }
+                return current[position++];
+            }
+        };
+        final AtomicLong seen = new AtomicLong();
+
+        SitemapReader.read(new SequenceInputStream(new SequenceInputStream(header, body), footer),
+                uri -> seen.incrementAndGet(), sitemaps::add);
+
+        assertEquals(count, seen.get());
+    }
+
+    private static InputStream stream(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static byte[] gzip(String text) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+            out.write(text.getBytes(StandardCharsets.UTF_8));
+        }
+        return bytes.toByteArray();
+    }
+}
@@ -0,0 +1,113 @@
+package org.ank.crawler.url;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests {@link StandardUrlCanonicalizer}'s normalization rules.
+ */
+class StandardUrlCanonicalizerTest {
+
+    private final StandardUrlCanonicalizer canonicalizer = new StandardUrlCanonicalizer();
+
+    @ParameterizedTest
+    @CsvSource(delimiter = '|', value = {
+            // scheme and host case, default ports, fragments
+            "https://x.com/a              | https://x.com/a",
+            "HTTPS://X.COM/a              | https://x.com/a",
+            "https://x.com:443/a          | https://x.com/a",
+            "http://x.com:80/a            | http://x.com/a",
+            "https://x.com:8443/a         | https://x.com:8443/a",
+            "http://x.com:443/a           | http://x.com:443/a",
+            "https://x.com:/a             | https://x.com/a",
+            "https://x.com/a#top          | https://x.com/a",
+            "https://x.com                | https://x.com/",
+            "https://x.com#top            | https://x.com/",
+            "https://x.com./a             | https://x.com/a",
+            "https://User@X.com/a         | https://User@x.com/a",
+            "https://[2001:DB8::1]:443/a  | https://[2001:db8::1]/a",
+            // paths keep their case
+            "https://x.com/A/B            | https://x.com/A/B",
+            // dot segments
+            "https://x.com/a/b/../c       | https://x.com/a/c",
+            "https://x.com/a/./b          | https://x.com/a/b",
+            "https://x.com/a/b/..         | https://x.com/a/",
+            "https://x.com/../../a        | https://x.com/a",
+            "https://x.com/a/%2E%2E/b     | https://x.com/b",
+            // percent-encoding
+            "https://x.com/%7Euser        | https://x.com/~user",
+            "https://x.com/a%2fb          | https://x.com/a%2Fb",
+            "https://x.com/a b            | https://x.com/a%20b",
+            "https://x.com/café           | https://x.com/caf%C3%A9",
+            "https://x.com/100%           | https://x.com/100%25",
+            // query parameters
+            "https://x.com/a?utm_source=news&id=1           | https://x.com/a?id=1",
+            "https://x.com/a?b=2&a=1                        | https://x.com/a?a=1&b=2",
+            "https://x.com/a?utm_campaign=x&utm_medium=y    | https://x.com/a",
+            "https://x.com/a?gclid=abc&FBCLID=def&q=crawler | https://x.com/a?q=crawler",
+            "https://x.com/a?                               | https://x.com/a",
+            "https://x.com/a?&&q=1&                         | https://x.com/a?q=1",
+            "https://x.com/a?q=a%2bb&q=%41                  | https://x.com/a?q=a%2Bb&q=A",
+            "https://x.com/a?a=2&a=1                        | https://x.com/a?a=2&a=1",
+            "https://x.com/a?b=1&a=2&a=1                    | https://x.com/a?a=2&a=1&b=1",
+    })
+    void canonicalize_shouldNormalizeUrl(String input, String expected) {
+        assertEquals(expected, canonicalizer.canonicalize(input), "Canonical form of " + input);
+    }
+
+    @Test
+    void canonicalize_shouldMapEquivalentSpellingsToOneUrl() {
+        final Set<String> variants = Set.of("https://x.com/a", "https://X.com/a", "https://x.com/a#top",
+                "https://x.com/a?utm_source=newsletter", "https://x.com:443/a", "https://x.com/b/../a");
+
+        assertEquals(1, variants.stream().map(canonicalizer::canonicalize).distinct().count(),
+                "All variants should share one canonical form");
+    }
+
+    @Test
+    void canonicalize_shouldKeepTrailingSlashByDefault() {
+        assertEquals("https://x.com/a/", canonicalizer.canonicalize("https://x.com/a/"));
+    }
+
+    @Test
+    void canonicalize_shouldRemoveTrailingSlashWhenConfigured() {
+        final StandardUrlCanonicalizer stripping = new StandardUrlCanonicalizer(Set.of(), true);
+
+        assertEquals("https://x.com/a", stripping.canonicalize("https://X.com/a/"));
+        assertEquals("https://x.com/", stripping.canonicalize("https://x.com/"), "The root path keeps its slash");
+    }
+
+    @Test
+    void canonicalize_shouldStripConfiguredParamsOnly() {
+        final StandardUrlCanonicalizer custom = new StandardUrlCanonicalizer(Set.of("sessionid", "sort*"), false);
+
+        assertEquals("https://x.com/a?page=2&utm_source=x",
+                custom.canonicalize("https://x.com/a?sessionid=123&sortOrder=asc&utm_source=x&page=2"));
+    }
+
+    @Test
+    void canonicalize_shouldBeIdempotent() {
+        final String once = canonicalizer.canonicalize("HTTPS://X.com:443/a/./b/../c%7e?z=1&utm_id=2&a=%c3%a9#f");
+
+        assertEquals("https://x.com/a/c~?a=%C3%A9&z=1", once);
+        assertEquals(once, canonicalizer.canonicalize(once), "Canonicalizing twice should change nothing");
+    }
+
+    @Test
+    void canonicalize_shouldLeaveNonHttpUrlsUnchanged() {
+        assertEquals("mailto:Support@Teya.com", canonicalizer.canonicalize("mailto:Support@Teya.com"));
+        assertEquals("ftp://X.com/a#b", canonicalizer.canonicalize("ftp://X.com/a#b"));
+        assertEquals("not a url", canonicalizer.canonicalize("not a url"));
+        assertNull(canonicalizer.canonicalize(null));
+    }
+
+    @Test
+    void canonicalize_shouldLeaveUrlsWithInvalidPortUnchanged() {
+        assertEquals("https://x.com:abc/a", canonicalizer.canonicalize("https://x.com:abc/a"));
+    }
+}
@@ -0,0 +1,150 @@
+package org.ank.crawler.warc;
+
+import org.ank.crawler.fetcher.FetchedContent;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Round-trips {@link WarcWriter} output through {@link WarcReader}: record contents, file rolling and
+ * concurrent writers.
+ */
+class WarcWriterTest {
+
+    @Test
+    void write_shouldRoundTripResponsesThroughTheReader(@TempDir Path tempDir) throws IOException {
+        final WarcWriter writer = new WarcWriter(tempDir, "crawl");
+        writer.write("https://example.com/", new FetchedContent(200, "<html>héllo</html>",
+                Map.of("Content-Type", "text/html; charset=UTF-8", "Content-Encoding", "gzip",
+                        "Content-Length", "9")));
+        writer.write("https://example.com/missing", new FetchedContent(404, "gone"));
+        writer.close();
+
+        assertEquals(1, writer.files().size());
+        final List<WarcRecord> records = WarcReader.readAll(writer.files().getFirst());
+        assertEquals(List.of(WarcRecord.WARCINFO, WarcRecord.RESPONSE, WarcRecord.RESPONSE),
+                records.stream().map(WarcRecord::type).toList());
+        assertEquals(3, writer.recordsWritten());
+
+        final WarcRecord page = records.get(1);
+        assertEquals("https://example.com/", page.targetUri());
+        assertEquals(WarcRecord.HTTP_RESPONSE_CONTENT_TYPE, page.contentType());
+        assertTrue(page.recordId().startsWith("<urn:uuid:"));
+        final String http = new String(page.block(), StandardCharsets.UTF_8);
+        assertTrue(http.startsWith("HTTP/1.1 200 OK\r\n"), http);
+        assertTrue(http.contains("content-type: text/html; charset=utf-8\r\n"));
+        assertTrue(http.contains("content-length: 19\r\n"), "The length should be that of the stored body");
+        assertFalse(http.contains("content-encoding"), "The body is stored decoded");
+        assertTrue(http.endsWith("\r\n\r\n<html>héllo</html>"));
+
+        assertTrue(new String(records.get(2).block(), StandardCharsets.UTF_8).startsWith("HTTP/1.1 404 Not Found\r\n"));
+    }
+
+    @Test
+    void write_shouldKeepRepeatedHeadersAndDescribeTheBodyAsStored(@TempDir Path tempDir) throws IOException {
+        final WarcWriter writer = new WarcWriter(tempDir, "crawl");
+        writer.write("https://example.com/", FetchedContent.of(200, "<p>café</p>", Map.of(
+                "Content-Type", List.of("text/html;charset=\"ISO-8859-1\";level=1"),
+                "Set-Cookie", List.of("a=1; Path=/", "b=2; Path=/"))));
+        writer.close();
+
+        final List<WarcRecord> records = WarcReader.readAll(writer.files().getFirst());
+        final String http = new String(records.get(1).block(), StandardCharsets.UTF_8);
+        assertTrue(http.contains("set-cookie: a=1; Path=/\r\nset-cookie: b=2; Path=/\r\n"), http);
+        assertTrue(http.contains("content-type: text/html;level=1; charset=utf-8\r\n"), http);
+        assertTrue(http.endsWith("\r\n\r\n<p>café</p>"));
+        assertTrue(new String(records.getFirst().block(), StandardCharsets.UTF_8).contains("reconstructed"),
+                "warcinfo should say the responses are not byte for byte");
+    }
+
+    @Test
+    void write_shouldRollFilesBeforeTheyExceedTheSizeLimit(@TempDir Path tempDir) throws IOException {
+        final long maxFileBytes = 8 * 1024;
+        final WarcWriter writer = new WarcWriter(tempDir, "crawl", maxFileBytes, 16);
+        final Random random = new Random(42);
+        for (int i = 0; i < 60; i++) {
+            writer.write("https://example.com/" + i, new FetchedContent(200, randomText(random, 1_500)));
+        }
+        writer.close();
+
+        final List<Path> files = writer.files();
+        assertTrue(files.size() > 5, "60 incompressible 1.5 KB pages should not fit in a few 8 KB files");
+        try (Stream<Path> listed = Files.list(tempDir)) {
+            assertEquals(Set.copyOf(files), Set.copyOf(listed.toList()),
+                    "Every file should be complete, without the .open suffix");
+        }
+        final List<String> uris = new ArrayList<>();
+        for (Path file : files) {
+            assertTrue(file.getFileName().toString().matches("crawl-\\d{17}-\\d{5}\\.warc\\.gz"), file.toString());
+            assertTrue(Files.size(file) <= maxFileBytes, file + " is " + Files.size(file) + " bytes");
+            final List<WarcRecord> records = WarcReader.readAll(file);
+            assertEquals(WarcRecord.WARCINFO, records.getFirst().type(), "Every file should start with warcinfo");
+            records.stream().skip(1).map(WarcRecord::targetUri).forEach(uris::add);
+        }
+        assertEquals(60, uris.size());
+        for (int i = 0; i < 60; i++) {
+            assertEquals("https://example.com/" + i, uris.get(i), "A single writer's records should stay in order");
+        }
+    }
+
+    @Test
+    void write_shouldArchiveEveryRecordFromConcurrentWriters(@TempDir Path tempDir) throws Exception {
+        final WarcWriter writer = new WarcWriter(tempDir, "crawl", 64 * 1024, 4);
+        final ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int t = 0; t < 8; t++) {
+            final int thread = t;
+            executor.submit(() -> {
+                for (int i = 0; i < 200; i++) {
+                    writer.write("https://example.com/" + thread + "/" + i, new FetchedContent(200, "page " + i));
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+        writer.close();
+
+        final Set<String> uris = new HashSet<>();
+        for (Path file : writer.files()) {
+            for (WarcRecord record : WarcReader.readAll(file)) {
+                if (record.type().equals(WarcRecord.RESPONSE)) {
+                    assertTrue(uris.add(record.targetUri()), "Archived twice: " + record.targetUri());
+                }
+            }
+        }
+        assertEquals(1_600, uris.size());
+    }
+
+    @Test
+    void write_shouldBeRejectedAfterClose(@TempDir Path tempDir) {
+        final WarcWriter writer = new WarcWriter(tempDir, "crawl");
+        writer.close();
+
+        assertThrows(IllegalStateException.class,
+                () -> writer.write("https://example.com/", new FetchedContent(200, "late")));
+        assertTrue(writer.files().isEmpty(), "No file should be created without records");
+    }
+
+    private static String randomText(Random random, int length) {
+        final StringBuilder text = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            text.append((char) ('!' + random.nextInt(94)));
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,239 @@
+package server;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * In-process HTTP server for load tests: serves a generated site graph described by a {@link Site}.
+ * <p>
+ * Page {@code i} links to {@code fanOut} pages. The first are its children in a tree
+ * ({@code i * fanOut + 1 .. i * fanOut + fanOut}), so every page is reachable from the root; the rest, on pages
+ * with fewer children, are pseudo-random pages of the site, so the crawler also sees links to pages it already
+ * knows. The graph depends only on the {@link Site}, so runs are comparable.
+ * <p>
+ * Each page is padded with text to {@code pageBytes}, and delayed by between half and one and a half times
+ * {@code latency}, always by the same amount for the same page. A fraction {@code errorRate} of requests,
+ * drawn afresh on each request, is answered 503 so that retries can succeed.
+ */
+public final class SyntheticSiteServer implements AutoCloseable {
+
+    private static final String FILLER = "Lorem ipsum dolor sit amet, consectetur adipiscing elit. ";
+
+    static {
+        // Without TCP_NODELAY, Nagle's algorithm and delayed ACKs add ~40 ms to many responses and swamp the latency
+        // being simulated. Read once, when the JDK server first starts.
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+    }
+
+    private final Site site;
+    private final HttpServer server;
+    private final ExecutorService handlerPool;
+    private final String filler;
+    private final AtomicInteger requestCount = new AtomicInteger();
+    private final AtomicInteger errorCount = new AtomicInteger();
+    // Successful responses per page
+    private final AtomicIntegerArray served;
+
+    /**
+     * The shape of a generated site.
+     *
+     * @param pageCount Number of pages, all reachable from the root.
+     * @param fanOut    Links per page.
+     * @param pageBytes Approximate size of each page body.
+     * @param latency   Mean response delay; each page's delay is fixed between half and 1.5 times this.
+     * @param errorRate Fraction of requests answered 503 Service Unavailable, between 0 and 1.
+     * @param seed      Seed for the cross links and per-page delays.
+     */
+    public record Site(int pageCount, int fanOut, int pageBytes, Duration latency, double errorRate, long seed) {
+
+        public Site {
+            if (pageCount < 1 || fanOut < 1) {
+                throw new IllegalArgumentException("Page count and fan-out must be at least 1");
+            }
+            if (pageBytes < 0 || latency == null || latency.isNegative()) {
+                throw new IllegalArgumentException("Page size and latency must not be negative");
+            }
+            if (errorRate < 0 || errorRate >= 1) {
+                throw new IllegalArgumentException("Error rate must be at least 0 and below 1");
+            }
+        }
+
+        public Site(int pageCount, int fanOut) {
+            this(pageCount, fanOut, 0, Duration.ZERO, 0, 1);
+        }
+    }
+
+    public SyntheticSiteServer(Site site) throws IOException {
+        this.site = site;
+        this.served = new AtomicIntegerArray(site.pageCount());
+        this.filler = FILLER.repeat(site.pageBytes() / FILLER.length() + 1).substring(0, site.pageBytes());
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 512);
+        this.handlerPool = Executors.newCachedThreadPool();
+        server.setExecutor(handlerPool);
+        server.createContext("/", this::handle);
+        server.start();
+    }
+
+    public Site site() {
+        return site;
+    }
+
+    /**
+     * @return Base URL of the site, e.g. {@code http://127.0.0.1:54321}
+     */
+    public String baseUrl() {
+        return "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort();
+    }
+
+    public String pageUrl(int page) {
+        return page == 0 ? baseUrl() + "/" : baseUrl() + "/page/" + page;
+    }
+
+    /**
+     * @return Every URL a complete crawl from {@link #pageUrl(int) pageUrl(0)} should visit.
+     */
+    public Set<String> expectedUrls() {
+        final Set<String> urls = new LinkedHashSet<>();
+        for (int i = 0; i < site.pageCount(); i++) {
+            urls.add(pageUrl(i));
+        }
+        return urls;
+    }
+
+    /**
+     * @return The pages page {@code page} links to, in document order.
+     */
+    public int[] links(int page) {
+        final int[] links = new int[site.fanOut()];
+        final SplittableRandom random = new SplittableRandom(site.seed() * 31 + page);
+        for (int i = 0; i < links.length; i++) {
+            final long child = (long) page * site.fanOut() + i + 1;
+            links[i] = child < site.pageCount() ? (int) child : random.nextInt(site.pageCount());
+        }
+        return links;
+    }
+
+    /**
+     * @return How long the server waits before answering for the given page.
+     */
+    public long delayNanos(int page) {
+        final long mean = site.latency().toNanos();
+        return mean == 0 ? 0 : mean / 2 + new SplittableRandom(~site.seed() * 31 + page).nextLong(mean + 1);
+    }
+
+    public int requestCount() {
+        return requestCount.get();
+    }
+
+    /**
+     * @return Number of requests answered with a simulated 503.
+     */
+    public int errorCount() {
+        return errorCount.get();
+    }
+
+    /**
+     * @return Number of pages served successfully at least once.
+     */
+    public int pagesServed() {
+        int pages = 0;
+        for (int i = 0; i < served.length(); i++) {
+            if (served.get(i) > 0) {
+                pages++;
+            }
+        }
+        return pages;
+    }
+
+    /**
+     * @return Number of successful responses beyond the first for each page, i.e. pages fetched again.
+     */
+    public int duplicateFetches() {
+        int duplicates = 0;
+        for (int i = 0; i < served.length(); i++) {
+            duplicates += Math.max(0, served.get(i) - 1);
+        }
+        return duplicates;
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requestCount.incrementAndGet();
+        try {
+            final int page = pageNumber(exchange.getRequestURI().getPath());
+            if (page < 0) {
+                respond(exchange, 404, "<html><body>Not Found</body></html>");
+                return;
+            }
+            final long delayNanos = delayNanos(page);
+            if (delayNanos > 0) {
+                TimeUnit.NANOSECONDS.sleep(delayNanos);
+            }
+            if (site.errorRate() > 0 && ThreadLocalRandom.current().nextDouble() < site.errorRate()) {
+                errorCount.incrementAndGet();
+                respond(exchange, 503, "<html><body>Service Unavailable</body></html>");
+                return;
+            }
+            served.incrementAndGet(page);
+            respond(exchange, 200, page(page));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private String page(int page) {
+        final StringBuilder html = new StringBuilder(site.pageBytes() + 64 * site.fanOut() + 128)
+                .append("<html><head><title>Page ").append(page).append("</title></head><body><p>");
+        for (int link : links(page)) {
+            html.append("<a href=\"").append(link == 0 ? "/" : "/page/" + link).append("\">Page ").append(link).append("</a> ");
+        }
+        return html.append("</p><p>").append(filler).append("</p></body></html>").toString();
+    }
+
+    private int pageNumber(String path) {
+        if (path.equals("/")) {
+            return 0;
+        }
+        if (!path.startsWith("/page/")) {
+            return -1;
+        }
+        try {
+            final int page = Integer.parseInt(path.substring("/page/".length()));
+            return page > 0 && page < site.pageCount() ? page : -1;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        final byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/html; charset=UTF-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        handlerPool.shutdownNow();
+    }
+}
@@ -0,0 +1,226 @@
+package server;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-process HTTP server used by tests that need to crawl a real site.
+ * <p>
+ * Serves a tree of {@code pageCount} pages where page {@code i} links to pages
+ * {@code i * fanOut + 1 .. i * fanOut + fanOut}, plus one link back to the root and one
+ * off-site link, so dedupe and scope filtering are exercised too.
+ * <p>
+ * An optional per-response delay simulates slow pages; the server records how many
+ * requests it received and the highest number it was serving at once.
+ * <p>
+ * Every page carries an {@code ETag} that changes with {@link #setContentVersion(int)}; a request whose
+ * {@code If-None-Match} still matches is answered 304 Not Modified without a body.
+ */
+public final class TestSiteServer implements AutoCloseable {
+
+    public static final String OFF_SITE_URL = "https://www.outofscope.com/";
+
+    private final HttpServer server;
+    private final ExecutorService handlerPool;
+    private final int pageCount;
+    private final int fanOut;
+    private final AtomicInteger activeRequests = new AtomicInteger();
+    private final AtomicInteger maxConcurrentRequests = new AtomicInteger();
+    private final AtomicInteger requestCount = new AtomicInteger();
+    private final AtomicInteger notModifiedCount = new AtomicInteger();
+    private final Set<InetSocketAddress> clientConnections = ConcurrentHashMap.newKeySet();
+    private volatile long responseDelayMillis;
+    private volatile int contentVersion;
+    private volatile String robotsTxt;
+    private final Map<String, byte[]> files = new ConcurrentHashMap<>();
+
+    public TestSiteServer(int pageCount, int fanOut) throws IOException {
+        this.pageCount = pageCount;
+        this.fanOut = fanOut;
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        this.handlerPool = Executors.newCachedThreadPool();
+        server.setExecutor(handlerPool);
+        server.createContext("/", this::handle);
+        server.start();
+    }
+
+    /**
+     * @return Base URL of the site, e.g. {@code http://127.0.0.1:54321}
+     */
+    public String baseUrl() {
+        return "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort();
+    }
+
+    /**
+     * @return The host the server listens on, usable as a {@code DomainScope} domain.
+     */
+    public String host() {
+        return server.getAddress().getHostString();
+    }
+
+    public String pageUrl(int page) {
+        return page == 0 ? baseUrl() + "/" : baseUrl() + "/page/" + page;
+    }
+
+    /**
+     * @return Every URL a complete crawl from {@link #pageUrl(int) pageUrl(0)} should visit.
+     */
+    public Set<String> expectedUrls() {
+        final Set<String> urls = new LinkedHashSet<>();
+        for (int i = 0; i < pageCount; i++) {
+            urls.add(pageUrl(i));
+        }
+        return urls;
+    }
+
+    /**
+     * Delays every subsequent response by the given time.
+     */
+    public void setResponseDelayMillis(long responseDelayMillis) {
+        this.responseDelayMillis = responseDelayMillis;
+    }
+
+    /**
+     * Changes the ETag of every page, as if the whole site had been edited.
+     */
+    public void setContentVersion(int contentVersion) {
+        this.contentVersion = contentVersion;
+    }
+
+    /**
+     * @return Number of conditional requests answered 304 Not Modified.
+     */
+    public int notModifiedCount() {
+        return notModifiedCount.get();
+    }
+
+    /**
+     * Serves the given robots.txt from now on; without one, {@code /robots.txt} is a 404.
+     */
+    public void setRobotsTxt(String robotsTxt) {
+        this.robotsTxt = robotsTxt;
+    }
+
+    /**
+     * Serves the given bytes at the given path from now on, e.g. a sitemap.
+     */
+    public void addFile(String path, byte[] body) {
+        files.put(path, body);
+    }
+
+    public int requestCount() {
+        return requestCount.get();
+    }
+
+    /**
+     * @return Number of distinct client connections (remote address + port) seen so far.
+     */
+    public int connectionCount() {
+        return clientConnections.size();
+    }
+
+    public int maxConcurrentRequests() {
+        return maxConcurrentRequests.get();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requestCount.incrementAndGet();
+        clientConnections.add(exchange.getRemoteAddress());
+        maxConcurrentRequests.accumulateAndGet(activeRequests.incrementAndGet(), Math::max);
+        try {
+            if (responseDelayMillis > 0) {
+                TimeUnit.MILLISECONDS.sleep(responseDelayMillis);
+            }
+            serve(exchange);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            activeRequests.decrementAndGet();
+        }
+    }
+
+    private void serve(HttpExchange exchange) throws IOException {
+        final String path = exchange.getRequestURI().getPath();
+        if (path.equals("/robots.txt") && robotsTxt != null) {
+            respond(exchange, 200, robotsTxt);
+            return;
+        }
+        final byte[] file = files.get(path);
+        if (file != null) {
+            exchange.sendResponseHeaders(200, file.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(file);
+            }
+            return;
+        }
+        final int page = pageNumber(path);
+        if (page < 0) {
+            respond(exchange, 404, "<html><body>Not Found</body></html>");
+            return;
+        }
+        final String etag = "\"p" + page + "-v" + contentVersion + "\"";
+        exchange.getResponseHeaders().set("ETag", etag);
+        if (etag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+            notModifiedCount.incrementAndGet();
+            exchange.sendResponseHeaders(304, -1);
+            exchange.close();
+            return;
+        }
+
+        final StringBuilder html = new StringBuilder("<html><head><title>Page ")
+                .append(page).append("</title></head><body>");
+        for (int child = page * fanOut + 1; child <= page * fanOut + fanOut && child < pageCount; child++) {
+            // Relative links on odd pages, absolute on even ones
+            final String href = child % 2 == 1 ? "/page/" + child : pageUrl(child);
+            html.append("<a href=\"").append(href).append("\">Page ").append(child).append("</a>");
+        }
+        html.append("<a href=\"/\">Home</a>")
+                .append("<a href=\"").append(OFF_SITE_URL).append("\">Elsewhere</a>")
+                .append("</body></html>");
+        respond(exchange, 200, html.toString());
+    }
+
+    private int pageNumber(String path) {
+        if (path.equals("/")) {
+            return 0;
+        }
+        if (!path.startsWith("/page/")) {
+            return -1;
+        }
+        try {
+            final int page = Integer.parseInt(path.substring("/page/".length()));
+            return page > 0 && page < pageCount ? page : -1;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        final byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/html; charset=UTF-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        handlerPool.shutdownNow();
+    }
+}